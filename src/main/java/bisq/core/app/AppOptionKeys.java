@@ -24,6 +24,7 @@ public class AppOptionKeys {
     public static final String USER_DATA_DIR_KEY = "userDataDir";
     public static final String APP_DATA_DIR_KEY = "appDataDir";
     public static final String PROVIDERS = "providers";
+    public static final String USE_PRICE_FEED_DELTA_REQUESTS = "usePriceFeedDeltaRequests";
     public static final String MAX_MEMORY = "maxMemory";
     public static final String DUMP_STATISTICS = "dumpStatistics";
     public static final String IGNORE_DEV_MSG_KEY = "ignoreDevMsg";
@@ -193,7 +193,8 @@ public class BisqEnvironment extends StandardEnvironment {
     protected final String btcNodes, seedNodes, ignoreDevMsg, useDevPrivilegeKeys, useDevMode, useTorForBtc, rpcUser, rpcPassword,
             rpcPort, rpcBlockNotificationPort, dumpBlockchainData, fullDaoNode,
             myAddress, banList, dumpStatistics, maxMemory, socks5ProxyBtcAddress,
-            socks5ProxyHttpAddress, useAllProvidedNodes, numConnectionForBtc, genesisTxId, genesisBlockHeight, referralId, daoActivated;
+            socks5ProxyHttpAddress, useAllProvidedNodes, numConnectionForBtc, genesisTxId, genesisBlockHeight, referralId, daoActivated,
+            usePriceFeedDeltaRequests;
 
 
     public BisqEnvironment(OptionSet options) {
@@ -249,6 +250,9 @@ public class BisqEnvironment extends StandardEnvironment {
         providers = commandLineProperties.containsProperty(AppOptionKeys.PROVIDERS) ?
                 (String) commandLineProperties.getProperty(AppOptionKeys.PROVIDERS) :
                 "";
+        usePriceFeedDeltaRequests = commandLineProperties.containsProperty(AppOptionKeys.USE_PRICE_FEED_DELTA_REQUESTS) ?
+                (String) commandLineProperties.getProperty(AppOptionKeys.USE_PRICE_FEED_DELTA_REQUESTS) :
+                "";
 
         //NetworkOptionKeys
         seedNodes = commandLineProperties.containsProperty(NetworkOptionKeys.SEED_NODES_KEY) ?
@@ -447,6 +451,7 @@ public class BisqEnvironment extends StandardEnvironment {
                 setProperty(AppOptionKeys.MAX_MEMORY, maxMemory);
                 setProperty(AppOptionKeys.USER_DATA_DIR_KEY, userDataDir);
                 setProperty(AppOptionKeys.PROVIDERS, providers);
+                setProperty(AppOptionKeys.USE_PRICE_FEED_DELTA_REQUESTS, usePriceFeedDeltaRequests);
 
                 setProperty(DaoOptionKeys.RPC_USER, rpcUser);
                 setProperty(DaoOptionKeys.RPC_PASSWORD, rpcPassword);
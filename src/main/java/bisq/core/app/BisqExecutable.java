@@ -26,10 +26,13 @@ import bisq.core.btc.wallet.WalletsSetup;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetup;
 import bisq.core.exceptions.BisqException;
+import bisq.core.notifications.MobileNotificationService;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.setup.CorePersistedDataHost;
 import bisq.core.setup.CoreSetup;
 import bisq.core.trade.TradeManager;
+import bisq.core.user.Preferences;
+import bisq.core.user.User;
 import bisq.core.util.joptsimple.EnumValueConverter;
 
 import bisq.network.NetworkOptionKeys;
@@ -40,7 +43,6 @@ import bisq.common.UserThread;
 import bisq.common.app.AppModule;
 import bisq.common.app.DevEnv;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.setup.GracefulShutDownHandler;
 import bisq.common.storage.CorruptedDatabaseFilesHandler;
 import bisq.common.storage.Storage;
@@ -218,13 +220,13 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
 
     protected void setupPersistedDataHosts(Injector injector) {
         try {
-            PersistedDataHost.apply(CorePersistedDataHost.getPersistedDataHosts(injector));
+            CorePersistedDataHost.readPersisted(injector);
         } catch (Throwable t) {
             // If we are in dev mode we want to get the exception if some db files are corrupted
             // We need to delay it as the stage is not created yet and so popups would not be shown.
             if (DevEnv.isDevMode())
                 UserThread.runAfter(() -> {
-                    log.error("Error at PersistedDataHost.apply: " + t.toString());
+                    log.error("Error at CorePersistedDataHost.readPersisted: " + t.toString());
                     throw t;
                 }, 2);
         }
@@ -252,9 +254,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
     public void gracefulShutDown(ResultHandler resultHandler) {
         try {
             if (injector != null) {
+                injector.getInstance(Preferences.class).flush();
+                injector.getInstance(User.class).flush();
                 injector.getInstance(ArbitratorManager.class).shutDown();
                 injector.getInstance(TradeManager.class).shutDown();
                 injector.getInstance(DaoSetup.class).shutDown();
+                injector.getInstance(MobileNotificationService.class).shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> {
                     injector.getInstance(P2PService.class).shutDown(() -> {
                         injector.getInstance(WalletsSetup.class).shutDownComplete.addListener((ov, o, n) -> {
@@ -371,6 +376,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
         parser.accepts(AppOptionKeys.PROVIDERS,
                 description("Custom providers (comma separated)", false))
                 .withRequiredArg();
+        parser.accepts(AppOptionKeys.USE_PRICE_FEED_DELTA_REQUESTS,
+                description("If set to true we request only the market prices of the price sources which got " +
+                        "updated since the last request. Needs support by the price node, otherwise all market " +
+                        "prices are returned.", false))
+                .withRequiredArg()
+                .ofType(boolean.class);
 
         //BtcOptionKeys
         parser.accepts(BtcOptionKeys.BASE_CURRENCY_NETWORK,
@@ -74,14 +74,12 @@ import javax.inject.Inject;
 
 import com.google.common.net.InetAddresses;
 
-import org.fxmisc.easybind.EasyBind;
-import org.fxmisc.easybind.monadic.MonadicBinding;
-
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 
 import javafx.collections.ListChangeListener;
 import javafx.collections.SetChangeListener;
@@ -97,9 +95,11 @@ import java.io.IOException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -115,6 +115,15 @@ public class BisqSetup {
 
     private static final long STARTUP_TIMEOUT_MINUTES = 4;
 
+    static final String STEP_READ_RESOURCES = "readResources";
+    static final String STEP_TAC = "tac";
+    static final String STEP_LOCALHOST_NODE_CHECK = "localhostNodeCheck";
+    static final String STEP_CRYPTO_CHECK = "cryptoCheck";
+    static final String STEP_OS_ARCHITECTURE_CHECK = "osArchitectureCheck";
+    static final String STEP_WALLET = "wallet";
+    static final String STEP_P2P_NETWORK = "p2pNetwork";
+    static final String STEP_DOMAIN_SERVICES = "domainServices";
+
     private final P2PNetworkSetup p2PNetworkSetup;
     private final WalletAppSetup walletAppSetup;
     private final WalletsManager walletsManager;
@@ -179,8 +188,10 @@ public class BisqSetup {
     private BooleanProperty p2pNetworkReady;
     private final BooleanProperty walletInitialized = new SimpleBooleanProperty();
     private boolean allBasicServicesInitialized;
-    @SuppressWarnings("FieldCanBeLocal")
-    private MonadicBinding<Boolean> p2pNetworkAndWalletInitialized;
+    @Nullable
+    private Timer startupTimeout;
+    @Nullable
+    private ChangeListener<Boolean> walletInitializedListener;
     private List<BisqSetupCompleteListener> bisqSetupCompleteListeners = new ArrayList<>();
 
     @Inject
@@ -263,24 +274,65 @@ public class BisqSetup {
 
     public void start() {
         maybeReSyncSPVChain();
-        maybeShowTac();
+
+        createStartupOrchestrator(UserThread::execute, this::getStartupStep).start();
     }
 
-    private void step2() {
-        checkIfLocalHostNodeIsRunning();
+    // Steps which do not depend on each other run concurrently. E.g. the resource files get read while the TAC
+    // are displayed and the wallet files get loaded while the P2P network is bootstrapping.
+    // The steps are passed by name, so the graph can be tested without the services.
+    static StartupOrchestrator createStartupOrchestrator(Executor executor,
+                                                         Function<String, StartupOrchestrator.Step> stepByName) {
+        StartupOrchestrator orchestrator = new StartupOrchestrator(executor);
+        addStartupStep(orchestrator, stepByName, STEP_READ_RESOURCES);
+        addStartupStep(orchestrator, stepByName, STEP_TAC);
+        addStartupStep(orchestrator, stepByName, STEP_LOCALHOST_NODE_CHECK, STEP_TAC);
+        addStartupStep(orchestrator, stepByName, STEP_CRYPTO_CHECK, STEP_TAC);
+        addStartupStep(orchestrator, stepByName, STEP_OS_ARCHITECTURE_CHECK, STEP_TAC);
+        addStartupStep(orchestrator, stepByName, STEP_WALLET, STEP_LOCALHOST_NODE_CHECK);
+        addStartupStep(orchestrator, stepByName, STEP_P2P_NETWORK, STEP_READ_RESOURCES, STEP_LOCALHOST_NODE_CHECK);
+        addStartupStep(orchestrator, stepByName, STEP_DOMAIN_SERVICES, STEP_WALLET, STEP_P2P_NETWORK);
+        return orchestrator;
     }
 
-    private void step3() {
-        readMapsFromResources();
-        checkCryptoSetup();
-        checkForCorrectOSArchitecture();
+    private static void addStartupStep(StartupOrchestrator orchestrator,
+                                       Function<String, StartupOrchestrator.Step> stepByName,
+                                       String name,
+                                       String... dependencies) {
+        orchestrator.addStep(name, stepByName.apply(name), dependencies);
     }
 
-    private void step4() {
-        startP2pNetworkAndWallet();
+    private StartupOrchestrator.Step getStartupStep(String name) {
+        switch (name) {
+            case STEP_READ_RESOURCES:
+                return this::readMapsFromResources;
+            case STEP_TAC:
+                return this::maybeShowTac;
+            case STEP_LOCALHOST_NODE_CHECK:
+                return this::checkIfLocalHostNodeIsRunning;
+            case STEP_CRYPTO_CHECK:
+                return this::checkCryptoSetup;
+            case STEP_OS_ARCHITECTURE_CHECK:
+                return this::checkForCorrectOSArchitecture;
+            case STEP_WALLET:
+                return this::startWallet;
+            case STEP_P2P_NETWORK:
+                return this::startP2pNetwork;
+            case STEP_DOMAIN_SERVICES:
+                return this::startDomainServices;
+            default:
+                throw new IllegalArgumentException("Unknown startup step " + name);
+        }
     }
 
-    private void step5() {
+    private void startDomainServices(Runnable completeHandler) {
+        if (startupTimeout != null)
+            startupTimeout.stop();
+        if (walletInitializedListener != null)
+            walletInitialized.removeListener(walletInitializedListener);
+        if (displayTorNetworkSettingsHandler != null)
+            displayTorNetworkSettingsHandler.accept(false);
+
         initDomainServices();
 
         bisqSetupCompleteListeners.forEach(BisqSetupCompleteListener::onSetupComplete);
@@ -289,6 +341,8 @@ public class BisqSetup {
         // in MainViewModel
         maybeShowSecurityRecommendation();
         maybeShowLocalhostRunningInfo();
+
+        completeHandler.run();
     }
 
 
@@ -378,19 +432,19 @@ public class BisqSetup {
         }
     }
 
-    private void maybeShowTac() {
+    private void maybeShowTac(Runnable completeHandler) {
         if (!preferences.isTacAccepted() && !DevEnv.isDevMode()) {
             if (displayTacHandler != null)
                 displayTacHandler.accept(() -> {
                     preferences.setTacAccepted(true);
-                    step2();
+                    completeHandler.run();
                 });
         } else {
-            step2();
+            completeHandler.run();
         }
     }
 
-    private void checkIfLocalHostNodeIsRunning() {
+    private void checkIfLocalHostNodeIsRunning(Runnable completeHandler) {
         Thread checkIfLocalHostNodeIsRunningThread = new Thread(() -> {
             Thread.currentThread().setName("checkIfLocalHostNodeIsRunningThread");
             Socket socket = null;
@@ -401,11 +455,11 @@ public class BisqSetup {
                 log.info("Localhost Bitcoin node detected.");
                 UserThread.execute(() -> {
                     bisqEnvironment.setBitcoinLocalhostNodeRunning(true);
-                    step3();
+                    completeHandler.run();
                 });
             } catch (Throwable e) {
                 log.info("Localhost Bitcoin node not detected.");
-                UserThread.execute(BisqSetup.this::step3);
+                completeHandler.run();
             } finally {
                 if (socket != null) {
                     try {
@@ -418,14 +472,11 @@ public class BisqSetup {
         checkIfLocalHostNodeIsRunningThread.start();
     }
 
-    private void readMapsFromResources() {
-        SetupUtils.readFromResources(p2PService.getP2PDataStorage()).addListener((observable, oldValue, newValue) -> {
-            if (newValue)
-                step4();
-        });
+    private void readMapsFromResources(Runnable completeHandler) {
+        runWhenTrue(SetupUtils.readFromResources(p2PService.getP2PDataStorage()), completeHandler);
     }
 
-    private void checkCryptoSetup() {
+    private void checkCryptoSetup(Runnable completeHandler) {
         // We want to test if the client is compiled with the correct crypto provider (BountyCastle)
         // and if the unlimited Strength for cryptographic keys is set.
         // If users compile themselves they might miss that step and then would get an exception in the trade.
@@ -456,19 +507,30 @@ public class BisqSetup {
                 log.error(msg);
                 if (cryptoSetupFailedHandler != null)
                     cryptoSetupFailedHandler.accept(msg);
+            } finally {
+                completeHandler.run();
             }
         });
         checkCryptoThread.start();
     }
 
-    private void startP2pNetworkAndWallet() {
-        ChangeListener<Boolean> walletInitializedListener = (observable, oldValue, newValue) -> {
+    private void startWallet(Runnable completeHandler) {
+        // We only init wallet service here if not using Tor for bitcoinj.
+        // When using Tor, wallet init must be deferred until Tor is ready and gets triggered by the P2P network setup.
+        if (!preferences.getUseTorForBitcoinJ() || bisqEnvironment.isBitcoinLocalhostNodeRunning()) {
+            initWallet();
+        }
+        runWhenTrue(walletInitialized, completeHandler);
+    }
+
+    private void startP2pNetwork(Runnable completeHandler) {
+        walletInitializedListener = (observable, oldValue, newValue) -> {
             // TODO that seems to be called too often if Tor takes longer to start up...
             if (newValue && !p2pNetworkReady.get() && displayTorNetworkSettingsHandler != null)
                 displayTorNetworkSettingsHandler.accept(true);
         };
 
-        Timer startupTimeout = UserThread.runAfter(() -> {
+        startupTimeout = UserThread.runAfter(() -> {
             log.warn("startupTimeout called");
             if (walletsManager.areWalletsEncrypted())
                 walletInitialized.addListener(walletInitializedListener);
@@ -477,33 +539,13 @@ public class BisqSetup {
         }, STARTUP_TIMEOUT_MINUTES, TimeUnit.MINUTES);
 
         p2pNetworkReady = p2PNetworkSetup.init(this::initWallet, displayTorNetworkSettingsHandler);
-
-        // We only init wallet service here if not using Tor for bitcoinj.
-        // When using Tor, wallet init must be deferred until Tor is ready.
-        if (!preferences.getUseTorForBitcoinJ() || bisqEnvironment.isBitcoinLocalhostNodeRunning()) {
-            initWallet();
-        }
-
-        // need to store it to not get garbage collected
-        p2pNetworkAndWalletInitialized = EasyBind.combine(walletInitialized, p2pNetworkReady,
-                (a, b) -> {
-                    log.info("walletInitialized={}, p2pNetWorkReady={}", a, b);
-                    return a && b;
-                });
-        p2pNetworkAndWalletInitialized.subscribe((observable, oldValue, newValue) -> {
-            if (newValue) {
-                startupTimeout.stop();
-                walletInitialized.removeListener(walletInitializedListener);
-                if (displayTorNetworkSettingsHandler != null)
-                    displayTorNetworkSettingsHandler.accept(false);
-                step5();
-            }
-        });
+        runWhenTrue(p2pNetworkReady, completeHandler);
     }
 
     private void initWallet() {
         Runnable walletPasswordHandler = () -> {
-            if (p2pNetworkReady.get())
+            // The wallet might get initialized before the P2P network setup has started
+            if (p2pNetworkReady != null && p2pNetworkReady.get())
                 p2PNetworkSetup.setSplashP2PNetworkAnimationVisible(true);
 
             if (requestWalletPasswordHandler != null) {
@@ -546,7 +588,7 @@ public class BisqSetup {
                 });
     }
 
-    private void checkForCorrectOSArchitecture() {
+    private void checkForCorrectOSArchitecture(Runnable completeHandler) {
         if (!Utilities.isCorrectOSArchitecture() && wrongOSArchitectureHandler != null) {
             String osArchitecture = Utilities.getOSArchitecture();
             // We don't force a shutdown as the osArchitecture might in strange cases return a wrong value.
@@ -556,6 +598,7 @@ public class BisqSetup {
                     Utilities.getJVMArchitecture(),
                     osArchitecture));
         }
+        completeHandler.run();
     }
 
     private void initDomainServices() {
@@ -655,4 +698,20 @@ public class BisqSetup {
                 displayLocalhostHandler != null)
             displayLocalhostHandler.accept(key);
     }
+
+    private static void runWhenTrue(BooleanProperty property, Runnable handler) {
+        if (property.get()) {
+            handler.run();
+        } else {
+            property.addListener(new ChangeListener<Boolean>() {
+                @Override
+                public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+                    if (newValue) {
+                        property.removeListener(this);
+                        handler.run();
+                    }
+                }
+            });
+        }
+    }
 }
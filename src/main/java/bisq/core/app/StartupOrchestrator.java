@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Runs the startup steps as soon as all the steps they depend on are completed, so independent steps (e.g. reading
+ * the resource files and loading the wallet) overlap instead of waiting for each other.
+ * A step signals its completion by calling the complete handler, which can be called from any thread. Steps get
+ * started and completed on the executor (user thread), so the orchestrator itself does not need any locking.
+ * The wall time from start to completion is recorded for each step.
+ */
+@Slf4j
+class StartupOrchestrator {
+    interface Step {
+        void run(Runnable completeHandler);
+    }
+
+    private static class StepEntry {
+        private final String name;
+        private final Step step;
+        private final List<StepEntry> dependencies;
+        private boolean started;
+        private boolean completed;
+        private long startTime;
+        private long duration;
+
+        private StepEntry(String name, Step step, List<StepEntry> dependencies) {
+            this.name = name;
+            this.step = step;
+            this.dependencies = dependencies;
+        }
+
+        private boolean isReady() {
+            return !started && dependencies.stream().allMatch(dependency -> dependency.completed);
+        }
+    }
+
+    private final Executor executor;
+    private final Map<String, StepEntry> stepByName = new LinkedHashMap<>();
+    private boolean started;
+    private long startTime;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    StartupOrchestrator(Executor executor) {
+        this.executor = executor;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Dependencies need to be added before the steps depending on them, so there cannot be any cycles.
+    StartupOrchestrator addStep(String name, Step step, String... dependencies) {
+        checkState(!started, "Steps must be added before start is called");
+        checkArgument(!stepByName.containsKey(name), "Step %s is already added", name);
+        List<StepEntry> dependencyEntries = new ArrayList<>();
+        Arrays.stream(dependencies).forEach(dependency -> {
+            checkArgument(stepByName.containsKey(dependency),
+                    "Dependency %s of step %s must be added before", dependency, name);
+            dependencyEntries.add(stepByName.get(dependency));
+        });
+        stepByName.put(name, new StepEntry(name, step, dependencyEntries));
+        return this;
+    }
+
+    // Must be called on the executor thread
+    void start() {
+        checkState(!started, "Already started");
+        started = true;
+        startTime = System.currentTimeMillis();
+        startReadySteps();
+    }
+
+    boolean isCompleted(String name) {
+        StepEntry entry = stepByName.get(name);
+        return entry != null && entry.completed;
+    }
+
+    boolean isCompleted() {
+        return stepByName.values().stream().allMatch(entry -> entry.completed);
+    }
+
+    // Wall time in ms of the completed steps in the order they have been added
+    Map<String, Long> getDurations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        stepByName.values().stream()
+                .filter(entry -> entry.completed)
+                .forEach(entry -> durations.put(entry.name, entry.duration));
+        return durations;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void startReadySteps() {
+        List<StepEntry> readySteps = stepByName.values().stream()
+                .filter(StepEntry::isReady)
+                .collect(Collectors.toList());
+        // We mark all as started first as a step might complete synchronously
+        readySteps.forEach(entry -> {
+            entry.started = true;
+            entry.startTime = System.currentTimeMillis();
+        });
+        readySteps.forEach(entry -> {
+            log.info("Start startup step {}", entry.name);
+            entry.step.run(() -> executor.execute(() -> onStepCompleted(entry)));
+        });
+    }
+
+    private void onStepCompleted(StepEntry entry) {
+        if (entry.completed)
+            return;
+
+        entry.completed = true;
+        entry.duration = System.currentTimeMillis() - entry.startTime;
+        log.info("Startup step {} completed after {} ms", entry.name, entry.duration);
+
+        if (isCompleted())
+            log.info("Startup completed after {} ms. Step durations in ms: {}",
+                    System.currentTimeMillis() - startTime, getDurations());
+        else
+            startReadySteps();
+    }
+}
@@ -26,6 +26,7 @@ import bisq.network.p2p.BootstrapListener;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.storage.HashMapChangedListener;
+import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.Timer;
@@ -52,7 +53,9 @@ import java.math.BigInteger;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -62,6 +65,8 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import lombok.Value;
+
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
@@ -79,6 +84,19 @@ public class ArbitratorManager {
     private static final long RETRY_REPUBLISH_SEC = 5;
     private static final long REPEATED_REPUBLISH_AT_STARTUP_SEC = 60;
 
+    @Value
+    private static class RegistrationKey {
+        private final P2PDataStorage.ByteArray registrationPubKey;
+        private final PublicKey signaturePubKey;
+        private final String registrationSignature;
+
+        RegistrationKey(Arbitrator arbitrator) {
+            registrationPubKey = new P2PDataStorage.ByteArray(arbitrator.getRegistrationPubKey());
+            signaturePubKey = arbitrator.getPubKeyRing().getSignaturePubKey();
+            registrationSignature = arbitrator.getRegistrationSignature();
+        }
+    }
+
     private final List<String> publicKeys;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -91,6 +109,8 @@ public class ArbitratorManager {
     private final Preferences preferences;
     private final FilterManager filterManager;
     private final ObservableMap<NodeAddress, Arbitrator> arbitratorsObservableMap = FXCollections.observableHashMap();
+    // Result of the registration check by the registration data of the arbitrator
+    private final Map<RegistrationKey, Boolean> verifiedRegistrations = new HashMap<>();
     private List<Arbitrator> persistedAcceptedArbitrators;
     private Timer republishArbitratorTimer, retryRepublishArbitratorTimer;
 
@@ -147,25 +167,29 @@ public class ArbitratorManager {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
                 if (data.getProtectedStoragePayload() instanceof Arbitrator)
-                    updateArbitratorMap();
+                    onArbitratorAdded((Arbitrator) data.getProtectedStoragePayload());
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
                 if (data.getProtectedStoragePayload() instanceof Arbitrator) {
-                    updateArbitratorMap();
                     final Arbitrator arbitrator = (Arbitrator) data.getProtectedStoragePayload();
-                    user.removeAcceptedArbitrator(arbitrator);
-                    user.removeAcceptedMediator(getMediator(arbitrator));
+                    onArbitratorRemoved(arbitrator);
+                    user.batch(() -> {
+                        user.removeAcceptedArbitrator(arbitrator);
+                        user.removeAcceptedMediator(getMediator(arbitrator));
+                    });
                 }
             }
         });
 
         persistedAcceptedArbitrators = new ArrayList<>(user.getAcceptedArbitrators());
-        user.clearAcceptedArbitrators();
+        user.batch(() -> {
+            user.clearAcceptedArbitrators();
 
-        // TODO we mirror arbitrator data for mediator as long we have not impl. it in the UI
-        user.clearAcceptedMediators();
+            // TODO we mirror arbitrator data for mediator as long we have not impl. it in the UI
+            user.clearAcceptedMediators();
+        });
 
         if (user.getRegisteredArbitrator() != null) {
             P2PService p2PService = arbitratorService.getP2PService();
@@ -197,64 +221,91 @@ public class ArbitratorManager {
         Map<NodeAddress, Arbitrator> map = arbitratorService.getArbitrators();
         arbitratorsObservableMap.clear();
         Map<NodeAddress, Arbitrator> filtered = map.values().stream()
-                .filter(e -> {
-                    final String pubKeyAsHex = Utils.HEX.encode(e.getRegistrationPubKey());
-                    final boolean isInPublicKeyInList = isPublicKeyInList(pubKeyAsHex);
-                    if (!isInPublicKeyInList) {
-                        if (DevEnv.DEV_PRIVILEGE_PUB_KEY.equals(pubKeyAsHex))
-                            log.info("We got the DEV_PRIVILEGE_PUB_KEY in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
-                                    Utilities.bytesAsHexString(e.getRegistrationPubKey()),
-                                    e.getNodeAddress().getFullAddress());
-                        else
-                            log.warn("We got an arbitrator which is not in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
-                                    Utilities.bytesAsHexString(e.getRegistrationPubKey()),
-                                    e.getNodeAddress().getFullAddress());
-                    }
-                    final boolean isSigValid = verifySignature(e.getPubKeyRing().getSignaturePubKey(),
-                            e.getRegistrationPubKey(),
-                            e.getRegistrationSignature());
-                    if (!isSigValid)
-                        log.warn("Sig check for arbitrator failed. Arbitrator=", e.toString());
-
-                    return isInPublicKeyInList && isSigValid;
-                })
+                .filter(this::isRegistrationValid)
                 .collect(Collectors.toMap(Arbitrator::getNodeAddress, Function.identity()));
 
         arbitratorsObservableMap.putAll(filtered);
-        arbitratorsObservableMap.values().stream()
-                .filter(persistedAcceptedArbitrators::contains)
-                .forEach(a -> {
-                    user.addAcceptedArbitrator(a);
-                    user.addAcceptedMediator(getMediator(a)
-                    );
-                });
+        applyAcceptedArbitrators(arbitratorsObservableMap.values());
+    }
 
-        if (preferences.isAutoSelectArbitrators()) {
-            arbitratorsObservableMap.values().stream()
-                    .filter(user::hasMatchingLanguage)
-                    .forEach(a -> {
-                        user.addAcceptedArbitrator(a);
-                        user.addAcceptedMediator(getMediator(a)
-                        );
-                    });
-        } else {
+    // We only process the changed entry instead of rebuilding the whole map
+    private void onArbitratorAdded(Arbitrator arbitrator) {
+        if (arbitratorService.isArbitratorBanned(arbitrator) || !isRegistrationValid(arbitrator))
+            return;
+
+        NodeAddress nodeAddress = arbitrator.getNodeAddress();
+        Arbitrator existing = arbitratorsObservableMap.get(nodeAddress);
+        if (existing != null && !existing.equals(arbitrator)) {
+            log.warn("arbitratorAddress already exist in arbitrator map. Seems an arbitrator object is already registered with the same address.");
+            return;
+        }
+
+        arbitratorsObservableMap.put(nodeAddress, arbitrator);
+        applyAcceptedArbitrators(Collections.singletonList(arbitrator));
+    }
+
+    private void onArbitratorRemoved(Arbitrator arbitrator) {
+        if (arbitrator.equals(arbitratorsObservableMap.get(arbitrator.getNodeAddress())))
+            arbitratorsObservableMap.remove(arbitrator.getNodeAddress());
+        verifiedRegistrations.remove(new RegistrationKey(arbitrator));
+    }
+
+    // Adds the matching arbitrators to the user's accepted arbitrators with a single write
+    private void applyAcceptedArbitrators(Collection<Arbitrator> arbitrators) {
+        List<Arbitrator> toAccept = arbitrators.stream()
+                .filter(a -> persistedAcceptedArbitrators.contains(a) ||
+                        (preferences.isAutoSelectArbitrators() && user.hasMatchingLanguage(a)))
+                .collect(Collectors.toList());
+        addAcceptedArbitrators(toAccept);
+
+        if (!preferences.isAutoSelectArbitrators()) {
             // if we don't have any arbitrator we set all matching
             // we use a delay as we might get our matching arbitrator a bit delayed (first we get one we did not selected
             // then we get our selected one - we don't want to activate the first in that case)
             UserThread.runAfter(() -> {
                 if (user.getAcceptedArbitrators().isEmpty()) {
-                    arbitratorsObservableMap.values().stream()
+                    addAcceptedArbitrators(arbitratorsObservableMap.values().stream()
                             .filter(user::hasMatchingLanguage)
-                            .forEach(a -> {
-                                user.addAcceptedArbitrator(a);
-                                user.addAcceptedMediator(getMediator(a)
-                                );
-                            });
+                            .collect(Collectors.toList()));
                 }
             }, 100, TimeUnit.MILLISECONDS);
         }
     }
 
+    private void addAcceptedArbitrators(List<Arbitrator> arbitrators) {
+        if (!arbitrators.isEmpty()) {
+            List<Mediator> mediators = arbitrators.stream()
+                    .map(ArbitratorManager::getMediator)
+                    .collect(Collectors.toList());
+            user.addAcceptedArbitratorsAndMediators(arbitrators, mediators);
+        }
+    }
+
+    // The registration data of an arbitrator does not change, so we cache the result of the signature check.
+    boolean isRegistrationValid(Arbitrator arbitrator) {
+        return verifiedRegistrations.computeIfAbsent(new RegistrationKey(arbitrator), key -> {
+            final String pubKeyAsHex = Utils.HEX.encode(arbitrator.getRegistrationPubKey());
+            final boolean isInPublicKeyInList = isPublicKeyInList(pubKeyAsHex);
+            if (!isInPublicKeyInList) {
+                if (DevEnv.DEV_PRIVILEGE_PUB_KEY.equals(pubKeyAsHex))
+                    log.info("We got the DEV_PRIVILEGE_PUB_KEY in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
+                            Utilities.bytesAsHexString(arbitrator.getRegistrationPubKey()),
+                            arbitrator.getNodeAddress().getFullAddress());
+                else
+                    log.warn("We got an arbitrator which is not in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
+                            Utilities.bytesAsHexString(arbitrator.getRegistrationPubKey()),
+                            arbitrator.getNodeAddress().getFullAddress());
+            }
+            final boolean isSigValid = verifySignature(arbitrator.getPubKeyRing().getSignaturePubKey(),
+                    arbitrator.getRegistrationPubKey(),
+                    arbitrator.getRegistrationSignature());
+            if (!isSigValid)
+                log.warn("Sig check for arbitrator failed. Arbitrator=", arbitrator.toString());
+
+            return isInPublicKeyInList && isSigValid;
+        });
+    }
+
     // TODO we mirror arbitrator data for mediator as long we have not impl. it in the UI
     @NotNull
     public static Mediator getMediator(Arbitrator arbitrator) {
@@ -355,7 +406,7 @@ public class ArbitratorManager {
         }
     }
 
-    private boolean verifySignature(PublicKey storageSignaturePubKey, byte[] registrationPubKey, String signature) {
+    boolean verifySignature(PublicKey storageSignaturePubKey, byte[] registrationPubKey, String signature) {
         String keyToSignAsHex = Utils.HEX.encode(storageSignaturePubKey.getEncoded());
         try {
             ECKey key = ECKey.fromPublicOnly(registrationPubKey);
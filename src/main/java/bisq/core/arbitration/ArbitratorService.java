@@ -40,6 +40,8 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 /**
  * Used to store arbitrators profile and load map of arbitrators
  */
@@ -100,7 +102,7 @@ public class ArbitratorService {
     }
 
     public Map<NodeAddress, Arbitrator> getArbitrators() {
-        final List<String> bannedArbitrators = filterManager.getFilter() != null ? filterManager.getFilter().getArbitrators() : null;
+        final List<String> bannedArbitrators = getBannedArbitrators();
         if (bannedArbitrators != null)
             log.warn("bannedArbitrators=" + bannedArbitrators);
         Set<Arbitrator> arbitratorSet = p2PService.getDataMap().values().stream()
@@ -120,4 +122,14 @@ public class ArbitratorService {
         }
         return map;
     }
+
+    public boolean isArbitratorBanned(Arbitrator arbitrator) {
+        final List<String> bannedArbitrators = getBannedArbitrators();
+        return bannedArbitrators != null && bannedArbitrators.contains(arbitrator.getNodeAddress().getHostName());
+    }
+
+    @Nullable
+    private List<String> getBannedArbitrators() {
+        return filterManager.getFilter() != null ? filterManager.getFilter().getArbitrators() : null;
+    }
 }
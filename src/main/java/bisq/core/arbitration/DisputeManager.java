@@ -33,6 +33,7 @@ import bisq.core.btc.wallet.WalletsSetup;
 import bisq.core.locale.Res;
 import bisq.core.offer.OpenOffer;
 import bisq.core.offer.OpenOfferManager;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 import bisq.core.trade.Contract;
 import bisq.core.trade.Tradable;
 import bisq.core.trade.Trade;
@@ -54,7 +55,6 @@ import bisq.common.crypto.PubKeyRing;
 import bisq.common.handlers.FaultHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.network.NetworkEnvelope;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 import bisq.common.util.Tuple2;
@@ -96,7 +96,7 @@ import lombok.Getter;
 
 import javax.annotation.Nullable;
 
-public class DisputeManager implements PersistedDataHost {
+public class DisputeManager implements ConcurrentPersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(DisputeManager.class);
 
     private final TradeWalletService tradeWalletService;
@@ -169,10 +169,13 @@ public class DisputeManager implements PersistedDataHost {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
-    public void readPersisted() {
-        disputes = new DisputeList(disputeStorage);
-        disputes.readPersisted();
-        disputes.stream().forEach(dispute -> dispute.setStorage(disputeStorage));
+    public Runnable readStore() {
+        DisputeList persisted = new DisputeList(disputeStorage);
+        persisted.readPersisted();
+        return () -> {
+            disputes = persisted;
+            disputes.stream().forEach(dispute -> dispute.setStorage(disputeStorage));
+        };
     }
 
     public void onAllServicesInitialized() {
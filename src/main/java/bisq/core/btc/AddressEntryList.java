@@ -17,8 +17,9 @@
 
 package bisq.core.btc;
 
+import bisq.core.setup.ConcurrentPersistedDataHost;
+
 import bisq.common.proto.persistable.PersistableEnvelope;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
@@ -44,7 +45,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @ToString
 @Slf4j
-public final class AddressEntryList implements PersistableEnvelope, PersistedDataHost {
+public final class AddressEntryList implements PersistableEnvelope, ConcurrentPersistedDataHost {
     transient private Storage<AddressEntryList> storage;
     transient private Wallet wallet;
     @Getter
@@ -56,10 +57,12 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     @Override
-    public void readPersisted() {
+    public Runnable readStore() {
         AddressEntryList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
-            list = new ArrayList<>(persisted.getList());
+        return () -> {
+            if (persisted != null)
+                list = new ArrayList<>(persisted.getList());
+        };
     }
 
 
@@ -104,10 +104,12 @@ public class BsqWalletService extends WalletService implements BsqStateListener
                             NonBsqCoinSelector nonBsqCoinSelector,
                             BsqStateService bsqStateService,
                             Preferences preferences,
-                            FeeService feeService) {
+                            FeeService feeService,
+                            TxBroadcaster txBroadcaster) {
         super(walletsSetup,
                 preferences,
-                feeService);
+                feeService,
+                txBroadcaster);
 
         this.bsqCoinSelector = bsqCoinSelector;
         this.nonBsqCoinSelector = nonBsqCoinSelector;
@@ -83,10 +83,12 @@ public class BtcWalletService extends WalletService {
     public BtcWalletService(WalletsSetup walletsSetup,
                             AddressEntryList addressEntryList,
                             Preferences preferences,
-                            FeeService feeService) {
+                            FeeService feeService,
+                            TxBroadcaster txBroadcaster) {
         super(walletsSetup,
                 preferences,
-                feeService);
+                feeService,
+                txBroadcaster);
 
         this.addressEntryList = addressEntryList;
 
@@ -115,6 +115,7 @@ public class TradeWalletService {
     private static final Logger log = LoggerFactory.getLogger(TradeWalletService.class);
 
     private final WalletsSetup walletsSetup;
+    private final TxBroadcaster txBroadcaster;
     private final NetworkParameters params;
 
     @Nullable
@@ -130,8 +131,9 @@ public class TradeWalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public TradeWalletService(WalletsSetup walletsSetup) {
+    public TradeWalletService(WalletsSetup walletsSetup, TxBroadcaster txBroadcaster) {
         this.walletsSetup = walletsSetup;
+        this.txBroadcaster = txBroadcaster;
         this.params = BisqEnvironment.getParameters();
         walletsSetup.addSetupCompletedHandler(() -> {
             walletConfig = walletsSetup.getWalletConfig();
@@ -1072,12 +1074,12 @@ public class TradeWalletService {
 
     public void broadcastTx(Transaction tx, TxBroadcaster.Callback callback) {
         checkNotNull(walletConfig);
-        TxBroadcaster.broadcastTx(wallet, walletConfig.peerGroup(), tx, callback);
+        txBroadcaster.broadcastTx(wallet, walletConfig.peerGroup(), tx, callback);
     }
 
     public void broadcastTx(Transaction tx, TxBroadcaster.Callback callback, int timeoutInSec) {
         checkNotNull(walletConfig);
-        TxBroadcaster.broadcastTx(wallet, walletConfig.peerGroup(), tx, callback, timeoutInSec);
+        txBroadcaster.broadcastTx(wallet, walletConfig.peerGroup(), tx, callback, timeoutInSec);
     }
 
 
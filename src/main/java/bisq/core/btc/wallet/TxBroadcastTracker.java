@@ -0,0 +1,289 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import org.bitcoinj.core.Transaction;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import javax.inject.Inject;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+
+/**
+ * Tracks the outstanding tx broadcasts. The broadcast result is reported from the bitcoinj threads and the timeout
+ * from the user thread, so all state is guarded by this. A broadcast gets resolved exactly once by whichever of
+ * result or timeout comes first.
+ * For the last MAX_STATS broadcasts we keep the number of peers which have announced the tx back to us (peer acks),
+ * the time to the first peer ack and the time to the first confirmation.
+ */
+@Slf4j
+public class TxBroadcastTracker {
+    static final int MAX_STATS = 100;
+
+    // Abstraction of the PeerGroup so we can use a local mock in tests
+    interface PeerGroupBroadcaster {
+        ListenableFuture<Transaction> broadcastTransaction(Transaction tx);
+    }
+
+    interface Scheduler {
+        // Returns the handler for cancelling the task
+        Runnable schedule(Runnable task, long delayMs);
+    }
+
+    // Snapshot of the stats of a broadcast. Times are in ms, -1 if the event has not happened yet.
+    @Value
+    static class BroadcastStats {
+        private final String txId;
+        private final long startTime;
+        private final int numPeerAcks;
+        private final long timeToFirstPeerAck;
+        private final long timeToFirstConfirmation;
+    }
+
+    private static class Broadcast {
+        private final Transaction tx;
+        private final String txId;
+        private final TxBroadcaster.Callback callback;
+        private final TxBroadcaster.TimeoutPolicy timeoutPolicy;
+        private final Consumer<Transaction> txCommitter;
+        private final long startTime = System.currentTimeMillis();
+        @Nullable
+        private Runnable cancelTimeoutHandler;
+        private boolean resolved;
+        private boolean timedOut;
+        private int numPeerAcks;
+        private long firstPeerAckTime = -1;
+        private long firstConfirmationTime = -1;
+
+        private Broadcast(Transaction tx,
+                          TxBroadcaster.Callback callback,
+                          TxBroadcaster.TimeoutPolicy timeoutPolicy,
+                          Consumer<Transaction> txCommitter) {
+            this.tx = tx;
+            this.txId = tx.getHashAsString();
+            this.callback = callback;
+            this.timeoutPolicy = timeoutPolicy;
+            this.txCommitter = txCommitter;
+        }
+
+        private BroadcastStats getStats() {
+            return new BroadcastStats(txId,
+                    startTime,
+                    numPeerAcks,
+                    firstPeerAckTime < 0 ? -1 : firstPeerAckTime - startTime,
+                    firstConfirmationTime < 0 ? -1 : firstConfirmationTime - startTime);
+        }
+    }
+
+    private final Executor callbackExecutor;
+    private final Scheduler scheduler;
+    private final Map<String, Broadcast> pendingBroadcastByTxId = new HashMap<>();
+    private final Map<String, Broadcast> recentBroadcastByTxId = new LinkedHashMap<String, Broadcast>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Broadcast> eldest) {
+            return size() > MAX_STATS;
+        }
+    };
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public TxBroadcastTracker() {
+        this(UserThread::execute, (task, delayMs) -> {
+            Timer timer = UserThread.runAfter(task, delayMs, TimeUnit.MILLISECONDS);
+            return timer::stop;
+        });
+    }
+
+    TxBroadcastTracker(Executor callbackExecutor, Scheduler scheduler) {
+        this.callbackExecutor = callbackExecutor;
+        this.scheduler = scheduler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The acceptedHandler is called if no broadcast of that tx is pending, before the tx gets broadcasted
+    void broadcast(Transaction tx,
+                   PeerGroupBroadcaster peerGroupBroadcaster,
+                   Consumer<Transaction> txCommitter,
+                   TxBroadcaster.Callback callback,
+                   TxBroadcaster.TimeoutPolicy timeoutPolicy,
+                   Runnable acceptedHandler) {
+        Broadcast broadcast = new Broadcast(tx, callback, timeoutPolicy, txCommitter);
+        String txId = broadcast.txId;
+        synchronized (this) {
+            if (pendingBroadcastByTxId.containsKey(txId)) {
+                // The pending broadcast of that tx continues and will call its own callback
+                callbackExecutor.execute(() -> callback.onFailure(new TxBroadcastException("We got broadcastTx " +
+                        "called with a tx which has an open timeoutTimer. txId=" + txId, txId)));
+                return;
+            }
+            pendingBroadcastByTxId.put(txId, broadcast);
+            recentBroadcastByTxId.put(txId, broadcast);
+        }
+        acceptedHandler.run();
+
+        Runnable cancelTimeoutHandler = scheduler.schedule(() -> onTimeout(broadcast),
+                timeoutPolicy.getTimeoutInSec() * 1000L);
+        synchronized (this) {
+            if (broadcast.resolved)
+                cancelTimeoutHandler.run();
+            else
+                broadcast.cancelTimeoutHandler = cancelTimeoutHandler;
+        }
+
+        Futures.addCallback(peerGroupBroadcaster.broadcastTransaction(tx), new FutureCallback<Transaction>() {
+            @Override
+            public void onSuccess(@Nullable Transaction result) {
+                onBroadcastSuccess(broadcast, result);
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (resolve(broadcast, false))
+                    callbackExecutor.execute(() -> callback.onFailure(new TxBroadcastException("We got an onFailure from " +
+                            "the peerGroup.broadcastTransaction callback.", throwable)));
+            }
+        });
+    }
+
+    // Called if a peer has announced the tx to us after we have broadcasted it
+    synchronized void onPeerAck(String txId, int numPeerAcks) {
+        Broadcast broadcast = recentBroadcastByTxId.get(txId);
+        if (broadcast != null && numPeerAcks > broadcast.numPeerAcks) {
+            if (broadcast.firstPeerAckTime < 0)
+                broadcast.firstPeerAckTime = System.currentTimeMillis();
+            broadcast.numPeerAcks = numPeerAcks;
+        }
+    }
+
+    synchronized void onConfirmed(String txId) {
+        Broadcast broadcast = recentBroadcastByTxId.get(txId);
+        if (broadcast != null && broadcast.firstConfirmationTime < 0) {
+            broadcast.firstConfirmationTime = System.currentTimeMillis();
+            log.info("Tx {} got confirmed {} sec. after broadcast. Peer acks: {}, time to first peer ack: {} ms",
+                    txId, (broadcast.firstConfirmationTime - broadcast.startTime) / 1000, broadcast.numPeerAcks,
+                    broadcast.getStats().getTimeToFirstPeerAck());
+        }
+    }
+
+    @Nullable
+    synchronized BroadcastStats getStats(String txId) {
+        Broadcast broadcast = recentBroadcastByTxId.get(txId);
+        return broadcast != null ? broadcast.getStats() : null;
+    }
+
+    synchronized int getNumPendingBroadcasts() {
+        return pendingBroadcastByTxId.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns false if the broadcast was already resolved
+    private boolean resolve(Broadcast broadcast, boolean timedOut) {
+        Runnable cancelTimeoutHandler;
+        synchronized (this) {
+            if (broadcast.resolved)
+                return false;
+
+            broadcast.resolved = true;
+            broadcast.timedOut = timedOut;
+            pendingBroadcastByTxId.remove(broadcast.txId);
+            cancelTimeoutHandler = broadcast.cancelTimeoutHandler;
+            broadcast.cancelTimeoutHandler = null;
+        }
+        if (cancelTimeoutHandler != null)
+            cancelTimeoutHandler.run();
+        return true;
+    }
+
+    private void onBroadcastSuccess(Broadcast broadcast, @Nullable Transaction result) {
+        TxBroadcaster.Callback callback = broadcast.callback;
+        String txId = broadcast.txId;
+        if (result == null) {
+            if (resolve(broadcast, false))
+                callbackExecutor.execute(() -> callback.onFailure(new TxBroadcastException("Transaction returned from the " +
+                        "broadcastTransaction call back is null.", txId)));
+        } else if (!txId.equals(result.getHashAsString())) {
+            if (resolve(broadcast, false))
+                callbackExecutor.execute(() -> callback.onTxMalleability(new TxMalleabilityException(broadcast.tx, result)));
+        } else if (resolve(broadcast, false)) {
+            broadcast.txCommitter.accept(broadcast.tx);
+            // At regtest we get called immediately back but we want to make sure that the handler is not called
+            // before the caller is finished.
+            callbackExecutor.execute(() -> callback.onSuccess(broadcast.tx));
+        } else if (isTimedOut(broadcast)) {
+            callbackExecutor.execute(() -> callback.onFailure(new TxBroadcastException("We got an onSuccess callback for " +
+                    "a broadcast which got already triggered the timeout.", txId)));
+        }
+    }
+
+    private void onTimeout(Broadcast broadcast) {
+        int numPeerAcks;
+        synchronized (this) {
+            numPeerAcks = broadcast.numPeerAcks;
+        }
+        boolean success = broadcast.timeoutPolicy.isSuccessIfPeerAcked() && numPeerAcks > 0;
+        if (!resolve(broadcast, !success))
+            return;
+
+        int timeoutInSec = broadcast.timeoutPolicy.getTimeoutInSec();
+        if (success) {
+            log.info("Broadcast of tx {} not completed after {} sec. but the tx got announced by {} peers. " +
+                    "We treat the broadcast as succeeded.", broadcast.txId, timeoutInSec, numPeerAcks);
+            broadcast.txCommitter.accept(broadcast.tx);
+            callbackExecutor.execute(() -> broadcast.callback.onSuccess(broadcast.tx));
+        } else {
+            log.warn("Broadcast of tx {} not completed after {} sec. Peer acks: {}",
+                    broadcast.txId, timeoutInSec, numPeerAcks);
+            callbackExecutor.execute(() -> broadcast.callback.onTimeout(new TxBroadcastTimeoutException(broadcast.tx,
+                    timeoutInSec)));
+        }
+    }
+
+    private synchronized boolean isTimedOut(Broadcast broadcast) {
+        return broadcast.timedOut;
+    }
+}
@@ -17,25 +17,16 @@
 
 package bisq.core.btc.wallet;
 
-import bisq.common.Timer;
-import bisq.common.UserThread;
-
 import org.bitcoinj.core.PeerGroup;
 import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
 import org.bitcoinj.wallet.Wallet;
 
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
-
-import java.util.HashMap;
-import java.util.Map;
+import javax.inject.Inject;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
-import org.jetbrains.annotations.NotNull;
-
-import javax.annotation.Nullable;
-
 @Slf4j
 public class TxBroadcaster {
     public interface Callback {
@@ -54,74 +45,65 @@ public class TxBroadcaster {
         void onFailure(TxBroadcastException exception);
     }
 
+    @Value
+    public static class TimeoutPolicy {
+        private final int timeoutInSec;
+        // If the tx got announced back by at least one peer before the timeout we treat the broadcast as succeeded
+        // instead of calling onTimeout
+        private final boolean successIfPeerAcked;
+    }
+
     private static final int DEFAULT_BROADCAST_TIMEOUT = 8;
-    private static Map<String, Timer> broadcastTimerMap = new HashMap<>();
+    public static final TimeoutPolicy DEFAULT_TIMEOUT_POLICY = new TimeoutPolicy(DEFAULT_BROADCAST_TIMEOUT, false);
+
+    private final TxBroadcastTracker tracker;
 
-    public static void broadcastTx(Wallet wallet, PeerGroup peerGroup, Transaction localTx, Callback callback) {
-        broadcastTx(wallet, peerGroup, localTx, callback, DEFAULT_BROADCAST_TIMEOUT);
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public TxBroadcaster(TxBroadcastTracker tracker) {
+        this.tracker = tracker;
     }
 
-    public static void broadcastTx(Wallet wallet, PeerGroup peerGroup, Transaction tx, Callback callback, int delayInSec) {
-        Timer timeoutTimer;
-        final String txId = tx.getHashAsString();
-        if (!broadcastTimerMap.containsKey(txId)) {
-            timeoutTimer = UserThread.runAfter(() -> {
-                log.warn("Broadcast of tx {} not completed after {} sec. We optimistically assume that the tx " +
-                        "broadcast succeeded and call onSuccess on the callback handler.", txId, delayInSec);
-                broadcastTimerMap.remove(txId);
-                stopAndRemoveTimer(txId);
-                UserThread.execute(() -> callback.onTimeout(new TxBroadcastTimeoutException(tx, delayInSec)));
-            }, delayInSec);
-
-            broadcastTimerMap.put(txId, timeoutTimer);
-        } else {
-            stopAndRemoveTimer(txId);
-            UserThread.execute(() -> callback.onFailure(new TxBroadcastException("We got broadcastTx called with a tx " +
-                    "which has an open timeoutTimer. txId=" + txId, txId)));
-        }
 
-        Futures.addCallback(peerGroup.broadcastTransaction(tx).future(), new FutureCallback<Transaction>() {
-            @Override
-            public void onSuccess(@Nullable Transaction result) {
-                if (result != null) {
-                    if (txId.equals(result.getHashAsString())) {
-                        // We expect that there is still a timeout in our map, otherwise the timeout got triggered
-                        if (broadcastTimerMap.containsKey(txId)) {
-                            wallet.maybeCommitTx(tx);
-                            stopAndRemoveTimer(txId);
-                            // At regtest we get called immediately back but we want to make sure that the handler is not called
-                            // before the caller is finished.
-                            UserThread.execute(() -> callback.onSuccess(tx));
-                        } else {
-                            stopAndRemoveTimer(txId);
-                            UserThread.execute(() -> callback.onFailure(new TxBroadcastException("We got an onSuccess callback for " +
-                                    "a broadcast which got already triggered the timeout.", txId)));
-                        }
-                    } else {
-                        stopAndRemoveTimer(txId);
-                        UserThread.execute(() -> callback.onTxMalleability(new TxMalleabilityException(tx, result)));
-                    }
-                } else {
-                    stopAndRemoveTimer(txId);
-                    UserThread.execute(() -> callback.onFailure(new TxBroadcastException("Transaction returned from the " +
-                            "broadcastTransaction call back is null.", txId)));
-                }
-            }
-
-            @Override
-            public void onFailure(@NotNull Throwable throwable) {
-                stopAndRemoveTimer(txId);
-                UserThread.execute(() -> callback.onFailure(new TxBroadcastException("We got an onFailure from " +
-                        "the peerGroup.broadcastTransaction callback.", throwable)));
-            }
-        });
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void broadcastTx(Wallet wallet, PeerGroup peerGroup, Transaction localTx, Callback callback) {
+        broadcastTx(wallet, peerGroup, localTx, callback, DEFAULT_TIMEOUT_POLICY);
     }
 
-    private static void stopAndRemoveTimer(String txId) {
-        Timer timer = broadcastTimerMap.get(txId);
-        if (timer != null)
-            timer.stop();
+    public void broadcastTx(Wallet wallet, PeerGroup peerGroup, Transaction tx, Callback callback, int delayInSec) {
+        broadcastTx(wallet, peerGroup, tx, callback, new TimeoutPolicy(delayInSec, false));
+    }
 
-        broadcastTimerMap.remove(txId);
+    public void broadcastTx(Wallet wallet, PeerGroup peerGroup, Transaction tx, Callback callback,
+                            TimeoutPolicy timeoutPolicy) {
+        String txId = tx.getHashAsString();
+        tracker.broadcast(tx,
+                transaction -> peerGroup.broadcastTransaction(transaction).future(),
+                wallet::maybeCommitTx,
+                callback,
+                timeoutPolicy,
+                // We only track the peer acks and confirmation if the broadcast was not rejected as duplicate
+                () -> tx.getConfidence().addEventListener(new TransactionConfidence.Listener() {
+                    @Override
+                    public void onConfidenceChanged(TransactionConfidence confidence, ChangeReason reason) {
+                        if (reason == ChangeReason.SEEN_PEERS)
+                            tracker.onPeerAck(txId, confidence.numBroadcastPeers());
+
+                        TransactionConfidence.ConfidenceType confidenceType = confidence.getConfidenceType();
+                        if (confidenceType == TransactionConfidence.ConfidenceType.BUILDING)
+                            tracker.onConfirmed(txId);
+
+                        if (confidenceType == TransactionConfidence.ConfidenceType.BUILDING ||
+                                confidenceType == TransactionConfidence.ConfidenceType.DEAD)
+                            confidence.removeEventListener(this);
+                    }
+                }));
     }
 }
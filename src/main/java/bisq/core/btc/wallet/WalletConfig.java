@@ -54,6 +54,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -68,7 +69,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import lombok.Getter;
@@ -140,6 +149,7 @@ public class WalletConfig extends AbstractIdleService {
 
     @Nullable
     private PeerDiscovery discovery;
+    private final Map<String, Long> startupDurations = Collections.synchronizedMap(new LinkedHashMap<>());
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -325,8 +335,9 @@ public class WalletConfig extends AbstractIdleService {
 
     /**
      * Override this to use a {@link BlockStore} that isn't the default of {@link SPVBlockStore}.
+     * Called from a background thread concurrently to the loading of the wallets.
      */
-    private BlockStore provideBlockStore(File file) throws BlockStoreException {
+    protected BlockStore provideBlockStore(File file) throws BlockStoreException {
         return new SPVBlockStore(params, file);
     }
 
@@ -372,69 +383,91 @@ public class WalletConfig extends AbstractIdleService {
             }
         }
         log.info("Wallet directory: {}", directory);
+        long startTime = System.currentTimeMillis();
+        startupDurations.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactoryBuilder()
+                .setNameFormat("WalletConfig-%d")
+                .setDaemon(true)
+                .build());
+        Future<BlockStore> blockStoreFuture = null;
+        Future<Wallet> bsqWalletFuture = null;
+        boolean setupCompleted = false;
         try {
             File chainFile = new File(directory, spvChainFileName);
             boolean chainFileExists = chainFile.exists();
+            boolean initializeChainFile = !chainFileExists || seed != null;
+            if (chainFileExists && seed != null) {
+                // We delete the chain file before opening the block store, so we don't need to open it twice
+                log.info("Deleting the chain file in preparation from restore.");
+                if (!chainFile.delete())
+                    throw new IOException("Failed to delete chain file in preparation for restore.");
+            }
+
+            // The block store, the BTC wallet and (if it exists already or we restore from seed) the BSQ wallet
+            // don't depend on each other, so we load them concurrently.
+            // At restore from seed we create both wallets at the same time, so the checkpoint is known from the seed
+            // and the new chain file gets initialized on the pool as well. Otherwise we need the creation time of
+            // the BTC wallet.
+            boolean checkpointFromSeed = initializeChainFile && checkpoints != null && seed != null;
+            long seedCreationTime = seed != null ? seed.getCreationTimeSeconds() : 0;
+            blockStoreFuture = executor.submit(() -> {
+                Context.propagate(context);
+                BlockStore store = measure("blockStore", () -> provideBlockStore(chainFile));
+                if (checkpointFromSeed)
+                    checkpoint(store, seedCreationTime);
+                return store;
+            });
 
-            // BTC wallet
             vBtcWalletFile = new File(directory, btcWalletFileName);
             boolean shouldReplayWallet = (vBtcWalletFile.exists() && !chainFileExists) || seed != null;
+
+            if (BisqEnvironment.isBaseCurrencySupportingBsq()) {
+                vBsqWalletFile = new File(directory, bsqWalletFileName);
+                if (seed != null || vBsqWalletFile.exists()) {
+                    // For loading an existing wallet the key chain group is only used for the key chain type
+                    BisqKeyChainGroup keyChainGroup = seed != null ?
+                            new BisqKeyChainGroup(params, new BisqDeterministicKeyChain(seed), false) :
+                            new BisqKeyChainGroup(params, false);
+                    File bsqWalletFile = vBsqWalletFile;
+                    bsqWalletFuture = executor.submit(() -> {
+                        Context.propagate(context);
+                        return measure("bsqWallet", () ->
+                                createOrLoadWallet(bsqWalletFile, shouldReplayWallet, keyChainGroup, true, seed));
+                    });
+                }
+            }
+
+            // BTC wallet
             BisqKeyChainGroup keyChainGroup;
             if (seed != null)
                 keyChainGroup = new BisqKeyChainGroup(params, new BtcDeterministicKeyChain(seed), true);
             else
                 keyChainGroup = new BisqKeyChainGroup(params, true);
-            vBtcWallet = createOrLoadWallet(vBtcWalletFile, shouldReplayWallet, keyChainGroup, false, seed);
+            vBtcWallet = measure("btcWallet", () ->
+                    createOrLoadWallet(vBtcWalletFile, shouldReplayWallet, keyChainGroup, false, seed));
 
             vBtcWallet.allowSpendingUnconfirmedTransactions();
             vBtcWallet.setRiskAnalyzer(new BisqRiskAnalysis.Analyzer());
 
-            if (seed != null)
-                keyChainGroup = new BisqKeyChainGroup(params, new BisqDeterministicKeyChain(seed), false);
-            else
-                keyChainGroup = new BisqKeyChainGroup(params, new BisqDeterministicKeyChain(vBtcWallet.getKeyChainSeed()), false);
-
             // BSQ wallet
             if (BisqEnvironment.isBaseCurrencySupportingBsq()) {
-                vBsqWalletFile = new File(directory, bsqWalletFileName);
-                vBsqWallet = createOrLoadWallet(vBsqWalletFile, shouldReplayWallet, keyChainGroup, true, seed);
+                if (bsqWalletFuture != null) {
+                    vBsqWallet = getResult(bsqWalletFuture);
+                } else {
+                    // At first startup the BSQ wallet gets created from the seed of the BTC wallet
+                    BisqKeyChainGroup bsqKeyChainGroup = new BisqKeyChainGroup(params,
+                            new BisqDeterministicKeyChain(vBtcWallet.getKeyChainSeed()), false);
+                    vBsqWallet = measure("bsqWallet", () ->
+                            createOrLoadWallet(vBsqWalletFile, shouldReplayWallet, bsqKeyChainGroup, true, null));
+                }
+                //noinspection ConstantConditions
                 vBsqWallet.setRiskAnalyzer(new BisqRiskAnalysis.Analyzer());
             }
 
             // Initiate Bitcoin network objects (block store, blockchain and peer group)
-            vStore = provideBlockStore(chainFile);
-            if (!chainFileExists || seed != null) {
-                if (checkpoints != null) {
-                    // Initialize the chain file with a checkpoint to speed up first-run sync.
-                    long time;
-
-                    if (seed != null) {
-                        // we created both wallets at the same time
-                        time = seed.getCreationTimeSeconds();
-                        if (chainFileExists) {
-                            log.info("Deleting the chain file in preparation from restore.");
-                            vStore.close();
-                            if (!chainFile.delete())
-                                throw new IOException("Failed to delete chain file in preparation for restore.");
-                            vStore = new SPVBlockStore(params, chainFile);
-                        }
-                    } else {
-                        time = vBtcWallet.getEarliestKeyCreationTime();
-                    }
-
-
-                    if (time > 0)
-                        CheckpointManager.checkpoint(params, checkpoints, vStore, time);
-                    else
-                        log.warn("Creating a new uncheckpointed block store due to a wallet with a creation time of zero: this will result in a very slow chain sync");
-                } else if (chainFileExists) {
-                    log.info("Deleting the chain file in preparation from restore.");
-                    vStore.close();
-                    if (!chainFile.delete())
-                        throw new IOException("Failed to delete chain file in preparation for restore.");
-                    vStore = new SPVBlockStore(params, chainFile);
-                }
-            }
+            vStore = getResult(blockStoreFuture);
+            if (initializeChainFile && checkpoints != null && !checkpointFromSeed)
+                checkpoint(vStore, vBtcWallet.getEarliestKeyCreationTime());
             vChain = new BlockChain(params, vStore);
             vPeerGroup = createPeerGroup();
 
@@ -464,6 +497,10 @@ public class WalletConfig extends AbstractIdleService {
                 vPeerGroup.addWallet(vBsqWallet);
             }
 
+            startupDurations.put("total", System.currentTimeMillis() - startTime);
+            log.info("Wallet setup completed. Durations in ms: {}", getStartupDurations());
+            setupCompleted = true;
+
             onSetupCompleted();
 
             if (blockingStartup) {
@@ -492,6 +529,50 @@ public class WalletConfig extends AbstractIdleService {
             }
         } catch (BlockStoreException e) {
             throw new IOException(e);
+        } finally {
+            if (!setupCompleted)
+                closeAfterFailedStartUp(blockStoreFuture, bsqWalletFuture);
+            executor.shutdown();
+        }
+    }
+
+    // Initialize the chain file with a checkpoint to speed up first-run sync.
+    private void checkpoint(BlockStore store, long time) throws Exception {
+        if (time > 0) {
+            measure("checkpoint", () -> {
+                CheckpointManager.checkpoint(params, checkpoints, store, time);
+                return null;
+            });
+        } else {
+            log.warn("Creating a new uncheckpointed block store due to a wallet with a creation time of zero: this will result in a very slow chain sync");
+        }
+    }
+
+    // If startUp fails shutDown is not called. So we stop the autosave of the wallets and close the block store,
+    // including the ones which are still loaded on the pool. We wait for them as the autosave gets started at loading.
+    private void closeAfterFailedStartUp(@Nullable Future<BlockStore> blockStoreFuture,
+                                         @Nullable Future<Wallet> bsqWalletFuture) {
+        BlockStore store = vStore != null ? vStore : getResultAfterFailure(blockStoreFuture);
+        Wallet bsqWallet = vBsqWallet != null ? vBsqWallet : getResultAfterFailure(bsqWalletFuture);
+        try {
+            if (vBtcWallet != null)
+                vBtcWallet.shutdownAutosaveAndWait();
+            if (bsqWallet != null)
+                bsqWallet.shutdownAutosaveAndWait();
+            if (store != null)
+                store.close();
+        } catch (Throwable t) {
+            log.error("Closing wallets and block store after failed startup failed", t);
+        }
+        vBtcWallet = null;
+        vBsqWallet = null;
+        vStore = null;
+    }
+
+    // Durations of the steps of the last startup (wallet and block store loading, checkpointing) in ms
+    public Map<String, Long> getStartupDurations() {
+        synchronized (startupDurations) {
+            return new LinkedHashMap<>(startupDurations);
         }
     }
 
@@ -527,6 +608,40 @@ public class WalletConfig extends AbstractIdleService {
         return wallet;
     }
 
+    private <T> T measure(String name, Callable<T> task) throws Exception {
+        long ts = System.currentTimeMillis();
+        T result = task.call();
+        startupDurations.put(name, System.currentTimeMillis() - ts);
+        return result;
+    }
+
+    private static <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    // The failure of the startup is reported already, so we only log failures of the other tasks
+    @Nullable
+    private static <T> T getResultAfterFailure(@Nullable Future<T> future) {
+        if (future == null)
+            return null;
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Loading failed after failed startup: " + e.getCause());
+            return null;
+        }
+    }
+
     private void maybeMoveOldWalletOutOfTheWay(File vWalletFile) {
         if (!vWalletFile.exists()) return;
 
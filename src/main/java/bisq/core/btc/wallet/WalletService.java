@@ -95,6 +95,7 @@ public abstract class WalletService {
     protected final WalletsSetup walletsSetup;
     protected final Preferences preferences;
     protected final FeeService feeService;
+    protected final TxBroadcaster txBroadcaster;
     protected final NetworkParameters params;
     @SuppressWarnings("deprecation")
     protected final WalletEventListener walletEventListener = new BisqWalletListener();
@@ -114,10 +115,12 @@ public abstract class WalletService {
     @Inject
     WalletService(WalletsSetup walletsSetup,
                   Preferences preferences,
-                  FeeService feeService) {
+                  FeeService feeService,
+                  TxBroadcaster txBroadcaster) {
         this.walletsSetup = walletsSetup;
         this.preferences = preferences;
         this.feeService = feeService;
+        this.txBroadcaster = txBroadcaster;
 
         params = walletsSetup.getParams();
     }
@@ -324,7 +327,7 @@ public abstract class WalletService {
 
 
     public void broadcastTx(Transaction tx, TxBroadcaster.Callback callback) {
-        TxBroadcaster.broadcastTx(wallet, walletsSetup.getPeerGroup(), tx, callback);
+        txBroadcaster.broadcastTx(wallet, walletsSetup.getPeerGroup(), tx, callback);
     }
 
 
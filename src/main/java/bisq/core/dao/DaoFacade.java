@@ -73,6 +73,7 @@ import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 
@@ -339,6 +340,16 @@ public class DaoFacade {
         return bsqStateService.getChainHeight();
     }
 
+    // State hash after the block at that height. Can be compared with the state hash of other nodes to detect a
+    // divergent DAO state.
+    public Optional<byte[]> getStateHash(int height) {
+        return bsqStateService.getStateHash(height);
+    }
+
+    public NavigableMap<Integer, byte[]> getStateHashes(int fromHeight, int toHeight) {
+        return bsqStateService.getStateHashes(fromHeight, toHeight);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Use case: Bonding
@@ -22,8 +22,8 @@ import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.governance.ballot.vote.Vote;
 import bisq.core.dao.governance.proposal.ProposalService;
 import bisq.core.dao.governance.proposal.storage.appendonly.ProposalPayload;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 
 import javax.inject.Inject;
@@ -43,7 +43,7 @@ import javax.annotation.Nullable;
  * The BallotList contains all ballots of all cycles.
  */
 @Slf4j
-public class BallotListService implements PersistedDataHost, DaoSetupService {
+public class BallotListService implements ConcurrentPersistedDataHost, DaoSetupService {
     public interface BallotListChangeListener {
         void onListChanged(List<Ballot> list);
     }
@@ -96,15 +96,17 @@ public class BallotListService implements PersistedDataHost, DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
-    public void readPersisted() {
-        if (BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq()) {
-            BallotList persisted = storage.initAndGetPersisted(ballotList, 100);
+    public Runnable readStore() {
+        BallotList persisted = BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq() ?
+                storage.initAndGetPersisted(ballotList, 100) :
+                null;
+        return () -> {
             if (persisted != null) {
                 ballotList.clear();
                 ballotList.addAll(persisted.getList());
                 listeners.forEach(l -> l.onListChanged(ballotList.getList()));
             }
-        }
+        };
     }
 
 
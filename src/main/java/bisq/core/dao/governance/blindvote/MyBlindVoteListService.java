@@ -43,6 +43,7 @@ import bisq.core.dao.state.BsqStateService;
 import bisq.core.dao.state.blockchain.Block;
 import bisq.core.dao.state.period.DaoPhase;
 import bisq.core.dao.state.period.PeriodService;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 
 import bisq.network.p2p.P2PService;
 
@@ -52,7 +53,6 @@ import bisq.common.crypto.CryptoException;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ExceptionHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 import bisq.common.util.Tuple2;
 import bisq.common.util.Utilities;
@@ -89,7 +89,7 @@ import javax.annotation.Nullable;
  * Publishes a BlindVote and the blind vote transaction.
  */
 @Slf4j
-public class MyBlindVoteListService implements PersistedDataHost, BsqStateListener, DaoSetupService {
+public class MyBlindVoteListService implements ConcurrentPersistedDataHost, BsqStateListener, DaoSetupService {
     private final P2PService p2PService;
     private final BsqStateService bsqStateService;
     private final PeriodService periodService;
@@ -154,14 +154,16 @@ public class MyBlindVoteListService implements PersistedDataHost, BsqStateListen
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
-    public void readPersisted() {
-        if (BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq()) {
-            MyBlindVoteList persisted = storage.initAndGetPersisted(myBlindVoteList, 100);
+    public Runnable readStore() {
+        MyBlindVoteList persisted = BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq() ?
+                storage.initAndGetPersisted(myBlindVoteList, 100) :
+                null;
+        return () -> {
             if (persisted != null) {
                 myBlindVoteList.clear();
                 myBlindVoteList.addAll(persisted.getList());
             }
-        }
+        };
     }
 
 
@@ -23,9 +23,9 @@ import bisq.core.dao.governance.ballot.BallotList;
 import bisq.core.dao.governance.blindvote.BlindVote;
 import bisq.core.dao.governance.blindvote.MyBlindVoteListService;
 import bisq.core.dao.state.BsqStateService;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 
 import bisq.common.crypto.Encryption;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 import bisq.common.util.Tuple2;
 
@@ -44,7 +44,7 @@ import lombok.extern.slf4j.Slf4j;
  * Creates and stores myVote items. Persist in MyVoteList.
  */
 @Slf4j
-public class MyVoteListService implements PersistedDataHost {
+public class MyVoteListService implements ConcurrentPersistedDataHost {
     private final BsqStateService bsqStateService;
     private final Storage<MyVoteList> storage;
     private final MyVoteList myVoteList = new MyVoteList();
@@ -67,14 +67,16 @@ public class MyVoteListService implements PersistedDataHost {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
-    public void readPersisted() {
-        if (BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq()) {
-            MyVoteList persisted = storage.initAndGetPersisted(myVoteList, 100);
+    public Runnable readStore() {
+        MyVoteList persisted = BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq() ?
+                storage.initAndGetPersisted(myVoteList, 100) :
+                null;
+        return () -> {
             if (persisted != null) {
                 this.myVoteList.clear();
                 this.myVoteList.addAll(persisted.getList());
             }
-        }
+        };
     }
 
 
@@ -30,6 +30,7 @@ import bisq.core.dao.state.blockchain.Block;
 import bisq.core.dao.state.blockchain.Tx;
 import bisq.core.dao.state.period.DaoPhase;
 import bisq.core.dao.state.period.PeriodService;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 
 import bisq.network.p2p.P2PService;
 
@@ -37,7 +38,6 @@ import bisq.common.app.DevEnv;
 import bisq.common.crypto.KeyRing;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Transaction;
@@ -60,7 +60,7 @@ import lombok.extern.slf4j.Slf4j;
  * Triggers republishing of my proposals at startup.
  */
 @Slf4j
-public class MyProposalListService implements PersistedDataHost, BsqStateListener {
+public class MyProposalListService implements ConcurrentPersistedDataHost, BsqStateListener {
     public interface Listener {
         void onListChanged(List<Proposal> list);
     }
@@ -106,15 +106,17 @@ public class MyProposalListService implements PersistedDataHost, BsqStateListene
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
-    public void readPersisted() {
-        if (BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq()) {
-            MyProposalList persisted = storage.initAndGetPersisted(myProposalList, 100);
+    public Runnable readStore() {
+        MyProposalList persisted = BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq() ?
+                storage.initAndGetPersisted(myProposalList, 100) :
+                null;
+        return () -> {
             if (persisted != null) {
                 myProposalList.clear();
                 myProposalList.addAll(persisted.getList());
                 listeners.forEach(l -> l.onListChanged(getList()));
             }
-        }
+        };
     }
 
 
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.role;
+
+import bisq.core.dao.bonding.BondingConsensus;
+import bisq.core.dao.state.blockchain.Block;
+import bisq.core.dao.state.blockchain.Tx;
+import bisq.core.dao.state.blockchain.TxInput;
+import bisq.core.dao.state.blockchain.TxOutput;
+import bisq.core.dao.state.blockchain.TxOutputKey;
+import bisq.core.dao.state.blockchain.TxOutputType;
+import bisq.core.dao.state.blockchain.TxType;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the bonds by the hash in the OP_RETURN data of the lockup tx. Holds the lockup tx and, once the lockup
+ * output got spent, the unlock tx of each bond.
+ * The index gets updated with the txs of each new block, so the cost per block depends only on the number of LOCKUP
+ * and UNLOCK txs in that block and not on the number of bonds or the length of the chain.
+ */
+class BondIndex {
+    @Getter
+    static class Bond {
+        private final byte[] hash;
+        private final String lockupTxId;
+        private final TxOutputKey lockupTxOutputKey;
+        private final long lockupTime;
+        @Nullable
+        private String unlockTxId;
+        private long unlockTime;
+
+        private Bond(byte[] hash, String lockupTxId, TxOutputKey lockupTxOutputKey, long lockupTime) {
+            this.hash = hash;
+            this.lockupTxId = lockupTxId;
+            this.lockupTxOutputKey = lockupTxOutputKey;
+            this.lockupTime = lockupTime;
+        }
+
+        // True if the lockup output got spent by an unlock tx
+        boolean isUnlocked() {
+            return unlockTxId != null;
+        }
+    }
+
+    private final Map<P2PDataStorage.ByteArray, Bond> bondByHash = new HashMap<>();
+    private final Map<TxOutputKey, Bond> bondByLockupTxOutputKey = new HashMap<>();
+    // Height of the last indexed block, -1 if no block was indexed yet
+    @Getter
+    private int lastBlockHeight = -1;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the bonds which got added or unlocked in that block
+    List<Bond> onBlock(Block block) {
+        List<Bond> changedBonds = new ArrayList<>();
+        block.getTxs().forEach(tx -> {
+            if (tx.getTxType() == TxType.LOCKUP)
+                addLockupTx(tx).ifPresent(changedBonds::add);
+            else if (tx.getTxType() == TxType.UNLOCK)
+                applyUnlockTx(tx).ifPresent(changedBonds::add);
+        });
+        lastBlockHeight = block.getHeight();
+        return changedBonds;
+    }
+
+    // Rebuilds the index from all blocks, e.g. at startup or after blocks got undone at a reorg.
+    // Returns all bonds.
+    List<Bond> rebuild(Collection<Block> blocks) {
+        bondByHash.clear();
+        bondByLockupTxOutputKey.clear();
+        lastBlockHeight = -1;
+        blocks.forEach(this::onBlock);
+        return new ArrayList<>(bondByHash.values());
+    }
+
+    Optional<Bond> getBond(byte[] hash) {
+        return Optional.ofNullable(bondByHash.get(new P2PDataStorage.ByteArray(hash)));
+    }
+
+    int size() {
+        return bondByHash.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Optional<Bond> addLockupTx(Tx lockupTx) {
+        byte[] opReturnData = lockupTx.getLastTxOutput().getOpReturnData();
+        Optional<TxOutput> lockupTxOutput = lockupTx.getTxOutputs().stream()
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.LOCKUP)
+                .findFirst();
+        if (opReturnData == null || !lockupTxOutput.isPresent())
+            return Optional.empty();
+
+        byte[] hash = BondingConsensus.getHashFromOpReturnData(opReturnData);
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(hash);
+        // We keep the first lockup tx for a bond
+        if (bondByHash.containsKey(key))
+            return Optional.empty();
+
+        Bond bond = new Bond(hash, lockupTx.getId(), lockupTxOutput.get().getKey(), lockupTx.getTime());
+        bondByHash.put(key, bond);
+        bondByLockupTxOutputKey.put(bond.lockupTxOutputKey, bond);
+        return Optional.of(bond);
+    }
+
+    private Optional<Bond> applyUnlockTx(Tx unlockTx) {
+        for (TxInput txInput : unlockTx.getTxInputs()) {
+            Bond bond = bondByLockupTxOutputKey.get(txInput.getConnectedTxOutputKey());
+            if (bond != null && bond.unlockTxId == null) {
+                bond.unlockTxId = unlockTx.getId();
+                bond.unlockTime = unlockTx.getTime();
+                return Optional.of(bond);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -18,28 +18,32 @@
 package bisq.core.dao.governance.role;
 
 import bisq.core.app.BisqEnvironment;
-import bisq.core.dao.bonding.BondingConsensus;
 import bisq.core.dao.state.BsqStateListener;
 import bisq.core.dao.state.BsqStateService;
 import bisq.core.dao.state.blockchain.Block;
-import bisq.core.dao.state.blockchain.SpentInfo;
-import bisq.core.dao.state.blockchain.TxType;
+import bisq.core.setup.ConcurrentPersistedDataHost;
+
+import bisq.network.p2p.storage.P2PDataStorage;
 
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 
 import javax.inject.Inject;
 
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
-public class BondedRolesService implements PersistedDataHost, BsqStateListener {
+public class BondedRolesService implements ConcurrentPersistedDataHost, BsqStateListener {
 
     public interface BondedRoleListChangeListener {
         void onListChanged(List<BondedRole> list);
@@ -48,9 +52,15 @@ public class BondedRolesService implements PersistedDataHost, BsqStateListener {
     private final BsqStateService bsqStateService;
     private final Storage<BondedRoleList> storage;
     private final BondedRoleList bondedRoleList = new BondedRoleList();
+    private final Map<P2PDataStorage.ByteArray, BondedRole> bondedRoleByHash = new HashMap<>();
+    private final BondIndex bondIndex = new BondIndex();
 
     @Getter
     private final List<BondedRoleListChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Number of bonded roles which got checked at the last block. Only the roles with a lockup or unlock tx in that
+    // block unless the index got rebuilt.
+    @Getter(AccessLevel.PACKAGE)
+    private int numBondsVisitedAtLastBlock;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -71,15 +81,18 @@ public class BondedRolesService implements PersistedDataHost, BsqStateListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
-    public void readPersisted() {
-        if (BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq()) {
-            BondedRoleList persisted = storage.initAndGetPersisted(bondedRoleList, 100);
+    public Runnable readStore() {
+        BondedRoleList persisted = BisqEnvironment.isDAOActivatedAndBaseCurrencySupportingBsq() ?
+                storage.initAndGetPersisted(bondedRoleList, 100) :
+                null;
+        return () -> {
             if (persisted != null) {
                 bondedRoleList.clear();
                 bondedRoleList.addAll(persisted.getList());
+                updateBondedRoleByHash();
                 listeners.forEach(l -> l.onListChanged(bondedRoleList.getList()));
             }
-        }
+        };
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -92,45 +105,22 @@ public class BondedRolesService implements PersistedDataHost, BsqStateListener {
 
     @Override
     public void onParseTxsComplete(Block block) {
-        bondedRoleList.getList().forEach(bondedRole -> {
-
-            bsqStateService.getLockupTxOutputs().forEach(lockupTxOutput -> {
-                String lockupTxId = lockupTxOutput.getTxId();
-                // log.error("lockupTxId " + lockupTxId);
-
-                bsqStateService.getTx(lockupTxId)
-                        .ifPresent(lockupTx -> {
-                            byte[] opReturnData = lockupTx.getLastTxOutput().getOpReturnData();
-                            byte[] hash = BondingConsensus.getHashFromOpReturnData(opReturnData);
-                            Optional<BondedRole> candidate = getBondedRoleFromHash(hash);
-                            if (candidate.isPresent() && bondedRole.equals(candidate.get())) {
-                                if (bondedRole.getLockupTxId() == null) {
-                                    bondedRole.setLockupTxId(lockupTxId);
-                                    // We use the tx time as we want to have a unique time for all users
-                                    bondedRole.setStartDate(lockupTx.getTime());
-                                    persist();
-                                }
-
-                                if (!bsqStateService.isUnspent(lockupTxOutput.getKey())) {
-                                    bsqStateService.getSpentInfo(lockupTxOutput)
-                                            .map(SpentInfo::getTxId)
-                                            .map(bsqStateService::getTx)
-                                            .map(Optional::get)
-                                            .filter(unlockTx -> unlockTx.getTxType() == TxType.UNLOCK)
-                                            .ifPresent(unlockTx -> {
-                                                if (bondedRole.getUnlockTxId() == null) {
-                                                    bondedRole.setUnlockTxId(unlockTx.getId());
-                                                    bondedRole.setRevokeDate(unlockTx.getTime());
-                                                    persist();
-                                                }
-
-                                                // TODO check lock time
-                                            });
-                                }
-                            }
-                        });
+        if (block.getHeight() == bondIndex.getLastBlockHeight() + 1) {
+            List<BondIndex.Bond> changedBonds = bondIndex.onBlock(block);
+            changedBonds.forEach(bond -> {
+                BondedRole bondedRole = bondedRoleByHash.get(new P2PDataStorage.ByteArray(bond.getHash()));
+                if (bondedRole != null)
+                    applyBond(bondedRole, bond);
             });
-        });
+            numBondsVisitedAtLastBlock = changedBonds.size();
+        } else {
+            // The first block after startup gets indexed together with all blocks from the snapshot. If blocks got
+            // undone at a reorg we rebuild the index as well. As the lockup or unlock tx of a role might not be in the
+            // chain anymore we update all roles.
+            bondIndex.rebuild(bsqStateService.getBlocks());
+            bondedRoleByHash.forEach((hash, bondedRole) -> applyBond(bondedRole, bondIndex.getBond(hash.bytes).orElse(null)));
+            numBondsVisitedAtLastBlock = bondedRoleByHash.size();
+        }
     }
 
     @Override
@@ -152,6 +142,10 @@ public class BondedRolesService implements PersistedDataHost, BsqStateListener {
     public void addAcceptedBondedRole(BondedRole bondedRole) {
         if (bondedRoleList.getList().stream().noneMatch(role -> role.equals(bondedRole))) {
             bondedRoleList.add(bondedRole);
+            byte[] hash = bondedRole.getHash();
+            bondedRoleByHash.put(new P2PDataStorage.ByteArray(hash), bondedRole);
+            // The lockup tx might have been confirmed already
+            bondIndex.getBond(hash).ifPresent(bond -> applyBond(bondedRole, bond));
             persist();
             listeners.forEach(l -> l.onListChanged(bondedRoleList.getList()));
         }
@@ -166,17 +160,7 @@ public class BondedRolesService implements PersistedDataHost, BsqStateListener {
     }
 
     public Optional<BondedRole> getBondedRoleFromHash(byte[] hash) {
-        return bondedRoleList.getList().stream()
-                .filter(bondedRole -> {
-                    byte[] candidateHash = bondedRole.getHash();
-                   /* log.error("getBondedRoleFromHash: equals?={}, hash={}, candidateHash={}\nbondedRole={}",
-                            Arrays.equals(candidateHash, hash),
-                            Utilities.bytesAsHexString(hash),
-                            Utilities.bytesAsHexString(candidateHash),
-                            bondedRole.toString());*/
-                    return Arrays.equals(candidateHash, hash);
-                })
-                .findAny();
+        return Optional.ofNullable(bondedRoleByHash.get(new P2PDataStorage.ByteArray(hash)));
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -187,6 +171,38 @@ public class BondedRolesService implements PersistedDataHost, BsqStateListener {
         storage.queueUpForSave(20);
     }
 
+    // The hash is derived from the immutable data of the role, so we compute it only once per role
+    private void updateBondedRoleByHash() {
+        bondedRoleByHash.clear();
+        bondedRoleList.getList().forEach(bondedRole ->
+                bondedRoleByHash.put(new P2PDataStorage.ByteArray(bondedRole.getHash()), bondedRole));
+    }
+
+    // Sets the lockup and unlock data of the role to the ones of the bond. If the bond is null or not unlocked the
+    // data of the lockup or unlock tx gets cleared, as the tx might have been removed at a reorg.
+    private void applyBond(BondedRole bondedRole, @Nullable BondIndex.Bond bond) {
+        // We use the tx time as we want to have a unique time for all users
+        String lockupTxId = bond != null ? bond.getLockupTxId() : null;
+        long startDate = bond != null ? bond.getLockupTime() : 0;
+        String unlockTxId = bond != null ? bond.getUnlockTxId() : null;
+        long revokeDate = bond != null && bond.isUnlocked() ? bond.getUnlockTime() : 0;
+
+        boolean changed = false;
+        if (!Objects.equals(bondedRole.getLockupTxId(), lockupTxId) || bondedRole.getStartDate() != startDate) {
+            bondedRole.setLockupTxId(lockupTxId);
+            bondedRole.setStartDate(startDate);
+            changed = true;
+        }
+        if (!Objects.equals(bondedRole.getUnlockTxId(), unlockTxId) || bondedRole.getRevokeDate() != revokeDate) {
+            bondedRole.setUnlockTxId(unlockTxId);
+            bondedRole.setRevokeDate(revokeDate);
+            changed = true;
+        }
+        // TODO check lock time
+        if (changed)
+            persist();
+    }
+
 
     /*public static Optional<BondedRole> getBondedRoleByLockupTxId(String lockupTxId) {
         return bondedRoles.stream()
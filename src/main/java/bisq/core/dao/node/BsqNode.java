@@ -181,6 +181,21 @@ public abstract class BsqNode implements DaoSetupService {
         // Utilities.copyToClipboard(BlockParser.sb1.toString() + "\n\n\n" + BlockParser.sb2.toString());
     }
 
+    // At a reorg we undo our last block so parsing can continue from the fork point. If the fork point is deeper we
+    // get another not connecting block and undo the next one. Returns false if the undo journal is exhausted, in that
+    // case the caller has to start over from the last snapshot.
+    protected boolean undoLastBlockForReOrg() {
+        int height = bsqStateService.getBlockHeightOfLastBlock();
+        if (bsqStateService.undoLastBlock()) {
+            log.info("We have undone the block at height {} because of a reorg.", height);
+            return true;
+        } else {
+            log.warn("We cannot undo the block at height {} as the undo journal is exhausted. " +
+                    "We start over from the last snapshot.", height);
+            return false;
+        }
+    }
+
     @SuppressWarnings("WeakerAccess")
     protected void startReOrgFromLastSnapshot() {
         applySnapshot();
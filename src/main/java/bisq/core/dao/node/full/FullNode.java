@@ -138,7 +138,7 @@ public class FullNode extends BsqNode {
                                 Block block = blockParser.parseBlock(rawBlock);
                                 onNewBlock(block);
                             } catch (BlockNotConnectingException throwable) {
-                                handleError(throwable);
+                                startReOrg();
                             }
                         }
                     },
@@ -188,8 +188,7 @@ public class FullNode extends BsqNode {
                         parseBlocksIfNewBlockAvailable(chainHeadHeight);
                     }, throwable -> {
                         if (throwable instanceof BlockNotConnectingException) {
-                            int blockHeightOfLastBlock = bsqStateService.getBlockHeightOfLastBlock();
-                            requestChainHeadHeightAndParseBlocks(blockHeightOfLastBlock);
+                            startReOrg();
                         } else {
                             handleError(throwable);
                         }
@@ -237,6 +236,13 @@ public class FullNode extends BsqNode {
                 errorHandler);
     }
 
+    private void startReOrg() {
+        if (undoLastBlockForReOrg())
+            requestChainHeadHeightAndParseBlocks(bsqStateService.getBlockHeightOfLastBlock() + 1);
+        else
+            startReOrgFromLastSnapshot();
+    }
+
     private void handleError(Throwable throwable) {
         final String errorMessage = "Initializing FullNode failed: Error=" + throwable.toString();
         log.error(errorMessage);
@@ -138,7 +138,11 @@ public class LiteNode extends BsqNode {
         // release it will be a bit of a performance hit. It is a one time event as the snapshots gets created and be
         // used at next startup.
         long startTs = System.currentTimeMillis();
-        blockList.forEach(this::parseBlock);
+        for (RawBlock rawBlock : blockList) {
+            // At a reorg we have requested the blocks again, so we must not parse the remaining blocks
+            if (!parseBlock(rawBlock))
+                return;
+        }
         log.info("Parsing of {} blocks took {} sec.", blockList.size(), (System.currentTimeMillis() - startTs) / 1000D);
         onParseBlockChainComplete();
     }
@@ -149,12 +153,17 @@ public class LiteNode extends BsqNode {
         parseBlock(block);
     }
 
-    private void parseBlock(RawBlock rawBlock) {
+    // Returns false if the block did not connect and we started a reorg
+    private boolean parseBlock(RawBlock rawBlock) {
         if (!isBlockAlreadyAdded(rawBlock)) {
             try {
                 blockParser.parseBlock(rawBlock);
             } catch (BlockNotConnectingException throwable) {
-                startReOrgFromLastSnapshot();
+                if (undoLastBlockForReOrg())
+                    startParseBlocks();
+                else
+                    startReOrgFromLastSnapshot();
+                return false;
             } catch (Throwable throwable) {
                 log.error(throwable.toString());
                 throwable.printStackTrace();
@@ -162,5 +171,6 @@ public class LiteNode extends BsqNode {
                     errorMessageHandler.handleErrorMessage(throwable.toString());
             }
         }
+        return true;
     }
 }
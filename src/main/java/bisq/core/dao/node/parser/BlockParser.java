@@ -21,7 +21,9 @@ import bisq.core.dao.node.parser.exceptions.BlockNotConnectingException;
 import bisq.core.dao.state.BsqStateService;
 import bisq.core.dao.state.blockchain.Block;
 import bisq.core.dao.state.blockchain.RawBlock;
+import bisq.core.dao.state.blockchain.RawTx;
 import bisq.core.dao.state.blockchain.Tx;
+import bisq.core.dao.state.blockchain.TxInput;
 
 import bisq.common.app.DevEnv;
 
@@ -29,6 +31,8 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import java.util.LinkedList;
 import java.util.List;
 
@@ -108,19 +112,41 @@ public class BlockParser {
         long startTs = System.currentTimeMillis();
         List<Tx> txList = block.getTxs();
 
-        rawBlock.getRawTxs().forEach(rawTx -> {
-            txParser.findTx(rawTx,
-                    genesisTxId,
-                    genesisBlockHeight,
-                    genesisTotalSupply)
-                    .ifPresent(txList::add);
-        });
-        log.debug("parseBsqTxs took {} ms", rawBlock.getRawTxs().size(), System.currentTimeMillis() - startTs);
+        int numSkippedTxs = 0;
+        for (RawTx rawTx : rawBlock.getRawTxs()) {
+            // Txs in the same block might spend outputs of BSQ txs parsed before, so we must not evaluate the
+            // candidates before we have parsed the previous txs.
+            if (isBsqTxCandidate(rawTx)) {
+                txParser.findTx(rawTx,
+                        genesisTxId,
+                        genesisBlockHeight,
+                        genesisTotalSupply)
+                        .ifPresent(txList::add);
+            } else {
+                numSkippedTxs++;
+            }
+        }
+        log.debug("parseBsqTxs of {} txs took {} ms. {} txs did not spend BSQ and have been skipped.",
+                rawBlock.getRawTxs().size(), System.currentTimeMillis() - startTs, numSkippedTxs);
 
         bsqStateService.onParseBlockComplete(block);
         return block;
     }
 
+    // A tx which is not the genesis tx can only be a BSQ tx if it spends at least one unspent BSQ output.
+    // The unspent output filter has no false negatives, so we don't miss any BSQ tx.
+    @VisibleForTesting
+    boolean isBsqTxCandidate(RawTx rawTx) {
+        if (rawTx.getBlockHeight() == genesisBlockHeight && rawTx.getId().equals(genesisTxId))
+            return true;
+
+        for (TxInput txInput : rawTx.getTxInputs()) {
+            if (bsqStateService.mightBeUnspent(txInput.getConnectedTxOutputKey()))
+                return true;
+        }
+        return false;
+    }
+
     private void validateIfBlockIsConnecting(RawBlock rawBlock) throws BlockNotConnectingException {
         LinkedList<Block> blocks = bsqStateService.getBlocks();
         if (!isBlockConnecting(rawBlock, blocks)) {
@@ -38,6 +38,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -142,11 +143,11 @@ public class BsqState implements PersistableEnvelope {
                 .addAllCycles(cycles.stream().map(Cycle::toProtoMessage).collect(Collectors.toList()))
                 .putAllUnspentTxOutputMap(unspentTxOutputMap.entrySet().stream()
                         .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().toProtoMessage())))
-                .putAllUnspentTxOutputMap(nonBsqTxOutputMap.entrySet().stream()
+                .putAllNonBsqTxOutputMap(nonBsqTxOutputMap.entrySet().stream()
                         .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().toProtoMessage())))
                 .putAllSpentInfoMap(spentInfoMap.entrySet().stream()
                         .collect(Collectors.toMap(e -> e.getKey().toString(), entry -> entry.getValue().toProtoMessage())))
-                .putAllUnspentTxOutputMap(confiscatedTxOutputMap.entrySet().stream()
+                .putAllConfiscatedTxOutputMap(confiscatedTxOutputMap.entrySet().stream()
                         .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().toProtoMessage())))
                 .putAllIssuanceMap(issuanceMap.entrySet().stream()
                         .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toProtoMessage())))
@@ -160,14 +161,10 @@ public class BsqState implements PersistableEnvelope {
                 .collect(Collectors.toCollection(LinkedList::new));
         final LinkedList<Cycle> cycles = proto.getCyclesList().stream()
                 .map(Cycle::fromProto).collect(Collectors.toCollection(LinkedList::new));
-        Map<TxOutputKey, TxOutput> unspentTxOutputMap = proto.getUnspentTxOutputMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue())));
-        Map<TxOutputKey, TxOutput> nonBsqTxOutputMap = proto.getNonBsqTxOutputMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue())));
-        Map<TxOutputKey, SpentInfo> spentInfoMap = proto.getSpentInfoMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> SpentInfo.fromProto(e.getValue())));
-        Map<TxOutputKey, TxOutput> confiscatedTxOutputMap = proto.getConfiscatedTxOutputMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue())));
+        Map<TxOutputKey, TxOutput> unspentTxOutputMap = getTxOutputKeyMap(proto.getUnspentTxOutputMapMap(), TxOutput::fromProto);
+        Map<TxOutputKey, TxOutput> nonBsqTxOutputMap = getTxOutputKeyMap(proto.getNonBsqTxOutputMapMap(), TxOutput::fromProto);
+        Map<TxOutputKey, SpentInfo> spentInfoMap = getTxOutputKeyMap(proto.getSpentInfoMapMap(), SpentInfo::fromProto);
+        Map<TxOutputKey, TxOutput> confiscatedTxOutputMap = getTxOutputKeyMap(proto.getConfiscatedTxOutputMapMap(), TxOutput::fromProto);
         Map<String, Issuance> issuanceMap = proto.getIssuanceMapMap().entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> Issuance.fromProto(e.getValue())));
         final List<ParamChange> paramChangeList = proto.getParamChangeListList().stream()
@@ -183,6 +180,13 @@ public class BsqState implements PersistableEnvelope {
                 paramChangeList);
     }
 
+    // The maps are sized upfront to avoid rehashing when loading a large state
+    private static <P, V> Map<TxOutputKey, V> getTxOutputKeyMap(Map<String, P> protoMap, Function<P, V> fromProto) {
+        Map<TxOutputKey, V> map = new HashMap<>(Math.max(16, (int) (protoMap.size() / 0.75f) + 1));
+        protoMap.forEach((key, value) -> map.put(TxOutputKey.getKeyFromString(key), fromProto.apply(value)));
+        return map;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Package scope access
@@ -0,0 +1,231 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.blockchain.SpentInfo;
+import bisq.core.dao.state.blockchain.TxOutput;
+import bisq.core.dao.state.governance.Issuance;
+import bisq.core.dao.state.governance.ParamChange;
+
+import bisq.common.crypto.Hash;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Rolling hash over the mutable BSQ state (unspent and non-BSQ tx outputs, spent info, confiscated tx outputs,
+ * issuances and param changes).
+ * Each state entry is hashed on its own and the entry hashes are summed up modulo 2^256. Adding or removing an entry
+ * is a constant time update of the sum and the result does not depend on the order of the mutations, so a node
+ * which has applied a snapshot gets the same hash as a node which has parsed all blocks.
+ * At the end of each block we store SHA256(height, blockHash, sum) as state hash of that block. Two nodes with the
+ * same state hash at a height have the same block and the same state at that height.
+ * Entries are hashed from an explicit encoding of their consensus fields only. Fields which depend on the node's
+ * configuration (e.g. the pubKeyScript of a tx output which is only set with dumpBlockchainData) must not be part of
+ * the encoding, otherwise honest nodes would report different hashes.
+ */
+class BsqStateHash {
+    static final String UNSPENT_TX_OUTPUT = "utxo";
+    static final String NON_BSQ_TX_OUTPUT = "nonBsq";
+    static final String SPENT_INFO = "spentInfo";
+    static final String CONFISCATED_TX_OUTPUT = "confiscated";
+    static final String ISSUANCE = "issuance";
+    static final String PARAM_CHANGE = "paramChange";
+
+    private static final int NUM_WORDS = 4;
+
+    // Little endian words, accumulator[0] holds the lowest 64 bits
+    private final long[] accumulator = new long[NUM_WORDS];
+    private final NavigableMap<Integer, byte[]> hashByHeight = new TreeMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(String type, String key, byte[] entry) {
+        long[] entryHash = getEntryHash(type, key, entry);
+        long carry = 0;
+        for (int i = 0; i < NUM_WORDS; i++) {
+            long sum = accumulator[i] + entryHash[i];
+            long carryOut = Long.compareUnsigned(sum, accumulator[i]) < 0 ? 1 : 0;
+            sum += carry;
+            if (carry == 1 && sum == 0)
+                carryOut = 1;
+            accumulator[i] = sum;
+            carry = carryOut;
+        }
+    }
+
+    void remove(String type, String key, byte[] entry) {
+        long[] entryHash = getEntryHash(type, key, entry);
+        long borrow = 0;
+        for (int i = 0; i < NUM_WORDS; i++) {
+            long difference = accumulator[i] - entryHash[i];
+            long borrowOut = Long.compareUnsigned(accumulator[i], entryHash[i]) < 0 ? 1 : 0;
+            if (borrow == 1 && difference == 0)
+                borrowOut = 1;
+            accumulator[i] = difference - borrow;
+            borrow = borrowOut;
+        }
+    }
+
+    // Resets the accumulator and the stored block hashes. Used before the state gets rebuilt from a snapshot.
+    void reset() {
+        for (int i = 0; i < NUM_WORDS; i++) {
+            accumulator[i] = 0;
+        }
+        hashByHeight.clear();
+    }
+
+    byte[] onBlockComplete(int height, String blockHash) {
+        byte[] blockHashBytes = blockHash.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + blockHashBytes.length + NUM_WORDS * 8);
+        buffer.putInt(height).put(blockHashBytes);
+        for (int i = NUM_WORDS - 1; i >= 0; i--) {
+            buffer.putLong(accumulator[i]);
+        }
+        byte[] hash = Hash.getSha256Hash(buffer.array());
+        hashByHeight.put(height, hash);
+        return hash;
+    }
+
+    // Removes the hashes of all blocks from the given height on, e.g. if those blocks got removed at a reorg
+    void removeFromHeight(int height) {
+        hashByHeight.tailMap(height, true).clear();
+    }
+
+    Optional<byte[]> get(int height) {
+        return Optional.ofNullable(hashByHeight.get(height));
+    }
+
+    NavigableMap<Integer, byte[]> getRange(int fromHeight, int toHeight) {
+        if (fromHeight > toHeight)
+            return Collections.emptyNavigableMap();
+        return Collections.unmodifiableNavigableMap(hashByHeight.subMap(fromHeight, true, toHeight, true));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Entry encoding
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static byte[] encode(TxOutput txOutput) {
+        return new EntryEncoder()
+                .putString(txOutput.getTxId())
+                .putInt(txOutput.getIndex())
+                .putLong(txOutput.getValue())
+                .putString(txOutput.getTxOutputType().name())
+                .putInt(txOutput.getBlockHeight())
+                .toByteArray();
+    }
+
+    static byte[] encode(SpentInfo spentInfo) {
+        return new EntryEncoder()
+                .putLong(spentInfo.getBlockHeight())
+                .putString(spentInfo.getTxId())
+                .putInt(spentInfo.getInputIndex())
+                .toByteArray();
+    }
+
+    static byte[] encode(Issuance issuance) {
+        return new EntryEncoder()
+                .putString(issuance.getTxId())
+                .putInt(issuance.getChainHeight())
+                .putLong(issuance.getAmount())
+                .putString(issuance.getPubKey())
+                .toByteArray();
+    }
+
+    static byte[] encode(ParamChange paramChange) {
+        return new EntryEncoder()
+                .putString(paramChange.getParamName())
+                .putLong(paramChange.getValue())
+                .putInt(paramChange.getActivationHeight())
+                .toByteArray();
+    }
+
+    // Big endian fixed size numbers and length prefixed UTF-8 strings. A null string is encoded with length -1.
+    private static class EntryEncoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private EntryEncoder putInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                // Cannot happen with a ByteArrayOutputStream
+                throw new RuntimeException(e);
+            }
+            return this;
+        }
+
+        private EntryEncoder putLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return this;
+        }
+
+        private EntryEncoder putString(@Nullable String value) {
+            if (value == null)
+                return putInt(-1);
+
+            byte[] stringBytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(stringBytes.length);
+            bytes.write(stringBytes, 0, stringBytes.length);
+            return this;
+        }
+
+        private byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static long[] getEntryHash(String type, String key, byte[] entryBytes) {
+        byte[] typeAndKey = (type + "|" + key + "|").getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[typeAndKey.length + entryBytes.length];
+        System.arraycopy(typeAndKey, 0, bytes, 0, typeAndKey.length);
+        System.arraycopy(entryBytes, 0, bytes, typeAndKey.length, entryBytes.length);
+
+        ByteBuffer hash = ByteBuffer.wrap(Hash.getSha256Hash(bytes));
+        long[] words = new long[NUM_WORDS];
+        for (int i = NUM_WORDS - 1; i >= 0; i--) {
+            words[i] = hash.getLong();
+        }
+        return words;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.blockchain.Block;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Bounded undo journal of the BSQ state mutations of the most recent blocks.
+ * For each block we record the chain height and number of cycles before the block and an undo action for each
+ * mutation of the state maps. At a reorg the blocks above the fork point are undone one by one in reverse order, so
+ * only the blocks of the new chain need to be parsed instead of replaying all blocks since the last snapshot.
+ */
+class BsqStateJournal {
+    // Reorgs deeper than a few blocks are very rare. If it happens we fall back to the last snapshot.
+    static final int MAX_DEPTH = 100;
+
+    static class BlockEntry {
+        @Getter
+        private final int previousChainHeight;
+        @Getter
+        private final int previousNumCycles;
+        // Not set if the block was already added
+        @Nullable
+        @Getter
+        private Block block;
+        private final List<Runnable> undoActions = new ArrayList<>();
+
+        private BlockEntry(int previousChainHeight, int previousNumCycles) {
+            this.previousChainHeight = previousChainHeight;
+            this.previousNumCycles = previousNumCycles;
+        }
+
+        void undo() {
+            for (int i = undoActions.size() - 1; i >= 0; i--) {
+                undoActions.get(i).run();
+            }
+        }
+    }
+
+    private final int maxDepth;
+    private final Deque<BlockEntry> entries = new ArrayDeque<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BsqStateJournal() {
+        this(MAX_DEPTH);
+    }
+
+    BsqStateJournal(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void startBlock(int previousChainHeight, int previousNumCycles) {
+        entries.addLast(new BlockEntry(previousChainHeight, previousNumCycles));
+        if (entries.size() > maxDepth)
+            entries.removeFirst();
+    }
+
+    void setBlock(Block block) {
+        if (!entries.isEmpty())
+            entries.getLast().block = block;
+    }
+
+    // Mutations are recorded to the block which is currently parsed. Mutations before the first recorded block
+    // (e.g. from applying a snapshot) cannot be undone anyway, so we don't record them.
+    void record(Runnable undoAction) {
+        if (!entries.isEmpty())
+            entries.getLast().undoActions.add(undoAction);
+    }
+
+    Optional<BlockEntry> removeLast() {
+        return Optional.ofNullable(entries.pollLast());
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int getDepth() {
+        return entries.size();
+    }
+}
@@ -41,18 +41,23 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
@@ -60,6 +65,13 @@ public class BsqStateService implements DaoSetupService {
     private final BsqState bsqState;
     private final GenesisTxInfo genesisTxInfo;
     private final List<BsqStateListener> bsqStateListeners = new CopyOnWriteArrayList<>();
+    private final UnspentTxOutputFilter unspentTxOutputFilter = new UnspentTxOutputFilter();
+    private final BsqStateHash stateHash = new BsqStateHash();
+    private final BsqStateJournal journal = new BsqStateJournal();
+    // Txs of all completely parsed blocks by txId
+    private final Map<String, Tx> txById = new HashMap<>();
+    @Nullable
+    private Block lastIndexedBlock;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -102,6 +114,7 @@ public class BsqStateService implements DaoSetupService {
 
         bsqState.getUnspentTxOutputMap().clear();
         bsqState.getUnspentTxOutputMap().putAll(snapshot.getUnspentTxOutputMap());
+        unspentTxOutputFilter.rebuild(bsqState.getUnspentTxOutputMap().keySet());
 
         bsqState.getConfiscatedTxOutputMap().clear();
         bsqState.getConfiscatedTxOutputMap().putAll(snapshot.getConfiscatedTxOutputMap());
@@ -114,6 +127,13 @@ public class BsqStateService implements DaoSetupService {
 
         bsqState.getParamChangeList().clear();
         bsqState.getParamChangeList().addAll(snapshot.getParamChangeList());
+
+        bsqState.getNonBsqTxOutputMap().clear();
+        bsqState.getNonBsqTxOutputMap().putAll(snapshot.getNonBsqTxOutputMap());
+
+        rebuildStateHash();
+        journal.clear();
+        rebuildTxIndex();
     }
 
     public BsqState getClone() {
@@ -169,6 +189,7 @@ public class BsqStateService implements DaoSetupService {
 
     // First we get the blockHeight set
     public void onNewBlockHeight(int blockHeight) {
+        journal.startBlock(bsqState.getChainHeight(), bsqState.getCycles().size());
         bsqState.setChainHeight(blockHeight);
         bsqStateListeners.forEach(listener -> listener.onNewBlockHeight(blockHeight));
     }
@@ -176,6 +197,7 @@ public class BsqStateService implements DaoSetupService {
     // Second we get the block added with empty txs
     public void onNewBlockWithEmptyTxs(Block block) {
         bsqState.getBlocks().add(block);
+        journal.setBlock(block);
         bsqStateListeners.forEach(l -> l.onEmptyBlockAdded(block));
 
         log.info("New Block added at blockHeight " + block.getHeight());
@@ -183,7 +205,15 @@ public class BsqStateService implements DaoSetupService {
 
     // Third we get the onParseBlockComplete called after all rawTxs of blocks have been parsed
     public void onParseBlockComplete(Block block) {
+        if (getLastBlock().filter(lastBlock -> lastBlock == block).isPresent()) {
+            block.getTxs().forEach(tx -> txById.put(tx.getId(), tx));
+            lastIndexedBlock = block;
+        }
         bsqStateListeners.forEach(l -> l.onParseTxsComplete(block));
+
+        // Listeners might have changed the state (e.g. issuance or param changes from the vote result), so we
+        // complete the state hash after all listeners got called
+        stateHash.onBlockComplete(block.getHeight(), block.getHash());
     }
 
     // Called after parsing of all pending blocks is completed
@@ -271,7 +301,16 @@ public class BsqStateService implements DaoSetupService {
     }
 
     public Optional<Tx> getTx(String txId) {
-        return getTxStream().filter(tx -> tx.getId().equals(txId)).findAny();
+        Tx tx = txById.get(txId);
+        if (tx != null)
+            return Optional.of(tx);
+
+        // The txs of the block which is currently parsed are not indexed yet
+        return getLastBlock()
+                .filter(block -> block != lastIndexedBlock)
+                .flatMap(block -> block.getTxs().stream()
+                        .filter(candidate -> candidate.getId().equals(txId))
+                        .findAny());
     }
 
     public boolean containsTx(String txId) {
@@ -345,11 +384,24 @@ public class BsqStateService implements DaoSetupService {
     }
 
     public void addUnspentTxOutput(TxOutput txOutput) {
-        getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        TxOutput previous = putUnspentTxOutput(txOutput);
+        journal.record(() -> {
+            removeUnspentTxOutputByKey(txOutput.getKey());
+            if (previous != null)
+                putUnspentTxOutput(previous);
+        });
     }
 
     public void removeUnspentTxOutput(TxOutput txOutput) {
-        getUnspentTxOutputMap().remove(txOutput.getKey());
+        TxOutput removed = removeUnspentTxOutputByKey(txOutput.getKey());
+        if (removed != null)
+            journal.record(() -> putUnspentTxOutput(removed));
+    }
+
+    // Fast negative check: If false is returned the key is not in the unspent map. Might return true for keys
+    // which are not in the map.
+    public boolean mightBeUnspent(TxOutputKey key) {
+        return unspentTxOutputFilter.mightContain(key);
     }
 
     public boolean isUnspent(TxOutputKey key) {
@@ -475,7 +527,8 @@ public class BsqStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addIssuance(Issuance issuance) {
-        bsqState.getIssuanceMap().put(issuance.getTxId(), issuance);
+        putAndRecord(bsqState.getIssuanceMap(), BsqStateHash.ISSUANCE, issuance.getTxId(), issuance,
+                BsqStateHash::encode);
     }
 
     public Set<Issuance> getIssuanceSet() {
@@ -514,7 +567,8 @@ public class BsqStateService implements DaoSetupService {
     public void addNonBsqTxOutput(TxOutput txOutput) {
         checkArgument(txOutput.getTxOutputType() == TxOutputType.ISSUANCE_CANDIDATE_OUTPUT,
                 "txOutput must be type ISSUANCE_CANDIDATE_OUTPUT");
-        bsqState.getNonBsqTxOutputMap().put(txOutput.getKey(), txOutput);
+        putAndRecord(bsqState.getNonBsqTxOutputMap(), BsqStateHash.NON_BSQ_TX_OUTPUT, txOutput.getKey(), txOutput,
+                BsqStateHash::encode);
     }
 
     public Optional<TxOutput> getBtcTxOutput(TxOutputKey key) {
@@ -703,7 +757,8 @@ public class BsqStateService implements DaoSetupService {
     }
 
     public void applyConfiscateBond(TxOutput txOutput) {
-        bsqState.getConfiscatedTxOutputMap().put(txOutput.getKey(), txOutput);
+        putAndRecord(bsqState.getConfiscatedTxOutputMap(), BsqStateHash.CONFISCATED_TX_OUTPUT, txOutput.getKey(),
+                txOutput, BsqStateHash::encode);
 
         // TODO SQ TxOutputType is immutable after parsing
         // We need to add new checks if a txo is not confiscated by using the map similar like utxo map
@@ -726,6 +781,12 @@ public class BsqStateService implements DaoSetupService {
                 .ifPresent(heightOfNewCycle -> {
                     ParamChange paramChange = new ParamChange(param.name(), paramValue, heightOfNewCycle);
                     paramChangeList.add(paramChange);
+                    stateHash.add(BsqStateHash.PARAM_CHANGE, paramChange.getParamName(), BsqStateHash.encode(paramChange));
+                    journal.record(() -> {
+                        paramChangeList.remove(paramChange);
+                        stateHash.remove(BsqStateHash.PARAM_CHANGE, paramChange.getParamName(),
+                                BsqStateHash.encode(paramChange));
+                    });
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
                 });
@@ -754,7 +815,8 @@ public class BsqStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void setSpentInfo(TxOutputKey txOutputKey, SpentInfo spentInfo) {
-        bsqState.getSpentInfoMap().put(txOutputKey, spentInfo);
+        putAndRecord(bsqState.getSpentInfoMap(), BsqStateHash.SPENT_INFO, txOutputKey, spentInfo,
+                BsqStateHash::encode);
     }
 
     public Optional<SpentInfo> getSpentInfo(TxOutput txOutput) {
@@ -762,6 +824,72 @@ public class BsqStateService implements DaoSetupService {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Reorg
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Undoes all state changes of the last block and removes the block. Returns false if the undo journal does not
+    // contain any more blocks, in that case the state has to be rebuilt from a snapshot.
+    public boolean undoLastBlock() {
+        Optional<BsqStateJournal.BlockEntry> optionalEntry = journal.removeLast();
+        if (!optionalEntry.isPresent())
+            return false;
+
+        BsqStateJournal.BlockEntry entry = optionalEntry.get();
+        entry.undo();
+        Block block = entry.getBlock();
+        if (block != null) {
+            checkArgument(getBlocks().getLast() == block, "Undone block must be the last block");
+            getBlocks().removeLast();
+            stateHash.removeFromHeight(block.getHeight());
+            block.getTxs().forEach(tx -> txById.remove(tx.getId()));
+            lastIndexedBlock = getLastBlock().orElse(null);
+        }
+        LinkedList<Cycle> cycles = getCycles();
+        while (cycles.size() > entry.getPreviousNumCycles()) {
+            cycles.removeLast();
+        }
+        bsqState.setChainHeight(entry.getPreviousChainHeight());
+        return true;
+    }
+
+    public int getUndoDepth() {
+        return journal.getDepth();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // State hash
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the state hash after the block at that height was parsed. Hashes are only available for blocks
+    // parsed since startup and for the last block of an applied snapshot.
+    public Optional<byte[]> getStateHash(int height) {
+        return stateHash.get(height);
+    }
+
+    public NavigableMap<Integer, byte[]> getStateHashes(int fromHeight, int toHeight) {
+        return stateHash.getRange(fromHeight, toHeight);
+    }
+
+    private void rebuildStateHash() {
+        stateHash.reset();
+        bsqState.getUnspentTxOutputMap().forEach((key, txOutput) ->
+                stateHash.add(BsqStateHash.UNSPENT_TX_OUTPUT, key.toString(), BsqStateHash.encode(txOutput)));
+        bsqState.getNonBsqTxOutputMap().forEach((key, txOutput) ->
+                stateHash.add(BsqStateHash.NON_BSQ_TX_OUTPUT, key.toString(), BsqStateHash.encode(txOutput)));
+        bsqState.getSpentInfoMap().forEach((key, spentInfo) ->
+                stateHash.add(BsqStateHash.SPENT_INFO, key.toString(), BsqStateHash.encode(spentInfo)));
+        bsqState.getConfiscatedTxOutputMap().forEach((key, txOutput) ->
+                stateHash.add(BsqStateHash.CONFISCATED_TX_OUTPUT, key.toString(), BsqStateHash.encode(txOutput)));
+        bsqState.getIssuanceMap().forEach((txId, issuance) ->
+                stateHash.add(BsqStateHash.ISSUANCE, txId, BsqStateHash.encode(issuance)));
+        bsqState.getParamChangeList().forEach(paramChange ->
+                stateHash.add(BsqStateHash.PARAM_CHANGE, paramChange.getParamName(), BsqStateHash.encode(paramChange)));
+        getLastBlock().ifPresent(block -> stateHash.onBlockComplete(block.getHeight(), block.getHash()));
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listeners
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -773,5 +901,67 @@ public class BsqStateService implements DaoSetupService {
     public void removeBsqStateListener(BsqStateListener listener) {
         bsqStateListeners.remove(listener);
     }
-}
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The methods below change the state maps and keep the state hash in sync but don't record to the journal, so
+    // they can be used by the undo actions as well.
+
+    @Nullable
+    private TxOutput putUnspentTxOutput(TxOutput txOutput) {
+        TxOutput previous = put(getUnspentTxOutputMap(), BsqStateHash.UNSPENT_TX_OUTPUT, txOutput.getKey(), txOutput,
+                BsqStateHash::encode);
+        unspentTxOutputFilter.add(txOutput.getKey());
+        if (unspentTxOutputFilter.isRebuildRequired())
+            unspentTxOutputFilter.rebuild(getUnspentTxOutputMap().keySet());
+        return previous;
+    }
+
+    @Nullable
+    private TxOutput removeUnspentTxOutputByKey(TxOutputKey key) {
+        TxOutput removed = remove(getUnspentTxOutputMap(), BsqStateHash.UNSPENT_TX_OUTPUT, key, BsqStateHash::encode);
+        if (removed != null) {
+            unspentTxOutputFilter.onRemoved();
+            if (unspentTxOutputFilter.isRebuildRequired())
+                unspentTxOutputFilter.rebuild(getUnspentTxOutputMap().keySet());
+        }
+        return removed;
+    }
+
+    private <K, V> void putAndRecord(Map<K, V> map, String stateHashType, K key, V value,
+                                     Function<V, byte[]> encoder) {
+        V previous = put(map, stateHashType, key, value, encoder);
+        journal.record(() -> {
+            remove(map, stateHashType, key, encoder);
+            if (previous != null)
+                put(map, stateHashType, key, previous, encoder);
+        });
+    }
+
+    @Nullable
+    private <K, V> V put(Map<K, V> map, String stateHashType, K key, V value,
+                         Function<V, byte[]> encoder) {
+        V previous = map.put(key, value);
+        if (previous != null)
+            stateHash.remove(stateHashType, key.toString(), encoder.apply(previous));
+        stateHash.add(stateHashType, key.toString(), encoder.apply(value));
+        return previous;
+    }
+
+    @Nullable
+    private <K, V> V remove(Map<K, V> map, String stateHashType, K key, Function<V, byte[]> encoder) {
+        V removed = map.remove(key);
+        if (removed != null)
+            stateHash.remove(stateHashType, key.toString(), encoder.apply(removed));
+        return removed;
+    }
+
+    private void rebuildTxIndex() {
+        txById.clear();
+        getTxStream().forEach(tx -> txById.put(tx.getId(), tx));
+        lastIndexedBlock = getLastBlock().orElse(null);
+    }
+}
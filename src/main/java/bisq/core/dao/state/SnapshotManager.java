@@ -20,6 +20,7 @@ package bisq.core.dao.state;
 import bisq.core.dao.state.blockchain.Block;
 
 import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.storage.FileUtil;
 import bisq.common.storage.Storage;
 
 import javax.inject.Inject;
@@ -28,6 +29,7 @@ import javax.inject.Named;
 import com.google.common.annotations.VisibleForTesting;
 
 import java.io.File;
+import java.io.IOException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,15 +37,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Manages snapshots of BsqState.
+ * Snapshots written before the non-BSQ and confiscated tx outputs got their own maps in the snapshot (stored in the
+ * file BsqState) had those outputs merged into the unspent tx outputs. We cannot separate them again, so we delete
+ * such a legacy snapshot and the node resyncs the DAO state from the genesis tx.
  * // FIXME not working correctly anymore
  */
 @Slf4j
 public class SnapshotManager implements BsqStateListener {
     private static final int SNAPSHOT_GRID = 11000;
+    private static final String LEGACY_SNAPSHOT_FILE_NAME = "BsqState";
+    private static final String SNAPSHOT_FILE_NAME = "BsqStateV2";
 
     private final BsqState bsqState;
     private final BsqStateService bsqStateService;
     private final Storage<BsqState> storage;
+    private final File storageDir;
 
     private BsqState snapshotCandidate;
 
@@ -54,6 +62,7 @@ public class SnapshotManager implements BsqStateListener {
                            @Named(Storage.STORAGE_DIR) File storageDir) {
         this.bsqState = bsqState;
         this.bsqStateService = bsqStateService;
+        this.storageDir = storageDir;
         storage = new Storage<>(storageDir, persistenceProtoResolver);
 
         this.bsqStateService.addBsqStateListener(this);
@@ -99,7 +108,8 @@ public class SnapshotManager implements BsqStateListener {
 
     public void applySnapshot() {
         checkNotNull(storage, "storage must not be null");
-        BsqState persisted = storage.initAndGetPersisted(bsqState, 100);
+        deleteLegacySnapshot();
+        BsqState persisted = storage.initAndGetPersisted(bsqState, SNAPSHOT_FILE_NAME, 100);
         if (persisted != null) {
             log.info("applySnapshot persisted.chainHeadHeight=" + bsqStateService.getBlocksFromState(persisted).getLast().getHeight());
             bsqStateService.applySnapshot(persisted);
@@ -126,4 +136,17 @@ public class SnapshotManager implements BsqStateListener {
     private boolean isSnapshotHeight(int height) {
         return isSnapshotHeight(bsqStateService.getGenesisBlockHeight(), height, SNAPSHOT_GRID);
     }
+
+    private void deleteLegacySnapshot() {
+        File legacySnapshotFile = new File(storageDir, LEGACY_SNAPSHOT_FILE_NAME);
+        if (legacySnapshotFile.exists()) {
+            log.warn("We delete the snapshot {} which was written in the old format. The DAO state will be resynced " +
+                    "from the genesis tx.", legacySnapshotFile);
+            try {
+                FileUtil.deleteFileIfExists(legacySnapshotFile);
+            } catch (IOException e) {
+                log.error("Could not delete legacy snapshot. " + e.toString());
+            }
+        }
+    }
 }
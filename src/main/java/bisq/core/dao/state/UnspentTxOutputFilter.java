@@ -0,0 +1,122 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.blockchain.TxOutputKey;
+
+import java.util.Collection;
+
+import lombok.Getter;
+
+/**
+ * Bloom filter over the keys of the unspent BSQ tx outputs. If mightContain returns false the key is certainly not
+ * in the unspent map, so the block parser can skip the (vast majority of) transactions which do not spend any BSQ
+ * without creating the temporary parsing objects.
+ * Removed keys cannot be cleared from a bloom filter, so we count them and request a rebuild if too many stale
+ * entries would increase the false positive rate. We also request a rebuild if more keys got added than the filter
+ * was sized for.
+ */
+class UnspentTxOutputFilter {
+    // With 10 bits per entry and 4 hash functions the false positive rate is about 1.2%
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int NUM_HASHES = 4;
+    private static final int MIN_CAPACITY = 4096;
+
+    private long[] bits;
+    private int numBitsMask;
+    @Getter
+    private int capacity;
+    private int numAdded;
+    private int numRemoved;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    UnspentTxOutputFilter() {
+        init(MIN_CAPACITY);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void rebuild(Collection<TxOutputKey> keys) {
+        // We leave room for growth so we don't need to rebuild at each new block
+        init(Math.max(MIN_CAPACITY, keys.size() * 2));
+        keys.forEach(this::add);
+    }
+
+    void add(TxOutputKey key) {
+        int hash1 = key.hashCode();
+        int hash2 = getSecondHash(hash1);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bitIndex = (hash1 + i * hash2) & numBitsMask;
+            bits[bitIndex >>> 6] |= 1L << bitIndex;
+        }
+        numAdded++;
+    }
+
+    void onRemoved() {
+        numRemoved++;
+    }
+
+    boolean mightContain(TxOutputKey key) {
+        int hash1 = key.hashCode();
+        int hash2 = getSecondHash(hash1);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bitIndex = (hash1 + i * hash2) & numBitsMask;
+            if ((bits[bitIndex >>> 6] & (1L << bitIndex)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    boolean isRebuildRequired() {
+        return numAdded > capacity || numRemoved > capacity / 2;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void init(int capacity) {
+        this.capacity = capacity;
+        // Number of bits is rounded up to a power of 2 so we can use a mask instead of modulo
+        int numBits = Integer.highestOneBit(capacity * BITS_PER_ENTRY - 1) << 1;
+        bits = new long[Math.max(1, numBits >>> 6)];
+        numBitsMask = numBits - 1;
+        numAdded = 0;
+        numRemoved = 0;
+    }
+
+    // Derive a second independent hash by mixing the bits (finalizer of MurmurHash3). It must be odd so the
+    // probe positions of the double hashing don't collapse.
+    private static int getSecondHash(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+}
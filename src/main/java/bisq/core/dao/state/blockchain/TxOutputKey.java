@@ -17,25 +17,130 @@
 
 package bisq.core.dao.state.blockchain;
 
-import lombok.Value;
+import lombok.Getter;
 
-@Value
+import javax.annotation.Nullable;
+
+/**
+ * Key of a tx output (txId and output index).
+ * The UTXO maps of the BSQ state hold one key per output, so we store the 32 byte txId in 4 longs instead of a
+ * 64 character hex string and cache the hashCode. TxIds which are not in the lower case hex format of a tx hash
+ * (e.g. in tests) are kept as string.
+ * The string representation "txId:index" is unchanged as it is used as key in the persisted protobuf maps.
+ */
 public final class TxOutputKey {
-    private final String txId;
+    private static final int TX_ID_LENGTH = 64;
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private final long txId0;
+    private final long txId1;
+    private final long txId2;
+    private final long txId3;
+    // Only set if the txId is not a 64 character lower case hex string
+    @Nullable
+    private final String nonHexTxId;
+    @Getter
     private final int index;
+    private final int hashCode;
 
     public TxOutputKey(String txId, int index) {
-        this.txId = txId;
         this.index = index;
+        if (isHexTxId(txId)) {
+            txId0 = parseHex(txId, 0);
+            txId1 = parseHex(txId, 16);
+            txId2 = parseHex(txId, 32);
+            txId3 = parseHex(txId, 48);
+            nonHexTxId = null;
+        } else {
+            txId0 = 0;
+            txId1 = 0;
+            txId2 = 0;
+            txId3 = 0;
+            nonHexTxId = txId;
+        }
+        hashCode = computeHashCode();
+    }
+
+    public String getTxId() {
+        if (nonHexTxId != null)
+            return nonHexTxId;
+
+        char[] chars = new char[TX_ID_LENGTH];
+        writeHex(chars, 0, txId0);
+        writeHex(chars, 16, txId1);
+        writeHex(chars, 32, txId2);
+        writeHex(chars, 48, txId3);
+        return new String(chars);
     }
 
     @Override
     public String toString() {
-        return txId + ":" + index;
+        return getTxId() + ":" + index;
     }
 
     public static TxOutputKey getKeyFromString(String keyAsString) {
-        final String[] tokens = keyAsString.split(":");
-        return new TxOutputKey(tokens[0], Integer.valueOf(tokens[1]));
+        int separatorIndex = keyAsString.lastIndexOf(':');
+        return new TxOutputKey(keyAsString.substring(0, separatorIndex),
+                Integer.parseInt(keyAsString.substring(separatorIndex + 1)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TxOutputKey)) return false;
+
+        TxOutputKey that = (TxOutputKey) o;
+        if (hashCode != that.hashCode) return false;
+        if (index != that.index) return false;
+        if (txId0 != that.txId0 || txId1 != that.txId1 || txId2 != that.txId2 || txId3 != that.txId3) return false;
+        return nonHexTxId != null ? nonHexTxId.equals(that.nonHexTxId) : that.nonHexTxId == null;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private int computeHashCode() {
+        if (nonHexTxId != null)
+            return 31 * nonHexTxId.hashCode() + index;
+
+        int result = Long.hashCode(txId0);
+        result = 31 * result + Long.hashCode(txId1);
+        result = 31 * result + Long.hashCode(txId2);
+        result = 31 * result + Long.hashCode(txId3);
+        return 31 * result + index;
+    }
+
+    private static boolean isHexTxId(String txId) {
+        if (txId.length() != TX_ID_LENGTH)
+            return false;
+
+        for (int i = 0; i < TX_ID_LENGTH; i++) {
+            char c = txId.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f'))
+                return false;
+        }
+        return true;
+    }
+
+    private static long parseHex(String txId, int offset) {
+        long result = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            result = (result << 4) | Character.digit(txId.charAt(i), 16);
+        }
+        return result;
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = offset + 15; i >= offset; i--) {
+            chars[i] = HEX_CHARS[(int) (value & 0xf)];
+            value >>>= 4;
+        }
     }
 }
@@ -0,0 +1,186 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state.period;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.Getter;
+
+/**
+ * Table of the block intervals of the cycles and their phases. The cycles in the state are a linked list and each
+ * lookup used to stream over all cycles and their phases. Here the intervals are computed once per cycle and the
+ * cycle for a height is found with a binary search over the first blocks of the cycles.
+ * The table gets extended when new cycles are added and rebuilt if cycles got removed or replaced (e.g. at a
+ * reorg or when a snapshot got applied).
+ */
+class CycleTable {
+    private static final DaoPhase.Phase[] PHASES = DaoPhase.Phase.values();
+
+    static class Entry {
+        @Getter
+        private final Cycle cycle;
+        @Getter
+        private final int heightOfFirstBlock;
+        @Getter
+        private final int heightOfLastBlock;
+        // Phases in the order of the phase list of the cycle
+        private final DaoPhase.Phase[] phases;
+        // Indexed by phase ordinal
+        private final int[] firstBlockOfPhase = new int[PHASES.length];
+        private final int[] lastBlockOfPhase = new int[PHASES.length];
+        private final int[] durationOfPhase = new int[PHASES.length];
+
+        private Entry(Cycle cycle) {
+            this.cycle = cycle;
+            heightOfFirstBlock = cycle.getHeightOfFirstBlock();
+            heightOfLastBlock = cycle.getHeightOfLastBlock();
+            phases = cycle.getDaoPhaseList().stream().map(DaoPhase::getPhase).toArray(DaoPhase.Phase[]::new);
+            for (DaoPhase.Phase phase : PHASES) {
+                firstBlockOfPhase[phase.ordinal()] = cycle.getFirstBlockOfPhase(phase);
+                lastBlockOfPhase[phase.ordinal()] = cycle.getLastBlockOfPhase(phase);
+                durationOfPhase[phase.ordinal()] = cycle.getDurationOfPhase(phase);
+            }
+        }
+
+        boolean isInCycle(int height) {
+            return height >= heightOfFirstBlock && height <= heightOfLastBlock;
+        }
+
+        boolean isInPhase(int height, DaoPhase.Phase phase) {
+            return height >= firstBlockOfPhase[phase.ordinal()] && height <= lastBlockOfPhase[phase.ordinal()];
+        }
+
+        Optional<DaoPhase.Phase> getPhaseForHeight(int height) {
+            for (DaoPhase.Phase phase : phases) {
+                if (isInPhase(height, phase))
+                    return Optional.of(phase);
+            }
+            return Optional.empty();
+        }
+
+        int getFirstBlockOfPhase(DaoPhase.Phase phase) {
+            return firstBlockOfPhase[phase.ordinal()];
+        }
+
+        int getLastBlockOfPhase(DaoPhase.Phase phase) {
+            return lastBlockOfPhase[phase.ordinal()];
+        }
+
+        int getDurationOfPhase(DaoPhase.Phase phase) {
+            return durationOfPhase[phase.ordinal()];
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private int[] firstBlocks = new int[16];
+    // If the cycles do not follow each other without gap we cannot use the binary search
+    private boolean contiguous = true;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Brings the table in sync with the cycles of the state
+    void update(LinkedList<Cycle> cycles) {
+        int numNewCycles = cycles.size() - entries.size();
+        if (numNewCycles == 0 && (cycles.isEmpty() ||
+                (isSameCycle(cycles.getFirst(), 0) && isSameCycle(cycles.getLast(), entries.size() - 1))))
+            return;
+
+        if (numNewCycles > 0 && !entries.isEmpty()) {
+            // Walk back to the last cycle we have in the table, if it is unchanged we only need to append
+            Iterator<Cycle> iterator = cycles.descendingIterator();
+            for (int i = 0; i < numNewCycles; i++) {
+                iterator.next();
+            }
+            if (isSameCycle(iterator.next(), entries.size() - 1) && isSameCycle(cycles.getFirst(), 0)) {
+                Iterator<Cycle> newCycles = cycles.listIterator(entries.size());
+                while (newCycles.hasNext()) {
+                    add(newCycles.next());
+                }
+                return;
+            }
+        }
+
+        entries.clear();
+        contiguous = true;
+        cycles.forEach(this::add);
+    }
+
+    // Returns the first cycle containing the height, same as a linear search over all cycles
+    Optional<Entry> getEntry(int height) {
+        if (!contiguous) {
+            return entries.stream()
+                    .filter(entry -> entry.isInCycle(height))
+                    .findFirst();
+        }
+
+        // Last entry with a first block not above the height
+        int low = 0;
+        int high = entries.size() - 1;
+        int index = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstBlocks[mid] <= height) {
+                index = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (index < 0)
+            return Optional.empty();
+
+        Entry entry = entries.get(index);
+        return entry.isInCycle(height) ? Optional.of(entry) : Optional.empty();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void add(Cycle cycle) {
+        Entry entry = new Entry(cycle);
+        // A negative duration would break the ordering of the first blocks
+        if (entry.heightOfLastBlock < entry.heightOfFirstBlock - 1 ||
+                (!entries.isEmpty() && entry.heightOfFirstBlock != entries.get(entries.size() - 1).heightOfLastBlock + 1))
+            contiguous = false;
+
+        if (entries.size() == firstBlocks.length) {
+            int[] newFirstBlocks = new int[firstBlocks.length * 2];
+            System.arraycopy(firstBlocks, 0, newFirstBlocks, 0, firstBlocks.length);
+            firstBlocks = newFirstBlocks;
+        }
+        firstBlocks[entries.size()] = entry.heightOfFirstBlock;
+        entries.add(entry);
+    }
+
+    private boolean isSameCycle(Cycle cycle, int index) {
+        return index >= 0 && index < entries.size() && entries.get(index).cycle == cycle;
+    }
+}
@@ -27,9 +27,14 @@ import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Answers which cycle and phase a block height belongs to. Lookups use a table of the cycle and phase intervals
+ * which is kept in sync with the cycles of the BSQ state, so they don't need to stream over all cycles.
+ */
 @Slf4j
 public final class PeriodService {
     private final BsqStateService bsqStateService;
+    private final CycleTable cycleTable = new CycleTable();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -78,8 +83,9 @@ public final class PeriodService {
                 .isPresent();
     }
 
-    private Optional<Cycle> getCycle(int height) {
-        return bsqStateService.getCycle(height);
+    private Optional<CycleTable.Entry> getCycle(int height) {
+        cycleTable.update(bsqStateService.getCycles());
+        return cycleTable.getEntry(height);
     }
 
     public boolean isInPhase(int height, DaoPhase.Phase phase) {
@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.lang.reflect.Method;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lookup structures for the banned entries of a filter. Created once whenever the filter changes, so the checks at
+ * each offer and trade message are hash lookups instead of iterations over the filter lists.
+ * Banned payment accounts are grouped by payment method and getter name. The getter gets resolved once per payload
+ * class and is called once per getter name and check, not once per banned value.
+ */
+@Slf4j
+class FilterMatcher {
+    static final FilterMatcher EMPTY = new FilterMatcher(null);
+
+    private static class PaymentAccountFieldMatcher {
+        private final String getMethodName;
+        private final Map<String, PaymentAccountFilter> filterByValue = new HashMap<>();
+        private final Map<Class<?>, Optional<Method>> getterByClass = new ConcurrentHashMap<>();
+
+        private PaymentAccountFieldMatcher(String getMethodName) {
+            this.getMethodName = getMethodName;
+        }
+
+        @Nullable
+        private PaymentAccountFilter match(PaymentAccountPayload paymentAccountPayload) {
+            Optional<Method> getter = getterByClass.computeIfAbsent(paymentAccountPayload.getClass(), this::findGetter);
+            if (!getter.isPresent())
+                return null;
+
+            try {
+                Object value = getter.get().invoke(paymentAccountPayload);
+                return value != null ? filterByValue.get(value) : null;
+            } catch (Throwable t) {
+                log.error(t.toString());
+                return null;
+            }
+        }
+
+        private Optional<Method> findGetter(Class<?> payloadClass) {
+            try {
+                return Optional.of(payloadClass.getMethod(getMethodName));
+            } catch (NoSuchMethodException e) {
+                log.error("Filter uses unknown method {} for {}", getMethodName, payloadClass.getSimpleName());
+                return Optional.empty();
+            }
+        }
+    }
+
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedNodeAddresses;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethodIds;
+    private final Map<String, List<PaymentAccountFieldMatcher>> fieldMatchersByPaymentMethodId = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    FilterMatcher(@Nullable Filter filter) {
+        bannedOfferIds = toSet(filter != null ? filter.getBannedOfferIds() : null);
+        bannedNodeAddresses = toSet(filter != null ? filter.getBannedNodeAddress() : null);
+        bannedCurrencies = toSet(filter != null ? filter.getBannedCurrencies() : null);
+        bannedPaymentMethodIds = toSet(filter != null ? filter.getBannedPaymentMethods() : null);
+
+        if (filter != null && filter.getBannedPaymentAccounts() != null) {
+            // We keep the order in which the payment methods and getter names appear in the filter list
+            Map<String, Map<String, PaymentAccountFieldMatcher>> map = new LinkedHashMap<>();
+            filter.getBannedPaymentAccounts().forEach(paymentAccountFilter -> {
+                PaymentAccountFieldMatcher fieldMatcher = map
+                        .computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), key -> new LinkedHashMap<>())
+                        .computeIfAbsent(paymentAccountFilter.getGetMethodName(), PaymentAccountFieldMatcher::new);
+                fieldMatcher.filterByValue.putIfAbsent(paymentAccountFilter.getValue(), paymentAccountFilter);
+            });
+            map.forEach((paymentMethodId, fieldMatcherByGetMethodName) ->
+                    fieldMatchersByPaymentMethodId.put(paymentMethodId, new ArrayList<>(fieldMatcherByGetMethodName.values())));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBanned(String fullAddress) {
+        return bannedNodeAddresses.contains(fullAddress);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethodIds.contains(paymentMethodId);
+    }
+
+    // Returns the matching filter entry or null if the payment account is not banned
+    @Nullable
+    PaymentAccountFilter getMatchingPaymentAccountFilter(PaymentAccountPayload paymentAccountPayload) {
+        List<PaymentAccountFieldMatcher> fieldMatchers = fieldMatchersByPaymentMethodId.get(paymentAccountPayload.getPaymentMethodId());
+        if (fieldMatchers == null)
+            return null;
+
+        for (PaymentAccountFieldMatcher fieldMatcher : fieldMatchers) {
+            PaymentAccountFilter paymentAccountFilter = fieldMatcher.match(paymentAccountPayload);
+            if (paymentAccountFilter != null)
+                return paymentAccountFilter;
+        }
+        return null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Set<String> toSet(@Nullable Collection<String> collection) {
+        return collection == null || collection.isEmpty() ? Collections.emptySet() : new HashSet<>(collection);
+    }
+}
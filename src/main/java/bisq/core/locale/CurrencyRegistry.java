@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.locale;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable lookup tables for the supported fiat and crypto currencies, built once from the sorted currency lists.
+ * Each supported currency gets a dense integer id (fiat currencies first, then crypto currencies, both in sorted
+ * order) which can be used for array based lookups.
+ * Codes which are not in the list of fiat currencies but are valid ISO 4217 codes are treated as fiat as well
+ * (see CurrencyUtil.isFiatCurrency). The ISO 4217 codes are read once from the JDK, so no results of lookups for
+ * unknown codes (e.g. received from the network) need to be cached.
+ */
+final class CurrencyRegistry {
+    static final int UNKNOWN_ID = -1;
+    private static final Set<String> ISO_CURRENCY_CODES = Collections.unmodifiableSet(
+            Currency.getAvailableCurrencies().stream()
+                    .map(Currency::getCurrencyCode)
+                    .collect(Collectors.toSet()));
+
+    private final Map<String, FiatCurrency> fiatCurrencyByCode = new HashMap<>();
+    private final Map<String, CryptoCurrency> cryptoCurrencyByCode = new HashMap<>();
+    private final Map<String, Integer> idByCode = new HashMap<>();
+    private final List<TradeCurrency> currencyById = new ArrayList<>();
+
+    CurrencyRegistry(List<FiatCurrency> fiatCurrencies, List<CryptoCurrency> cryptoCurrencies) {
+        fiatCurrencies.forEach(fiatCurrency -> {
+            fiatCurrencyByCode.put(fiatCurrency.getCode(), fiatCurrency);
+            addId(fiatCurrency);
+        });
+        cryptoCurrencies.forEach(cryptoCurrency -> {
+            cryptoCurrencyByCode.put(cryptoCurrency.getCode(), cryptoCurrency);
+            addId(cryptoCurrency);
+        });
+    }
+
+    @Nullable
+    FiatCurrency getFiatCurrency(String currencyCode) {
+        return fiatCurrencyByCode.get(currencyCode);
+    }
+
+    @Nullable
+    CryptoCurrency getCryptoCurrency(String currencyCode) {
+        return cryptoCurrencyByCode.get(currencyCode);
+    }
+
+    boolean isCryptoCurrency(String currencyCode) {
+        return cryptoCurrencyByCode.containsKey(currencyCode);
+    }
+
+    boolean isFiatCurrency(String currencyCode) {
+        if (currencyCode == null || currencyCode.isEmpty() || isCryptoCurrency(currencyCode))
+            return false;
+
+        if (fiatCurrencyByCode.containsKey(currencyCode))
+            return true;
+
+        return ISO_CURRENCY_CODES.contains(currencyCode);
+    }
+
+    int getId(String currencyCode) {
+        return idByCode.getOrDefault(currencyCode, UNKNOWN_ID);
+    }
+
+    @Nullable
+    TradeCurrency getById(int id) {
+        return id >= 0 && id < currencyById.size() ? currencyById.get(id) : null;
+    }
+
+    int size() {
+        return currencyById.size();
+    }
+
+    private void addId(TradeCurrency tradeCurrency) {
+        if (!idByCode.containsKey(tradeCurrency.getCode())) {
+            idByCode.put(tradeCurrency.getCode(), currencyById.size());
+            currencyById.add(tradeCurrency);
+        }
+    }
+}
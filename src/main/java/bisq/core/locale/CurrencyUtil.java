@@ -18,6 +18,7 @@
 package bisq.core.locale;
 
 import bisq.core.app.BisqEnvironment;
+import bisq.core.monetary.Altcoin;
 
 import bisq.asset.Asset;
 import bisq.asset.AssetRegistry;
@@ -27,13 +28,14 @@ import bisq.asset.coins.BSQ;
 
 import bisq.common.app.DevEnv;
 
+import org.bitcoinj.utils.Fiat;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Currency;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -50,18 +52,28 @@ public class CurrencyUtil {
     private static final AssetRegistry assetRegistry = new AssetRegistry();
 
     private static String baseCurrencyCode = "BTC";
-    private static List<FiatCurrency> allSortedFiatCurrencies;
-    private static List<CryptoCurrency> allSortedCryptoCurrencies;
+
+    // The currency lists and the lookups are created at the first access as they depend on the base currency and
+    // the DAO settings. The JVM initializes each holder class only once and publishes its field safely to all threads.
+    private static class FiatCurrenciesHolder {
+        private static final List<FiatCurrency> ALL_SORTED_FIAT_CURRENCIES = createAllSortedFiatCurrenciesList();
+    }
+
+    private static class CryptoCurrenciesHolder {
+        private static final List<CryptoCurrency> ALL_SORTED_CRYPTO_CURRENCIES = createAllSortedCryptoCurrenciesList();
+    }
+
+    private static class CurrencyRegistryHolder {
+        private static final CurrencyRegistry CURRENCY_REGISTRY = new CurrencyRegistry(getAllSortedFiatCurrencies(),
+                getAllSortedCryptoCurrencies());
+    }
 
     public static void setBaseCurrencyCode(String baseCurrencyCode) {
         CurrencyUtil.baseCurrencyCode = baseCurrencyCode;
     }
 
     public static List<FiatCurrency> getAllSortedFiatCurrencies() {
-        if (Objects.isNull(allSortedFiatCurrencies))
-            allSortedFiatCurrencies = createAllSortedFiatCurrenciesList();
-
-        return allSortedFiatCurrencies;
+        return FiatCurrenciesHolder.ALL_SORTED_FIAT_CURRENCIES;
     }
 
     private static List<FiatCurrency> createAllSortedFiatCurrenciesList() {
@@ -73,6 +85,12 @@ public class CurrencyUtil {
         return list;
     }
 
+    // The lookups are used in hot paths like offer book filtering and price calculations so we don't want to
+    // iterate the currency lists there.
+    private static CurrencyRegistry getCurrencyRegistry() {
+        return CurrencyRegistryHolder.CURRENCY_REGISTRY;
+    }
+
     public static List<FiatCurrency> getMainFiatCurrencies() {
         TradeCurrency defaultTradeCurrency = getDefaultTradeCurrency();
         List<FiatCurrency> list = new ArrayList<>();
@@ -98,9 +116,7 @@ public class CurrencyUtil {
     }
 
     public static List<CryptoCurrency> getAllSortedCryptoCurrencies() {
-        if (allSortedCryptoCurrencies == null)
-            allSortedCryptoCurrencies = createAllSortedCryptoCurrenciesList();
-        return allSortedCryptoCurrencies;
+        return CryptoCurrenciesHolder.ALL_SORTED_CRYPTO_CURRENCIES;
     }
 
     private static List<CryptoCurrency> createAllSortedCryptoCurrenciesList() {
@@ -301,27 +317,39 @@ public class CurrencyUtil {
     }
 
     public static boolean isFiatCurrency(String currencyCode) {
-        try {
-            return currencyCode != null
-                    && !currencyCode.isEmpty()
-                    && !isCryptoCurrency(currencyCode)
-                    && Currency.getInstance(currencyCode) != null;
-        } catch (Throwable t) {
-            return false;
-        }
+        return getCurrencyRegistry().isFiatCurrency(currencyCode);
     }
 
     public static Optional<FiatCurrency> getFiatCurrency(String currencyCode) {
-        return getAllSortedFiatCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+        return Optional.ofNullable(getCurrencyRegistry().getFiatCurrency(currencyCode));
     }
 
     @SuppressWarnings("WeakerAccess")
     public static boolean isCryptoCurrency(String currencyCode) {
-        return getCryptoCurrency(currencyCode).isPresent();
+        return getCurrencyRegistry().isCryptoCurrency(currencyCode);
     }
 
     public static Optional<CryptoCurrency> getCryptoCurrency(String currencyCode) {
-        return getAllSortedCryptoCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+        return Optional.ofNullable(getCurrencyRegistry().getCryptoCurrency(currencyCode));
+    }
+
+    // Number of decimal places of the smallest unit of a price in that currency
+    public static int getSmallestUnitExponent(String currencyCode) {
+        return isCryptoCurrency(currencyCode) ? Altcoin.SMALLEST_UNIT_EXPONENT : Fiat.SMALLEST_UNIT_EXPONENT;
+    }
+
+    // Returns a dense id in the range 0 to getNumCurrencyIds() - 1 for all supported currencies or -1 if the
+    // currency is not supported. Ids are only valid during the lifetime of the application.
+    public static int getCurrencyId(String currencyCode) {
+        return getCurrencyRegistry().getId(currencyCode);
+    }
+
+    public static int getNumCurrencyIds() {
+        return getCurrencyRegistry().size();
+    }
+
+    public static Optional<TradeCurrency> getTradeCurrencyById(int currencyId) {
+        return Optional.ofNullable(getCurrencyRegistry().getById(currencyId));
     }
 
     public static Optional<TradeCurrency> getTradeCurrency(String currencyCode) {
@@ -346,8 +374,9 @@ public class CurrencyUtil {
 
 
     public static String getNameByCode(String currencyCode) {
-        if (isCryptoCurrency(currencyCode))
-            return getCryptoCurrency(currencyCode).get().getName();
+        CryptoCurrency cryptoCurrency = getCurrencyRegistry().getCryptoCurrency(currencyCode);
+        if (cryptoCurrency != null)
+            return cryptoCurrency.getName();
 
         try {
             return Currency.getInstance(currencyCode).getDisplayName();
@@ -39,7 +39,8 @@ public class MobileMessageEncryption {
     public MobileMessageEncryption() {
     }
 
-    public void setKey(String key) {
+    // Cipher is not thread safe and messages get encrypted on the threads of the MobileNotificationDispatcher
+    public synchronized void setKey(String key) {
         keySpec = new SecretKeySpec(key.getBytes(), "AES");
         try {
             cipher = Cipher.getInstance("AES/CBC/NOPadding");
@@ -61,7 +62,7 @@ public class MobileMessageEncryption {
         return Base64.encodeBase64String(encryptedBytes);
     }
 
-    private byte[] doEncrypt(String text, IvParameterSpec ivSpec) throws Exception {
+    private synchronized byte[] doEncrypt(String text, IvParameterSpec ivSpec) throws Exception {
         if (text == null || text.length() == 0) {
             throw new Exception("Empty string");
         }
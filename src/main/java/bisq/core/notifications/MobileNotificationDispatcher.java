@@ -0,0 +1,243 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications;
+
+import bisq.common.UserThread;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sends mobile messages asynchronously on a small bounded pool so the user thread never waits for the relay.
+ * Identical messages which are queued but not sent yet get coalesced into one request. If sending fails with an
+ * exception (e.g. Tor connection issues) we retry with exponential backoff. If too many messages are pending we
+ * drop new market and price alerts, trade related messages are always queued.
+ * At shutdown the queued trade related messages still get sent, queued market and price alerts get dropped. We wait
+ * max. SHUTDOWN_TIMEOUT_MS for the pending messages before we interrupt the sending.
+ * Result handlers are called on the user thread.
+ */
+@Slf4j
+public class MobileNotificationDispatcher {
+    static final int NUM_THREADS = 2;
+    static final int MAX_PENDING_MESSAGES = 100;
+    static final int MAX_ATTEMPTS = 4;
+    static final long INITIAL_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(2);
+    static final long SHUTDOWN_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(3);
+
+    interface Sender {
+        boolean send(MobileMessage message, boolean useSound) throws Exception;
+    }
+
+    public interface ResultHandler {
+        void handleResult(boolean success);
+    }
+
+    private static class PendingMessage {
+        private final MobileMessage message;
+        private final boolean useSound;
+        private final List<ResultHandler> resultHandlers = new ArrayList<>();
+        private int attempt;
+        private boolean started;
+
+        private PendingMessage(MobileMessage message, boolean useSound) {
+            this.message = message;
+            this.useSound = useSound;
+        }
+    }
+
+    private final Sender sender;
+    private final long initialRetryDelayMs;
+    private final Executor resultExecutor;
+    private final ScheduledThreadPoolExecutor executor;
+    // Guarded by this
+    private final Map<String, PendingMessage> pendingMessageByKey = new HashMap<>();
+    // Guarded by this
+    private boolean isShutDown;
+    private final AtomicInteger numRequests = new AtomicInteger();
+    private final AtomicInteger numCoalesced = new AtomicInteger();
+    private final AtomicInteger numDropped = new AtomicInteger();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    MobileNotificationDispatcher(Sender sender) {
+        this(sender, NUM_THREADS, INITIAL_RETRY_DELAY_MS, UserThread::execute);
+    }
+
+    MobileNotificationDispatcher(Sender sender, int numThreads, long initialRetryDelayMs, Executor resultExecutor) {
+        this.sender = sender;
+        this.initialRetryDelayMs = initialRetryDelayMs;
+        this.resultExecutor = resultExecutor;
+        executor = new ScheduledThreadPoolExecutor(numThreads, new ThreadFactoryBuilder()
+                .setNameFormat("MobileNotificationDispatcher-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void dispatch(MobileMessage message, boolean useSound, @Nullable ResultHandler resultHandler) {
+        String key = getKey(message, useSound);
+        synchronized (this) {
+            if (isShutDown) {
+                log.warn("We got called dispatch after shutdown. We drop message of type {}.",
+                        message.getMobileMessageType());
+                if (resultHandler != null)
+                    resultExecutor.execute(() -> resultHandler.handleResult(false));
+                return;
+            }
+
+            PendingMessage pendingMessage = pendingMessageByKey.get(key);
+            if (pendingMessage != null && !pendingMessage.started) {
+                if (resultHandler != null)
+                    pendingMessage.resultHandlers.add(resultHandler);
+                numCoalesced.incrementAndGet();
+                return;
+            }
+
+            if (pendingMessageByKey.size() >= MAX_PENDING_MESSAGES && isDroppable(message)) {
+                log.warn("Too many pending mobile messages. We drop message of type {}.", message.getMobileMessageType());
+                numDropped.incrementAndGet();
+                if (resultHandler != null)
+                    resultExecutor.execute(() -> resultHandler.handleResult(false));
+                return;
+            }
+
+            pendingMessage = new PendingMessage(message, useSound);
+            if (resultHandler != null)
+                pendingMessage.resultHandlers.add(resultHandler);
+            pendingMessageByKey.put(key, pendingMessage);
+            // We submit while holding the lock so the executor cannot get shut down in between
+            PendingMessage finalPendingMessage = pendingMessage;
+            executor.execute(() -> send(key, finalPendingMessage));
+        }
+    }
+
+    public void shutDown() {
+        synchronized (this) {
+            isShutDown = true;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("Not all mobile messages got sent at shutdown. We interrupt sending of the {} " +
+                        "pending messages.", getNumPendingMessages());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    synchronized boolean isShutDown() {
+        return isShutDown;
+    }
+
+    public synchronized int getNumPendingMessages() {
+        return pendingMessageByKey.size();
+    }
+
+    public int getNumRequests() {
+        return numRequests.get();
+    }
+
+    public int getNumCoalesced() {
+        return numCoalesced.get();
+    }
+
+    public int getNumDropped() {
+        return numDropped.get();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void send(String key, PendingMessage pendingMessage) {
+        boolean dropAtShutDown;
+        synchronized (this) {
+            dropAtShutDown = isShutDown && !pendingMessage.started && isDroppable(pendingMessage.message);
+            pendingMessage.started = true;
+        }
+        if (dropAtShutDown) {
+            numDropped.incrementAndGet();
+            complete(key, pendingMessage, false);
+            return;
+        }
+
+        boolean success;
+        try {
+            numRequests.incrementAndGet();
+            success = sender.send(pendingMessage.message, pendingMessage.useSound);
+        } catch (Throwable t) {
+            pendingMessage.attempt++;
+            if (pendingMessage.attempt < MAX_ATTEMPTS && !executor.isShutdown()) {
+                long delay = initialRetryDelayMs << (pendingMessage.attempt - 1);
+                log.warn("Sending mobile message failed at attempt {}. We retry after {} ms. Error={}",
+                        pendingMessage.attempt, delay, t.toString());
+                executor.schedule(() -> send(key, pendingMessage), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            log.error("Sending mobile message failed after {} attempts. Error={}", pendingMessage.attempt, t.toString());
+            success = false;
+        }
+
+        complete(key, pendingMessage, success);
+    }
+
+    private void complete(String key, PendingMessage pendingMessage, boolean success) {
+        List<ResultHandler> resultHandlers;
+        synchronized (this) {
+            // A new message with the same key might have been added after we had started
+            if (pendingMessageByKey.get(key) == pendingMessage)
+                pendingMessageByKey.remove(key);
+            resultHandlers = new ArrayList<>(pendingMessage.resultHandlers);
+        }
+        if (!resultHandlers.isEmpty())
+            resultExecutor.execute(() -> resultHandlers.forEach(resultHandler -> resultHandler.handleResult(success)));
+    }
+
+    private static boolean isDroppable(MobileMessage message) {
+        return message.getMobileMessageType() == MobileMessageType.MARKET ||
+                message.getMobileMessageType() == MobileMessageType.PRICE;
+    }
+
+    private static String getKey(MobileMessage message, boolean useSound) {
+        return message.getMobileMessageType() + "|" + message.getTitle() + "|" + message.getMessage() + "|" +
+                message.getTxId() + "|" + useSound;
+    }
+}
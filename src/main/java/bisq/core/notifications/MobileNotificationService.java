@@ -40,6 +40,8 @@ import java.util.UUID;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
@@ -52,6 +54,8 @@ public class MobileNotificationService {
     private static final String URL = "http://jtboonrvwmq7frkj.onion/";
     private static final String BISQ_MESSAGE_IOS_MAGIC = "BisqMessageiOS";
     private static final String BISQ_MESSAGE_ANDROID_MAGIC = "BisqMessageAndroid";
+    // Gson is thread safe, so we share one instance
+    private static final Gson GSON = new Gson();
 
     private final Preferences preferences;
     private final MobileMessageEncryption mobileMessageEncryption;
@@ -59,6 +63,7 @@ public class MobileNotificationService {
     private final HttpClient httpClient;
     @Getter
     private final MobileModel mobileModel;
+    private final MobileNotificationDispatcher dispatcher;
 
     @Getter
     private boolean setupConfirmationSent;
@@ -88,6 +93,8 @@ public class MobileNotificationService {
 
         httpClient.setBaseUrl(useLocalHost ? DEV_URL : URL);
         httpClient.setIgnoreSocks5Proxy(false);
+
+        dispatcher = new MobileNotificationDispatcher(this::sendMessage);
     }
 
     public void onAllServicesInitialized() {
@@ -103,10 +110,24 @@ public class MobileNotificationService {
         useSoundProperty.set(preferences.isUseSoundForMobileNotifications());
     }
 
+    public void shutDown() {
+        dispatcher.shutDown();
+    }
+
     public boolean sendMessage(MobileMessage message) throws Exception {
         return sendMessage(message, useSoundProperty.get());
     }
 
+    // Sends the message from a worker thread. The result handler is called on the user thread.
+    public void sendMessageAsync(MobileMessage message, @Nullable MobileNotificationDispatcher.ResultHandler resultHandler) {
+        boolean useSound = useSoundProperty.get();
+        if (isSendingEnabled(message)) {
+            dispatcher.dispatch(message, useSound, resultHandler);
+        } else if (resultHandler != null) {
+            resultHandler.handleResult(false);
+        }
+    }
+
     public boolean applyKeyAndToken(String keyAndToken) {
         if (mobileNotificationValidator.isValid(keyAndToken)) {
             mobileModel.applyKeyAndToken(keyAndToken);
@@ -132,6 +153,32 @@ public class MobileNotificationService {
     public boolean sendMessage(MobileMessage message, boolean useSound) throws Exception {
         log.info("sendMessage\n" +
                 "Title: " + message.getTitle() + "\nMessage: " + message.getMessage());
+        if (!isSendingEnabled(message))
+            return false;
+
+        log.info("sendMessage message={}", message);
+        String json = GSON.toJson(message);
+        log.info("json " + json);
+
+        StringBuilder padded = new StringBuilder(json);
+        while (padded.length() % 16 != 0) {
+            padded.append(" ");
+        }
+        json = padded.toString();
+
+        // generate 16 random characters for iv
+        String uuid = UUID.randomUUID().toString();
+        uuid = uuid.replace("-", "");
+        String iv = uuid.substring(0, 16);
+
+        String cipher = mobileMessageEncryption.encrypt(json, iv);
+        log.info("key = " + mobileModel.getKey());
+        log.info("iv = " + iv);
+        log.info("encryptedJson = " + cipher);
+        return doSendMessage(iv, cipher, useSound);
+    }
+
+    private boolean isSendingEnabled(MobileMessage message) {
         if (mobileModel.getKey() == null)
             return false;
 
@@ -157,31 +204,7 @@ public class MobileNotificationService {
             default:
                 doSend = false;
         }
-
-        if (!doSend)
-            return false;
-
-        log.info("sendMessage message={}", message);
-        Gson gson = new Gson();
-        String json = gson.toJson(message);
-        log.info("json " + json);
-
-        StringBuilder padded = new StringBuilder(json);
-        while (padded.length() % 16 != 0) {
-            padded.append(" ");
-        }
-        json = padded.toString();
-
-        // generate 16 random characters for iv
-        String uuid = UUID.randomUUID().toString();
-        uuid = uuid.replace("-", "");
-        String iv = uuid.substring(0, 16);
-
-        String cipher = mobileMessageEncryption.encrypt(json, iv);
-        log.info("key = " + mobileModel.getKey());
-        log.info("iv = " + iv);
-        log.info("encryptedJson = " + cipher);
-        return doSendMessage(iv, cipher, useSound);
+        return doSend;
     }
 
     public boolean sendEraseMessage() throws Exception {
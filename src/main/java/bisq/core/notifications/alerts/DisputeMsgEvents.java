@@ -88,12 +88,7 @@ public class DisputeMsgEvents {
                     Res.get("account.notifications.dispute.message.msg", shortId),
                     shortId,
                     MobileMessageType.DISPUTE);
-            try {
-                mobileNotificationService.sendMessage(message);
-            } catch (Exception e) {
-                log.error(e.toString());
-                e.printStackTrace();
-            }
+            mobileNotificationService.sendMessageAsync(message, null);
         }
     }
 
@@ -60,12 +60,7 @@ public class MyOfferTakenEvents {
                     Res.get("account.notifications.offer.message.msg", shortId),
                     shortId,
                     MobileMessageType.OFFER);
-            try {
-                mobileNotificationService.sendMessage(message);
-            } catch (Exception e) {
-                log.error(e.toString());
-                e.printStackTrace();
-            }
+            mobileNotificationService.sendMessageAsync(message, null);
         }
     }
 
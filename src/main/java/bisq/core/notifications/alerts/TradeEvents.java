@@ -95,12 +95,7 @@ public class TradeEvents {
                             msg,
                             shortId,
                             MobileMessageType.TRADE);
-                    try {
-                        mobileNotificationService.sendMessage(message);
-                    } catch (Exception e) {
-                        log.error(e.toString());
-                        e.printStackTrace();
-                    }
+                    mobileNotificationService.sendMessageAsync(message, null);
                 }
             });
         }
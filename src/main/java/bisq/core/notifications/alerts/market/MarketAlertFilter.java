@@ -25,8 +25,12 @@ import bisq.common.proto.persistable.PersistablePayload;
 import io.bisq.generated.protobuffer.PB;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,6 +41,9 @@ public class MarketAlertFilter implements PersistablePayload {
     private int triggerValue;
     private boolean isBuyOffer;
     private List<String> alertIds;
+    // Used for fast lookup of the alertIds, which can grow large over time. Not persisted.
+    @Getter(AccessLevel.NONE)
+    private transient Set<String> alertIdSet;
 
 
     public MarketAlertFilter(PaymentAccount paymentAccount, int triggerValue, boolean isBuyOffer) {
@@ -60,6 +67,7 @@ public class MarketAlertFilter implements PersistablePayload {
         this.triggerValue = triggerValue;
         this.isBuyOffer = isBuyOffer;
         this.alertIds = alertIds;
+        this.alertIdSet = new HashSet<>(alertIds);
     }
 
     @Override
@@ -87,12 +95,12 @@ public class MarketAlertFilter implements PersistablePayload {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addAlertId(String alertId) {
-        if (notContainsAlertId(alertId))
+        if (alertIdSet.add(alertId))
             alertIds.add(alertId);
     }
 
     public boolean notContainsAlertId(String alertId) {
-        return !alertIds.contains(alertId);
+        return !alertIdSet.contains(alertId);
     }
 
     @Override
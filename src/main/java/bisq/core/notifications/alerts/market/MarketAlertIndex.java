@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications.alerts.market;
+
+import bisq.core.locale.CurrencyUtil;
+import bisq.core.provider.price.MarketPrice;
+
+import bisq.common.util.MathUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the market alert filters by payment method and direction. Inside a bucket the filters are sorted by
+ * descending trigger value, so for a given offer all triggered filters are at the start of the list and the match
+ * is a range check against the offer's distance to the market price.
+ * The market price scaled to the precision of the currency is cached per currency until the market price changes.
+ */
+class MarketAlertIndex {
+    static class ScaledMarketPrice {
+        private final MarketPrice marketPrice;
+        @Getter
+        private final double value;
+        @Getter
+        private final boolean isFiatCurrency;
+
+        private ScaledMarketPrice(MarketPrice marketPrice) {
+            this.marketPrice = marketPrice;
+            String currencyCode = marketPrice.getCurrencyCode();
+            int precision = CurrencyUtil.getSmallestUnitExponent(currencyCode);
+            value = MathUtils.scaleUpByPowerOf10(marketPrice.getPrice(), precision);
+            isFiatCurrency = CurrencyUtil.isFiatCurrency(currencyCode);
+        }
+    }
+
+    private final Map<String, List<MarketAlertFilter>> filtersByKey = new HashMap<>();
+    private final Map<String, ScaledMarketPrice> scaledMarketPriceByCurrencyCode = new HashMap<>();
+    @Getter
+    private int numFilters;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void rebuild(List<MarketAlertFilter> filters) {
+        filtersByKey.clear();
+        filters.forEach(filter -> filtersByKey.computeIfAbsent(getKey(filter.getPaymentAccount().getPaymentMethod().getId(),
+                filter.isBuyOffer()), key -> new ArrayList<>()).add(filter));
+        filtersByKey.values().forEach(list -> list.sort(Comparator.comparingInt(MarketAlertFilter::getTriggerValue).reversed()));
+        numFilters = filters.size();
+    }
+
+    boolean hasFilters(String paymentMethodId, boolean isBuyOffer) {
+        return filtersByKey.containsKey(getKey(paymentMethodId, isBuyOffer));
+    }
+
+    // Returns all filters with a trigger value not lower than the offer's distance to the market price
+    // (ratio multiplied by 10000)
+    List<MarketAlertFilter> getTriggeredFilters(String paymentMethodId, boolean isBuyOffer, double ratio) {
+        List<MarketAlertFilter> filters = filtersByKey.get(getKey(paymentMethodId, isBuyOffer));
+        if (filters == null)
+            return Collections.emptyList();
+
+        int numTriggered = 0;
+        while (numTriggered < filters.size() && ratio <= filters.get(numTriggered).getTriggerValue()) {
+            numTriggered++;
+        }
+        return filters.subList(0, numTriggered);
+    }
+
+    @Nullable
+    ScaledMarketPrice getScaledMarketPrice(@Nullable MarketPrice marketPrice) {
+        if (marketPrice == null)
+            return null;
+
+        ScaledMarketPrice scaledMarketPrice = scaledMarketPriceByCurrencyCode.get(marketPrice.getCurrencyCode());
+        if (scaledMarketPrice == null || !scaledMarketPrice.marketPrice.equals(marketPrice)) {
+            scaledMarketPrice = new ScaledMarketPrice(marketPrice);
+            scaledMarketPriceByCurrencyCode.put(marketPrice.getCurrencyCode(), scaledMarketPrice);
+        }
+        return scaledMarketPrice;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static String getKey(String paymentMethodId, boolean isBuyOffer) {
+        return paymentMethodId + (isBuyOffer ? "|BUY" : "|SELL");
+    }
+}
@@ -17,9 +17,7 @@
 
 package bisq.core.notifications.alerts.market;
 
-import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.Res;
-import bisq.core.monetary.Altcoin;
 import bisq.core.monetary.Price;
 import bisq.core.notifications.MobileMessage;
 import bisq.core.notifications.MobileMessageType;
@@ -27,19 +25,19 @@ import bisq.core.notifications.MobileNotificationService;
 import bisq.core.offer.Offer;
 import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OfferPayload;
-import bisq.core.provider.price.MarketPrice;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.user.User;
 import bisq.core.util.BSFormatter;
 
 import bisq.common.crypto.KeyRing;
-import bisq.common.util.MathUtils;
-
-import org.bitcoinj.utils.Fiat;
 
 import javax.inject.Inject;
 
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import lombok.extern.slf4j.Slf4j;
@@ -52,6 +50,10 @@ public class MarketAlerts {
     private final PriceFeedService priceFeedService;
     private final KeyRing keyRing;
     private final BSFormatter formatter;
+    private final MarketAlertIndex marketAlertIndex = new MarketAlertIndex();
+    // Alert IDs of messages which are being sent. Used to not send the alert again if the offer gets added again
+    // before the result is known. MarketAlertFilter is a value object with mutable alertIds, so we use identity.
+    private final Map<MarketAlertFilter, Set<String>> pendingAlertIdsByFilter = new IdentityHashMap<>();
 
     @Inject
     public MarketAlerts(OfferBookService offerBookService, MobileNotificationService mobileNotificationService,
@@ -85,11 +87,13 @@ public class MarketAlerts {
 
     public void addMarketAlertFilter(MarketAlertFilter filter) {
         user.addMarketAlertFilter(filter);
+        marketAlertIndex.rebuild(user.getMarketAlertFilters());
         applyFilterOnAllOffers();
     }
 
     public void removeMarketAlertFilter(MarketAlertFilter filter) {
         user.removeMarketAlertFilter(filter);
+        marketAlertIndex.rebuild(user.getMarketAlertFilters());
     }
 
     public List<MarketAlertFilter> getMarketAlertFilters() {
@@ -102,6 +106,7 @@ public class MarketAlerts {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void applyFilterOnAllOffers() {
+        marketAlertIndex.rebuild(user.getMarketAlertFilters());
         offerBookService.getOffers().forEach(this::onOfferAdded);
     }
 
@@ -115,95 +120,116 @@ public class MarketAlerts {
     }
 
     private void onOfferAdded(Offer offer) {
+        // In case the filters got changed in the user without our API we rebuild the index
+        if (marketAlertIndex.getNumFilters() != user.getMarketAlertFilters().size())
+            marketAlertIndex.rebuild(user.getMarketAlertFilters());
+
+        boolean isSellOffer = offer.getDirection() == OfferPayload.Direction.SELL;
+        String paymentMethodId = offer.getPaymentMethod().getId();
+        if (!marketAlertIndex.hasFilters(paymentMethodId, !isSellOffer))
+            return;
+
         String currencyCode = offer.getCurrencyCode();
-        MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
+        MarketAlertIndex.ScaledMarketPrice scaledMarketPrice = marketAlertIndex.getScaledMarketPrice(priceFeedService.getMarketPrice(currencyCode));
+        if (scaledMarketPrice == null || offer.isMyOffer(keyRing))
+            return;
+
         Price offerPrice = offer.getPrice();
-        if (marketPrice != null && offerPrice != null) {
-            boolean isSellOffer = offer.getDirection() == OfferPayload.Direction.SELL;
-            String shortOfferId = offer.getShortId();
-            boolean isFiatCurrency = CurrencyUtil.isFiatCurrency(currencyCode);
-            String alertId = getAlertId(offer);
-            user.getMarketAlertFilters().stream()
-                    .filter(marketAlertFilter -> !offer.isMyOffer(keyRing))
-                    .filter(marketAlertFilter -> offer.getPaymentMethod().equals(marketAlertFilter.getPaymentAccount().getPaymentMethod()))
-                    .filter(marketAlertFilter -> marketAlertFilter.notContainsAlertId(alertId))
-                    .forEach(marketAlertFilter -> {
-                        int triggerValue = marketAlertFilter.getTriggerValue();
-                        boolean isTriggerForBuyOffer = marketAlertFilter.isBuyOffer();
-                        double marketPriceAsDouble1 = marketPrice.getPrice();
-                        int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
-                                Altcoin.SMALLEST_UNIT_EXPONENT :
-                                Fiat.SMALLEST_UNIT_EXPONENT;
-                        double marketPriceAsDouble = MathUtils.scaleUpByPowerOf10(marketPriceAsDouble1, precision);
-                        double offerPriceValue = offerPrice.getValue();
-                        double ratio = offerPriceValue / marketPriceAsDouble;
-                        ratio = 1 - ratio;
-                        if (isFiatCurrency && isSellOffer)
-                            ratio *= -1;
-                        else if (!isFiatCurrency && !isSellOffer)
-                            ratio *= -1;
-
-                        ratio = ratio * 10000;
-                        boolean triggered = ratio <= triggerValue;
-                        if (!triggered)
-                            return;
-
-                        boolean isTriggerForBuyOfferAndTriggered = !isSellOffer && isTriggerForBuyOffer;
-                        boolean isTriggerForSellOfferAndTriggered = isSellOffer && !isTriggerForBuyOffer;
-                        if (isTriggerForBuyOfferAndTriggered || isTriggerForSellOfferAndTriggered) {
-                            String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
-                            String marketDir;
-                            if (isFiatCurrency) {
-                                if (isSellOffer) {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            } else {
-                                if (isSellOffer) {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            }
-
-                            ratio = Math.abs(ratio);
-                            String msg = Res.get("account.notifications.marketAlert.message.msg",
-                                    direction,
-                                    formatter.getCurrencyPair(currencyCode),
-                                    formatter.formatPrice(offerPrice),
-                                    formatter.formatToPercentWithSymbol(ratio / 10000d),
-                                    marketDir,
-                                    Res.get(offer.getPaymentMethod().getId()),
-                                    shortOfferId);
-                            MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
-                                    msg,
-                                    shortOfferId,
-                                    MobileMessageType.MARKET);
-                            try {
-                                boolean success = mobileNotificationService.sendMessage(message);
-                                if (success) {
-                                    // In case we have disabled alerts we do not get a success msg back and we do not
-                                    // persist the offer
-                                    marketAlertFilter.addAlertId(alertId);
-                                    user.persist();
-                                }
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    });
+        if (offerPrice == null)
+            return;
+
+        boolean isFiatCurrency = scaledMarketPrice.isFiatCurrency();
+        double ratio = getRatio(offerPrice.getValue(), scaledMarketPrice.getValue(), isFiatCurrency, isSellOffer);
+        List<MarketAlertFilter> triggeredFilters = marketAlertIndex.getTriggeredFilters(paymentMethodId, !isSellOffer, ratio);
+        if (triggeredFilters.isEmpty())
+            return;
+
+        String alertId = getAlertId(offer);
+        String shortOfferId = offer.getShortId();
+        for (MarketAlertFilter marketAlertFilter : triggeredFilters) {
+            if (!marketAlertFilter.notContainsAlertId(alertId) || isPending(marketAlertFilter, alertId))
+                continue;
+
+            String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
+            String marketDir;
+            if (isFiatCurrency) {
+                if (isSellOffer) {
+                    marketDir = ratio > 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                } else {
+                    marketDir = ratio < 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                }
+            } else {
+                if (isSellOffer) {
+                    marketDir = ratio < 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                } else {
+                    marketDir = ratio > 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                }
+            }
+
+            String msg = Res.get("account.notifications.marketAlert.message.msg",
+                    direction,
+                    formatter.getCurrencyPair(currencyCode),
+                    formatter.formatPrice(offerPrice),
+                    formatter.formatToPercentWithSymbol(Math.abs(ratio) / 10000d),
+                    marketDir,
+                    Res.get(offer.getPaymentMethod().getId()),
+                    shortOfferId);
+            MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
+                    msg,
+                    shortOfferId,
+                    MobileMessageType.MARKET);
+            setPending(marketAlertFilter, alertId, true);
+            mobileNotificationService.sendMessageAsync(message, success -> {
+                setPending(marketAlertFilter, alertId, false);
+                if (success) {
+                    // In case we have disabled alerts we do not get a success msg back and we do not
+                    // persist the offer
+                    marketAlertFilter.addAlertId(alertId);
+                    user.persist();
+                }
+            });
+        }
+    }
+
+    private boolean isPending(MarketAlertFilter marketAlertFilter, String alertId) {
+        Set<String> pendingAlertIds = pendingAlertIdsByFilter.get(marketAlertFilter);
+        return pendingAlertIds != null && pendingAlertIds.contains(alertId);
+    }
+
+    private void setPending(MarketAlertFilter marketAlertFilter, String alertId, boolean isPending) {
+        if (isPending) {
+            pendingAlertIdsByFilter.computeIfAbsent(marketAlertFilter, filter -> new HashSet<>()).add(alertId);
+        } else {
+            Set<String> pendingAlertIds = pendingAlertIdsByFilter.get(marketAlertFilter);
+            if (pendingAlertIds != null) {
+                pendingAlertIds.remove(alertId);
+                if (pendingAlertIds.isEmpty())
+                    pendingAlertIdsByFilter.remove(marketAlertFilter);
+            }
         }
     }
 
+    // Distance of the offer price to the market price multiplied by 10000 (100 for 1.00%). Positive values are
+    // better than market price from the perspective of the taker.
+    static double getRatio(double offerPriceValue, double scaledMarketPrice, boolean isFiatCurrency, boolean isSellOffer) {
+        double ratio = offerPriceValue / scaledMarketPrice;
+        ratio = 1 - ratio;
+        if (isFiatCurrency && isSellOffer)
+            ratio *= -1;
+        else if (!isFiatCurrency && !isSellOffer)
+            ratio *= -1;
+
+        return ratio * 10000;
+    }
+
     public static MobileMessage getTestMsg() {
         String shortId = UUID.randomUUID().toString().substring(0, 8);
         return new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
@@ -42,6 +42,8 @@ public class PriceAlert {
     private final MobileNotificationService mobileNotificationService;
     private final User user;
     private final BSFormatter formatter;
+    // Set while the alert message is being sent, so further price updates don't send it again
+    private boolean isAlertPending;
 
     @Inject
     public PriceAlert(PriceFeedService priceFeedService, MobileNotificationService mobileNotificationService, User user, BSFormatter formatter) {
@@ -56,7 +58,7 @@ public class PriceAlert {
     }
 
     private void update() {
-        if (user.getPriceAlertFilter() != null) {
+        if (user.getPriceAlertFilter() != null && !isAlertPending) {
             PriceAlertFilter filter = user.getPriceAlertFilter();
             String currencyCode = filter.getCurrencyCode();
             MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
@@ -74,15 +76,14 @@ public class PriceAlert {
                             msg,
                             MobileMessageType.PRICE);
                     log.error(msg);
-                    try {
-                        mobileNotificationService.sendMessage(message);
-
-                        // If we got triggered an alert we remove the filter.
-                        user.removePriceAlertFilter();
-                    } catch (Exception e) {
-                        log.error(e.toString());
-                        e.printStackTrace();
-                    }
+                    isAlertPending = true;
+                    mobileNotificationService.sendMessageAsync(message, success -> {
+                        isAlertPending = false;
+                        // If the alert got sent we remove the filter. Otherwise we keep it, so the alert gets
+                        // triggered again at the next price update.
+                        if (success && user.getPriceAlertFilter() == filter)
+                            user.removePriceAlertFilter();
+                    });
                 }
             }
         }
@@ -19,7 +19,6 @@ package bisq.core.offer;
 
 import bisq.core.exceptions.TradePriceOutOfToleranceException;
 import bisq.core.locale.CurrencyUtil;
-import bisq.core.monetary.Altcoin;
 import bisq.core.monetary.Price;
 import bisq.core.monetary.Volume;
 import bisq.core.offer.availability.OfferAvailabilityModel;
@@ -38,12 +37,12 @@ import bisq.common.proto.network.NetworkPayload;
 import bisq.common.proto.persistable.PersistablePayload;
 import bisq.common.util.JsonExclude;
 import bisq.common.util.MathUtils;
+import bisq.common.util.Tuple2;
 import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
 import org.bitcoinj.core.Coin;
-import org.bitcoinj.utils.Fiat;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyStringProperty;
@@ -108,6 +107,13 @@ public class Offer implements NetworkPayload, PersistablePayload {
     @Nullable
     @Setter
     transient private PriceFeedService priceFeedService;
+    // Market based price together with the market price it was calculated from
+    @JsonExclude
+    @Nullable
+    transient private Tuple2<MarketPrice, Price> marketBasedPrice;
+    @JsonExclude
+    @Nullable
+    transient private Price fixedPrice;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -165,36 +171,49 @@ public class Offer implements NetworkPayload, PersistablePayload {
             checkNotNull(priceFeedService, "priceFeed must not be null");
             MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
             if (marketPrice != null && marketPrice.isRecentExternalPriceAvailable()) {
-                double factor;
-                double marketPriceMargin = offerPayload.getMarketPriceMargin();
-                if (CurrencyUtil.isCryptoCurrency(currencyCode)) {
-                    factor = getDirection() == OfferPayload.Direction.SELL ?
-                            1 - marketPriceMargin : 1 + marketPriceMargin;
-                } else {
-                    factor = getDirection() == OfferPayload.Direction.BUY ?
-                            1 - marketPriceMargin : 1 + marketPriceMargin;
-                }
-                double marketPriceAsDouble = marketPrice.getPrice();
-                double targetPriceAsDouble = marketPriceAsDouble * factor;
-                try {
-                    int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
-                            Altcoin.SMALLEST_UNIT_EXPONENT :
-                            Fiat.SMALLEST_UNIT_EXPONENT;
-                    double scaled = MathUtils.scaleUpByPowerOf10(targetPriceAsDouble, precision);
-                    final long roundedToLong = MathUtils.roundDoubleToLong(scaled);
-                    return Price.valueOf(currencyCode, roundedToLong);
-                } catch (Exception e) {
-                    log.error("Exception at getPrice / parseToFiat: " + e.toString() + "\n" +
-                            "That case should never happen.");
-                    return null;
-                }
+                // The price feed service creates a new MarketPrice object at each update, so as long we get the same
+                // object we can use the price we have calculated before.
+                Tuple2<MarketPrice, Price> cached = marketBasedPrice;
+                if (cached != null && cached.first == marketPrice)
+                    return cached.second;
+
+                Price price = calculateMarketBasedPrice(marketPrice, currencyCode);
+                marketBasedPrice = price != null ? new Tuple2<>(marketPrice, price) : null;
+                return price;
             } else {
                 log.debug("We don't have a market price.\n" +
                         "That case could only happen if you don't have a price feed.");
                 return null;
             }
         } else {
-            return Price.valueOf(currencyCode, offerPayload.getPrice());
+            if (fixedPrice == null)
+                fixedPrice = Price.valueOf(currencyCode, offerPayload.getPrice());
+            return fixedPrice;
+        }
+    }
+
+    @Nullable
+    private Price calculateMarketBasedPrice(MarketPrice marketPrice, String currencyCode) {
+        double factor;
+        double marketPriceMargin = offerPayload.getMarketPriceMargin();
+        if (CurrencyUtil.isCryptoCurrency(currencyCode)) {
+            factor = getDirection() == OfferPayload.Direction.SELL ?
+                    1 - marketPriceMargin : 1 + marketPriceMargin;
+        } else {
+            factor = getDirection() == OfferPayload.Direction.BUY ?
+                    1 - marketPriceMargin : 1 + marketPriceMargin;
+        }
+        double marketPriceAsDouble = marketPrice.getPrice();
+        double targetPriceAsDouble = marketPriceAsDouble * factor;
+        try {
+            int precision = CurrencyUtil.getSmallestUnitExponent(currencyCode);
+            double scaled = MathUtils.scaleUpByPowerOf10(targetPriceAsDouble, precision);
+            final long roundedToLong = MathUtils.roundDoubleToLong(scaled);
+            return Price.valueOf(currencyCode, roundedToLong);
+        } catch (Exception e) {
+            log.error("Exception at getPrice / parseToFiat: " + e.toString() + "\n" +
+                    "That case should never happen.");
+            return null;
         }
     }
 
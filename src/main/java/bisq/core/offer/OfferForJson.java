@@ -19,16 +19,16 @@ package bisq.core.offer;
 
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.Res;
+import bisq.core.monetary.Altcoin;
 import bisq.core.monetary.Price;
 import bisq.core.monetary.Volume;
 import bisq.core.payment.payload.PaymentMethod;
+import bisq.core.util.FixedPointFormat;
 
 import bisq.common.util.MathUtils;
 
 import org.bitcoinj.core.Coin;
-import org.bitcoinj.utils.MonetaryFormat;
-
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.bitcoinj.utils.Fiat;
 
 import java.util.Date;
 
@@ -38,6 +38,12 @@ import org.slf4j.LoggerFactory;
 public class OfferForJson {
     private static final Logger log = LoggerFactory.getLogger(OfferForJson.class);
 
+    // Same output as the MonetaryFormat used before: fiat with 4 decimals, altcoins with 8 decimals and
+    // MonetaryFormat.BTC for BTC amounts
+    private static final FixedPointFormat FIAT_FORMAT = new FixedPointFormat(Fiat.SMALLEST_UNIT_EXPONENT, 0, 4);
+    private static final FixedPointFormat ALTCOIN_FORMAT = new FixedPointFormat(Altcoin.SMALLEST_UNIT_EXPONENT, 0, 8);
+    private static final FixedPointFormat COIN_FORMAT = new FixedPointFormat(Coin.SMALLEST_UNIT_EXPONENT, 0, 2, 2, 3);
+
     public final OfferPayload.Direction direction;
     public final String currencyCode;
     public final long minAmount;
@@ -66,13 +72,6 @@ public class OfferForJson {
     public long primaryMarketVolume;
     public long primaryMarketMinVolume;
 
-    @JsonIgnore
-    transient private final MonetaryFormat fiatFormat = new MonetaryFormat().shift(0).minDecimals(4).repeatOptionalDecimals(0, 0);
-    @JsonIgnore
-    transient private final MonetaryFormat altcoinFormat = new MonetaryFormat().shift(0).minDecimals(8).repeatOptionalDecimals(0, 0);
-    @JsonIgnore
-    transient private final MonetaryFormat coinFormat = MonetaryFormat.BTC;
-
 
     public OfferForJson(OfferPayload.Direction direction,
                         String currencyCode,
@@ -112,11 +111,11 @@ public class OfferForJson {
                 //decimalFormat.setMaximumFractionDigits(precision);
 
                 // amount and volume is inverted for json
-                priceDisplayString = altcoinFormat.noCode().format(price.getMonetary()).toString();
-                primaryMarketMinAmountDisplayString = altcoinFormat.noCode().format(getMinVolume().getMonetary()).toString();
-                primaryMarketAmountDisplayString = altcoinFormat.noCode().format(getVolume().getMonetary()).toString();
-                primaryMarketMinVolumeDisplayString = coinFormat.noCode().format(getMinAmountAsCoin()).toString();
-                primaryMarketVolumeDisplayString = coinFormat.noCode().format(getAmountAsCoin()).toString();
+                priceDisplayString = ALTCOIN_FORMAT.format(price.getValue());
+                primaryMarketMinAmountDisplayString = ALTCOIN_FORMAT.format(getMinVolume().getValue());
+                primaryMarketAmountDisplayString = ALTCOIN_FORMAT.format(getVolume().getValue());
+                primaryMarketMinVolumeDisplayString = COIN_FORMAT.format(minAmount);
+                primaryMarketVolumeDisplayString = COIN_FORMAT.format(amount);
 
                 primaryMarketPrice = price.getValue();
                 primaryMarketMinAmount = getMinVolume().getValue();
@@ -127,11 +126,11 @@ public class OfferForJson {
                 primaryMarketDirection = direction;
                 currencyPair = Res.getBaseCurrencyCode() + "/" + currencyCode;
 
-                priceDisplayString = fiatFormat.noCode().format(price.getMonetary()).toString();
-                primaryMarketMinAmountDisplayString = coinFormat.noCode().format(getMinAmountAsCoin()).toString();
-                primaryMarketAmountDisplayString = coinFormat.noCode().format(getAmountAsCoin()).toString();
-                primaryMarketMinVolumeDisplayString = fiatFormat.noCode().format(getMinVolume().getMonetary()).toString();
-                primaryMarketVolumeDisplayString = fiatFormat.noCode().format(getVolume().getMonetary()).toString();
+                priceDisplayString = FIAT_FORMAT.format(price.getValue());
+                primaryMarketMinAmountDisplayString = COIN_FORMAT.format(minAmount);
+                primaryMarketAmountDisplayString = COIN_FORMAT.format(amount);
+                primaryMarketMinVolumeDisplayString = FIAT_FORMAT.format(getMinVolume().getValue());
+                primaryMarketVolumeDisplayString = FIAT_FORMAT.format(getVolume().getValue());
 
                 // we use precision 4 for fiat based price but on the markets api we use precision 8 so we scale up by 10000
                 primaryMarketPrice = (long) MathUtils.scaleUpByPowerOf10(price.getValue(), 4);
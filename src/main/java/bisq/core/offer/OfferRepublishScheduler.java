@@ -0,0 +1,253 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Schedules republish and TTL refresh broadcasts of our open offers.
+ * Instead of one timer per offer we keep a single queue which is processed in batches by one timer. Offers which
+ * have not been broadcasted for the longest time (closest to expiry) are processed first.
+ * If a broadcast fails we halve the batch size and double the interval, otherwise we grow the batch size step by
+ * step. The result handlers only report local validation and storage results, not whether peers throttled us, so
+ * the rate of each task never exceeds the pacing used before the scheduler: Republishing sends the full offer and
+ * used 1 offer per 700 ms, TTL refreshes used 1 offer per 300 ms. The next batch is not processed before the
+ * spacing of all broadcasts of the last batch has passed.
+ */
+@Slf4j
+class OfferRepublishScheduler {
+    static final int MIN_BATCH_SIZE = 1;
+    static final int MAX_BATCH_SIZE = 3;
+    static final int INITIAL_BATCH_SIZE = 2;
+    static final long MIN_BATCH_INTERVAL_MS = 1000;
+    static final long MAX_BATCH_INTERVAL_MS = TimeUnit.SECONDS.toMillis(10);
+    static final long INITIAL_BATCH_INTERVAL_MS = 1000;
+    static final long REPUBLISH_SPACING_MS = 700;
+    static final long REFRESH_SPACING_MS = 300;
+    static final double MAX_REPUBLISHES_PER_SEC = 1000d / REPUBLISH_SPACING_MS;
+    static final double MAX_REFRESHES_PER_SEC = 1000d / REFRESH_SPACING_MS;
+
+    enum Task {
+        // Order is used as priority: republish sends the full offer, so it replaces a pending refresh
+        REPUBLISH,
+        REFRESH
+    }
+
+    interface Listener {
+        void onRepublished(OpenOffer openOffer);
+
+        void onRepublishFailed(OpenOffer openOffer, String errorMessage);
+    }
+
+    private static class PendingOffer {
+        private final OpenOffer openOffer;
+        private Task task;
+
+        private PendingOffer(OpenOffer openOffer, Task task) {
+            this.openOffer = openOffer;
+            this.task = task;
+        }
+    }
+
+    private final OfferBookService offerBookService;
+    private final Predicate<OpenOffer> isOfferStillPublishable;
+    private final Listener listener;
+    private final Map<String, PendingOffer> pendingOffers = new HashMap<>();
+    // Time of last successful broadcast per offer ID. Used to process the offers closest to expiry first.
+    private final Map<String, Long> lastBroadcastTimeByOfferId = new HashMap<>();
+    @Nullable
+    private Timer batchTimer;
+    @Getter
+    private int batchSize = INITIAL_BATCH_SIZE;
+    @Getter
+    private long batchIntervalMs = INITIAL_BATCH_INTERVAL_MS;
+    // Sum of the spacing of the broadcasts of the last batch
+    private long lastBatchSpacingMs;
+    @Getter
+    private long numBroadcasts;
+    @Getter
+    private long numFaults;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OfferRepublishScheduler(OfferBookService offerBookService,
+                            Predicate<OpenOffer> isOfferStillPublishable,
+                            Listener listener) {
+        this.offerBookService = offerBookService;
+        this.isOfferStillPublishable = isOfferStillPublishable;
+        this.listener = listener;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void scheduleAll(Collection<OpenOffer> openOffers, Task task) {
+        openOffers.forEach(openOffer -> addPending(openOffer, task));
+        startBatchTimer();
+    }
+
+    void schedule(OpenOffer openOffer, Task task) {
+        addPending(openOffer, task);
+        startBatchTimer();
+    }
+
+    // Republish immediately, used if the user has edited an offer
+    void republishNow(OpenOffer openOffer) {
+        pendingOffers.remove(openOffer.getId());
+        broadcast(openOffer, Task.REPUBLISH);
+    }
+
+    void remove(String offerId) {
+        pendingOffers.remove(offerId);
+        lastBroadcastTimeByOfferId.remove(offerId);
+    }
+
+    void stop() {
+        stopBatchTimer();
+        pendingOffers.clear();
+    }
+
+    int getNumPendingOffers() {
+        return pendingOffers.size();
+    }
+
+    long getNextBatchDelayMs() {
+        return Math.max(batchIntervalMs, lastBatchSpacingMs);
+    }
+
+    double getBroadcastsPerSec() {
+        return (double) batchSize * 1000 / getNextBatchDelayMs();
+    }
+
+    // Processes one batch and adjusts the pacing. Returns the number of broadcasts done.
+    int processBatch() {
+        List<PendingOffer> batch = new ArrayList<>(pendingOffers.values());
+        batch.sort(Comparator.<PendingOffer>comparingLong(e -> getLastBroadcastTime(e.openOffer.getId()))
+                .thenComparing(e -> e.task));
+        if (batch.size() > batchSize)
+            batch = batch.subList(0, batchSize);
+
+        int numSent = 0;
+        long spacingMs = 0;
+        boolean hadFault = false;
+        for (PendingOffer pendingOffer : batch) {
+            pendingOffers.remove(pendingOffer.openOffer.getId());
+            if (isOfferStillPublishable.test(pendingOffer.openOffer)) {
+                numSent++;
+                spacingMs += pendingOffer.task == Task.REPUBLISH ? REPUBLISH_SPACING_MS : REFRESH_SPACING_MS;
+                if (!broadcast(pendingOffer.openOffer, pendingOffer.task))
+                    hadFault = true;
+            }
+        }
+
+        if (hadFault) {
+            batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+            batchIntervalMs = Math.min(MAX_BATCH_INTERVAL_MS, batchIntervalMs * 2);
+        } else if (numSent > 0) {
+            batchSize = Math.min(MAX_BATCH_SIZE, batchSize + 1);
+            batchIntervalMs = Math.max(MIN_BATCH_INTERVAL_MS, batchIntervalMs * 3 / 4);
+        }
+        lastBatchSpacingMs = spacingMs;
+        return numSent;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addPending(OpenOffer openOffer, Task task) {
+        PendingOffer pendingOffer = pendingOffers.get(openOffer.getId());
+        if (pendingOffer == null)
+            pendingOffers.put(openOffer.getId(), new PendingOffer(openOffer, task));
+        else if (task.compareTo(pendingOffer.task) < 0)
+            pendingOffer.task = task;
+    }
+
+    private boolean broadcast(OpenOffer openOffer, Task task) {
+        numBroadcasts++;
+        String offerId = openOffer.getId();
+        // The offerBookService handlers are called synchronously, so we can use the array as result holder
+        boolean[] success = new boolean[1];
+        if (task == Task.REPUBLISH) {
+            offerBookService.addOffer(openOffer.getOffer(),
+                    () -> {
+                        success[0] = true;
+                        lastBroadcastTimeByOfferId.put(offerId, System.currentTimeMillis());
+                        listener.onRepublished(openOffer);
+                    },
+                    errorMessage -> listener.onRepublishFailed(openOffer, errorMessage));
+        } else {
+            offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
+                    () -> {
+                        success[0] = true;
+                        lastBroadcastTimeByOfferId.put(offerId, System.currentTimeMillis());
+                        log.debug("Successful refreshed TTL for offer");
+                    },
+                    log::warn);
+        }
+        if (!success[0])
+            numFaults++;
+        return success[0];
+    }
+
+    private long getLastBroadcastTime(String offerId) {
+        return lastBroadcastTimeByOfferId.getOrDefault(offerId, 0L);
+    }
+
+    // Not private so tests can drive processBatch without a timer
+    void startBatchTimer() {
+        if (batchTimer == null && !pendingOffers.isEmpty())
+            batchTimer = UserThread.runAfter(this::onBatchTimer, getNextBatchDelayMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private void onBatchTimer() {
+        batchTimer = null;
+        int numSent = processBatch();
+        log.debug("Processed batch of {} offer broadcasts. Pending: {}, batchSize: {}, nextBatchDelayMs: {}",
+                numSent, pendingOffers.size(), batchSize, getNextBatchDelayMs());
+        startBatchTimer();
+    }
+
+    private void stopBatchTimer() {
+        if (batchTimer != null) {
+            batchTimer.stop();
+            batchTimer = null;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import bisq.core.offer.messages.OfferAvailabilityResponse;
 import bisq.core.offer.placeoffer.PlaceOfferModel;
 import bisq.core.offer.placeoffer.PlaceOfferProtocol;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.trade.handlers.TransactionResultHandler;
@@ -51,7 +52,6 @@ import bisq.common.crypto.PubKeyRing;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.network.NetworkEnvelope;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
@@ -82,7 +82,7 @@ import javax.annotation.Nullable;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMessageListener, PersistedDataHost {
+public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMessageListener, ConcurrentPersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(OpenOfferManager.class);
 
     private static final long RETRY_REPUBLISH_DELAY_SEC = 10;
@@ -102,6 +102,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final Preferences preferences;
     private final Storage<TradableList<OpenOffer>> openOfferTradableListStorage;
     private final Map<String, OpenOffer> offersToBeEdited = new HashMap<>();
+    private final OfferRepublishScheduler republishScheduler;
     private boolean stopped;
     private Timer periodicRepublishOffersTimer, periodicRefreshOffersTimer, retryRepublishOffersTimer;
     private TradableList<OpenOffer> openOffers;
@@ -137,6 +138,19 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         this.preferences = preferences;
 
         openOfferTradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
+        republishScheduler = new OfferRepublishScheduler(offerBookService,
+                openOffer -> openOffers.contains(openOffer) && openOffer.getId() != null && !openOffer.isDeactivated(),
+                new OfferRepublishScheduler.Listener() {
+                    @Override
+                    public void onRepublished(OpenOffer openOffer) {
+                        onOfferRepublished(openOffer);
+                    }
+
+                    @Override
+                    public void onRepublishFailed(OpenOffer openOffer, String errorMessage) {
+                        onOfferRepublishFailed(openOffer, errorMessage);
+                    }
+                });
 
         // In case the app did get killed the shutDown from the modules is not called, so we use a shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -145,9 +159,12 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     }
 
     @Override
-    public void readPersisted() {
-        openOffers = new TradableList<>(openOfferTradableListStorage, "OpenOffers");
-        openOffers.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
+    public Runnable readStore() {
+        TradableList<OpenOffer> persisted = new TradableList<>(openOfferTradableListStorage, "OpenOffers");
+        return () -> {
+            openOffers = persisted;
+            openOffers.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
+        };
     }
 
     public void onAllServicesInitialized() {
@@ -190,6 +207,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopPeriodicRefreshOffersTimer();
         stopPeriodicRepublishOffersTimer();
         stopRetryRepublishOffersTimer();
+        republishScheduler.stop();
 
         log.debug("remove all open offers at shutDown");
         // we remove own offers from offerbook when we go offline
@@ -288,6 +306,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopPeriodicRefreshOffersTimer();
         stopPeriodicRepublishOffersTimer();
         stopRetryRepublishOffersTimer();
+        republishScheduler.stop();
 
         restart();
     }
@@ -471,6 +490,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         offer.setState(Offer.State.REMOVED);
         openOffer.setState(OpenOffer.State.CANCELED);
         openOffers.remove(openOffer);
+        republishScheduler.remove(openOffer.getId());
         closedTradableManager.add(openOffer);
         log.debug("removeOpenOffer, offerId={}", offer.getId());
         btcWalletService.resetAddressEntriesForOpenOffer(offer.getId());
@@ -481,6 +501,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     public void closeOpenOffer(Offer offer) {
         getOpenOfferById(offer.getId()).ifPresent(openOffer -> {
             openOffers.remove(openOffer);
+            republishScheduler.remove(openOffer.getId());
             openOffer.setState(OpenOffer.State.CLOSED);
             offerBookService.removeOffer(openOffer.getOffer().getOfferPayload(),
                     () -> log.trace("Successful removed offer"),
@@ -658,55 +679,42 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void republishOffers() {
-        int size = openOffers.size();
-        final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-        Log.traceCall("Number of offer for republish: " + size);
+        Log.traceCall("Number of offer for republish: " + openOffers.size());
         if (!stopped) {
             stopPeriodicRefreshOffersTimer();
-            for (int i = 0; i < size; i++) {
-                // we delay to avoid reaching throttle limits
-
-                long delay = 700;
-                final long minDelay = (i + 1) * delay;
-                final long maxDelay = (i + 2) * delay;
-                final OpenOffer openOffer = openOffersList.get(i);
-                UserThread.runAfterRandomDelay(() -> {
-                    if (openOffers.contains(openOffer)) {
-                        String id = openOffer.getId();
-                        if (id != null && !openOffer.isDeactivated())
-                            republishOffer(openOffer);
-                    }
-
-                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
-            }
+            // We add all offers to the scheduler which broadcasts them in batches to avoid reaching throttle limits
+            republishScheduler.scheduleAll(new ArrayList<>(openOffers.getList()), OfferRepublishScheduler.Task.REPUBLISH);
         } else {
             log.debug("We have stopped already. We ignore that republishOffers call.");
         }
     }
 
     private void republishOffer(OpenOffer openOffer) {
-        offerBookService.addOffer(openOffer.getOffer(),
-                () -> {
-                    if (!stopped) {
-                        log.debug("Successful added offer to P2P network");
-                        // Refresh means we send only the dat needed to refresh the TTL (hash, signature and sequence no.)
-                        if (periodicRefreshOffersTimer == null)
-                            startPeriodicRefreshOffersTimer();
-                    } else {
-                        log.debug("We have stopped already. We ignore that offerBookService.republishOffers.onSuccess call.");
-                    }
-                },
-                errorMessage -> {
-                    if (!stopped) {
-                        log.error("Add offer to P2P network failed. " + errorMessage);
-                        stopRetryRepublishOffersTimer();
-                        retryRepublishOffersTimer = UserThread.runAfter(OpenOfferManager.this::republishOffers,
-                                RETRY_REPUBLISH_DELAY_SEC);
-                    } else {
-                        log.debug("We have stopped already. We ignore that offerBookService.republishOffers.onFault call.");
-                    }
-                });
+        republishScheduler.republishNow(openOffer);
+    }
+
+    private void onOfferRepublished(OpenOffer openOffer) {
+        openOffer.setStorage(openOfferTradableListStorage);
+        if (!stopped) {
+            log.debug("Successful added offer to P2P network");
+            // Refresh means we send only the dat needed to refresh the TTL (hash, signature and sequence no.)
+            if (periodicRefreshOffersTimer == null)
+                startPeriodicRefreshOffersTimer();
+        } else {
+            log.debug("We have stopped already. We ignore that offerBookService.republishOffers.onSuccess call.");
+        }
+    }
+
+    private void onOfferRepublishFailed(OpenOffer openOffer, String errorMessage) {
         openOffer.setStorage(openOfferTradableListStorage);
+        if (!stopped) {
+            log.error("Add offer to P2P network failed. " + errorMessage);
+            stopRetryRepublishOffersTimer();
+            retryRepublishOffersTimer = UserThread.runAfter(OpenOfferManager.this::republishOffers,
+                    RETRY_REPUBLISH_DELAY_SEC);
+        } else {
+            log.debug("We have stopped already. We ignore that offerBookService.republishOffers.onFault call.");
+        }
     }
 
     private void startPeriodicRepublishOffersTimer() {
@@ -733,25 +741,10 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         if (periodicRefreshOffersTimer == null)
             periodicRefreshOffersTimer = UserThread.runPeriodically(() -> {
                         if (!stopped) {
-                            int size = openOffers.size();
-                            Log.traceCall("Number of offer for refresh: " + size);
-
-                            //we clone our list as openOffers might change during our delayed call
-                            final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-                            for (int i = 0; i < size; i++) {
-                                // we delay to avoid reaching throttle limits
-                                // roughly 4 offers per second
-
-                                long delay = 300;
-                                final long minDelay = (i + 1) * delay;
-                                final long maxDelay = (i + 2) * delay;
-                                final OpenOffer openOffer = openOffersList.get(i);
-                                UserThread.runAfterRandomDelay(() -> {
-                                    // we need to check if in the meantime the offer has been removed
-                                    if (openOffers.contains(openOffer) && !openOffer.isDeactivated())
-                                        refreshOffer(openOffer);
-                                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
-                            }
+                            Log.traceCall("Number of offer for refresh: " + openOffers.size());
+                            // The scheduler processes the offers closest to expiry first
+                            republishScheduler.scheduleAll(new ArrayList<>(openOffers.getList()),
+                                    OfferRepublishScheduler.Task.REFRESH);
                         } else {
                             log.debug("We have stopped already. We ignore that periodicRefreshOffersTimer.run call.");
                         }
@@ -762,12 +755,6 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             log.trace("periodicRefreshOffersTimer already stated");
     }
 
-    private void refreshOffer(OpenOffer openOffer) {
-        offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
-                () -> log.debug("Successful refreshed TTL for offer"),
-                log::warn);
-    }
-
     private void restart() {
         log.debug("Restart after connection loss");
         if (retryRepublishOffersTimer == null)
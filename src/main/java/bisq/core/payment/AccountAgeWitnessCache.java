@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.crypto.PubKeyRing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Memoizes the witness hash of a payment account for a given pubKeyRing together with the witness found in the
+ * append-only store. Avoids the byte array concatenation and SHA256 + RIPEMD160 hashing at repeated lookups
+ * (e.g. trade limit and account age checks at each offer book row).
+ * If a witness matching a cached hash gets added to the store later, the entry gets updated.
+ */
+class AccountAgeWitnessCache {
+    @Value
+    private static class Key {
+        private final String paymentAccountPayloadId;
+        private final PubKeyRing pubKeyRing;
+    }
+
+    static class Entry {
+        @Getter
+        private final byte[] hash;
+        // Null if there was no matching witness in the store yet
+        @Nullable
+        @Getter
+        private AccountAgeWitness witness;
+
+        private Entry(byte[] hash, @Nullable AccountAgeWitness witness) {
+            this.hash = hash;
+            this.witness = witness;
+        }
+    }
+
+    private final Map<Key, Entry> entryByKey = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, Entry> entryByHash = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    Entry get(String paymentAccountPayloadId, PubKeyRing pubKeyRing) {
+        return entryByKey.get(new Key(paymentAccountPayloadId, pubKeyRing));
+    }
+
+    Entry put(String paymentAccountPayloadId, PubKeyRing pubKeyRing, byte[] hash, @Nullable AccountAgeWitness witness) {
+        Entry entry = new Entry(hash, witness);
+        Entry previous = entryByKey.put(new Key(paymentAccountPayloadId, pubKeyRing), entry);
+        if (previous != null)
+            entryByHash.remove(new P2PDataStorage.ByteArray(previous.hash));
+        entryByHash.put(new P2PDataStorage.ByteArray(hash), entry);
+        return entry;
+    }
+
+    // Called when a witness got added to the append-only store
+    void onWitnessAdded(AccountAgeWitness accountAgeWitness) {
+        Entry entry = entryByHash.get(accountAgeWitness.getHashAsByteArray());
+        if (entry != null && entry.witness == null)
+            entry.witness = accountAgeWitness;
+    }
+
+    void remove(String paymentAccountPayloadId, PubKeyRing pubKeyRing) {
+        Entry entry = entryByKey.remove(new Key(paymentAccountPayloadId, pubKeyRing));
+        if (entry != null)
+            entryByHash.remove(new P2PDataStorage.ByteArray(entry.hash));
+    }
+
+    int size() {
+        return entryByKey.size();
+    }
+}
@@ -43,6 +43,8 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
+import javafx.collections.SetChangeListener;
+
 import java.security.PublicKey;
 
 import java.util.Arrays;
@@ -74,6 +76,7 @@ public class AccountAgeWitnessService {
     private final User user;
 
     private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
+    private final AccountAgeWitnessCache myWitnessCache = new AccountAgeWitnessCache();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -99,6 +102,13 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onAllServicesInitialized() {
+        user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) change -> {
+            if (change.wasAdded())
+                invalidateMyWitness(change.getElementAdded().getPaymentAccountPayload());
+            if (change.wasRemoved())
+                invalidateMyWitness(change.getElementRemoved().getPaymentAccountPayload());
+        });
+
         p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
             if (payload instanceof AccountAgeWitness)
                 addToMap((AccountAgeWitness) payload);
@@ -137,8 +147,10 @@ public class AccountAgeWitnessService {
 
     private void addToMap(AccountAgeWitness accountAgeWitness) {
         log.debug("addToMap hash=" + Utilities.bytesAsHexString(accountAgeWitness.getHash()));
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
+        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray())) {
             accountAgeWitnessMap.put(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
+            myWitnessCache.onWitnessAdded(accountAgeWitness);
+        }
     }
 
 
@@ -156,19 +168,28 @@ public class AccountAgeWitnessService {
         return Utilities.concatenateByteArrays(paymentAccountPayload.getAgeWitnessInputData(), paymentAccountPayload.getSalt());
     }
 
-    private AccountAgeWitness getNewWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
+    private byte[] getWitnessHash(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
         byte[] accountInputDataWithSalt = getAccountInputDataWithSalt(paymentAccountPayload);
-        byte[] hash = Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
+        return Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
                 pubKeyRing.getSignaturePubKeyBytes()));
-        return new AccountAgeWitness(hash, new Date().getTime());
+    }
+
+    private AccountAgeWitness getNewWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
+        return new AccountAgeWitness(getWitnessHash(paymentAccountPayload, pubKeyRing), new Date().getTime());
     }
 
     private Optional<AccountAgeWitness> findWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
-        byte[] accountInputDataWithSalt = getAccountInputDataWithSalt(paymentAccountPayload);
-        byte[] hash = Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
-                pubKeyRing.getSignaturePubKeyBytes()));
+        return getWitnessByHash(getWitnessHash(paymentAccountPayload, pubKeyRing));
+    }
 
-        return getWitnessByHash(hash);
+    // We only use the cache for our own accounts. Peers witness data is verified with freshly computed hashes.
+    private AccountAgeWitnessCache.Entry getCachedWitnessEntry(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
+        AccountAgeWitnessCache.Entry entry = myWitnessCache.get(paymentAccountPayload.getId(), pubKeyRing);
+        if (entry == null) {
+            byte[] hash = getWitnessHash(paymentAccountPayload, pubKeyRing);
+            entry = myWitnessCache.put(paymentAccountPayload.getId(), pubKeyRing, hash, getWitnessByHash(hash).orElse(null));
+        }
+        return entry;
     }
 
     private Optional<AccountAgeWitness> getWitnessByHash(byte[] hash) {
@@ -245,8 +266,14 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public AccountAgeWitness getMyWitness(PaymentAccountPayload paymentAccountPayload) {
-        final Optional<AccountAgeWitness> accountAgeWitnessOptional = findWitness(paymentAccountPayload, keyRing.getPubKeyRing());
-        return accountAgeWitnessOptional.orElseGet(() -> getNewWitness(paymentAccountPayload, keyRing.getPubKeyRing()));
+        AccountAgeWitnessCache.Entry entry = getCachedWitnessEntry(paymentAccountPayload, keyRing.getPubKeyRing());
+        return entry.getWitness() != null ? entry.getWitness() : new AccountAgeWitness(entry.getHash(), new Date().getTime());
+    }
+
+    // Needs to be called if the data of a payment account has been changed, otherwise we would use an outdated hash.
+    // The salt of an account can be changed before it gets added, so we invalidate at adding and at removal.
+    private void invalidateMyWitness(PaymentAccountPayload paymentAccountPayload) {
+        myWitnessCache.remove(paymentAccountPayload.getId(), keyRing.getPubKeyRing());
     }
 
     private byte[] getMyWitnessHash(PaymentAccountPayload paymentAccountPayload) {
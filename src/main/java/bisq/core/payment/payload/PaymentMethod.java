@@ -28,8 +28,9 @@ import org.bitcoinj.core.Coin;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import lombok.EqualsAndHashCode;
@@ -111,7 +112,21 @@ public final class PaymentMethod implements PersistablePayload, Comparable {
     public static PaymentMethod HAL_CASH;
     public static PaymentMethod BLOCK_CHAINS;
 
-    private static List<PaymentMethod> ALL_VALUES;
+    // The payment methods get created at the first access as the trade limits depend on the base currency network.
+    // The JVM initializes the holder class only once and publishes its fields safely to all threads.
+    private static class Holder {
+        private static final List<PaymentMethod> ALL_VALUES = createAllValues();
+        // Lookup of the payment methods and their index in ALL_VALUES by ID
+        private static final Map<String, PaymentMethod> PAYMENT_METHOD_BY_ID = new HashMap<>();
+        private static final Map<String, Integer> INDEX_BY_ID = new HashMap<>();
+
+        static {
+            for (int i = 0; i < ALL_VALUES.size(); i++) {
+                PAYMENT_METHOD_BY_ID.put(ALL_VALUES.get(i).getId(), ALL_VALUES.get(i));
+                INDEX_BY_ID.put(ALL_VALUES.get(i).getId(), i);
+            }
+        }
+    }
 
 
     public static void onAllServicesInitialized() {
@@ -148,88 +163,90 @@ public final class PaymentMethod implements PersistablePayload, Comparable {
     }
 
     public static List<PaymentMethod> getAllValues() {
-        if (ALL_VALUES == null) {
-            Coin maxTradeLimitHighRisk;
-            Coin maxTradeLimitMidRisk;
-            Coin maxTradeLimitLowRisk;
-            Coin maxTradeLimitVeryLowRisk;
-            switch (BisqEnvironment.getBaseCurrencyNetwork().getCurrencyCode()) {
-                case "BTC":
-                    // we want to avoid more then 4 decimal places (0.125 / 4 = 0.03125), so we use a bit higher value to get 0.04 for first month
-                    maxTradeLimitHighRisk = Coin.parseCoin("0.16");
-
-                    maxTradeLimitMidRisk = Coin.parseCoin("0.25");
-                    maxTradeLimitLowRisk = Coin.parseCoin("0.5");
-                    maxTradeLimitVeryLowRisk = Coin.parseCoin("1");
-                    break;
-                case "LTC":
-                    maxTradeLimitHighRisk = Coin.parseCoin("12.5");
-                    maxTradeLimitMidRisk = Coin.parseCoin("25");
-                    maxTradeLimitLowRisk = Coin.parseCoin("50");
-                    maxTradeLimitVeryLowRisk = Coin.parseCoin("100");
-                    break;
-                case "DASH":
-                    maxTradeLimitHighRisk = Coin.parseCoin("5");
-                    maxTradeLimitMidRisk = Coin.parseCoin("10");
-                    maxTradeLimitLowRisk = Coin.parseCoin("20");
-                    maxTradeLimitVeryLowRisk = Coin.parseCoin("40");
-                    break;
-
-                default:
-                    log.error("Unsupported BaseCurrency. " + BisqEnvironment.getBaseCurrencyNetwork().getCurrencyCode());
-                    throw new RuntimeException("Unsupported BaseCurrency. " + BisqEnvironment.getBaseCurrencyNetwork().getCurrencyCode());
-            }
+        return Holder.ALL_VALUES;
+    }
 
-            ALL_VALUES = new ArrayList<>(Arrays.asList(
-                    // EUR
-                    SEPA = new PaymentMethod(SEPA_ID, 6 * DAY, maxTradeLimitMidRisk),
-                    SEPA_INSTANT = new PaymentMethod(SEPA_INSTANT_ID, DAY, maxTradeLimitMidRisk),
-                    MONEY_BEAM = new PaymentMethod(MONEY_BEAM_ID, DAY, maxTradeLimitHighRisk),
-
-                    // UK
-                    FASTER_PAYMENTS = new PaymentMethod(FASTER_PAYMENTS_ID, DAY, maxTradeLimitMidRisk),
-
-                    // Sweden
-                    SWISH = new PaymentMethod(SWISH_ID, DAY, maxTradeLimitLowRisk),
-
-                    // US
-                    CLEAR_X_CHANGE = new PaymentMethod(CLEAR_X_CHANGE_ID, 4 * DAY, maxTradeLimitMidRisk),
-                    CASH_APP = new PaymentMethod(CASH_APP_ID, DAY, maxTradeLimitHighRisk),
-
-                    VENMO = new PaymentMethod(VENMO_ID, DAY, maxTradeLimitHighRisk),
-
-                    POPMONEY = new PaymentMethod(POPMONEY_ID, DAY, maxTradeLimitHighRisk),
-                    CHASE_QUICK_PAY = new PaymentMethod(CHASE_QUICK_PAY_ID, DAY, maxTradeLimitMidRisk),
-                    US_POSTAL_MONEY_ORDER = new PaymentMethod(US_POSTAL_MONEY_ORDER_ID, 8 * DAY, maxTradeLimitMidRisk),
-
-                    // Canada
-                    INTERAC_E_TRANSFER = new PaymentMethod(INTERAC_E_TRANSFER_ID, DAY, maxTradeLimitMidRisk),
-
-                    // Global
-                    CASH_DEPOSIT = new PaymentMethod(CASH_DEPOSIT_ID, 4 * DAY, maxTradeLimitMidRisk),
-                    MONEY_GRAM = new PaymentMethod(MONEY_GRAM_ID, 4 * DAY, maxTradeLimitMidRisk),
-                    WESTERN_UNION = new PaymentMethod(WESTERN_UNION_ID, 4 * DAY, maxTradeLimitMidRisk),
-                    NATIONAL_BANK = new PaymentMethod(NATIONAL_BANK_ID, 4 * DAY, maxTradeLimitMidRisk),
-                    SAME_BANK = new PaymentMethod(SAME_BANK_ID, 2 * DAY, maxTradeLimitMidRisk),
-                    SPECIFIC_BANKS = new PaymentMethod(SPECIFIC_BANKS_ID, 4 * DAY, maxTradeLimitMidRisk),
-                    HAL_CASH = new PaymentMethod(HAL_CASH_ID, DAY, maxTradeLimitLowRisk),
-                    F2F = new PaymentMethod(F2F_ID, 4 * DAY, maxTradeLimitLowRisk),
-
-                    // Trans national
-                    OK_PAY = new PaymentMethod(OK_PAY_ID, DAY, maxTradeLimitVeryLowRisk),
-                    UPHOLD = new PaymentMethod(UPHOLD_ID, DAY, maxTradeLimitHighRisk),
-                    REVOLUT = new PaymentMethod(REVOLUT_ID, DAY, maxTradeLimitHighRisk),
-                    PERFECT_MONEY = new PaymentMethod(PERFECT_MONEY_ID, DAY, maxTradeLimitLowRisk),
-
-                    // China
-                    ALI_PAY = new PaymentMethod(ALI_PAY_ID, DAY, maxTradeLimitLowRisk),
-                    WECHAT_PAY = new PaymentMethod(WECHAT_PAY_ID, DAY, maxTradeLimitLowRisk),
-
-                    // Altcoins
-                    BLOCK_CHAINS = new PaymentMethod(BLOCK_CHAINS_ID, DAY, maxTradeLimitVeryLowRisk)
-            ));
+    private static List<PaymentMethod> createAllValues() {
+        Coin maxTradeLimitHighRisk;
+        Coin maxTradeLimitMidRisk;
+        Coin maxTradeLimitLowRisk;
+        Coin maxTradeLimitVeryLowRisk;
+        switch (BisqEnvironment.getBaseCurrencyNetwork().getCurrencyCode()) {
+            case "BTC":
+                // we want to avoid more then 4 decimal places (0.125 / 4 = 0.03125), so we use a bit higher value to get 0.04 for first month
+                maxTradeLimitHighRisk = Coin.parseCoin("0.16");
+
+                maxTradeLimitMidRisk = Coin.parseCoin("0.25");
+                maxTradeLimitLowRisk = Coin.parseCoin("0.5");
+                maxTradeLimitVeryLowRisk = Coin.parseCoin("1");
+                break;
+            case "LTC":
+                maxTradeLimitHighRisk = Coin.parseCoin("12.5");
+                maxTradeLimitMidRisk = Coin.parseCoin("25");
+                maxTradeLimitLowRisk = Coin.parseCoin("50");
+                maxTradeLimitVeryLowRisk = Coin.parseCoin("100");
+                break;
+            case "DASH":
+                maxTradeLimitHighRisk = Coin.parseCoin("5");
+                maxTradeLimitMidRisk = Coin.parseCoin("10");
+                maxTradeLimitLowRisk = Coin.parseCoin("20");
+                maxTradeLimitVeryLowRisk = Coin.parseCoin("40");
+                break;
+
+            default:
+                log.error("Unsupported BaseCurrency. " + BisqEnvironment.getBaseCurrencyNetwork().getCurrencyCode());
+                throw new RuntimeException("Unsupported BaseCurrency. " + BisqEnvironment.getBaseCurrencyNetwork().getCurrencyCode());
         }
-        ALL_VALUES.sort((o1, o2) -> {
+
+        List<PaymentMethod> allValues = new ArrayList<>(Arrays.asList(
+                // EUR
+                SEPA = new PaymentMethod(SEPA_ID, 6 * DAY, maxTradeLimitMidRisk),
+                SEPA_INSTANT = new PaymentMethod(SEPA_INSTANT_ID, DAY, maxTradeLimitMidRisk),
+                MONEY_BEAM = new PaymentMethod(MONEY_BEAM_ID, DAY, maxTradeLimitHighRisk),
+
+                // UK
+                FASTER_PAYMENTS = new PaymentMethod(FASTER_PAYMENTS_ID, DAY, maxTradeLimitMidRisk),
+
+                // Sweden
+                SWISH = new PaymentMethod(SWISH_ID, DAY, maxTradeLimitLowRisk),
+
+                // US
+                CLEAR_X_CHANGE = new PaymentMethod(CLEAR_X_CHANGE_ID, 4 * DAY, maxTradeLimitMidRisk),
+                CASH_APP = new PaymentMethod(CASH_APP_ID, DAY, maxTradeLimitHighRisk),
+
+                VENMO = new PaymentMethod(VENMO_ID, DAY, maxTradeLimitHighRisk),
+
+                POPMONEY = new PaymentMethod(POPMONEY_ID, DAY, maxTradeLimitHighRisk),
+                CHASE_QUICK_PAY = new PaymentMethod(CHASE_QUICK_PAY_ID, DAY, maxTradeLimitMidRisk),
+                US_POSTAL_MONEY_ORDER = new PaymentMethod(US_POSTAL_MONEY_ORDER_ID, 8 * DAY, maxTradeLimitMidRisk),
+
+                // Canada
+                INTERAC_E_TRANSFER = new PaymentMethod(INTERAC_E_TRANSFER_ID, DAY, maxTradeLimitMidRisk),
+
+                // Global
+                CASH_DEPOSIT = new PaymentMethod(CASH_DEPOSIT_ID, 4 * DAY, maxTradeLimitMidRisk),
+                MONEY_GRAM = new PaymentMethod(MONEY_GRAM_ID, 4 * DAY, maxTradeLimitMidRisk),
+                WESTERN_UNION = new PaymentMethod(WESTERN_UNION_ID, 4 * DAY, maxTradeLimitMidRisk),
+                NATIONAL_BANK = new PaymentMethod(NATIONAL_BANK_ID, 4 * DAY, maxTradeLimitMidRisk),
+                SAME_BANK = new PaymentMethod(SAME_BANK_ID, 2 * DAY, maxTradeLimitMidRisk),
+                SPECIFIC_BANKS = new PaymentMethod(SPECIFIC_BANKS_ID, 4 * DAY, maxTradeLimitMidRisk),
+                HAL_CASH = new PaymentMethod(HAL_CASH_ID, DAY, maxTradeLimitLowRisk),
+                F2F = new PaymentMethod(F2F_ID, 4 * DAY, maxTradeLimitLowRisk),
+
+                // Trans national
+                OK_PAY = new PaymentMethod(OK_PAY_ID, DAY, maxTradeLimitVeryLowRisk),
+                UPHOLD = new PaymentMethod(UPHOLD_ID, DAY, maxTradeLimitHighRisk),
+                REVOLUT = new PaymentMethod(REVOLUT_ID, DAY, maxTradeLimitHighRisk),
+                PERFECT_MONEY = new PaymentMethod(PERFECT_MONEY_ID, DAY, maxTradeLimitLowRisk),
+
+                // China
+                ALI_PAY = new PaymentMethod(ALI_PAY_ID, DAY, maxTradeLimitLowRisk),
+                WECHAT_PAY = new PaymentMethod(WECHAT_PAY_ID, DAY, maxTradeLimitLowRisk),
+
+                // Altcoins
+                BLOCK_CHAINS = new PaymentMethod(BLOCK_CHAINS_ID, DAY, maxTradeLimitVeryLowRisk)
+        ));
+        allValues.sort((o1, o2) -> {
             String id1 = o1.getId();
             if (id1.equals(CLEAR_X_CHANGE_ID))
                 id1 = "ZELLE";
@@ -238,7 +255,7 @@ public final class PaymentMethod implements PersistablePayload, Comparable {
                 id2 = "ZELLE";
             return id1.compareTo(id2);
         });
-        return ALL_VALUES;
+        return allValues;
     }
 
 
@@ -272,8 +289,14 @@ public final class PaymentMethod implements PersistablePayload, Comparable {
     }
 
     public static PaymentMethod getPaymentMethodById(String id) {
-        Optional<PaymentMethod> paymentMethodOptional = getAllValues().stream().filter(e -> e.getId().equals(id)).findFirst();
-        return paymentMethodOptional.orElseGet(() -> new PaymentMethod(Res.get("shared.na")));
+        PaymentMethod paymentMethod = Holder.PAYMENT_METHOD_BY_ID.get(id);
+        return paymentMethod != null ? paymentMethod : new PaymentMethod(Res.get("shared.na"));
+    }
+
+    // Returns a dense index in the range 0 to getAllValues().size() - 1 or -1 if the ID is not known.
+    // The index is only valid during the lifetime of the application.
+    public static int getPaymentMethodIndex(String id) {
+        return Holder.INDEX_BY_ID.getOrDefault(id, -1);
     }
 
     // Hack for SF as the smallest unit is 1 SF ;-( and price is about 3 BTC!
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Keeps the latencies of the last successful requests per provider. Used to decide how long we wait for a provider
+ * before we send a hedged request to another one.
+ * Not thread safe, must be used from the user thread.
+ */
+public class ProviderLatencyTracker {
+    private static final int MAX_SAMPLES = 20;
+    private static final int MIN_SAMPLES = 3;
+
+    private final Map<String, LinkedList<Long>> latenciesByBaseUrl = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void addLatency(String baseUrl, long latencyMs) {
+        LinkedList<Long> latencies = latenciesByBaseUrl.computeIfAbsent(baseUrl, key -> new LinkedList<>());
+        latencies.add(latencyMs);
+        if (latencies.size() > MAX_SAMPLES)
+            latencies.removeFirst();
+    }
+
+    // Returns the latency which was not exceeded by the given percentage of the last requests, or empty if we
+    // don't have enough samples yet.
+    public OptionalLong getPercentile(String baseUrl, int percentile) {
+        List<Long> latencies = latenciesByBaseUrl.get(baseUrl);
+        if (latencies == null || latencies.size() < MIN_SAMPLES)
+            return OptionalLong.empty();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100d * sorted.size()) - 1;
+        return OptionalLong.of(sorted.get(Math.max(0, Math.min(sorted.size() - 1, index))));
+    }
+
+    public int getNumSamples(String baseUrl) {
+        List<Long> latencies = latenciesByBaseUrl.get(baseUrl);
+        return latencies != null ? latencies.size() : 0;
+    }
+}
@@ -106,6 +106,26 @@ public class ProvidersRepository {
         }
     }
 
+    // Returns the provider which would be selected next without changing the selection, or null if we don't have
+    // another provider. Used for hedged requests.
+    @Nullable
+    public String getNextProviderBaseUrl() {
+        if (providerList.size() < 2)
+            return null;
+
+        String nextBaseUrl = providerList.get(index >= providerList.size() ? 0 : index);
+        return nextBaseUrl.equals(baseUrl) ? null : nextBaseUrl;
+    }
+
+    // Selects the given provider, e.g. if it has responded faster than the current one to a hedged request
+    public void selectProviderBaseUrl(String baseUrl) {
+        int providerIndex = providerList.indexOf(baseUrl);
+        if (providerIndex >= 0) {
+            this.baseUrl = baseUrl;
+            index = providerIndex + 1;
+        }
+    }
+
     private void fillProviderList() {
         List<String> providers;
         if (providersFromProgramArgs == null || providersFromProgramArgs.isEmpty()) {
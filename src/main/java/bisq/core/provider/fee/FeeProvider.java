@@ -24,20 +24,24 @@ import bisq.core.provider.ProvidersRepository;
 import bisq.common.app.Version;
 import bisq.common.util.Tuple2;
 
-import com.google.gson.Gson;
-import com.google.gson.internal.LinkedTreeMap;
+import com.google.gson.stream.JsonReader;
 
 import com.google.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import java.io.IOException;
+import java.io.StringReader;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class FeeProvider extends HttpClientProvider {
+    private static final String TX_FEE_POSTFIX = "TxFee";
 
     @Inject
     public FeeProvider(PriceNodeHttpClient httpClient, ProvidersRepository providersRepository) {
@@ -46,27 +50,49 @@ public class FeeProvider extends HttpClientProvider {
 
     public Tuple2<Map<String, Long>, Map<String, Long>> getFees() throws IOException {
         String json = httpClient.requestWithGET("getFees", "User-Agent", "bisq/" + Version.VERSION + ", uid:" + httpClient.getUid());
+        return parse(json);
+    }
 
-        LinkedTreeMap<String, Object> linkedTreeMap = new Gson().<LinkedTreeMap<String, Object>>fromJson(json, LinkedTreeMap.class);
+    // Reads the fees with a streaming reader. The keys in the dataMap are mapped to the currency code
+    // (e.g. btcTxFee to BTC).
+    @VisibleForTesting
+    static Tuple2<Map<String, Long>, Map<String, Long>> parse(String json) throws IOException {
         Map<String, Long> tsMap = new HashMap<>();
-        tsMap.put("bitcoinFeesTs", ((Double) linkedTreeMap.get("bitcoinFeesTs")).longValue());
-
         Map<String, Long> map = new HashMap<>();
-
-        try {
-            //noinspection unchecked
-            LinkedTreeMap<String, Double> dataMap = (LinkedTreeMap<String, Double>) linkedTreeMap.get("dataMap");
-            Long btcTxFee = dataMap.get("btcTxFee").longValue();
-            Long ltcTxFee = dataMap.get("ltcTxFee").longValue();
-            Long dashTxFee = dataMap.get("dashTxFee").longValue();
-
-            map.put("BTC", btcTxFee);
-            map.put("LTC", ltcTxFee);
-            map.put("DASH", dashTxFee);
-        } catch (Throwable t) {
-            log.error(t.toString());
-            t.printStackTrace();
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "bitcoinFeesTs":
+                        tsMap.put(name, reader.nextLong());
+                        break;
+                    case "dataMap":
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            String key = reader.nextName();
+                            if (key.endsWith(TX_FEE_POSTFIX)) {
+                                String currencyCode = key.substring(0, key.length() - TX_FEE_POSTFIX.length())
+                                        .toUpperCase(Locale.ROOT);
+                                // The fee is sent as a number with decimal point, we only use the integer part
+                                map.put(currencyCode, (long) reader.nextDouble());
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Invalid fee data: " + e.toString(), e);
         }
+
+        if (!tsMap.containsKey("bitcoinFeesTs"))
+            throw new IOException("Invalid fee data: bitcoinFeesTs is missing");
         return new Tuple2<>(tsMap, map);
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.fee;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Rolling history of the fee rates delivered by the fee provider.
+ * We serve the higher of the latest and the exponentially smoothed rate: a rise of the fees is followed
+ * immediately so we don't create txs which get stuck, but a sudden drop is followed only gradually as it is often
+ * only temporary.
+ * The poll interval adapts to the volatility of the rates: if a new rate differs sharply from the previous one we
+ * poll again after the min. interval, if it is stable we extend the interval step by step up to the max. interval.
+ */
+class FeeRateHistory {
+    static final int MAX_OBSERVATIONS = 48;
+    static final double SMOOTHING_FACTOR = 0.3;
+    static final long MIN_POLL_INTERVAL_SEC = TimeUnit.MINUTES.toSeconds(FeeService.MIN_PAUSE_BETWEEN_REQUESTS_IN_MIN);
+    static final long DEFAULT_POLL_INTERVAL_SEC = TimeUnit.MINUTES.toSeconds(5);
+    static final long MAX_POLL_INTERVAL_SEC = TimeUnit.MINUTES.toSeconds(20);
+    // Relative change to the previous rate
+    static final double STABLE_CHANGE = 0.05;
+    static final double SHARP_CHANGE = 0.2;
+
+    @Value
+    static class Observation {
+        // Epoch time in sec.
+        private final long time;
+        private final long feePerByte;
+    }
+
+    private final Deque<Observation> observations = new ArrayDeque<>();
+    private double smoothedRate = -1;
+    @Getter
+    private long pollIntervalSec = DEFAULT_POLL_INTERVAL_SEC;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(long time, long feePerByte) {
+        Observation previous = observations.peekLast();
+        observations.addLast(new Observation(time, feePerByte));
+        if (observations.size() > MAX_OBSERVATIONS)
+            observations.removeFirst();
+
+        smoothedRate = smoothedRate < 0 ? feePerByte : SMOOTHING_FACTOR * feePerByte + (1 - SMOOTHING_FACTOR) * smoothedRate;
+
+        if (previous != null) {
+            double change = Math.abs(feePerByte - previous.getFeePerByte()) / (double) Math.max(1, previous.getFeePerByte());
+            if (change >= SHARP_CHANGE)
+                pollIntervalSec = MIN_POLL_INTERVAL_SEC;
+            else if (change < STABLE_CHANGE)
+                pollIntervalSec = Math.min(MAX_POLL_INTERVAL_SEC, pollIntervalSec * 3 / 2);
+            else
+                pollIntervalSec = DEFAULT_POLL_INTERVAL_SEC;
+        }
+    }
+
+    // If a request has failed we don't want to wait longer than the default interval
+    void onRequestFailed() {
+        pollIntervalSec = Math.min(pollIntervalSec, DEFAULT_POLL_INTERVAL_SEC);
+    }
+
+    boolean isEmpty() {
+        return observations.isEmpty();
+    }
+
+    int size() {
+        return observations.size();
+    }
+
+    long getLatestRate() {
+        Observation latest = observations.peekLast();
+        return latest != null ? latest.getFeePerByte() : 0;
+    }
+
+    long getSmoothedRate() {
+        return smoothedRate < 0 ? 0 : Math.round(smoothedRate);
+    }
+
+    // The rate which we serve to the tx builders
+    long getFeeRate() {
+        return Math.max(getLatestRate(), getSmoothedRate());
+    }
+
+    // Nearest-rank percentile of the rates in the history, percentile in the range 0-100
+    long getPercentileRate(double percentile) {
+        if (observations.isEmpty())
+            return 0;
+
+        List<Long> rates = new ArrayList<>();
+        observations.forEach(observation -> rates.add(observation.getFeePerByte()));
+        Collections.sort(rates);
+        int rank = (int) Math.ceil(percentile / 100 * rates.size());
+        return rates.get(Math.min(rates.size() - 1, Math.max(0, rank - 1)));
+    }
+}
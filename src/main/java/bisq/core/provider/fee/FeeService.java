@@ -19,6 +19,7 @@ package bisq.core.provider.fee;
 
 import bisq.core.app.BisqEnvironment;
 
+import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.handlers.FaultHandler;
 import bisq.common.util.Tuple2;
@@ -39,7 +40,6 @@ import javafx.beans.property.SimpleIntegerProperty;
 import java.time.Instant;
 
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -87,6 +87,9 @@ public class FeeService {
     private long lastRequest;
     private IntegerProperty feeUpdateCounter = new SimpleIntegerProperty(0);
     private long minFeePerByte;
+    private final FeeRateHistory feeRateHistory = new FeeRateHistory();
+    @Nullable
+    private Timer pollTimer;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -134,10 +137,8 @@ public class FeeService {
     public void onAllServicesInitialized() {
         minFeePerByte = BisqEnvironment.getBaseCurrencyNetwork().getDefaultMinFeePerByte();
 
-        requestFees(null, null);
-
-        // We update all 5 min.
-        UserThread.runPeriodically(() -> requestFees(null, null), 5, TimeUnit.MINUTES);
+        // The poll interval adapts to the volatility of the fee rates (between 2 and 20 min.)
+        poll();
     }
 
     public void requestFees(@Nullable Runnable resultHandler, @Nullable FaultHandler faultHandler) {
@@ -155,15 +156,19 @@ public class FeeService {
                         timeStampMap = result.first;
                         epochInSecondAtLastRequest = timeStampMap.get("bitcoinFeesTs");
                         final Map<String, Long> map = result.second;
-                        txFeePerByte = map.get(baseCurrencyCode);
+                        long deliveredFeePerByte = map.get(baseCurrencyCode);
 
-                        if (txFeePerByte < minFeePerByte) {
+                        if (deliveredFeePerByte < minFeePerByte) {
                             log.warn("The delivered fee per byte is smaller than the min. default fee of 5 sat/byte");
-                            txFeePerByte = minFeePerByte;
+                            deliveredFeePerByte = minFeePerByte;
                         }
+                        feeRateHistory.add(now, deliveredFeePerByte);
+                        txFeePerByte = feeRateHistory.getFeeRate();
 
                         feeUpdateCounter.set(feeUpdateCounter.get() + 1);
-                        log.info("{} tx fee: txFeePerByte={}", baseCurrencyCode, txFeePerByte);
+                        log.info("{} tx fee: txFeePerByte={}, delivered={}, smoothed={}, next poll in {} sec.",
+                                baseCurrencyCode, txFeePerByte, deliveredFeePerByte, feeRateHistory.getSmoothedRate(),
+                                feeRateHistory.getPollIntervalSec());
                         if (resultHandler != null)
                             resultHandler.run();
                     });
@@ -172,6 +177,7 @@ public class FeeService {
                 @Override
                 public void onFailure(@NotNull Throwable throwable) {
                     log.warn("Could not load fees. feeProvider={}, error={}", feeProvider.toString(), throwable.toString());
+                    UserThread.execute(feeRateHistory::onRequestFailed);
                     if (faultHandler != null)
                         UserThread.execute(() -> faultHandler.handleFault("Could not load fees", throwable));
                 }
@@ -185,6 +191,11 @@ public class FeeService {
         }
     }
 
+    // Median of the recent fee rates, useful for non time critical txs
+    public Coin getMedianTxFeePerByte() {
+        return feeRateHistory.isEmpty() ? getTxFeePerByte() : Coin.valueOf(feeRateHistory.getPercentileRate(50));
+    }
+
     public Coin getTxFee(int sizeInBytes) {
         return getTxFeePerByte().multiply(sizeInBytes);
     }
@@ -212,4 +223,22 @@ public class FeeService {
     public ReadOnlyIntegerProperty feeUpdateCounterProperty() {
         return feeUpdateCounter;
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void poll() {
+        // We schedule the next poll already before the request, so polling continues if the request never completes
+        // or handling the result fails. At the result or fault the poll gets rescheduled with the updated interval.
+        schedulePoll();
+        requestFees(this::schedulePoll, (errorMessage, throwable) -> schedulePoll());
+    }
+
+    private void schedulePoll() {
+        if (pollTimer != null)
+            pollTimer.stop();
+        pollTimer = UserThread.runAfter(this::poll, feeRateHistory.getPollIntervalSec());
+    }
 }
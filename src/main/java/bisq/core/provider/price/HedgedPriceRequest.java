@@ -0,0 +1,209 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.price;
+
+import bisq.core.provider.ProviderLatencyTracker;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.handlers.FaultHandler;
+import bisq.common.util.Tuple2;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+
+/**
+ * Requests the market prices from the primary provider and, if it has not responded after the hedge delay, in
+ * parallel from a second provider. The first valid response is delivered, later responses are ignored.
+ * The hedge delay is the 90th percentile of the latencies of the primary provider, so we only hedge requests which
+ * are slower than usual. If the primary request fails before the hedge delay we start the hedged request at once.
+ * All handlers are called on the user thread. The state changing methods are synchronized as well, so it is also
+ * safe if the user thread executor runs the tasks on the calling thread (as it is the case in tests).
+ */
+@Slf4j
+class HedgedPriceRequest {
+    static final int HEDGE_PERCENTILE = 90;
+    static final long DEFAULT_HEDGE_DELAY_MS = TimeUnit.SECONDS.toMillis(10);
+    static final long MIN_HEDGE_DELAY_MS = TimeUnit.SECONDS.toMillis(2);
+    static final long MAX_HEDGE_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+
+    interface Requester {
+        ListenableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> requestAllPrices(String baseUrl);
+    }
+
+    interface ResultHandler {
+        void handleResult(String baseUrl, Tuple2<Map<String, Long>, Map<String, MarketPrice>> result);
+    }
+
+    private final Requester requester;
+    private final ProviderLatencyTracker latencyTracker;
+    private final String primaryBaseUrl;
+    @Nullable
+    private final String hedgeBaseUrl;
+    private final long minHedgeDelayMs;
+    private ResultHandler resultHandler;
+    private FaultHandler faultHandler;
+    @Nullable
+    private Timer hedgeTimer;
+    @Nullable
+    private Throwable primaryFault;
+    private int numPendingRequests;
+    @Getter
+    private boolean hedgeStarted;
+    @Getter
+    private boolean completed;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    HedgedPriceRequest(Requester requester,
+                       ProviderLatencyTracker latencyTracker,
+                       String primaryBaseUrl,
+                       @Nullable String hedgeBaseUrl) {
+        this(requester, latencyTracker, primaryBaseUrl, hedgeBaseUrl, MIN_HEDGE_DELAY_MS);
+    }
+
+    HedgedPriceRequest(Requester requester,
+                       ProviderLatencyTracker latencyTracker,
+                       String primaryBaseUrl,
+                       @Nullable String hedgeBaseUrl,
+                       long minHedgeDelayMs) {
+        this.requester = requester;
+        this.latencyTracker = latencyTracker;
+        this.primaryBaseUrl = primaryBaseUrl;
+        this.hedgeBaseUrl = primaryBaseUrl.equals(hedgeBaseUrl) ? null : hedgeBaseUrl;
+        this.minHedgeDelayMs = minHedgeDelayMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void start(ResultHandler resultHandler, FaultHandler faultHandler) {
+        this.resultHandler = resultHandler;
+        this.faultHandler = faultHandler;
+
+        send(primaryBaseUrl);
+
+        if (hedgeBaseUrl != null)
+            hedgeTimer = UserThread.runAfter(this::startHedgedRequest, getHedgeDelayMs(), TimeUnit.MILLISECONDS);
+    }
+
+    long getHedgeDelayMs() {
+        OptionalLong percentile = latencyTracker.getPercentile(primaryBaseUrl, HEDGE_PERCENTILE);
+        if (!percentile.isPresent())
+            return DEFAULT_HEDGE_DELAY_MS;
+
+        return Math.max(minHedgeDelayMs, Math.min(MAX_HEDGE_DELAY_MS, percentile.getAsLong()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void startHedgedRequest() {
+        stopHedgeTimer();
+        if (completed || hedgeStarted || hedgeBaseUrl == null)
+            return;
+
+        hedgeStarted = true;
+        log.info("Provider {} did not respond yet. We send a hedged request to provider {}.",
+                primaryBaseUrl, hedgeBaseUrl);
+        send(hedgeBaseUrl);
+    }
+
+    private void send(String baseUrl) {
+        numPendingRequests++;
+        long requestTs = System.currentTimeMillis();
+        Futures.addCallback(requester.requestAllPrices(baseUrl),
+                new FutureCallback<Tuple2<Map<String, Long>, Map<String, MarketPrice>>>() {
+                    @Override
+                    public void onSuccess(@Nullable Tuple2<Map<String, Long>, Map<String, MarketPrice>> result) {
+                        UserThread.execute(() -> onResult(baseUrl, System.currentTimeMillis() - requestTs, result));
+                    }
+
+                    @Override
+                    public void onFailure(@NotNull Throwable throwable) {
+                        UserThread.execute(() -> onFault(baseUrl, throwable));
+                    }
+                });
+    }
+
+    private synchronized void onResult(String baseUrl, long latencyMs, @Nullable Tuple2<Map<String, Long>, Map<String, MarketPrice>> result) {
+        latencyTracker.addLatency(baseUrl, latencyMs);
+        if (result == null || result.second == null || result.second.isEmpty()) {
+            onFault(baseUrl, new PriceRequestException("Received no market prices", baseUrl));
+            return;
+        }
+
+        numPendingRequests--;
+        if (completed) {
+            log.debug("We received a response from provider {} after {} ms but we have used another response already.",
+                    baseUrl, latencyMs);
+            return;
+        }
+
+        completed = true;
+        stopHedgeTimer();
+        resultHandler.handleResult(baseUrl, result);
+    }
+
+    private synchronized void onFault(String baseUrl, Throwable throwable) {
+        numPendingRequests--;
+        if (completed)
+            return;
+
+        if (baseUrl.equals(primaryBaseUrl))
+            primaryFault = throwable;
+
+        if (!hedgeStarted && hedgeBaseUrl != null) {
+            startHedgedRequest();
+            return;
+        }
+
+        if (numPendingRequests == 0) {
+            completed = true;
+            stopHedgeTimer();
+            // We report the fault of the primary provider as that is the one the caller is using
+            faultHandler.handleFault("Could not load marketPrices", primaryFault != null ? primaryFault : throwable);
+        }
+    }
+
+    private void stopHedgeTimer() {
+        if (hedgeTimer != null) {
+            hedgeTimer.stop();
+            hedgeTimer = null;
+        }
+    }
+}
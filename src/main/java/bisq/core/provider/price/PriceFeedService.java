@@ -17,15 +17,17 @@
 
 package bisq.core.provider.price;
 
+import bisq.core.app.AppOptionKeys;
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Price;
 import bisq.core.provider.PriceNodeHttpClient;
+import bisq.core.provider.ProviderLatencyTracker;
 import bisq.core.provider.ProvidersRepository;
 import bisq.core.trade.statistics.TradeStatistics2;
 import bisq.core.user.Preferences;
 
-import bisq.network.http.HttpClient;
+import bisq.network.Socks5ProxyProvider;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -36,8 +38,8 @@ import bisq.common.util.Tuple2;
 
 import com.google.inject.Inject;
 
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
+import javax.inject.Named;
+
 import com.google.common.util.concurrent.SettableFuture;
 
 import javafx.beans.property.IntegerProperty;
@@ -59,21 +61,23 @@ import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 
-import org.jetbrains.annotations.NotNull;
-
 import javax.annotation.Nullable;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 @Slf4j
 public class PriceFeedService {
-    private final HttpClient httpClient;
     private final ProvidersRepository providersRepository;
     private final Preferences preferences;
+    @Nullable
+    private final Socks5ProxyProvider socks5ProxyProvider;
+    private final boolean usePriceFeedDeltaRequests;
+    private final ProviderLatencyTracker latencyTracker = new ProviderLatencyTracker();
 
     private static final long PERIOD_SEC = 60;
 
     private final Map<String, MarketPrice> cache = new HashMap<>();
+    // The http client holds the base url, so we use one provider with its own http client per base url. That way we
+    // never change the base url of a client which might have a request running.
+    private final Map<String, PriceProvider> priceProviderByBaseUrl = new HashMap<>();
     private PriceProvider priceProvider;
     @Nullable
     private Consumer<Double> priceConsumer;
@@ -99,13 +103,18 @@ public class PriceFeedService {
     @Inject
     public PriceFeedService(@SuppressWarnings("SameParameterValue") PriceNodeHttpClient httpClient,
                             @SuppressWarnings("SameParameterValue") ProvidersRepository providersRepository,
-                            @SuppressWarnings("SameParameterValue") Preferences preferences) {
-        this.httpClient = httpClient;
+                            @SuppressWarnings("SameParameterValue") Preferences preferences,
+                            @Nullable Socks5ProxyProvider socks5ProxyProvider,
+                            @Named(AppOptionKeys.USE_PRICE_FEED_DELTA_REQUESTS) boolean usePriceFeedDeltaRequests) {
         this.providersRepository = providersRepository;
         this.preferences = preferences;
+        this.socks5ProxyProvider = socks5ProxyProvider;
+        this.usePriceFeedDeltaRequests = usePriceFeedDeltaRequests;
 
         // Do not use Guice for PriceProvider as we might create multiple instances
-        this.priceProvider = new PriceProvider(httpClient, providersRepository.getBaseUrl());
+        String baseUrl = providersRepository.getBaseUrl();
+        this.priceProvider = new PriceProvider(httpClient, baseUrl, usePriceFeedDeltaRequests);
+        priceProviderByBaseUrl.put(baseUrl, priceProvider);
     }
 
 
@@ -133,7 +142,7 @@ public class PriceFeedService {
     }
 
     public String getProviderNodeAddress() {
-        return httpClient.getBaseUrl();
+        return priceProvider.getBaseUrl();
     }
 
     private void request(boolean repeatRequests) {
@@ -149,8 +158,14 @@ public class PriceFeedService {
 
         baseUrlOfRespondingProvider = null;
 
-        requestAllPrices(priceProvider, () -> {
-            baseUrlOfRespondingProvider = priceProvider.getBaseUrl();
+        requestAllPrices(respondingBaseUrl -> {
+            baseUrlOfRespondingProvider = respondingBaseUrl;
+            if (!respondingBaseUrl.equals(priceProvider.getBaseUrl())) {
+                log.info("The hedged request to provider {} was faster than the request to provider {}. " +
+                        "We use that provider for the next requests.", respondingBaseUrl, priceProvider.getBaseUrl());
+                providersRepository.selectProviderBaseUrl(respondingBaseUrl);
+                priceProvider = getPriceProvider(respondingBaseUrl);
+            }
 
             // At applyPriceToConsumer we also check if price is not exceeding max. age for price data.
             boolean success = applyPriceToConsumer();
@@ -229,7 +244,7 @@ public class PriceFeedService {
     private void setNewPriceProvider() {
         providersRepository.selectNextProviderBaseUrl();
         if (!providersRepository.getBaseUrl().isEmpty())
-            priceProvider = new PriceProvider(httpClient, providersRepository.getBaseUrl());
+            priceProvider = getPriceProvider(providersRepository.getBaseUrl());
         else
             log.warn("We cannot create a new priceProvider because new base url is empty.");
     }
@@ -381,29 +396,29 @@ public class PriceFeedService {
         return result;
     }
 
-    private void requestAllPrices(PriceProvider provider, Runnable resultHandler, FaultHandler faultHandler) {
+    private void requestAllPrices(Consumer<String> resultHandler, FaultHandler faultHandler) {
         Log.traceCall();
-        PriceRequest priceRequest = new PriceRequest();
-        SettableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> future = priceRequest.requestAllPrices(provider);
-        Futures.addCallback(future, new FutureCallback<Tuple2<Map<String, Long>, Map<String, MarketPrice>>>() {
-            @Override
-            public void onSuccess(@Nullable Tuple2<Map<String, Long>, Map<String, MarketPrice>> result) {
-                UserThread.execute(() -> {
-                    checkNotNull(result, "Result must not be null at requestAllPrices");
-                    timeStampMap = result.first;
-                    epochInSecondAtLastRequest = timeStampMap.get("btcAverageTs");
-                    final Map<String, MarketPrice> priceMap = result.second;
-
-                    cache.putAll(priceMap);
-
-                    resultHandler.run();
-                });
-            }
+        HedgedPriceRequest hedgedPriceRequest = new HedgedPriceRequest(this::requestAllPricesFromProvider,
+                latencyTracker,
+                priceProvider.getBaseUrl(),
+                providersRepository.getNextProviderBaseUrl());
+        hedgedPriceRequest.start((baseUrl, result) -> {
+            timeStampMap = result.first;
+            epochInSecondAtLastRequest = timeStampMap.get("btcAverageTs");
+            final Map<String, MarketPrice> priceMap = result.second;
+
+            cache.putAll(priceMap);
+
+            resultHandler.accept(baseUrl);
+        }, faultHandler);
+    }
 
-            @Override
-            public void onFailure(@NotNull Throwable throwable) {
-                UserThread.execute(() -> faultHandler.handleFault("Could not load marketPrices", throwable));
-            }
-        });
+    private SettableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> requestAllPricesFromProvider(String baseUrl) {
+        return new PriceRequest().requestAllPrices(getPriceProvider(baseUrl));
+    }
+
+    private PriceProvider getPriceProvider(String baseUrl) {
+        return priceProviderByBaseUrl.computeIfAbsent(baseUrl, key ->
+                new PriceProvider(new PriceNodeHttpClient(socks5ProxyProvider), key, usePriceFeedDeltaRequests));
     }
 }
@@ -22,59 +22,201 @@ import bisq.core.provider.HttpClientProvider;
 import bisq.network.http.HttpClient;
 
 import bisq.common.app.Version;
-import bisq.common.util.MathUtils;
 import bisq.common.util.Tuple2;
 
-import com.google.gson.Gson;
-import com.google.gson.internal.LinkedTreeMap;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import com.google.common.annotations.VisibleForTesting;
 
 import java.io.IOException;
+import java.io.StringReader;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Requests all market prices from a price node. The response is parsed with a streaming reader, so we do not build
+ * a json tree with a double for each number. Market prices which have not changed since the last request are taken
+ * from the last result, so we keep the same MarketPrice instances.
+ * In delta mode we send the timestamps of the price sources (btcAverageTs, poloniexTs and coinmarketcapTs) from the
+ * last response as query parameters. The market prices of the different sources have different timestamps, so we use
+ * one cursor per source and not the timestamp of the most recent market price. A price node supporting it only
+ * returns the markets of the sources which got updated since then. The markets missing in a delta response are taken
+ * from the last result.
+ * Delta mode needs support by the price node. The price nodes do not support these parameters yet, they ignore them
+ * and return all markets, so the mode is safe to use but only saves bandwidth with a price node supporting it.
+ */
 @Slf4j
 public class PriceProvider extends HttpClientProvider {
+    // Timestamps of the price sources in the response, we send them back as cursors in delta mode
+    static final String[] SOURCE_TS_KEYS = {"btcAverageTs", "poloniexTs", "coinmarketcapTs"};
+    // In delta mode we request all markets at each n-th request so we do not keep markets removed at the price node
+    static final int FULL_REQUEST_INTERVAL = 10;
+
+    private final boolean useDeltaRequests;
+    // Guarded by this
+    private Map<String, MarketPrice> lastMarketPriceMap = Collections.emptyMap();
+    private Map<String, Long> lastSourceTsMap = Collections.emptyMap();
+    private int numDeltaRequestsSinceFullRequest;
+    @Getter
+    private int numDeltaRequests;
 
     // Do not use Guice here as we might create multiple instances
     public PriceProvider(HttpClient httpClient, String baseUrl) {
+        this(httpClient, baseUrl, false);
+    }
+
+    public PriceProvider(HttpClient httpClient, String baseUrl, boolean useDeltaRequests) {
         super(httpClient, baseUrl, false);
+        this.useDeltaRequests = useDeltaRequests;
     }
 
-    public Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
-        Map<String, MarketPrice> marketPriceMap = new HashMap<>();
-        String json = httpClient.requestWithGET("getAllMarketPrices", "User-Agent", "bisq/"
+    public synchronized Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
+        boolean isDeltaRequest = useDeltaRequests &&
+                !lastSourceTsMap.isEmpty() &&
+                numDeltaRequestsSinceFullRequest < FULL_REQUEST_INTERVAL - 1;
+        String param = isDeltaRequest ?
+                "getAllMarketPrices?" + getSourceTsQuery(lastSourceTsMap) :
+                "getAllMarketPrices";
+        String json = httpClient.requestWithGET(param, "User-Agent", "bisq/"
                 + Version.VERSION + ", uid:" + httpClient.getUid());
 
-        LinkedTreeMap<String, Object> map = new Gson().<LinkedTreeMap<String, Object>>fromJson(json, LinkedTreeMap.class);
         Map<String, Long> tsMap = new HashMap<>();
-        tsMap.put("btcAverageTs", ((Double) map.get("btcAverageTs")).longValue());
-        tsMap.put("poloniexTs", ((Double) map.get("poloniexTs")).longValue());
-        tsMap.put("coinmarketcapTs", ((Double) map.get("coinmarketcapTs")).longValue());
-
-        //noinspection unchecked
-        List<LinkedTreeMap<String, Object>> list = (ArrayList<LinkedTreeMap<String, Object>>) map.get("data");
-        list.forEach(treeMap -> {
-            try {
-                final String currencyCode = (String) treeMap.get("currencyCode");
-                final double price = (double) treeMap.get("price");
-                // json uses double for our timestampSec long value...
-                final long timestampSec = MathUtils.doubleToLong((double) treeMap.get("timestampSec"));
-                marketPriceMap.put(currencyCode, new MarketPrice(currencyCode, price, timestampSec, true));
-            } catch (Throwable t) {
-                log.error(t.toString());
-                t.printStackTrace();
-            }
-
-        });
+        Map<String, MarketPrice> marketPriceMap = parse(json, tsMap, lastMarketPriceMap, isDeltaRequest);
+        if (isDeltaRequest) {
+            numDeltaRequests++;
+            numDeltaRequestsSinceFullRequest++;
+        } else {
+            numDeltaRequestsSinceFullRequest = 0;
+        }
+        lastMarketPriceMap = marketPriceMap;
+        lastSourceTsMap = tsMap;
         return new Tuple2<>(tsMap, marketPriceMap);
     }
 
     public String getBaseUrl() {
         return httpClient.getBaseUrl();
     }
+
+
+    // A source missing in the last response is not sent, so we get all markets of it
+    @VisibleForTesting
+    static String getSourceTsQuery(Map<String, Long> sourceTsMap) {
+        StringBuilder sb = new StringBuilder();
+        for (String key : SOURCE_TS_KEYS) {
+            Long ts = sourceTsMap.get(key);
+            if (ts != null) {
+                if (sb.length() > 0)
+                    sb.append("&");
+                sb.append(key).append("=").append(ts);
+            }
+        }
+        return sb.toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Parser
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Fills the provider timestamps into tsMap and returns the market prices. If no market price has changed compared
+    // to lastMarketPriceMap we return that map.
+    @VisibleForTesting
+    static Map<String, MarketPrice> parse(String json,
+                                          Map<String, Long> tsMap,
+                                          Map<String, MarketPrice> lastMarketPriceMap,
+                                          boolean keepMissingMarkets) throws IOException {
+        Map<String, MarketPrice> marketPriceMap = keepMissingMarkets ?
+                new HashMap<>(lastMarketPriceMap) :
+                new HashMap<>();
+        int numChanged = 0;
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "btcAverageTs":
+                    case "poloniexTs":
+                    case "coinmarketcapTs":
+                        tsMap.put(name, reader.nextLong());
+                        break;
+                    case "data":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            MarketPrice marketPrice = readMarketPrice(reader, lastMarketPriceMap);
+                            if (marketPrice != null) {
+                                marketPriceMap.put(marketPrice.getCurrencyCode(), marketPrice);
+                                if (marketPrice != lastMarketPriceMap.get(marketPrice.getCurrencyCode()))
+                                    numChanged++;
+                            }
+                        }
+                        reader.endArray();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Invalid market price data: " + e.toString(), e);
+        }
+
+        if (!tsMap.containsKey("btcAverageTs"))
+            throw new IOException("Invalid market price data: btcAverageTs is missing");
+
+        if (numChanged == 0 && marketPriceMap.size() == lastMarketPriceMap.size())
+            return lastMarketPriceMap;
+        return Collections.unmodifiableMap(marketPriceMap);
+    }
+
+    @Nullable
+    private static MarketPrice readMarketPrice(JsonReader reader,
+                                               Map<String, MarketPrice> lastMarketPriceMap) throws IOException {
+        String currencyCode = null;
+        double price = 0;
+        long timestampSec = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "currencyCode":
+                    currencyCode = reader.nextString();
+                    break;
+                case "price":
+                    price = reader.nextDouble();
+                    break;
+                case "timestampSec":
+                    timestampSec = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (currencyCode == null) {
+            log.error("Market price without currencyCode received. We ignore it.");
+            return null;
+        }
+
+        MarketPrice lastMarketPrice = lastMarketPriceMap.get(currencyCode);
+        if (lastMarketPrice != null &&
+                lastMarketPrice.getPrice() == price &&
+                lastMarketPrice.getTimestampSec() == timestampSec &&
+                lastMarketPrice.isExternallyProvidedPrice())
+            return lastMarketPrice;
+
+        return new MarketPrice(currencyCode, price, timestampSec, true);
+    }
 }
@@ -28,6 +28,11 @@ public class PriceRequestException extends Exception {
         super(errorMessage);
     }
 
+    public PriceRequestException(String errorMessage, String priceProviderBaseUrl) {
+        super(errorMessage);
+        this.priceProviderBaseUrl = priceProviderBaseUrl;
+    }
+
     public PriceRequestException(Throwable throwable, String priceProviderBaseUrl) {
         super(throwable);
         this.priceProviderBaseUrl = priceProviderBaseUrl;
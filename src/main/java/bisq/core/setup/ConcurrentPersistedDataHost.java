@@ -0,0 +1,34 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.setup;
+
+import bisq.common.proto.persistable.PersistedDataHost;
+
+/**
+ * A PersistedDataHost which separates reading and parsing its persisted data from applying it.
+ * PersistedDataHostLoader calls readStore on a pool thread and runs the returned handler on the thread which
+ * loads the hosts. So readStore must only read the store and must not touch state shared with other objects,
+ * JavaFX collections or listeners. That is done by the returned handler.
+ */
+public interface ConcurrentPersistedDataHost extends PersistedDataHost {
+    Runnable readStore();
+
+    @Override
+    default void readPersisted() {
+        readStore().run();
+    }
+}
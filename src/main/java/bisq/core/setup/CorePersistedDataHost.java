@@ -34,11 +34,21 @@ import bisq.core.user.User;
 import bisq.network.p2p.P2PService;
 
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.storage.Storage;
 
 import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.io.File;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -64,4 +74,26 @@ public class CorePersistedDataHost {
         persistedDataHosts.add(injector.getInstance(BondedRolesService.class));
         return persistedDataHosts;
     }
+
+    // Hosts which must only be read after other hosts have been applied. Preferences set the locale and the currency
+    // lists which are used by the other hosts, so hosts which are not listed here depend on Preferences.
+    private static final Map<Class<? extends PersistedDataHost>, List<Class<? extends PersistedDataHost>>> DEPENDENCIES =
+            ImmutableMap.of(Preferences.class, Collections.emptyList());
+
+    // Reads and parses the persisted data of the hosts concurrently. Applying the data is done on the calling thread
+    // in the order of getPersistedDataHosts, see PersistedDataHostLoader.
+    public static void readPersisted(Injector injector) {
+        Map<Class<?>, PersistedDataHost> hostByClass = new HashMap<>();
+        PersistedDataHostLoader loader = new PersistedDataHostLoader();
+        getPersistedDataHosts(injector).forEach(host -> {
+            PersistedDataHost[] dependencies = DEPENDENCIES
+                    .getOrDefault(host.getClass(), Collections.singletonList(Preferences.class)).stream()
+                    .map(hostByClass::get)
+                    .toArray(PersistedDataHost[]::new);
+            loader.add(host, dependencies);
+            hostByClass.put(host.getClass(), host);
+        });
+        loader.load();
+        loader.logReport(injector.getInstance(Key.get(File.class, Names.named(Storage.STORAGE_DIR))));
+    }
 }
@@ -0,0 +1,211 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.setup;
+
+import bisq.common.proto.persistable.PersistedDataHost;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Reads the persisted data hosts with reading and parsing of independent stores done concurrently on a bounded pool.
+ * For a ConcurrentPersistedDataHost only readStore is called on a pool thread. The returned handler, which applies
+ * the data and may notify listeners, is run on the thread calling load, in the order the hosts have been added.
+ * Other hosts are read completely on the calling thread. A host is only read after all the hosts it depends on are
+ * applied. Like in PersistedDataHost.apply an exception at one host is logged and does not prevent the other hosts
+ * from being read.
+ * After loading, the load time per host and the size of the files in the storage directory get logged.
+ */
+@Slf4j
+class PersistedDataHostLoader {
+    static final int MAX_THREADS = 4;
+
+    private static class Entry {
+        private final PersistedDataHost host;
+        private final List<Entry> dependencies;
+        @Nullable
+        private CompletableFuture<Runnable> readFuture;
+        private boolean applied;
+        private long duration;
+
+        private Entry(PersistedDataHost host, List<Entry> dependencies) {
+            this.host = host;
+            this.dependencies = dependencies;
+        }
+
+        private String getName() {
+            return host.getClass().getSimpleName();
+        }
+    }
+
+    private final int numThreads;
+    private final Map<PersistedDataHost, Entry> entryByHost = new LinkedHashMap<>();
+    @Getter
+    private long duration;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    PersistedDataHostLoader() {
+        this(Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors())));
+    }
+
+    PersistedDataHostLoader(int numThreads) {
+        this.numThreads = numThreads;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Dependencies need to be added before the hosts depending on them, so there cannot be any cycles.
+    PersistedDataHostLoader add(PersistedDataHost host, PersistedDataHost... dependencies) {
+        checkArgument(!entryByHost.containsKey(host), "%s is already added", host.getClass().getSimpleName());
+        List<Entry> dependencyEntries = new ArrayList<>();
+        Arrays.stream(dependencies).forEach(dependency -> {
+            checkArgument(entryByHost.containsKey(dependency), "Dependency %s of %s must be added before",
+                    dependency.getClass().getSimpleName(), host.getClass().getSimpleName());
+            dependencyEntries.add(entryByHost.get(dependency));
+        });
+        entryByHost.put(host, new Entry(host, dependencyEntries));
+        return this;
+    }
+
+    // Blocks until all hosts are read and applied
+    void load() {
+        long ts = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads, new ThreadFactoryBuilder()
+                .setNameFormat("PersistedDataHostLoader-%d")
+                .setDaemon(true)
+                .build());
+        try {
+            // As dependencies are added before, all dependencies of an entry are applied when we get to it
+            for (Entry entry : entryByHost.values()) {
+                startReads(executor);
+                if (entry.readFuture != null)
+                    apply(entry, entry.readFuture.join());
+                else
+                    readOnCallingThread(entry);
+                entry.applied = true;
+            }
+        } finally {
+            executor.shutdown();
+        }
+        duration = System.currentTimeMillis() - ts;
+    }
+
+    // Load time in ms per host in the order they have been added
+    Map<String, Long> getDurations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        entryByHost.values().forEach(entry -> durations.put(entry.getName(), entry.duration));
+        return durations;
+    }
+
+    void logReport(@Nullable File storageDir) {
+        StringBuilder sb = new StringBuilder("Reading persisted data took ").append(duration).append(" ms")
+                .append(" with ").append(numThreads).append(" threads.\nLoad time per host:");
+        entryByHost.values().stream()
+                .sorted(Comparator.comparingLong((Entry entry) -> entry.duration).reversed())
+                .forEach(entry -> sb.append("\n    ").append(entry.getName()).append(": ")
+                        .append(entry.duration).append(" ms"));
+
+        File[] files = storageDir != null ? storageDir.listFiles(File::isFile) : null;
+        if (files != null && files.length > 0) {
+            sb.append("\nFile size per store:");
+            Arrays.stream(files)
+                    .sorted(Comparator.comparingLong(File::length).reversed())
+                    .forEach(file -> sb.append("\n    ").append(file.getName()).append(": ")
+                            .append(file.length() / 1024).append(" kB"));
+        }
+        log.info(sb.toString());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Starts reading all concurrent hosts whose dependencies are applied
+    private void startReads(ExecutorService executor) {
+        entryByHost.values().stream()
+                .filter(entry -> entry.readFuture == null && !entry.applied)
+                .filter(entry -> entry.host instanceof ConcurrentPersistedDataHost)
+                .filter(entry -> entry.dependencies.stream().allMatch(dependency -> dependency.applied))
+                .forEach(entry -> entry.readFuture = CompletableFuture.supplyAsync(() -> readStore(entry), executor));
+    }
+
+    // Returns null if reading failed
+    @Nullable
+    private Runnable readStore(Entry entry) {
+        long ts = System.currentTimeMillis();
+        try {
+            log.info("call readStore at " + entry.getName());
+            return ((ConcurrentPersistedDataHost) entry.host).readStore();
+        } catch (Throwable t) {
+            log.error("readStore error at " + entry.getName(), t);
+            return null;
+        } finally {
+            entry.duration = System.currentTimeMillis() - ts;
+        }
+    }
+
+    private void apply(Entry entry, @Nullable Runnable handler) {
+        if (handler == null)
+            return;
+
+        long ts = System.currentTimeMillis();
+        try {
+            handler.run();
+        } catch (Throwable t) {
+            log.error("readPersisted error at " + entry.getName(), t);
+        }
+        entry.duration += System.currentTimeMillis() - ts;
+    }
+
+    private void readOnCallingThread(Entry entry) {
+        long ts = System.currentTimeMillis();
+        try {
+            log.info("call readPersisted at " + entry.getName());
+            entry.host.readPersisted();
+        } catch (Throwable t) {
+            log.error("readPersisted error at " + entry.getName(), t);
+        }
+        entry.duration = System.currentTimeMillis() - ts;
+    }
+}
@@ -39,6 +39,7 @@ import org.bitcoinj.core.Coin;
 import org.apache.commons.lang3.StringUtils;
 
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -72,6 +73,12 @@ public final class Contract implements NetworkPayload {
     @JsonExclude
     private final byte[] takerMultiSigPubKey;
 
+    // Transient fields are neither part of the JSON nor of equals and hashCode
+    @JsonExclude
+    @NonFinal
+    @Nullable
+    private transient String json;
+
     public Contract(OfferPayload offerPayload,
                     long tradeAmount,
                     long tradePrice,
@@ -224,8 +231,16 @@ public final class Contract implements NetworkPayload {
         return Price.valueOf(offerPayload.getCurrencyCode(), tradePrice);
     }
 
+    // The JSON gets signed by both traders and its hash is added to the deposit tx, so it must not differ from the
+    // JSON created by older versions. As the contract is immutable we create it only once.
+    public String getJson() {
+        if (json == null)
+            json = Utilities.objectToJson(this);
+        return json;
+    }
+
     public void printDiff(@Nullable String peersContractAsJson) {
-        final String json = Utilities.objectToJson(this);
+        final String json = getJson();
         String diff = StringUtils.difference(json, peersContractAsJson);
         if (!diff.isEmpty()) {
             log.warn("Diff of both contracts: \n" + diff);
@@ -34,6 +34,7 @@ import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.proto.CoreProtoResolver;
 import bisq.core.trade.protocol.ProcessModel;
 import bisq.core.trade.protocol.TradeProtocol;
+import bisq.core.trade.protocol.TradeTaskMetrics;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.user.User;
 
@@ -493,6 +494,7 @@ public abstract class Trade implements Tradable, Model {
                      User user,
                      FilterManager filterManager,
                      AccountAgeWitnessService accountAgeWitnessService,
+                     TradeTaskMetrics tradeTaskMetrics,
                      KeyRing keyRing,
                      boolean useSavingsWallet,
                      Coin fundsNeededForTrade) {
@@ -508,6 +510,7 @@ public abstract class Trade implements Tradable, Model {
                 user,
                 filterManager,
                 accountAgeWitnessService,
+                tradeTaskMetrics,
                 keyRing,
                 useSavingsWallet,
                 fundsNeededForTrade);
@@ -30,11 +30,13 @@ import bisq.core.offer.OpenOfferManager;
 import bisq.core.offer.availability.OfferAvailabilityModel;
 import bisq.core.payment.AccountAgeWitnessService;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.trade.failed.FailedTradesManager;
 import bisq.core.trade.handlers.TradeResultHandler;
 import bisq.core.trade.messages.PayDepositRequest;
 import bisq.core.trade.messages.TradeMessage;
+import bisq.core.trade.protocol.TradeTaskMetrics;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.User;
@@ -54,7 +56,6 @@ import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.FaultHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.network.NetworkEnvelope;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
@@ -99,8 +100,9 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 
-public class TradeManager implements PersistedDataHost {
+public class TradeManager implements ConcurrentPersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(TradeManager.class);
+    private static final String TRADE_TASK_METRICS_FILE_NAME = "TradeTaskMetrics.csv";
 
     private final User user;
     private final KeyRing keyRing;
@@ -116,7 +118,9 @@ public class TradeManager implements PersistedDataHost {
     private final TradeStatisticsManager tradeStatisticsManager;
     private final ReferralIdService referralIdService;
     private final AccountAgeWitnessService accountAgeWitnessService;
+    private final TradeTaskMetrics tradeTaskMetrics;
     private final Clock clock;
+    private final File storageDir;
 
     private final Storage<TradableList<Trade>> tradableListStorage;
     private TradableList<Trade> tradableList;
@@ -149,6 +153,7 @@ public class TradeManager implements PersistedDataHost {
                         ReferralIdService referralIdService,
                         PersistenceProtoResolver persistenceProtoResolver,
                         AccountAgeWitnessService accountAgeWitnessService,
+                        TradeTaskMetrics tradeTaskMetrics,
                         Clock clock,
                         @Named(Storage.STORAGE_DIR) File storageDir) {
         this.user = user;
@@ -165,7 +170,9 @@ public class TradeManager implements PersistedDataHost {
         this.tradeStatisticsManager = tradeStatisticsManager;
         this.referralIdService = referralIdService;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.tradeTaskMetrics = tradeTaskMetrics;
         this.clock = clock;
+        this.storageDir = storageDir;
 
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
 
@@ -204,14 +211,17 @@ public class TradeManager implements PersistedDataHost {
     }
 
     @Override
-    public void readPersisted() {
-        tradableList = new TradableList<>(tradableListStorage, "PendingTrades");
-        tradableList.forEach(trade -> {
-            trade.setTransientFields(tradableListStorage, btcWalletService);
-            Offer offer = trade.getOffer();
-            if (offer != null)
-                offer.setPriceFeedService(priceFeedService);
-        });
+    public Runnable readStore() {
+        TradableList<Trade> persisted = new TradableList<>(tradableListStorage, "PendingTrades");
+        return () -> {
+            tradableList = persisted;
+            tradableList.forEach(trade -> {
+                trade.setTransientFields(tradableListStorage, btcWalletService);
+                Offer offer = trade.getOffer();
+                if (offer != null)
+                    offer.setPriceFeedService(priceFeedService);
+            });
+        };
     }
 
 
@@ -238,6 +248,7 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public void shutDown() {
+        tradeTaskMetrics.exportHistograms(new File(storageDir, TRADE_TASK_METRICS_FILE_NAME));
     }
 
     private void initPendingTrades() {
@@ -356,6 +367,7 @@ public class TradeManager implements PersistedDataHost {
                 user,
                 filterManager,
                 accountAgeWitnessService,
+                tradeTaskMetrics,
                 keyRing,
                 useSavingsWallet,
                 fundsNeededForTrade);
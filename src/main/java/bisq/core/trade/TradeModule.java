@@ -22,6 +22,7 @@ import bisq.core.payment.AccountAgeWitnessService;
 import bisq.core.payment.AccountAgeWitnessStorageService;
 import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.trade.failed.FailedTradesManager;
+import bisq.core.trade.protocol.TradeTaskMetrics;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatistics2StorageService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
@@ -43,6 +44,7 @@ public class TradeModule extends AppModule {
     @Override
     protected void configure() {
         bind(TradeManager.class).in(Singleton.class);
+        bind(TradeTaskMetrics.class).in(Singleton.class);
         bind(TradeStatisticsManager.class).in(Singleton.class);
         bind(TradeStatistics2StorageService.class).in(Singleton.class);
         bind(ClosedTradableManager.class).in(Singleton.class);
@@ -20,12 +20,12 @@ package bisq.core.trade.closed;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 import bisq.core.trade.Tradable;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.Trade;
 
 import bisq.common.crypto.KeyRing;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
@@ -44,7 +44,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class ClosedTradableManager implements PersistedDataHost {
+public class ClosedTradableManager implements ConcurrentPersistedDataHost {
     private final Storage<TradableList<Tradable>> tradableListStorage;
     private TradableList<Tradable> closedTradables;
     private final KeyRing keyRing;
@@ -66,15 +66,18 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     @Override
-    public void readPersisted() {
-        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades");
-        closedTradables.forEach(tradable -> {
-            tradable.getOffer().setPriceFeedService(priceFeedService);
-            if (tradable instanceof Trade) {
-                Trade trade = (Trade) tradable;
-                trade.setTransientFields(tradableListStorage, btcWalletService);
-            }
-        });
+    public Runnable readStore() {
+        TradableList<Tradable> persisted = new TradableList<>(tradableListStorage, "ClosedTrades");
+        return () -> {
+            closedTradables = persisted;
+            closedTradables.forEach(tradable -> {
+                tradable.getOffer().setPriceFeedService(priceFeedService);
+                if (tradable instanceof Trade) {
+                    Trade trade = (Trade) tradable;
+                    trade.setTransientFields(tradableListStorage, btcWalletService);
+                }
+            });
+        };
     }
 
     public void add(Tradable tradable) {
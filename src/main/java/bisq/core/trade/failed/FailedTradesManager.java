@@ -20,11 +20,11 @@ package bisq.core.trade.failed;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.Trade;
 
 import bisq.common.crypto.KeyRing;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
@@ -42,7 +42,7 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class FailedTradesManager implements PersistedDataHost {
+public class FailedTradesManager implements ConcurrentPersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(FailedTradesManager.class);
     private TradableList<Trade> failedTrades;
     private final KeyRing keyRing;
@@ -63,13 +63,16 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     @Override
-    public void readPersisted() {
-        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades");
-        failedTrades.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
-        failedTrades.forEach(trade -> {
-            trade.getOffer().setPriceFeedService(priceFeedService);
-            trade.setTransientFields(tradableListStorage, btcWalletService);
-        });
+    public Runnable readStore() {
+        TradableList<Trade> persisted = new TradableList<>(tradableListStorage, "FailedTrades");
+        return () -> {
+            this.failedTrades = persisted;
+            failedTrades.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
+            failedTrades.forEach(trade -> {
+                trade.getOffer().setPriceFeedService(priceFeedService);
+                trade.setTransientFields(tradableListStorage, btcWalletService);
+            });
+        };
     }
 
     public void add(Trade trade) {
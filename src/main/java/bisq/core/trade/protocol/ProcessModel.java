@@ -82,6 +82,7 @@ public class ProcessModel implements Model, PersistablePayload {
     transient private User user;
     transient private FilterManager filterManager;
     transient private AccountAgeWitnessService accountAgeWitnessService;
+    transient private TradeTaskMetrics tradeTaskMetrics;
     transient private KeyRing keyRing;
     transient private P2PService p2PService;
     transient private ReferralIdService referralIdService;
@@ -229,6 +230,7 @@ public class ProcessModel implements Model, PersistablePayload {
                                          User user,
                                          FilterManager filterManager,
                                          AccountAgeWitnessService accountAgeWitnessService,
+                                         TradeTaskMetrics tradeTaskMetrics,
                                          KeyRing keyRing,
                                          boolean useSavingsWallet,
                                          Coin fundsNeededForTrade) {
@@ -242,6 +244,7 @@ public class ProcessModel implements Model, PersistablePayload {
         this.user = user;
         this.filterManager = filterManager;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.tradeTaskMetrics = tradeTaskMetrics;
         this.keyRing = keyRing;
         this.p2PService = p2PService;
         this.useSavingsWallet = useSavingsWallet;
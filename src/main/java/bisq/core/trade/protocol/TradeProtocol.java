@@ -139,6 +139,8 @@ public abstract class TradeProtocol {
 
         timeoutTimer = UserThread.runAfter(() -> {
             log.error("Timeout reached. TradeID={}, state={}", trade.getId(), trade.stateProperty().get());
+            log.error("Completed trade tasks:{}", processModel.getTradeTaskMetrics().getRecordsAsString(trade.getId()));
+            log.error("Running trade tasks:{}", processModel.getTradeTaskMetrics().getRunningTasksAsString(trade.getId()));
             trade.setErrorMessage("A timeout occurred.");
             cleanupTradableOnFault();
             cleanup();
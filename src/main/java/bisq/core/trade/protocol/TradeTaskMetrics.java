@@ -0,0 +1,262 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.protocol;
+
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records start and end time, thread and outcome of each trade task and aggregates the durations into a latency
+ * histogram per task. Tasks are completed on different threads (e.g. wallet callbacks), so all access is
+ * synchronized.
+ * Tasks are tracked as running from their start until they complete or fail, so at a trade timeout we can see which
+ * task is blocking. The records and running tasks are kept for the last MAX_TRADES trades only. The histograms can
+ * be exported as CSV file.
+ */
+@Slf4j
+public class TradeTaskMetrics {
+    static final int MAX_TRADES = 50;
+    // Upper bounds of the histogram buckets in ms. The last bucket contains all larger durations.
+    static final long[] BUCKET_UPPER_BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000,
+            120000, Long.MAX_VALUE};
+
+    public enum Outcome {
+        COMPLETED,
+        FAILED
+    }
+
+    @Value
+    public static class TaskRecord {
+        private final String taskName;
+        private final long startTime;
+        private final long endTime;
+        private final String startThread;
+        private final String endThread;
+        private final Outcome outcome;
+
+        public long getDuration() {
+            return endTime - startTime;
+        }
+
+        @Override
+        public String toString() {
+            return taskName + ": " + getDuration() + " ms, " + outcome + ", thread " + startThread +
+                    (startThread.equals(endThread) ? "" : " -> " + endThread);
+        }
+    }
+
+    // Running tasks are compared by identity as the same task might be started twice in the same ms
+    @Getter
+    public static class RunningTask {
+        private final String taskName;
+        private final long startTime;
+        private final String startThread;
+
+        public RunningTask(String taskName, long startTime, String startThread) {
+            this.taskName = taskName;
+            this.startTime = startTime;
+            this.startThread = startThread;
+        }
+
+        String toString(long now) {
+            return taskName + ": running for " + (now - startTime) + " ms, thread " + startThread;
+        }
+    }
+
+    static class Histogram {
+        private final long[] counts = new long[BUCKET_UPPER_BOUNDS_MS.length];
+        @Getter
+        private long count;
+        @Getter
+        private long numFailed;
+        @Getter
+        private long sum;
+        @Getter
+        private long max;
+
+        private void add(long duration, Outcome outcome) {
+            int index = 0;
+            while (duration > BUCKET_UPPER_BOUNDS_MS[index])
+                index++;
+            counts[index]++;
+            count++;
+            if (outcome == Outcome.FAILED)
+                numFailed++;
+            sum += duration;
+            max = Math.max(max, duration);
+        }
+
+        long[] getCounts() {
+            return Arrays.copyOf(counts, counts.length);
+        }
+
+        long getMean() {
+            return count > 0 ? sum / count : 0;
+        }
+
+        // Returns the upper bound of the bucket containing the percentile, capped by the max. value
+        long getPercentile(double percentile) {
+            long rank = (long) Math.ceil(percentile / 100 * count);
+            long cumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulated += counts[i];
+                if (cumulated >= rank && cumulated > 0)
+                    return Math.min(BUCKET_UPPER_BOUNDS_MS[i], max);
+            }
+            return 0;
+        }
+    }
+
+    private final Map<String, List<TaskRecord>> recordsByTradeId = new LinkedHashMap<String, List<TaskRecord>>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<TaskRecord>> eldest) {
+            return size() > MAX_TRADES;
+        }
+    };
+    private final Map<String, List<RunningTask>> runningTasksByTradeId = new LinkedHashMap<String, List<RunningTask>>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<RunningTask>> eldest) {
+            return size() > MAX_TRADES;
+        }
+    };
+    private final Map<String, Histogram> histogramByTaskName = new TreeMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public TradeTaskMetrics() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized void onTaskStarted(String tradeId, RunningTask runningTask) {
+        runningTasksByTradeId.computeIfAbsent(tradeId, key -> new ArrayList<>()).add(runningTask);
+    }
+
+    public synchronized void onTaskEnded(String tradeId, RunningTask runningTask, Outcome outcome) {
+        List<RunningTask> runningTasks = runningTasksByTradeId.get(tradeId);
+        if (runningTasks != null) {
+            runningTasks.removeIf(task -> task == runningTask);
+            if (runningTasks.isEmpty())
+                runningTasksByTradeId.remove(tradeId);
+        }
+        add(tradeId, new TaskRecord(runningTask.getTaskName(),
+                runningTask.getStartTime(),
+                System.currentTimeMillis(),
+                runningTask.getStartThread(),
+                Thread.currentThread().getName(),
+                outcome));
+    }
+
+    public synchronized void add(String tradeId, TaskRecord record) {
+        recordsByTradeId.computeIfAbsent(tradeId, key -> new ArrayList<>()).add(record);
+        histogramByTaskName.computeIfAbsent(record.getTaskName(), key -> new Histogram())
+                .add(record.getDuration(), record.getOutcome());
+        if (log.isDebugEnabled())
+            log.debug("Trade task for trade {}: {}", tradeId, record);
+    }
+
+    public synchronized List<TaskRecord> getRecords(String tradeId) {
+        List<TaskRecord> records = recordsByTradeId.get(tradeId);
+        return records != null ? new ArrayList<>(records) : Collections.emptyList();
+    }
+
+    public String getRecordsAsString(String tradeId) {
+        StringBuilder sb = new StringBuilder();
+        getRecords(tradeId).forEach(record -> sb.append("\n    ").append(record));
+        return sb.toString();
+    }
+
+    public synchronized List<RunningTask> getRunningTasks(String tradeId) {
+        List<RunningTask> runningTasks = runningTasksByTradeId.get(tradeId);
+        return runningTasks != null ? new ArrayList<>(runningTasks) : Collections.emptyList();
+    }
+
+    public String getRunningTasksAsString(String tradeId) {
+        return getRunningTasksAsString(tradeId, System.currentTimeMillis());
+    }
+
+    String getRunningTasksAsString(String tradeId, long now) {
+        StringBuilder sb = new StringBuilder();
+        getRunningTasks(tradeId).forEach(runningTask -> sb.append("\n    ").append(runningTask.toString(now)));
+        return sb.toString();
+    }
+
+    synchronized Histogram getHistogram(String taskName) {
+        return histogramByTaskName.get(taskName);
+    }
+
+    public synchronized String getHistogramsAsCsv() {
+        StringBuilder sb = new StringBuilder("task,count,failed,mean_ms,p50_ms,p90_ms,p99_ms,max_ms");
+        Arrays.stream(BUCKET_UPPER_BOUNDS_MS).forEach(upperBound -> sb.append(",le_")
+                .append(upperBound == Long.MAX_VALUE ? "inf" : String.valueOf(upperBound)));
+        histogramByTaskName.forEach((taskName, histogram) -> {
+            sb.append("\n").append(taskName)
+                    .append(",").append(histogram.getCount())
+                    .append(",").append(histogram.getNumFailed())
+                    .append(",").append(histogram.getMean())
+                    .append(",").append(histogram.getPercentile(50))
+                    .append(",").append(histogram.getPercentile(90))
+                    .append(",").append(histogram.getPercentile(99))
+                    .append(",").append(histogram.getMax());
+            Arrays.stream(histogram.counts).forEach(count -> sb.append(",").append(count));
+        });
+        return sb.toString();
+    }
+
+    public void exportHistograms(File file) {
+        synchronized (this) {
+            if (histogramByTaskName.isEmpty())
+                return;
+        }
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(getHistogramsAsCsv());
+            log.info("Exported trade task latency histograms to {}", file.getAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not export trade task latency histograms. " + e.toString());
+        }
+    }
+
+    synchronized void clear() {
+        recordsByTradeId.clear();
+        runningTasksByTradeId.clear();
+        histogramByTaskName.clear();
+    }
+}
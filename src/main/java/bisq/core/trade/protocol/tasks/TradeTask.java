@@ -19,6 +19,7 @@ package bisq.core.trade.protocol.tasks;
 
 import bisq.core.trade.Trade;
 import bisq.core.trade.protocol.ProcessModel;
+import bisq.core.trade.protocol.TradeTaskMetrics;
 
 import bisq.common.taskrunner.Task;
 import bisq.common.taskrunner.TaskRunner;
@@ -29,22 +30,38 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class TradeTask extends Task<Trade> {
     protected final ProcessModel processModel;
     protected final Trade trade;
+    private final TradeTaskMetrics.RunningTask runningTask;
+    private boolean recorded;
 
     protected TradeTask(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
 
         this.trade = trade;
         processModel = trade.getProcessModel();
+
+        // The task runner creates the task directly before running it
+        runningTask = new TradeTaskMetrics.RunningTask(getClass().getSimpleName(),
+                System.currentTimeMillis(),
+                Thread.currentThread().getName());
+        processModel.getTradeTaskMetrics().onTaskStarted(trade.getId(), runningTask);
+    }
+
+    @Override
+    protected void complete() {
+        record(TradeTaskMetrics.Outcome.COMPLETED);
+        super.complete();
     }
 
     @Override
     protected void failed() {
+        record(TradeTaskMetrics.Outcome.FAILED);
         trade.setErrorMessage(errorMessage);
         super.failed();
     }
 
     @Override
     protected void failed(String message) {
+        record(TradeTaskMetrics.Outcome.FAILED);
         appendToErrorMessage(message);
         trade.setErrorMessage(errorMessage);
         super.failed();
@@ -52,9 +69,19 @@ public abstract class TradeTask extends Task<Trade> {
 
     @Override
     protected void failed(Throwable t) {
+        record(TradeTaskMetrics.Outcome.FAILED);
         t.printStackTrace();
         appendExceptionToErrorMessage(t);
         trade.setErrorMessage(errorMessage);
         super.failed();
     }
+
+    private void record(TradeTaskMetrics.Outcome outcome) {
+        // A task might call failed after complete in case of an exception in the result handler
+        if (recorded)
+            return;
+
+        recorded = true;
+        processModel.getTradeTaskMetrics().onTaskEnded(trade.getId(), runningTask, outcome);
+    }
 }
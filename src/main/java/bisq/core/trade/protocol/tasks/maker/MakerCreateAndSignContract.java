@@ -30,7 +30,6 @@ import bisq.network.p2p.NodeAddress;
 
 import bisq.common.crypto.Sig;
 import bisq.common.taskrunner.TaskRunner;
-import bisq.common.util.Utilities;
 
 import com.google.common.base.Preconditions;
 
@@ -93,7 +92,7 @@ public class MakerCreateAndSignContract extends TradeTask {
                     makerMultiSigPubKey,
                     taker.getMultiSigPubKey()
             );
-            String contractAsJson = Utilities.objectToJson(contract);
+            String contractAsJson = contract.getJson();
             log.trace("Contract as json:{}", contractAsJson);
             String signature = Sig.sign(processModel.getKeyRing().getSignatureKeyPair().getPrivate(), contractAsJson);
 
@@ -30,7 +30,6 @@ import bisq.network.p2p.NodeAddress;
 
 import bisq.common.crypto.Sig;
 import bisq.common.taskrunner.TaskRunner;
-import bisq.common.util.Utilities;
 
 import org.bitcoinj.core.Coin;
 
@@ -99,7 +98,7 @@ public class TakerVerifyAndSignContract extends TradeTask {
                     maker.getMultiSigPubKey(),
                     takerMultiSigPubKey
             );
-            String contractAsJson = Utilities.objectToJson(contract);
+            String contractAsJson = contract.getJson();
             log.trace("Contract as json:{}", contractAsJson);
 
             contract.printDiff(processModel.getTradingPeer().getContractAsJson());
@@ -0,0 +1,143 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.user;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Coalesces the persist requests of a payload which gets changed at many setters (Preferences, User), so that a
+ * series of changes causes only one serialization of the whole payload.
+ * A change only marks the payload as dirty. The write gets triggered after the changes have been quiet for
+ * QUIET_PERIOD_MS but latest MAX_DELAY_MS after the first unsaved change. Inside a batch no write gets scheduled
+ * until the outermost batch is completed. Pending changes are written immediately at flush, which must be called
+ * at shutdown.
+ * Not thread safe, all calls are expected on the user thread.
+ */
+@Slf4j
+class DebouncedPersister {
+    static final long QUIET_PERIOD_MS = 500;
+    static final long MAX_DELAY_MS = TimeUnit.SECONDS.toMillis(5);
+
+    interface Scheduler {
+        // Returns the handler for cancelling the task
+        Runnable schedule(Runnable task, long delayMs);
+    }
+
+    private final String name;
+    private final Runnable writeHandler;
+    private final long quietPeriodMs;
+    private final long maxDelayMs;
+    private final Scheduler scheduler;
+    private boolean dirty;
+    private long firstDirtyTime;
+    private int batchDepth;
+    @Nullable
+    private Runnable cancelHandler;
+    // Number of persist requests and number of writes (serializations of the payload)
+    @Getter
+    private long numRequests;
+    @Getter
+    private long numWrites;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    DebouncedPersister(String name, Runnable writeHandler) {
+        this(name, writeHandler, QUIET_PERIOD_MS, MAX_DELAY_MS, (task, delayMs) -> {
+            Timer timer = UserThread.runAfter(task, delayMs, TimeUnit.MILLISECONDS);
+            return timer::stop;
+        });
+    }
+
+    DebouncedPersister(String name, Runnable writeHandler, long quietPeriodMs, long maxDelayMs, Scheduler scheduler) {
+        this.name = name;
+        this.writeHandler = writeHandler;
+        this.quietPeriodMs = quietPeriodMs;
+        this.maxDelayMs = maxDelayMs;
+        this.scheduler = scheduler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void requestPersistence() {
+        numRequests++;
+        if (!dirty) {
+            dirty = true;
+            firstDirtyTime = System.currentTimeMillis();
+        }
+        if (batchDepth == 0)
+            scheduleWrite();
+    }
+
+    // All persist requests from inside the changes handler result in at most one write
+    void batch(Runnable changes) {
+        batchDepth++;
+        try {
+            changes.run();
+        } finally {
+            batchDepth--;
+            if (batchDepth == 0 && dirty)
+                scheduleWrite();
+        }
+    }
+
+    void flush() {
+        cancelWrite();
+        if (dirty) {
+            dirty = false;
+            numWrites++;
+            writeHandler.run();
+            log.debug("{} persisted. Writes: {}, persist requests: {}", name, numWrites, numRequests);
+        }
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void scheduleWrite() {
+        cancelWrite();
+        long remainingMaxDelay = Math.max(0, firstDirtyTime + maxDelayMs - System.currentTimeMillis());
+        cancelHandler = scheduler.schedule(this::flush, Math.min(quietPeriodMs, remainingMaxDelay));
+    }
+
+    private void cancelWrite() {
+        if (cancelHandler != null) {
+            cancelHandler.run();
+            cancelHandler = null;
+        }
+    }
+}
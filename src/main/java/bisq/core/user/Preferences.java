@@ -125,6 +125,7 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
     @Delegate(excludes = ExcludesDelegateMethods.class)
     private PreferencesPayload prefPayload = new PreferencesPayload();
     private boolean initialReadDone = false;
+    private final DebouncedPersister persister = new DebouncedPersister("Preferences", this::writePayload);
 
     @Getter
     private final BooleanProperty useAnimationsProperty = new SimpleBooleanProperty(prefPayload.isUseAnimations());
@@ -306,6 +307,16 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
         persist();
     }
 
+    // All changes applied in the handler get persisted with one write
+    public void batch(Runnable changes) {
+        persister.batch(changes);
+    }
+
+    // Writes pending changes immediately. Needs to be called at shutdown.
+    public void flush() {
+        persister.flush();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Setter
@@ -365,7 +376,16 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
 
     private void persist() {
         if (initialReadDone)
-            storage.queueUpForSave(prefPayload);
+            persister.requestPersistence();
+    }
+
+    private void persistNow() {
+        persist();
+        persister.flush();
+    }
+
+    private void writePayload() {
+        storage.queueUpForSave(prefPayload, 1);
     }
 
     public void setUserLanguage(@NotNull String userLanguageCode) {
@@ -518,13 +538,13 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
     public void setResyncSpvRequested(boolean resyncSpvRequested) {
         prefPayload.setResyncSpvRequested(resyncSpvRequested);
         // We call that before shutdown so we dont want a delay here
-        storage.queueUpForSave(prefPayload, 1);
+        persistNow();
     }
 
     public void setBridgeAddresses(List<String> bridgeAddresses) {
         prefPayload.setBridgeAddresses(bridgeAddresses);
         // We call that before shutdown so we dont want a delay here
-        storage.queueUpForSave(prefPayload, 1);
+        persistNow();
     }
 
     // Only used from PB but keep it explicit as maybe it get used from the client and then we want to persist
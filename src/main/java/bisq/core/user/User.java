@@ -26,11 +26,11 @@ import bisq.core.locale.TradeCurrency;
 import bisq.core.notifications.alerts.market.MarketAlertFilter;
 import bisq.core.notifications.alerts.price.PriceAlertFilter;
 import bisq.core.payment.PaymentAccount;
+import bisq.core.setup.ConcurrentPersistedDataHost;
 
 import bisq.network.p2p.NodeAddress;
 
 import bisq.common.crypto.KeyRing;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 
 import javax.inject.Inject;
@@ -44,6 +44,7 @@ import javafx.collections.ObservableSet;
 import javafx.collections.SetChangeListener;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -63,7 +64,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 @Slf4j
 @AllArgsConstructor
-public final class User implements PersistedDataHost {
+public final class User implements ConcurrentPersistedDataHost {
     final private Storage<UserPayload> storage;
     final private KeyRing keyRing;
 
@@ -71,6 +72,7 @@ public final class User implements PersistedDataHost {
     private ObjectProperty<PaymentAccount> currentPaymentAccountProperty;
 
     private UserPayload userPayload = new UserPayload();
+    private final DebouncedPersister persister = new DebouncedPersister("User", this::writePayload);
 
     @Inject
     public User(Storage<UserPayload> storage, KeyRing keyRing) {
@@ -85,8 +87,12 @@ public final class User implements PersistedDataHost {
     }
 
     @Override
-    public void readPersisted() {
+    public Runnable readStore() {
         UserPayload persisted = storage.initAndGetPersistedWithFileName("UserPayload", 100);
+        return () -> applyPersisted(persisted);
+    }
+
+    private void applyPersisted(@Nullable UserPayload persisted) {
         userPayload = persisted != null ? persisted : new UserPayload();
 
         checkNotNull(userPayload.getPaymentAccounts(), "userPayload.getPaymentAccounts() must not be null");
@@ -113,8 +119,22 @@ public final class User implements PersistedDataHost {
     }
 
     public void persist() {
+        persister.requestPersistence();
+    }
+
+    // All changes applied in the handler get persisted with one write
+    public void batch(Runnable changes) {
+        persister.batch(changes);
+    }
+
+    // Writes pending changes immediately. Needs to be called at shutdown.
+    public void flush() {
+        persister.flush();
+    }
+
+    private void writePayload() {
         if (storage != null)
-            storage.queueUpForSave(userPayload);
+            storage.queueUpForSave(userPayload, 1);
     }
 
 
@@ -228,27 +248,43 @@ public final class User implements PersistedDataHost {
     }
 
     public boolean addAcceptedArbitrator(Arbitrator arbitrator) {
-        final List<Arbitrator> arbitrators = userPayload.getAcceptedArbitrators();
-        if (arbitrators != null && !arbitrators.contains(arbitrator) && !isMyOwnRegisteredArbitrator(arbitrator)) {
-            boolean changed = arbitrators.add(arbitrator);
-            if (changed)
-                persist();
-            return changed;
-        } else {
-            return false;
-        }
+        boolean changed = doAddAcceptedArbitrator(arbitrator);
+        if (changed)
+            persist();
+        return changed;
     }
 
     public boolean addAcceptedMediator(Mediator mediator) {
-        final List<Mediator> mediators = userPayload.getAcceptedMediators();
-        if (mediators != null && !mediators.contains(mediator) && !isMyOwnRegisteredMediator(mediator)) {
-            boolean changed = mediators.add(mediator);
-            if (changed)
-                persist();
-            return changed;
-        } else {
-            return false;
+        boolean changed = doAddAcceptedMediator(mediator);
+        if (changed)
+            persist();
+        return changed;
+    }
+
+    // Adds all arbitrators and mediators but persists only once
+    public boolean addAcceptedArbitratorsAndMediators(Collection<Arbitrator> arbitrators, Collection<Mediator> mediators) {
+        boolean changed = false;
+        for (Arbitrator arbitrator : arbitrators) {
+            changed |= doAddAcceptedArbitrator(arbitrator);
+        }
+        for (Mediator mediator : mediators) {
+            changed |= doAddAcceptedMediator(mediator);
         }
+        if (changed)
+            persist();
+        return changed;
+    }
+
+    private boolean doAddAcceptedArbitrator(Arbitrator arbitrator) {
+        final List<Arbitrator> arbitrators = userPayload.getAcceptedArbitrators();
+        return arbitrators != null && !arbitrators.contains(arbitrator) && !isMyOwnRegisteredArbitrator(arbitrator) &&
+                arbitrators.add(arbitrator);
+    }
+
+    private boolean doAddAcceptedMediator(Mediator mediator) {
+        final List<Mediator> mediators = userPayload.getAcceptedMediators();
+        return mediators != null && !mediators.contains(mediator) && !isMyOwnRegisteredMediator(mediator) &&
+                mediators.add(mediator);
     }
 
 
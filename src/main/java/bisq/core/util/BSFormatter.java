@@ -47,20 +47,65 @@ import java.text.DateFormat;
 import java.text.DecimalFormat;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Formatting and parsing of the values displayed in the UI. Formatting is thread safe, so it can be used for
+ * formatting large amounts of data (e.g. offer book and trade statistics) outside the user thread.
+ * Fiat and altcoin values with the default formats are formatted directly from the long value with a FixedPointFormat.
+ */
 @Slf4j
 public class BSFormatter {
     public final static String RANGE_SEPARATOR = " - ";
 
+    private static final FixedPointFormat FIAT_PRICE_FORMAT = new FixedPointFormat(Fiat.SMALLEST_UNIT_EXPONENT, 0, 4);
+    private static final FixedPointFormat FIAT_VOLUME_FORMAT = new FixedPointFormat(Fiat.SMALLEST_UNIT_EXPONENT, 0, 2);
+    private static final FixedPointFormat ALTCOIN_FORMAT = new FixedPointFormat(Altcoin.SMALLEST_UNIT_EXPONENT, 0, 8);
+    private static final FixedPointFormat BSQ_VOLUME_FORMAT = new FixedPointFormat(Altcoin.SMALLEST_UNIT_EXPONENT, 0, 3);
+
+    // DateFormat is not thread safe, so we keep the instances per thread. They get replaced if the locale has changed.
+    private static final ThreadLocal<DateFormats> DATE_FORMATS = new ThreadLocal<>();
+
+    private static class DateFormats {
+        private final Locale locale;
+        private final DateFormat dateFormat;
+        private final DateFormat timeFormat;
+
+        private DateFormats(Locale locale) {
+            this.locale = locale;
+            dateFormat = DateFormat.getDateInstance(DateFormat.DEFAULT, locale);
+            timeFormat = DateFormat.getTimeInstance(DateFormat.DEFAULT, locale);
+        }
+    }
+
+    // The coin formats derived from coinFormat. MonetaryFormat is immutable, so we only need to create them once.
+    private static class CoinFormats {
+        private final MonetaryFormat coinFormat;
+        private final MonetaryFormat noCode;
+        private final MonetaryFormat postfixCode;
+        private final MonetaryFormat[] byDecimalPlaces = new MonetaryFormat[5];
+
+        private CoinFormats(MonetaryFormat coinFormat) {
+            this.coinFormat = coinFormat;
+            noCode = coinFormat.noCode();
+            postfixCode = coinFormat.postfixCode();
+            for (int decimalPlaces = 0; decimalPlaces < byDecimalPlaces.length; decimalPlaces++) {
+                byDecimalPlaces[decimalPlaces] = noCode.minDecimals(decimalPlaces).repeatOptionalDecimals(1, decimalPlaces);
+            }
+        }
+    }
+
     protected boolean useMilliBit;
     protected int scale = 3;
 
@@ -76,8 +121,15 @@ public class BSFormatter {
     protected final MonetaryFormat fiatPriceFormat = new MonetaryFormat().shift(0).minDecimals(4).repeatOptionalDecimals(0, 0);
     protected final MonetaryFormat fiatVolumeFormat = new MonetaryFormat().shift(0).minDecimals(2).repeatOptionalDecimals(0, 0);
     protected final MonetaryFormat altcoinFormat = new MonetaryFormat().shift(0).minDecimals(8).repeatOptionalDecimals(0, 0);
+    /**
+     * @deprecated Not used anymore as DecimalFormat is not thread safe. Use formatRoundedDoubleWithPrecision instead.
+     */
+    @Deprecated
     protected final DecimalFormat decimalFormat = new DecimalFormat("#.#");
 
+    private volatile CoinFormats coinFormats;
+    private final Map<String, String> currencyPairByCurrencyCode = new ConcurrentHashMap<>();
+
 
     @Inject
     public BSFormatter() {
@@ -104,10 +156,11 @@ public class BSFormatter {
 
         if (coin != null) {
             try {
+                CoinFormats coinFormats = getCoinFormats();
                 if (decimalPlaces < 0 || decimalPlaces > 4) {
-                    formattedCoin = coinFormat.noCode().format(coin).toString();
+                    formattedCoin = coinFormats.noCode.format(coin).toString();
                 } else {
-                    formattedCoin = coinFormat.noCode().minDecimals(decimalPlaces).repeatOptionalDecimals(1, decimalPlaces).format(coin).toString();
+                    formattedCoin = coinFormats.byDecimalPlaces[decimalPlaces].format(coin).toString();
                 }
             } catch (Throwable t) {
                 log.warn("Exception at formatBtc: " + t.toString());
@@ -126,7 +179,7 @@ public class BSFormatter {
             try {
                 // we don't use the code feature from coinFormat as it does automatic switching between mBTC and BTC and
                 // pre and post fixing
-                return coinFormat.postfixCode().format(coin).toString();
+                return getCoinFormats().postfixCode.format(coin).toString();
             } catch (Throwable t) {
                 log.warn("Exception at formatBtcWithCode: " + t.toString());
                 return "";
@@ -190,6 +243,11 @@ public class BSFormatter {
     public String formatFiat(Fiat fiat, MonetaryFormat format, boolean appendCurrencyCode) {
         if (fiat != null) {
             try {
+                if (format == fiatPriceFormat)
+                    return format(FIAT_PRICE_FORMAT, fiat.getValue(), fiat.getCurrencyCode(), appendCurrencyCode);
+                if (format == fiatVolumeFormat)
+                    return format(FIAT_VOLUME_FORMAT, fiat.getValue(), fiat.getCurrencyCode(), appendCurrencyCode);
+
                 final String res = format.noCode().format(fiat).toString();
                 if (appendCurrencyCode)
                     return res + " " + fiat.getCurrencyCode();
@@ -261,11 +319,7 @@ public class BSFormatter {
     public String formatAltcoin(Altcoin altcoin, boolean appendCurrencyCode) {
         if (altcoin != null) {
             try {
-                String res = altcoinFormat.noCode().format(altcoin).toString();
-                if (appendCurrencyCode)
-                    return res + " " + altcoin.getCurrencyCode();
-                else
-                    return res;
+                return format(ALTCOIN_FORMAT, altcoin.getValue(), altcoin.getCurrencyCode(), appendCurrencyCode);
             } catch (Throwable t) {
                 log.warn("Exception at formatAltcoin: " + t.toString());
                 return Res.get("shared.na") + " " + altcoin.getCurrencyCode();
@@ -326,15 +380,8 @@ public class BSFormatter {
         if (altcoin != null) {
             try {
                 // TODO quick hack...
-                String res;
-                if (altcoin.getCurrencyCode().equals("BSQ"))
-                    res = altcoinFormat.noCode().minDecimals(3).repeatOptionalDecimals(0, 0).format(altcoin).toString();
-                else
-                    res = altcoinFormat.noCode().format(altcoin).toString();
-                if (appendCurrencyCode)
-                    return res + " " + altcoin.getCurrencyCode();
-                else
-                    return res;
+                FixedPointFormat format = altcoin.getCurrencyCode().equals("BSQ") ? BSQ_VOLUME_FORMAT : ALTCOIN_FORMAT;
+                return format(format, altcoin.getValue(), altcoin.getCurrencyCode(), appendCurrencyCode);
             } catch (Throwable t) {
                 log.warn("Exception at formatAltcoinVolume: " + t.toString());
                 return Res.get("shared.na") + " " + altcoin.getCurrencyCode();
@@ -430,9 +477,17 @@ public class BSFormatter {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public String formatRoundedDoubleWithPrecision(double value, int precision) {
-        decimalFormat.setMinimumFractionDigits(precision);
-        decimalFormat.setMaximumFractionDigits(precision);
-        return decimalFormat.format(MathUtils.roundDouble(value, precision)).replace(",", ".");
+        // Same result as a DecimalFormat with the given number of fraction digits (rounding half even) applied to the
+        // rounded value, but without a shared mutable format instance
+        double roundedValue = MathUtils.roundDouble(value, precision);
+        String formatted = BigDecimal.valueOf(roundedValue)
+                .setScale(precision, RoundingMode.HALF_EVEN)
+                .toPlainString();
+        // BigDecimal has no negative zero, but DecimalFormat keeps the sign of negative values which are formatted
+        // as zero (e.g. "-0.00")
+        if (Math.copySign(1d, roundedValue) < 0 && formatted.charAt(0) != '-')
+            return "-" + formatted;
+        return formatted;
     }
 
     public String getDirectionWithCode(OfferPayload.Direction direction, String currencyCode) {
@@ -459,9 +514,8 @@ public class BSFormatter {
 
     public String formatDateTime(Date date) {
         if (date != null) {
-            DateFormat dateFormatter = DateFormat.getDateInstance(DateFormat.DEFAULT, getLocale());
-            DateFormat timeFormatter = DateFormat.getTimeInstance(DateFormat.DEFAULT, getLocale());
-            return dateFormatter.format(date) + " " + timeFormatter.format(date);
+            DateFormats dateFormats = getDateFormats();
+            return dateFormats.dateFormat.format(date) + " " + dateFormats.timeFormat.format(date);
         } else {
             return "";
         }
@@ -469,9 +523,9 @@ public class BSFormatter {
 
     public String formatDateTimeSpan(Date dateFrom, Date dateTo) {
         if (dateFrom != null && dateTo != null) {
-            DateFormat dateFormatter = DateFormat.getDateInstance(DateFormat.DEFAULT, getLocale());
-            DateFormat timeFormatter = DateFormat.getTimeInstance(DateFormat.DEFAULT, getLocale());
-            return dateFormatter.format(dateFrom) + " " + timeFormatter.format(dateFrom) + RANGE_SEPARATOR + timeFormatter.format(dateTo);
+            DateFormats dateFormats = getDateFormats();
+            return dateFormats.dateFormat.format(dateFrom) + " " + dateFormats.timeFormat.format(dateFrom) +
+                    RANGE_SEPARATOR + dateFormats.timeFormat.format(dateTo);
         } else {
             return "";
         }
@@ -479,8 +533,7 @@ public class BSFormatter {
 
     public String formatTime(Date date) {
         if (date != null) {
-            DateFormat timeFormatter = DateFormat.getTimeInstance(DateFormat.DEFAULT, getLocale());
-            return timeFormatter.format(date);
+            return getDateFormats().timeFormat.format(date);
         } else {
             return "";
         }
@@ -488,8 +541,7 @@ public class BSFormatter {
 
     public String formatDate(Date date) {
         if (date != null) {
-            DateFormat dateFormatter = DateFormat.getDateInstance(DateFormat.DEFAULT, getLocale());
-            return dateFormatter.format(date);
+            return getDateFormats().dateFormat.format(date);
         } else {
             return "";
         }
@@ -504,10 +556,7 @@ public class BSFormatter {
     }
 
     public String formatToPercent(double value) {
-        DecimalFormat decimalFormat = new DecimalFormat("#.##");
-        decimalFormat.setMinimumFractionDigits(2);
-        decimalFormat.setMaximumFractionDigits(2);
-        return decimalFormat.format(MathUtils.roundDouble(value * 100.0, 2)).replace(",", ".");
+        return formatRoundedDoubleWithPrecision(value * 100.0, 2);
     }
 
     public double parseNumberStringToDouble(String input) throws NumberFormatException {
@@ -704,10 +753,12 @@ public class BSFormatter {
     }
 
     public String getCurrencyPair(String currencyCode) {
-        if (CurrencyUtil.isFiatCurrency(currencyCode))
-            return Res.getBaseCurrencyCode() + "/" + currencyCode;
-        else
-            return currencyCode + "/" + Res.getBaseCurrencyCode();
+        return currencyPairByCurrencyCode.computeIfAbsent(currencyCode, code -> {
+            if (CurrencyUtil.isFiatCurrency(code))
+                return Res.getBaseCurrencyCode() + "/" + code;
+            else
+                return code + "/" + Res.getBaseCurrencyCode();
+        });
     }
 
     public String getCounterCurrency(String currencyCode) {
@@ -746,4 +797,37 @@ public class BSFormatter {
     public Locale getLocale() {
         return GlobalSettings.getLocale();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static String format(FixedPointFormat format, long value, String currencyCode, boolean appendCurrencyCode) {
+        if (!appendCurrencyCode)
+            return format.format(value);
+
+        StringBuilder sb = new StringBuilder(24);
+        return format.appendTo(sb, value).append(' ').append(currencyCode).toString();
+    }
+
+    // Subclasses might replace coinFormat after our constructor, so we create the derived formats lazily
+    private CoinFormats getCoinFormats() {
+        CoinFormats coinFormats = this.coinFormats;
+        if (coinFormats == null || coinFormats.coinFormat != coinFormat) {
+            coinFormats = new CoinFormats(coinFormat);
+            this.coinFormats = coinFormats;
+        }
+        return coinFormats;
+    }
+
+    private DateFormats getDateFormats() {
+        Locale locale = getLocale();
+        DateFormats dateFormats = DATE_FORMATS.get();
+        if (dateFormats == null || !dateFormats.locale.equals(locale)) {
+            dateFormats = new DateFormats(locale);
+            DATE_FORMATS.set(dateFormats);
+        }
+        return dateFormats;
+    }
 }
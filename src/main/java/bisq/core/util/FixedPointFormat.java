@@ -0,0 +1,134 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.util;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Immutable and thread safe formatter for fixed point values (e.g. the value of a Coin, Fiat or Altcoin).
+ * It produces the same output as a MonetaryFormat without code and with the same shift, minDecimals and optional
+ * decimal groups (rounding half up), but it works directly on the long value: no format string and no intermediate
+ * StringBuilder get created. Use appendTo to write into a reused StringBuilder, format uses a builder per thread.
+ */
+public final class FixedPointFormat {
+    private static final ThreadLocal<StringBuilder> STRING_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    private final int smallestUnitExponent;
+    private final int minDecimals;
+    private final int[] decimalGroups;
+    // Number of decimal places of the value after shifting
+    private final int numDecimals;
+    private final long precisionDivisor;
+    private final long shiftDivisor;
+
+    /**
+     * @param smallestUnitExponent    Number of decimal places of the value (e.g. 8 for Coin, 4 for Fiat)
+     * @param shift                   Decimal places the decimal point gets shifted to the right (e.g. 3 for mBTC)
+     * @param minDecimals             Minimum number of decimals which are always shown
+     * @param decimalGroupSize        Size of the optional decimal groups
+     * @param decimalGroupRepetitions Number of optional decimal groups
+     */
+    public FixedPointFormat(int smallestUnitExponent,
+                            int shift,
+                            int minDecimals,
+                            int decimalGroupSize,
+                            int decimalGroupRepetitions) {
+        int[] decimalGroups = new int[decimalGroupRepetitions];
+        Arrays.fill(decimalGroups, decimalGroupSize);
+        int maxDecimals = minDecimals + decimalGroupSize * decimalGroupRepetitions;
+        checkArgument(maxDecimals <= smallestUnitExponent - shift,
+                "The maximum number of decimals %s cannot exceed %s", maxDecimals, smallestUnitExponent - shift);
+
+        this.smallestUnitExponent = smallestUnitExponent;
+        this.minDecimals = minDecimals;
+        this.decimalGroups = decimalGroups;
+        numDecimals = smallestUnitExponent - shift;
+        precisionDivisor = pow10(numDecimals - maxDecimals);
+        shiftDivisor = pow10(numDecimals);
+    }
+
+    public FixedPointFormat(int smallestUnitExponent, int shift, int minDecimals) {
+        this(smallestUnitExponent, shift, minDecimals, 0, 0);
+    }
+
+    public int getSmallestUnitExponent() {
+        return smallestUnitExponent;
+    }
+
+    public String format(long value) {
+        StringBuilder sb = STRING_BUILDER.get();
+        sb.setLength(0);
+        appendTo(sb, value);
+        return sb.toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder sb, long value) {
+        long abs = Math.abs(value);
+        // Round half up to the max. number of visible decimals
+        long remainder = abs % precisionDivisor;
+        abs -= remainder;
+        if (remainder * 2 >= precisionDivisor)
+            abs += precisionDivisor;
+
+        long numbers = abs / shiftDivisor;
+        long decimals = abs % shiftDivisor;
+
+        // Number of decimals without trailing zeros, but at least minDecimals
+        int length = numDecimals;
+        long trimmed = decimals;
+        while (length > minDecimals && trimmed % 10 == 0) {
+            trimmed /= 10;
+            length--;
+        }
+
+        // If we are inside an optional decimal group we fill it up with zeros
+        int visibleDecimals = length;
+        int i = minDecimals;
+        for (int group : decimalGroups) {
+            if (length > i && length < i + group) {
+                visibleDecimals = i + group;
+                break;
+            }
+            i += group;
+        }
+
+        if (value < 0)
+            sb.append('-');
+        sb.append(numbers);
+        if (visibleDecimals > 0) {
+            sb.append('.');
+            // The decimals have numDecimals digits including leading zeros, we write the first visibleDecimals
+            long divisor = shiftDivisor / 10;
+            for (int j = 0; j < visibleDecimals; j++) {
+                sb.append((char) ('0' + decimals / divisor % 10));
+                divisor /= 10;
+            }
+        }
+        return sb;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
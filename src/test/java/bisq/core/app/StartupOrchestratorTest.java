@@ -0,0 +1,200 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StartupOrchestratorTest {
+    private ExecutorService userThread;
+
+    @Before
+    public void setUp() {
+        userThread = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        userThread.shutdownNow();
+    }
+
+    @Test
+    public void testDependenciesAreCompletedBeforeStepStarts() throws InterruptedException {
+        List<String> startedSteps = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        StartupOrchestrator orchestrator = new StartupOrchestrator(userThread)
+                .addStep("a", completeHandler -> {
+                    startedSteps.add("a");
+                    completeHandler.run();
+                })
+                .addStep("b", completeHandler -> {
+                    startedSteps.add("b");
+                    completeHandler.run();
+                }, "a")
+                .addStep("c", completeHandler -> {
+                    startedSteps.add("c");
+                    completeHandler.run();
+                }, "a")
+                .addStep("d", completeHandler -> {
+                    startedSteps.add("d");
+                    completeHandler.run();
+                    latch.countDown();
+                }, "b", "c");
+        userThread.execute(orchestrator::start);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("a", startedSteps.get(0));
+        assertTrue(startedSteps.containsAll(Arrays.asList("b", "c")));
+        assertEquals("d", startedSteps.get(3));
+    }
+
+    @Test
+    public void testStepNotStartedIfDependencyNotCompleted() throws InterruptedException {
+        Runnable[] completeHandlerOfA = new Runnable[1];
+        boolean[] startedB = new boolean[1];
+        StartupOrchestrator orchestrator = new StartupOrchestrator(userThread)
+                .addStep("a", completeHandler -> completeHandlerOfA[0] = completeHandler)
+                .addStep("b", completeHandler -> {
+                    startedB[0] = true;
+                    completeHandler.run();
+                }, "a");
+        runOnUserThread(orchestrator::start);
+
+        assertFalse(startedB[0]);
+        assertFalse(orchestrator.isCompleted("a"));
+
+        runOnUserThread(completeHandlerOfA[0]);
+        // Completion of a is queued, then the completion of b
+        flushUserThread();
+        flushUserThread();
+        assertTrue(startedB[0]);
+        assertTrue(orchestrator.isCompleted());
+    }
+
+    @Test
+    public void testCompleteHandlerCalledTwice() throws InterruptedException {
+        StartupOrchestrator orchestrator = new StartupOrchestrator(userThread)
+                .addStep("a", completeHandler -> {
+                    completeHandler.run();
+                    completeHandler.run();
+                });
+        runOnUserThread(orchestrator::start);
+        flushUserThread();
+
+        assertEquals(1, orchestrator.getDurations().size());
+        assertTrue(orchestrator.isCompleted());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StartupOrchestrator(userThread).addStep("a", Runnable::run, "b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateStep() {
+        new StartupOrchestrator(userThread)
+                .addStep("a", Runnable::run)
+                .addStep("a", Runnable::run);
+    }
+
+    // Offline startup harness with the step graph of BisqSetup. The steps only record their start and get completed
+    // by the test, so we can check which steps run at the same time.
+    @Test
+    public void testIndependentStepsOfBisqSetupRunConcurrently() throws InterruptedException {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        Map<String, Runnable> completeHandlerByStep = new ConcurrentHashMap<>();
+        StartupOrchestrator orchestrator = BisqSetup.createStartupOrchestrator(userThread, name -> completeHandler -> {
+            events.add("start " + name);
+            completeHandlerByStep.put(name, () -> {
+                events.add("complete " + name);
+                completeHandler.run();
+            });
+        });
+        runOnUserThread(orchestrator::start);
+        assertEquals(Arrays.asList("start " + BisqSetup.STEP_READ_RESOURCES, "start " + BisqSetup.STEP_TAC), events);
+
+        // The checks run while the resources are still read
+        complete(completeHandlerByStep, BisqSetup.STEP_TAC);
+        assertTrue(events.containsAll(Arrays.asList("start " + BisqSetup.STEP_LOCALHOST_NODE_CHECK,
+                "start " + BisqSetup.STEP_CRYPTO_CHECK,
+                "start " + BisqSetup.STEP_OS_ARCHITECTURE_CHECK)));
+
+        // The wallet gets started but the P2P network still waits for the resources
+        complete(completeHandlerByStep, BisqSetup.STEP_LOCALHOST_NODE_CHECK);
+        assertTrue(events.contains("start " + BisqSetup.STEP_WALLET));
+        assertFalse(events.contains("start " + BisqSetup.STEP_P2P_NETWORK));
+
+        complete(completeHandlerByStep, BisqSetup.STEP_READ_RESOURCES);
+        complete(completeHandlerByStep, BisqSetup.STEP_WALLET);
+        assertFalse(events.contains("start " + BisqSetup.STEP_DOMAIN_SERVICES));
+        complete(completeHandlerByStep, BisqSetup.STEP_P2P_NETWORK);
+        complete(completeHandlerByStep, BisqSetup.STEP_DOMAIN_SERVICES);
+
+        // Wallet and P2P network overlap, strictly sequential the P2P network would be started after the wallet
+        assertTrue(events.indexOf("start " + BisqSetup.STEP_P2P_NETWORK) <
+                events.indexOf("complete " + BisqSetup.STEP_WALLET));
+        assertTrue(events.indexOf("start " + BisqSetup.STEP_WALLET) <
+                events.indexOf("complete " + BisqSetup.STEP_READ_RESOURCES));
+        // Domain services are started after wallet and P2P network are completed
+        assertTrue(events.indexOf("start " + BisqSetup.STEP_DOMAIN_SERVICES) >
+                events.indexOf("complete " + BisqSetup.STEP_P2P_NETWORK));
+
+        assertFalse(orchestrator.isCompleted());
+        complete(completeHandlerByStep, BisqSetup.STEP_CRYPTO_CHECK);
+        complete(completeHandlerByStep, BisqSetup.STEP_OS_ARCHITECTURE_CHECK);
+        assertTrue(orchestrator.isCompleted());
+        assertEquals(8, orchestrator.getDurations().size());
+    }
+
+    // Completes the step and waits until the completion is processed on the user thread
+    private void complete(Map<String, Runnable> completeHandlerByStep, String name) throws InterruptedException {
+        assertTrue("Step " + name + " not started", completeHandlerByStep.containsKey(name));
+        completeHandlerByStep.get(name).run();
+        flushUserThread();
+    }
+
+    private void flushUserThread() throws InterruptedException {
+        runOnUserThread(() -> {
+        });
+    }
+
+    private void runOnUserThread(Runnable runnable) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        userThread.execute(() -> {
+            runnable.run();
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import bisq.core.filter.FilterManager;
+import bisq.core.user.Preferences;
+import bisq.core.user.User;
+
+import bisq.common.crypto.PubKeyRing;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.Security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static bisq.core.arbitration.ArbitratorManagerTest.createManagerWithArbitrators;
+import static org.mockito.Mockito.mock;
+
+// Measures the cost of updateArbitratorMap depending on the number of registered arbitrators. The durations depend on
+// the machine, so the results are only logged and the benchmark is not part of the unit tests. Remove @Ignore to run
+// it.
+@Ignore
+@Slf4j
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({User.class, ArbitratorService.class, Preferences.class, FilterManager.class, PubKeyRing.class})
+public class ArbitratorManagerBenchmark {
+    private static final int NUM_UPDATES = 100;
+
+    @Before
+    public void setUp() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    public void benchmark() {
+        for (int numArbitrators : new int[]{10, 100, 1000}) {
+            ArbitratorManager manager = createManagerWithArbitrators(mock(User.class), numArbitrators);
+            long ts = System.currentTimeMillis();
+            for (int i = 0; i < NUM_UPDATES; i++) {
+                manager.updateArbitratorMap();
+            }
+            log.info("updateArbitratorMap with {} arbitrators took {} ms on average",
+                    numArbitrators, (System.currentTimeMillis() - ts) / (double) NUM_UPDATES);
+        }
+    }
+}
@@ -17,15 +17,25 @@
 
 package bisq.core.arbitration;
 
+import bisq.core.filter.FilterManager;
+import bisq.core.user.Preferences;
 import bisq.core.user.User;
 
 import bisq.network.p2p.NodeAddress;
 
+import bisq.common.crypto.PubKeyRing;
+
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
+import javafx.beans.property.SimpleObjectProperty;
+
+import java.security.PublicKey;
 import java.security.Security;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -36,13 +46,23 @@ import org.junit.runner.RunWith;
 
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({User.class, ArbitratorService.class})
+@PrepareForTest({User.class, ArbitratorService.class, Preferences.class, FilterManager.class, PubKeyRing.class})
 public class ArbitratorManagerTest {
 
     @Before
@@ -126,4 +146,50 @@ public class ArbitratorManagerTest {
         assertThat(manager.getArbitratorLanguages(nodeAddresses), not(containsInAnyOrder("de")));
     }
 
+    @Test
+    public void testRegistrationSignatureIsVerifiedOnlyOnce() {
+        User user = mock(User.class);
+        int numArbitrators = 20;
+        ArbitratorManager manager = createManagerWithArbitrators(user, numArbitrators);
+
+        int numUpdates = 10;
+        for (int i = 0; i < numUpdates; i++) {
+            manager.updateArbitratorMap();
+        }
+
+        assertEquals(numArbitrators, manager.getArbitratorsObservableMap().size());
+        verify(manager, times(numArbitrators)).verifySignature(any(), any(), anyString());
+        // One coalesced write per map update instead of one per arbitrator
+        verify(user, times(numUpdates + 1)).addAcceptedArbitratorsAndMediators(anyCollection(), anyCollection());
+        verify(user, never()).addAcceptedArbitrator(any(Arbitrator.class));
+    }
+
+    // Manager with the given number of registered arbitrators which all pass the registration checks. Used by
+    // ArbitratorManagerBenchmark as well.
+    static ArbitratorManager createManagerWithArbitrators(User user, int numArbitrators) {
+        Preferences preferences = mock(Preferences.class);
+        ArbitratorService arbitratorService = mock(ArbitratorService.class);
+        FilterManager filterManager = mock(FilterManager.class);
+        when(filterManager.filterProperty()).thenReturn(new SimpleObjectProperty<>());
+        when(preferences.isAutoSelectArbitrators()).thenReturn(true);
+        when(user.getAcceptedArbitrators()).thenReturn(new ArrayList<>());
+        when(user.hasMatchingLanguage(any(Arbitrator.class))).thenReturn(true);
+
+        Map<NodeAddress, Arbitrator> arbitratorMap = new HashMap<>();
+        for (int i = 0; i < numArbitrators; i++) {
+            NodeAddress nodeAddress = new NodeAddress("arbitrator:" + i);
+            PubKeyRing pubKeyRing = mock(PubKeyRing.class);
+            when(pubKeyRing.getSignaturePubKey()).thenReturn(mock(PublicKey.class));
+            arbitratorMap.put(nodeAddress, new Arbitrator(nodeAddress, null, null, pubKeyRing,
+                    Collections.singletonList("en"), 0L, new byte[]{(byte) i}, "sig" + i, null,
+                    null, null));
+        }
+        when(arbitratorService.getArbitrators()).thenReturn(arbitratorMap);
+
+        ArbitratorManager manager = spy(new ArbitratorManager(null, arbitratorService, user, preferences, filterManager, false));
+        doReturn(true).when(manager).isPublicKeyInList(anyString());
+        doReturn(true).when(manager).verifySignature(any(), any(), anyString());
+        manager.onAllServicesInitialized();
+        return manager;
+    }
 }
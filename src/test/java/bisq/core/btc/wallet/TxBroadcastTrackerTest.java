@@ -0,0 +1,319 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Transaction;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TxBroadcastTrackerTest {
+    private static final TxBroadcaster.TimeoutPolicy POLICY = new TxBroadcaster.TimeoutPolicy(8, false);
+    private static final TxBroadcaster.TimeoutPolicy LENIENT_POLICY = new TxBroadcaster.TimeoutPolicy(8, true);
+
+    // Local mock of the PeerGroup which lets the test complete the broadcast futures
+    private static class MockPeerGroup implements TxBroadcastTracker.PeerGroupBroadcaster {
+        private final Map<String, SettableFuture<Transaction>> futureByTxId = new HashMap<>();
+        private int numBroadcasts;
+
+        @Override
+        public synchronized SettableFuture<Transaction> broadcastTransaction(Transaction tx) {
+            numBroadcasts++;
+            SettableFuture<Transaction> future = SettableFuture.create();
+            futureByTxId.put(tx.getHashAsString(), future);
+            return future;
+        }
+
+        private synchronized SettableFuture<Transaction> getFuture(String txId) {
+            return futureByTxId.get(txId);
+        }
+    }
+
+    private static class RecordingCallback implements TxBroadcaster.Callback {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public synchronized void onSuccess(Transaction transaction) {
+            events.add("success");
+        }
+
+        @Override
+        public synchronized void onTimeout(TxBroadcastTimeoutException exception) {
+            events.add("timeout");
+        }
+
+        @Override
+        public synchronized void onTxMalleability(TxMalleabilityException exception) {
+            events.add("malleability");
+        }
+
+        @Override
+        public synchronized void onFailure(TxBroadcastException exception) {
+            events.add("failure");
+        }
+
+        private synchronized List<String> getEvents() {
+            return new ArrayList<>(events);
+        }
+    }
+
+    private MockPeerGroup peerGroup;
+    private List<Runnable> timeoutTasks;
+    private AtomicInteger numCancelledTimeouts;
+    private List<Transaction> committedTxs;
+    private List<String> acceptedTxIds;
+    private TxBroadcastTracker tracker;
+
+    @Before
+    public void setUp() {
+        peerGroup = new MockPeerGroup();
+        timeoutTasks = new ArrayList<>();
+        numCancelledTimeouts = new AtomicInteger();
+        committedTxs = new ArrayList<>();
+        acceptedTxIds = new ArrayList<>();
+        tracker = new TxBroadcastTracker(Runnable::run, (task, delayMs) -> {
+            synchronized (timeoutTasks) {
+                timeoutTasks.add(task);
+            }
+            return numCancelledTimeouts::incrementAndGet;
+        });
+    }
+
+    @Test
+    public void testSuccess() {
+        Transaction tx = mockTx("tx1");
+        RecordingCallback callback = broadcast(tx, POLICY);
+        assertEquals(1, tracker.getNumPendingBroadcasts());
+
+        peerGroup.getFuture("tx1").set(tx);
+
+        assertEquals(listOf("success"), callback.getEvents());
+        assertEquals(listOf(tx), committedTxs);
+        assertEquals(1, numCancelledTimeouts.get());
+        assertEquals(0, tracker.getNumPendingBroadcasts());
+    }
+
+    @Test
+    public void testTimeout() {
+        Transaction tx = mockTx("tx1");
+        RecordingCallback callback = broadcast(tx, POLICY);
+
+        timeoutTasks.get(0).run();
+        assertEquals(listOf("timeout"), callback.getEvents());
+        assertEquals(0, tracker.getNumPendingBroadcasts());
+
+        // A late success is reported as failure and the tx does not get committed
+        peerGroup.getFuture("tx1").set(tx);
+        assertEquals(listOf("timeout", "failure"), callback.getEvents());
+        assertTrue(committedTxs.isEmpty());
+    }
+
+    @Test
+    public void testTimeoutWithPeerAcks() {
+        Transaction tx1 = mockTx("tx1");
+        Transaction tx2 = mockTx("tx2");
+        RecordingCallback callback1 = broadcast(tx1, LENIENT_POLICY);
+        RecordingCallback callback2 = broadcast(tx2, LENIENT_POLICY);
+
+        tracker.onPeerAck("tx1", 2);
+        timeoutTasks.forEach(Runnable::run);
+
+        assertEquals(listOf("success"), callback1.getEvents());
+        assertEquals(listOf(tx1), committedTxs);
+        // Without any peer ack we still time out
+        assertEquals(listOf("timeout"), callback2.getEvents());
+
+        // A late result does not trigger a second callback
+        peerGroup.getFuture("tx1").set(tx1);
+        assertEquals(listOf("success"), callback1.getEvents());
+        assertEquals(1, committedTxs.size());
+    }
+
+    @Test
+    public void testFailureAndMalleability() {
+        Transaction tx1 = mockTx("tx1");
+        Transaction tx2 = mockTx("tx2");
+        RecordingCallback callback1 = broadcast(tx1, POLICY);
+        RecordingCallback callback2 = broadcast(tx2, POLICY);
+
+        peerGroup.getFuture("tx1").setException(new RuntimeException("test"));
+        peerGroup.getFuture("tx2").set(mockTx("malleated"));
+
+        assertEquals(listOf("failure"), callback1.getEvents());
+        assertEquals(listOf("malleability"), callback2.getEvents());
+        assertTrue(committedTxs.isEmpty());
+        assertEquals(2, numCancelledTimeouts.get());
+
+        // Timeouts which fire after the resolution are ignored
+        timeoutTasks.forEach(Runnable::run);
+        assertEquals(listOf("failure"), callback1.getEvents());
+        assertEquals(listOf("malleability"), callback2.getEvents());
+    }
+
+    @Test
+    public void testDuplicateBroadcast() {
+        Transaction tx = mockTx("tx1");
+        RecordingCallback callback1 = broadcast(tx, POLICY);
+        RecordingCallback callback2 = broadcast(tx, POLICY);
+
+        // The second call fails without a new broadcast, the first one is not affected
+        assertEquals(1, peerGroup.numBroadcasts);
+        assertEquals(listOf("failure"), callback2.getEvents());
+        assertEquals(listOf("tx1"), acceptedTxIds);
+
+        peerGroup.getFuture("tx1").set(tx);
+        assertEquals(listOf("success"), callback1.getEvents());
+
+        // After the first broadcast is resolved we can broadcast the tx again
+        RecordingCallback callback3 = broadcast(tx, POLICY);
+        assertEquals(2, peerGroup.numBroadcasts);
+        assertTrue(callback3.getEvents().isEmpty());
+        assertEquals(listOf("tx1", "tx1"), acceptedTxIds);
+    }
+
+    @Test
+    public void testStats() {
+        Transaction tx = mockTx("tx1");
+        broadcast(tx, POLICY);
+        assertNull(tracker.getStats("unknown"));
+
+        TxBroadcastTracker.BroadcastStats stats = tracker.getStats("tx1");
+        assertNotNull(stats);
+        assertEquals(0, stats.getNumPeerAcks());
+        assertEquals(-1, stats.getTimeToFirstPeerAck());
+        assertEquals(-1, stats.getTimeToFirstConfirmation());
+
+        peerGroup.getFuture("tx1").set(tx);
+        tracker.onPeerAck("tx1", 1);
+        tracker.onPeerAck("tx1", 3);
+        // Lower counts from a later confidence event are ignored
+        tracker.onPeerAck("tx1", 2);
+        tracker.onConfirmed("tx1");
+
+        stats = tracker.getStats("tx1");
+        assertEquals(3, stats.getNumPeerAcks());
+        assertTrue(stats.getTimeToFirstPeerAck() >= 0);
+        assertTrue(stats.getTimeToFirstConfirmation() >= stats.getTimeToFirstPeerAck());
+    }
+
+    @Test
+    public void testStatsAreBounded() {
+        for (int i = 0; i <= TxBroadcastTracker.MAX_STATS; i++) {
+            Transaction tx = mockTx("tx" + i);
+            broadcast(tx, POLICY);
+            peerGroup.getFuture("tx" + i).set(tx);
+        }
+        assertNull(tracker.getStats("tx0"));
+        assertNotNull(tracker.getStats("tx1"));
+    }
+
+    @Test
+    public void testConcurrentBroadcasts() throws InterruptedException {
+        int numTxs = 200;
+        List<Transaction> txs = new ArrayList<>();
+        List<RecordingCallback> callbacks = new ArrayList<>();
+        for (int i = 0; i < numTxs; i++) {
+            txs.add(mockTx("tx" + i));
+            callbacks.add(broadcast(txs.get(i), POLICY));
+        }
+
+        // Results and timeouts race on different threads, each broadcast must be resolved exactly once
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(2 * numTxs);
+        for (int i = 0; i < numTxs; i++) {
+            Transaction tx = txs.get(i);
+            Runnable timeoutTask = timeoutTasks.get(i);
+            executor.execute(() -> {
+                peerGroup.getFuture(tx.getHashAsString()).set(tx);
+                latch.countDown();
+            });
+            executor.execute(() -> {
+                timeoutTask.run();
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(0, tracker.getNumPendingBroadcasts());
+        int numSuccess = 0;
+        for (RecordingCallback callback : callbacks) {
+            List<String> events = callback.getEvents();
+            // The timeout and the failure of the late success are reported from different threads
+            events.sort(Comparator.naturalOrder());
+            assertTrue(events.equals(listOf("success")) || events.equals(listOf("failure", "timeout")));
+            if (events.equals(listOf("success")))
+                numSuccess++;
+        }
+        synchronized (committedTxs) {
+            assertEquals(numSuccess, committedTxs.size());
+        }
+    }
+
+    private RecordingCallback broadcast(Transaction tx, TxBroadcaster.TimeoutPolicy timeoutPolicy) {
+        RecordingCallback callback = new RecordingCallback();
+        int numBroadcasts = peerGroup.numBroadcasts;
+        tracker.broadcast(tx, peerGroup, transaction -> {
+            synchronized (committedTxs) {
+                committedTxs.add(transaction);
+            }
+        }, callback, timeoutPolicy, () -> {
+            // The accepted handler must be called before the tx gets broadcasted
+            assertEquals(numBroadcasts, peerGroup.numBroadcasts);
+            synchronized (acceptedTxIds) {
+                acceptedTxIds.add(tx.getHashAsString());
+            }
+        });
+        return callback;
+    }
+
+    private static Transaction mockTx(String txId) {
+        Transaction tx = mock(Transaction.class);
+        when(tx.getHashAsString()).thenReturn(txId);
+        return tx;
+    }
+
+    @SafeVarargs
+    private static <T> List<T> listOf(T... elements) {
+        List<T> list = new ArrayList<>();
+        for (T element : elements) {
+            list.add(element);
+        }
+        return list;
+    }
+}
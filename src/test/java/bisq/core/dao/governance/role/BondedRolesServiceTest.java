@@ -0,0 +1,178 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.role;
+
+import bisq.core.dao.state.BsqStateService;
+import bisq.core.dao.state.BsqStateServiceMaker;
+import bisq.core.dao.state.blockchain.Tx;
+
+import bisq.common.storage.Storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static bisq.core.dao.state.BsqStateServiceMaker.getLockupTx;
+import static bisq.core.dao.state.BsqStateServiceMaker.getUnlockTx;
+import static bisq.core.dao.state.BsqStateServiceMaker.newBsqStateService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.powermock.api.mockito.PowerMockito.mock;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Storage.class})
+public class BondedRolesServiceTest {
+    private BsqStateService bsqStateService;
+    private BondedRolesService bondedRolesService;
+    private int height;
+
+    @Before
+    public void setup() {
+        bsqStateService = newBsqStateService();
+        //noinspection unchecked
+        bondedRolesService = new BondedRolesService(mock(Storage.class), bsqStateService);
+        height = BsqStateServiceMaker.GENESIS_HEIGHT;
+    }
+
+    @Test
+    public void testLockupAndUnlockAreApplied() {
+        BondedRole bondedRole = new BondedRole("name", "link", BondedRoleType.ARBITRATOR);
+        bondedRolesService.addAcceptedBondedRole(bondedRole);
+
+        parseBlock(Collections.emptyList());
+        parseBlock(Collections.singletonList(getLockupTx("lockup", height + 1, bondedRole.getHash())));
+        assertEquals("lockup", bondedRole.getLockupTxId());
+        assertEquals(height * 600L, bondedRole.getStartDate());
+        assertNull(bondedRole.getUnlockTxId());
+
+        parseBlock(Collections.singletonList(getUnlockTx("unlock", height + 1, "lockup")));
+        assertEquals("unlock", bondedRole.getUnlockTxId());
+        assertEquals(height * 600L, bondedRole.getRevokeDate());
+        assertTrue(bondedRolesService.getBondedRoleFromHash(bondedRole.getHash()).isPresent());
+    }
+
+    @Test
+    public void testRoleAcceptedAfterLockup() {
+        BondedRole bondedRole = new BondedRole("name", "link", BondedRoleType.ARBITRATOR);
+        parseBlock(Collections.singletonList(getLockupTx("lockup", height + 1, bondedRole.getHash())));
+        parseBlock(Collections.emptyList());
+
+        bondedRolesService.addAcceptedBondedRole(bondedRole);
+        assertEquals("lockup", bondedRole.getLockupTxId());
+    }
+
+    @Test
+    public void testIndexIsRebuiltAfterReorg() {
+        BondedRole bondedRole = new BondedRole("name", "link", BondedRoleType.ARBITRATOR);
+        parseBlock(Collections.emptyList());
+        parseBlock(Collections.singletonList(getLockupTx("lockup", height + 1, bondedRole.getHash())));
+        assertTrue(bsqStateService.undoLastBlock());
+        height--;
+
+        // The lockup tx is not in the new chain
+        parseBlock(Collections.emptyList());
+        bondedRolesService.addAcceptedBondedRole(bondedRole);
+        assertNull(bondedRole.getLockupTxId());
+    }
+
+    @Test
+    public void testUndoneLockupAndUnlockAreRemovedAfterReorg() {
+        BondedRole bondedRole = new BondedRole("name", "link", BondedRoleType.ARBITRATOR);
+        bondedRolesService.addAcceptedBondedRole(bondedRole);
+        parseBlock(Collections.emptyList());
+        parseBlock(Collections.singletonList(getLockupTx("lockup", height + 1, bondedRole.getHash())));
+        parseBlock(Collections.singletonList(getUnlockTx("unlock", height + 1, "lockup")));
+        assertEquals("unlock", bondedRole.getUnlockTxId());
+
+        // The unlock tx is not in the new chain
+        assertTrue(bsqStateService.undoLastBlock());
+        height--;
+        parseBlock(Collections.emptyList());
+        assertEquals("lockup", bondedRole.getLockupTxId());
+        assertNull(bondedRole.getUnlockTxId());
+        assertEquals(0, bondedRole.getRevokeDate());
+
+        // Neither the lockup tx is in the new chain
+        assertTrue(bsqStateService.undoLastBlock());
+        assertTrue(bsqStateService.undoLastBlock());
+        height -= 2;
+        parseBlock(Collections.emptyList());
+        assertNull(bondedRole.getLockupTxId());
+        assertEquals(0, bondedRole.getStartDate());
+
+        // A lockup tx in the new chain gets applied
+        parseBlock(Collections.singletonList(getLockupTx("otherLockup", height + 1, bondedRole.getHash())));
+        assertEquals("otherLockup", bondedRole.getLockupTxId());
+    }
+
+    // Per block cost must not depend on the number of bonds. The former implementation iterated over all roles times
+    // all lockup outputs and looked up each lockup tx in all blocks.
+    @Test
+    public void testBondsVisitedPerBlockDoNotGrowWithNumberOfBonds() {
+        assertBondsVisitedPerBlock(20);
+        setup();
+        assertBondsVisitedPerBlock(2000);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void assertBondsVisitedPerBlock(int numBonds) {
+        List<BondedRole> bondedRoles = new ArrayList<>();
+        for (int i = 0; i < numBonds; i++) {
+            BondedRole bondedRole = new BondedRole("name" + i, "link", BondedRoleType.ARBITRATOR);
+            bondedRoles.add(bondedRole);
+            bondedRolesService.addAcceptedBondedRole(bondedRole);
+        }
+        // The first block gets indexed together with all blocks of the chain
+        parseBlock(Collections.emptyList());
+        assertEquals(numBonds, bondedRolesService.getNumBondsVisitedAtLastBlock());
+
+        // 10 lockups per block
+        for (int i = 0; i < numBonds; i += 10) {
+            List<Tx> txs = new ArrayList<>();
+            for (int j = i; j < Math.min(i + 10, numBonds); j++) {
+                txs.add(getLockupTx("lockup" + j, height + 1, bondedRoles.get(j).getHash()));
+            }
+            parseBlock(txs);
+            assertEquals(txs.size(), bondedRolesService.getNumBondsVisitedAtLastBlock());
+        }
+
+        // Each new block unlocks one bond
+        for (int i = 0; i < 20; i++) {
+            parseBlock(Collections.singletonList(getUnlockTx("unlock" + i, height + 1, "lockup" + i)));
+            assertEquals(1, bondedRolesService.getNumBondsVisitedAtLastBlock());
+            assertEquals("unlock" + i, bondedRoles.get(i).getUnlockTxId());
+        }
+    }
+
+    private void parseBlock(List<Tx> txs) {
+        height++;
+        BsqStateServiceMaker.parseBlock(bsqStateService, height, txs);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.state.BsqState;
+import bisq.core.dao.state.BsqStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.blockchain.RawTx;
+import bisq.core.dao.state.blockchain.RawTxOutput;
+import bisq.core.dao.state.blockchain.TxInput;
+import bisq.core.dao.state.blockchain.TxOutput;
+import bisq.core.dao.state.blockchain.TxOutputType;
+
+import org.bitcoinj.core.Coin;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@Slf4j
+public class BlockParserPreFilterTest {
+    private static final String GENESIS_TX_ID = "genesisTxId";
+    private static final int GENESIS_BLOCK_HEIGHT = 200;
+    private static final Coin GENESIS_TOTAL_SUPPLY = Coin.parseCoin("2.5");
+
+    private BsqStateService bsqStateService;
+    private TxParser txParser;
+    private BlockParser blockParser;
+    private Random random;
+
+    @Before
+    public void setup() {
+        bsqStateService = new BsqStateService(new BsqState(), new GenesisTxInfo(GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT));
+        txParser = new TxParser(new TxInputParser(bsqStateService), mock(TxOutputParser.class));
+        blockParser = new BlockParser(txParser, bsqStateService);
+        random = new Random(1);
+    }
+
+    @Test
+    public void testIsBsqTxCandidate() {
+        List<TxOutput> unspentTxOutputs = addUnspentTxOutputs(20_000);
+
+        RawTx genesisTx = new RawTx(GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT, "hash", 0,
+                ImmutableList.of(), ImmutableList.of());
+        assertTrue(blockParser.isBsqTxCandidate(genesisTx));
+
+        // No false negatives
+        unspentTxOutputs.forEach(txOutput ->
+                assertTrue(blockParser.isBsqTxCandidate(getRawTx(txOutput.getTxId(), txOutput.getIndex()))));
+
+        // Remove half of the outputs which triggers a rebuild of the filter
+        List<TxOutput> remaining = new ArrayList<>();
+        for (int i = 0; i < unspentTxOutputs.size(); i++) {
+            if (i % 2 == 0)
+                bsqStateService.removeUnspentTxOutput(unspentTxOutputs.get(i));
+            else
+                remaining.add(unspentTxOutputs.get(i));
+        }
+        remaining.forEach(txOutput ->
+                assertTrue(blockParser.isBsqTxCandidate(getRawTx(txOutput.getTxId(), txOutput.getIndex()))));
+
+        // False positive rate of non BSQ txs with 2 inputs should be low
+        int numFalsePositives = 0;
+        int numTxs = 10_000;
+        for (int i = 0; i < numTxs; i++) {
+            if (blockParser.isBsqTxCandidate(getNonBsqRawTx()))
+                numFalsePositives++;
+        }
+        log.info("False positives: {} of {} non BSQ txs", numFalsePositives, numTxs);
+        assertTrue(numFalsePositives < numTxs * 5 / 100);
+    }
+
+    // Compares the parsing throughput of blocks with only non BSQ txs with and without the pre-filter.
+    // Results are logged, we only assert that both produce the same result.
+    @Test
+    public void testBenchmark() {
+        addUnspentTxOutputs(100_000);
+        List<RawTx> rawTxs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rawTxs.add(getNonBsqRawTx());
+        }
+        int numBlocks = 50;
+
+        long ts = System.nanoTime();
+        int numBsqTxsWithoutFilter = 0;
+        for (int block = 0; block < numBlocks; block++) {
+            for (RawTx rawTx : rawTxs) {
+                if (txParser.findTx(rawTx, GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT, GENESIS_TOTAL_SUPPLY).isPresent())
+                    numBsqTxsWithoutFilter++;
+            }
+        }
+        long withoutFilterNs = System.nanoTime() - ts;
+
+        ts = System.nanoTime();
+        int numBsqTxsWithFilter = 0;
+        for (int block = 0; block < numBlocks; block++) {
+            for (RawTx rawTx : rawTxs) {
+                if (blockParser.isBsqTxCandidate(rawTx) &&
+                        txParser.findTx(rawTx, GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT, GENESIS_TOTAL_SUPPLY).isPresent())
+                    numBsqTxsWithFilter++;
+            }
+        }
+        long withFilterNs = System.nanoTime() - ts;
+
+        log.info("Parsing {} blocks with {} txs: without filter {} ms, with filter {} ms",
+                numBlocks, rawTxs.size(), withoutFilterNs / 1_000_000, withFilterNs / 1_000_000);
+        assertEquals(0, numBsqTxsWithoutFilter);
+        assertEquals(numBsqTxsWithoutFilter, numBsqTxsWithFilter);
+        assertFalse(rawTxs.isEmpty());
+    }
+
+    private List<TxOutput> addUnspentTxOutputs(int numOutputs) {
+        List<TxOutput> txOutputs = new ArrayList<>();
+        for (int i = 0; i < numOutputs; i++) {
+            TxOutput txOutput = new TxOutput(i % 3, 1000, getRandomTxId(), null, null, null,
+                    GENESIS_BLOCK_HEIGHT + 1, TxOutputType.BSQ_OUTPUT);
+            bsqStateService.addUnspentTxOutput(txOutput);
+            txOutputs.add(txOutput);
+        }
+        return txOutputs;
+    }
+
+    private RawTx getNonBsqRawTx() {
+        return new RawTx(getRandomTxId(), GENESIS_BLOCK_HEIGHT + 10, "hash", 0,
+                ImmutableList.of(new TxInput(getRandomTxId(), 0, null), new TxInput(getRandomTxId(), 1, null)),
+                ImmutableList.of(new RawTxOutput(0, 1000, null, null, null, null, GENESIS_BLOCK_HEIGHT + 10)));
+    }
+
+    private RawTx getRawTx(String connectedTxId, int connectedIndex) {
+        return new RawTx(getRandomTxId(), GENESIS_BLOCK_HEIGHT + 10, "hash", 0,
+                ImmutableList.of(new TxInput(connectedTxId, connectedIndex, null)),
+                ImmutableList.of());
+    }
+
+    private String getRandomTxId() {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < 64; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sb.toString();
+    }
+}
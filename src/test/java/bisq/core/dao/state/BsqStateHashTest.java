@@ -0,0 +1,195 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.blockchain.PubKeyScript;
+import bisq.core.dao.state.blockchain.ScriptType;
+import bisq.core.dao.state.blockchain.SpentInfo;
+import bisq.core.dao.state.blockchain.TxOutput;
+import bisq.core.dao.state.blockchain.TxOutputType;
+import bisq.core.dao.state.governance.Issuance;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.dao.state.BsqStateServiceMaker.addBlock;
+import static bisq.core.dao.state.BsqStateServiceMaker.getTxOutput;
+import static bisq.core.dao.state.BsqStateServiceMaker.newBsqStateService;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BsqStateHashTest {
+    private BsqStateService nodeA;
+    private BsqStateService nodeB;
+
+    @Before
+    public void setup() {
+        nodeA = newBsqStateService();
+        nodeB = newBsqStateService();
+    }
+
+    @Test
+    public void testSameMutationsGiveSameHash() {
+        for (int height = 101; height <= 105; height++) {
+            parseBlock(nodeA, height, false);
+            parseBlock(nodeB, height, false);
+            assertArrayEquals(nodeA.getStateHash(height).get(), nodeB.getStateHash(height).get());
+        }
+        assertEquals(5, nodeA.getStateHashes(0, 1000).size());
+    }
+
+    @Test
+    public void testDivergenceIsDetectedAtFirstDivergentHeight() {
+        for (int height = 101; height <= 110; height++) {
+            parseBlock(nodeA, height, false);
+            // Node B gets an additional output at height 106, e.g. caused by a parser bug
+            parseBlock(nodeB, height, height == 106);
+        }
+
+        assertEquals(Optional.of(106), getFirstDivergentHeight(nodeA.getStateHashes(101, 110),
+                nodeB.getStateHashes(101, 110)));
+        // The divergence persists for all following blocks
+        for (int height = 106; height <= 110; height++) {
+            assertFalse(Arrays.equals(nodeA.getStateHash(height).get(), nodeB.getStateHash(height).get()));
+        }
+    }
+
+    @Test
+    public void testHashDoesNotDependOnOrderOfMutations() {
+        TxOutput txOutput1 = getTxOutput("tx1", 0, 101);
+        TxOutput txOutput2 = getTxOutput("tx2", 0, 101);
+        TxOutput txOutput3 = getTxOutput("tx3", 0, 101);
+
+        addBlock(nodeA, 101);
+        nodeA.addUnspentTxOutput(txOutput1);
+        nodeA.addUnspentTxOutput(txOutput2);
+        nodeA.addUnspentTxOutput(txOutput3);
+        nodeA.removeUnspentTxOutput(txOutput2);
+        nodeA.onParseBlockComplete(nodeA.getLastBlock().get());
+
+        addBlock(nodeB, 101);
+        nodeB.addUnspentTxOutput(txOutput3);
+        nodeB.addUnspentTxOutput(txOutput1);
+        nodeB.onParseBlockComplete(nodeB.getLastBlock().get());
+
+        assertArrayEquals(nodeA.getStateHash(101).get(), nodeB.getStateHash(101).get());
+    }
+
+    @Test
+    public void testHashDoesNotDependOnDumpBlockchainData() {
+        // Only nodes with dumpBlockchainData set the pubKeyScript
+        PubKeyScript pubKeyScript = new PubKeyScript(1, ScriptType.PUB_KEY_HASH, ImmutableList.of("address"),
+                "asm", "hex");
+        TxOutput withPubKeyScript = new TxOutput(0, 1000, "tx1", pubKeyScript, "address", null, 101,
+                TxOutputType.BSQ_OUTPUT);
+        TxOutput withoutPubKeyScript = new TxOutput(0, 1000, "tx1", null, "address", null, 101,
+                TxOutputType.BSQ_OUTPUT);
+
+        addBlock(nodeA, 101);
+        nodeA.addUnspentTxOutput(withPubKeyScript);
+        nodeA.onParseBlockComplete(nodeA.getLastBlock().get());
+
+        addBlock(nodeB, 101);
+        nodeB.addUnspentTxOutput(withoutPubKeyScript);
+        nodeB.onParseBlockComplete(nodeB.getLastBlock().get());
+
+        assertArrayEquals(nodeA.getStateHash(101).get(), nodeB.getStateHash(101).get());
+    }
+
+    @Test
+    public void testEntryEncodingCoversConsensusFields() {
+        TxOutput txOutput = getTxOutput("tx1", 0, 101);
+        assertFalse(Arrays.equals(BsqStateHash.encode(txOutput), BsqStateHash.encode(getTxOutput("tx1", 1, 101))));
+        assertFalse(Arrays.equals(BsqStateHash.encode(txOutput), BsqStateHash.encode(getTxOutput("tx1", 0, 102))));
+        assertFalse(Arrays.equals(BsqStateHash.encode(txOutput), BsqStateHash.encode(new TxOutput(0, 1000, "tx1",
+                null, null, null, 101, TxOutputType.LOCKUP))));
+        assertFalse(Arrays.equals(BsqStateHash.encode(new Issuance("tx1", 101, 1000, null)),
+                BsqStateHash.encode(new Issuance("tx1", 101, 1000, "pubKey"))));
+    }
+
+    @Test
+    public void testSnapshotGivesSameHashAsParsing() {
+        for (int height = 101; height <= 105; height++) {
+            parseBlock(nodeA, height, false);
+        }
+        nodeA.addIssuance(new Issuance("tx105", 105, 1000, null));
+        nodeA.applyConfiscateBond(getTxOutput("tx104", 0, 104));
+        addBlock(nodeA, 106);
+        nodeA.onParseBlockComplete(nodeA.getLastBlock().get());
+
+        nodeB.applySnapshot(nodeA.getClone());
+
+        assertArrayEquals(nodeA.getStateHash(106).get(), nodeB.getStateHash(106).get());
+        // Older hashes are not part of the snapshot
+        assertFalse(nodeB.getStateHash(105).isPresent());
+    }
+
+    @Test
+    public void testGetStateHashes() {
+        for (int height = 101; height <= 110; height++) {
+            parseBlock(nodeA, height, false);
+        }
+        NavigableMap<Integer, byte[]> stateHashes = nodeA.getStateHashes(103, 105);
+        assertEquals(3, stateHashes.size());
+        assertEquals(103, (int) stateHashes.firstKey());
+        assertEquals(105, (int) stateHashes.lastKey());
+        assertTrue(nodeA.getStateHashes(105, 103).isEmpty());
+        assertFalse(nodeA.getStateHash(111).isPresent());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Each block creates one output, spends the output of the previous block and records the spent info
+    private static void parseBlock(BsqStateService bsqStateService, int height, boolean addDivergentOutput) {
+        addBlock(bsqStateService, height);
+
+        TxOutput txOutput = getTxOutput("tx" + height, 0, height);
+        bsqStateService.addUnspentTxOutput(txOutput);
+        if (addDivergentOutput)
+            bsqStateService.addUnspentTxOutput(getTxOutput("tx" + height, 1, height));
+
+        bsqStateService.getUnspentTxOutput(getTxOutput("tx" + (height - 1), 0, height - 1).getKey())
+                .ifPresent(spentTxOutput -> {
+                    bsqStateService.removeUnspentTxOutput(spentTxOutput);
+                    bsqStateService.setSpentInfo(spentTxOutput.getKey(), new SpentInfo(height, "tx" + height, 0));
+                });
+
+        bsqStateService.onParseBlockComplete(bsqStateService.getLastBlock().get());
+    }
+
+    private static Optional<Integer> getFirstDivergentHeight(NavigableMap<Integer, byte[]> ours,
+                                                             NavigableMap<Integer, byte[]> theirs) {
+        return ours.entrySet().stream()
+                .filter(e -> theirs.containsKey(e.getKey()))
+                .filter(e -> !Arrays.equals(e.getValue(), theirs.get(e.getKey())))
+                .map(Map.Entry::getKey)
+                .findFirst();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.blockchain.SpentInfo;
+import bisq.core.dao.state.governance.Issuance;
+import bisq.core.dao.state.period.Cycle;
+
+import io.bisq.generated.protobuffer.PB;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.dao.state.BsqStateServiceMaker.addBlock;
+import static bisq.core.dao.state.BsqStateServiceMaker.getTxOutput;
+import static bisq.core.dao.state.BsqStateServiceMaker.newBsqStateService;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BsqStateJournalTest {
+    private BsqStateService bsqStateService;
+    private BsqStateService reference;
+
+    @Before
+    public void setup() {
+        bsqStateService = newBsqStateService();
+        reference = newBsqStateService();
+    }
+
+    @Test
+    public void testUndoRestoresStateOfForkPoint() {
+        for (int height = 101; height <= 106; height++) {
+            parseBlock(bsqStateService, height, "a");
+        }
+        for (int height = 101; height <= 103; height++) {
+            parseBlock(reference, height, "a");
+        }
+
+        // Reorg of depth 3
+        assertTrue(bsqStateService.undoLastBlock());
+        assertTrue(bsqStateService.undoLastBlock());
+        assertTrue(bsqStateService.undoLastBlock());
+
+        assertState(reference, bsqStateService);
+        assertArrayEquals(reference.getStateHash(103).get(), bsqStateService.getStateHash(103).get());
+        assertFalse(bsqStateService.getStateHash(104).isPresent());
+
+        // Parsing the blocks of the new chain gives the same state as if we never had seen the old chain
+        for (int height = 104; height <= 107; height++) {
+            parseBlock(bsqStateService, height, "b");
+            parseBlock(reference, height, "b");
+            assertArrayEquals(reference.getStateHash(height).get(), bsqStateService.getStateHash(height).get());
+        }
+        assertState(reference, bsqStateService);
+    }
+
+    @Test
+    public void testUndoOfOverwrittenEntry() {
+        parseBlock(bsqStateService, 101, "a");
+        parseBlock(reference, 101, "a");
+
+        addBlock(bsqStateService, 102);
+        bsqStateService.addIssuance(new Issuance("tx101a", 102, 2000, null));
+        bsqStateService.onParseBlockComplete(bsqStateService.getLastBlock().get());
+
+        assertTrue(bsqStateService.undoLastBlock());
+        assertEquals(1000, bsqStateService.getIssuance("tx101a").get().getAmount());
+        assertState(reference, bsqStateService);
+    }
+
+    @Test
+    public void testJournalIsBounded() {
+        int numBlocks = BsqStateJournal.MAX_DEPTH + 10;
+        for (int height = 101; height < 101 + numBlocks; height++) {
+            parseBlock(bsqStateService, height, "a");
+        }
+        assertEquals(BsqStateJournal.MAX_DEPTH, bsqStateService.getUndoDepth());
+
+        for (int i = 0; i < BsqStateJournal.MAX_DEPTH; i++) {
+            assertTrue(bsqStateService.undoLastBlock());
+        }
+        assertFalse(bsqStateService.undoLastBlock());
+        assertEquals(110, bsqStateService.getBlockHeightOfLastBlock());
+    }
+
+    @Test
+    public void testApplySnapshotClearsJournal() {
+        for (int height = 101; height <= 103; height++) {
+            parseBlock(bsqStateService, height, "a");
+        }
+        bsqStateService.applySnapshot(bsqStateService.getClone());
+        assertEquals(0, bsqStateService.getUndoDepth());
+        assertFalse(bsqStateService.undoLastBlock());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Each block creates one output, spends the output of the previous block, adds an issuance and at every
+    // third block a new cycle
+    private static void parseBlock(BsqStateService bsqStateService, int height, String chain) {
+        addBlock(bsqStateService, height);
+        if (height % 3 == 0)
+            bsqStateService.getCycles().add(Cycle.fromProto(PB.Cycle.newBuilder().setHeightOfFirstLock(height).build()));
+
+        String txId = "tx" + height + chain;
+        bsqStateService.addUnspentTxOutput(getTxOutput(txId, 0, height));
+        bsqStateService.getUnspentTxOutputMap().values().stream()
+                .filter(txOutput -> txOutput.getBlockHeight() == height - 1)
+                .findAny()
+                .ifPresent(spentTxOutput -> {
+                    bsqStateService.removeUnspentTxOutput(spentTxOutput);
+                    bsqStateService.setSpentInfo(spentTxOutput.getKey(), new SpentInfo(height, txId, 0));
+                });
+        bsqStateService.addIssuance(new Issuance(txId, height, 1000, null));
+
+        bsqStateService.onParseBlockComplete(bsqStateService.getLastBlock().get());
+    }
+
+    private static void assertState(BsqStateService expected, BsqStateService actual) {
+        assertEquals(expected.getChainHeight(), actual.getChainHeight());
+        assertEquals(expected.getBlocks(), actual.getBlocks());
+        assertEquals(expected.getCycles(), actual.getCycles());
+        assertEquals(expected.getUnspentTxOutputMap(), actual.getUnspentTxOutputMap());
+        assertEquals(expected.getIssuanceSet(), actual.getIssuanceSet());
+        assertEquals(expected.getClone().getSpentInfoMap(), actual.getClone().getSpentInfoMap());
+    }
+}
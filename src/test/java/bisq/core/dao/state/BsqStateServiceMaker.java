@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.blockchain.Block;
+import bisq.core.dao.state.blockchain.RawTx;
+import bisq.core.dao.state.blockchain.RawTxOutput;
+import bisq.core.dao.state.blockchain.TempTx;
+import bisq.core.dao.state.blockchain.Tx;
+import bisq.core.dao.state.blockchain.TxInput;
+import bisq.core.dao.state.blockchain.TxOutput;
+import bisq.core.dao.state.blockchain.TxOutputType;
+import bisq.core.dao.state.blockchain.TxType;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * Creates a BsqStateService and the blocks, txs and outputs used by the tests of the DAO state and of the services
+ * listening to it. The block at a height has the hash "hash" + height and the time height * 600.
+ */
+public class BsqStateServiceMaker {
+    public static final int GENESIS_HEIGHT = 100;
+
+    public static BsqStateService newBsqStateService() {
+        return new BsqStateService(new BsqState(), new GenesisTxInfo(null, GENESIS_HEIGHT));
+    }
+
+    // Adds an empty block. Txs and state changes can be added before onParseBlockComplete gets called.
+    public static Block addBlock(BsqStateService bsqStateService, int height) {
+        bsqStateService.onNewBlockHeight(height);
+        Block block = new Block(height, getBlockTime(height), getBlockHash(height), getBlockHash(height - 1));
+        bsqStateService.onNewBlockWithEmptyTxs(block);
+        return block;
+    }
+
+    public static Block parseBlock(BsqStateService bsqStateService, int height, List<Tx> txs) {
+        Block block = addBlock(bsqStateService, height);
+        block.getTxs().addAll(txs);
+        bsqStateService.onParseBlockComplete(block);
+        return block;
+    }
+
+    public static TxOutput getTxOutput(String txId, int index, int height) {
+        return new TxOutput(index, 1000 + index, txId, null, null, null, height, TxOutputType.BSQ_OUTPUT);
+    }
+
+    // Tx spending the first output of spentTxId with one output of 1000 satoshi
+    public static Tx getTx(String txId, int height, TxType txType, String spentTxId, TxOutputType txOutputType) {
+        return toTx(new RawTx(txId, height, getBlockHash(height), getBlockTime(height),
+                        ImmutableList.of(new TxInput(spentTxId, 0, null)),
+                        ImmutableList.of(new RawTxOutput(0, 1000, txId, null, null, null, height))),
+                txType, txOutputType);
+    }
+
+    public static Tx getLockupTx(String txId, int height, byte[] hash) {
+        byte[] opReturnData = new byte[25];
+        System.arraycopy(hash, 0, opReturnData, 5, hash.length);
+        return toTx(new RawTx(txId, height, getBlockHash(height), getBlockTime(height),
+                        ImmutableList.of(new TxInput("funding" + txId, 0, null)),
+                        ImmutableList.of(new RawTxOutput(0, 1000, txId, null, null, null, height),
+                                new RawTxOutput(1, 0, txId, null, null, opReturnData, height))),
+                TxType.LOCKUP, TxOutputType.LOCKUP, TxOutputType.LOCKUP_OP_RETURN_OUTPUT);
+    }
+
+    public static Tx getUnlockTx(String txId, int height, String lockupTxId) {
+        return getTx(txId, height, TxType.UNLOCK, lockupTxId, TxOutputType.UNLOCK);
+    }
+
+    private static Tx toTx(RawTx rawTx, TxType txType, TxOutputType... txOutputTypes) {
+        TempTx tempTx = TempTx.fromRawTx(rawTx);
+        tempTx.setTxType(txType);
+        for (int i = 0; i < txOutputTypes.length; i++) {
+            tempTx.getTempTxOutputs().get(i).setTxOutputType(txOutputTypes[i]);
+        }
+        return Tx.fromTempTx(tempTx);
+    }
+
+    private static String getBlockHash(int height) {
+        return "hash" + height;
+    }
+
+    private static long getBlockTime(int height) {
+        return height * 600L;
+    }
+}
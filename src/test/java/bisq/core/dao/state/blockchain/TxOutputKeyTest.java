@@ -0,0 +1,139 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state.blockchain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class TxOutputKeyTest {
+    private static final String TX_ID = "2e0b5ae0e4a5f5dd3c3ba6dc3a4fca06bcc0a2d0e6e2d4b86ddbc2c4a3b3c1ff";
+
+    @Test
+    public void testHexTxId() {
+        TxOutputKey key = new TxOutputKey(TX_ID, 3);
+        assertEquals(TX_ID, key.getTxId());
+        assertEquals(3, key.getIndex());
+        assertEquals(TX_ID + ":3", key.toString());
+        assertEquals(key, TxOutputKey.getKeyFromString(key.toString()));
+        assertEquals(key.hashCode(), TxOutputKey.getKeyFromString(key.toString()).hashCode());
+        assertNotEquals(key, new TxOutputKey(TX_ID, 4));
+        assertNotEquals(key, new TxOutputKey(TX_ID.substring(0, 63) + "e", 3));
+    }
+
+    @Test
+    public void testNonHexTxId() {
+        TxOutputKey key = new TxOutputKey("tx1", 0);
+        assertEquals("tx1", key.getTxId());
+        assertEquals("tx1:0", key.toString());
+        assertEquals(key, TxOutputKey.getKeyFromString("tx1:0"));
+        assertNotEquals(key, new TxOutputKey("tx2", 0));
+
+        // Upper case hex is not the format of a tx hash so we keep the string to preserve toString
+        String upperCaseTxId = TX_ID.toUpperCase();
+        TxOutputKey upperCaseKey = new TxOutputKey(upperCaseTxId, 1);
+        assertEquals(upperCaseTxId + ":1", upperCaseKey.toString());
+        assertNotEquals(upperCaseKey, new TxOutputKey(TX_ID, 1));
+    }
+
+    // Compares heap footprint and lookup throughput of the compact key with the former string based key on a
+    // synthetic UTXO set. Results are logged, we only assert the lookups.
+    @Test
+    public void testBenchmark() {
+        int numKeys = 200_000;
+        Random random = new Random(1);
+        String[] txIds = new String[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            txIds[i] = getRandomTxId(random);
+        }
+
+        long heapBefore = getUsedHeap();
+        Map<TxOutputKey, Integer> compactMap = new HashMap<>();
+        for (int i = 0; i < numKeys; i++) {
+            compactMap.put(TxOutputKey.getKeyFromString(txIds[i] + ":" + (i % 4)), i);
+        }
+        long compactHeap = getUsedHeap() - heapBefore;
+
+        heapBefore = getUsedHeap();
+        Map<String, Integer> stringMap = new HashMap<>();
+        for (int i = 0; i < numKeys; i++) {
+            // New string instances as it would be the case when reading from protobuf
+            stringMap.put(new String(txIds[i] + ":" + (i % 4)), i);
+        }
+        long stringHeap = getUsedHeap() - heapBefore;
+
+        TxOutputKey[] lookupKeys = new TxOutputKey[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            lookupKeys[i] = new TxOutputKey(txIds[i], i % 4);
+        }
+        long ts = System.nanoTime();
+        int numFound = 0;
+        for (int round = 0; round < 5; round++) {
+            for (TxOutputKey key : lookupKeys) {
+                if (compactMap.containsKey(key))
+                    numFound++;
+            }
+        }
+        long compactLookupNs = System.nanoTime() - ts;
+        assertEquals(5 * numKeys, numFound);
+
+        String[] lookupStrings = new String[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            lookupStrings[i] = txIds[i] + ":" + (i % 4);
+        }
+        ts = System.nanoTime();
+        numFound = 0;
+        for (int round = 0; round < 5; round++) {
+            for (String key : lookupStrings) {
+                if (stringMap.containsKey(key))
+                    numFound++;
+            }
+        }
+        long stringLookupNs = System.nanoTime() - ts;
+        assertEquals(5 * numKeys, numFound);
+
+        log.info("{} keys: compact key map used ~{} kB, string key map used ~{} kB",
+                numKeys, compactHeap / 1024, stringHeap / 1024);
+        log.info("{} lookups: compact key took {} ms, string key took {} ms",
+                5 * numKeys, compactLookupNs / 1_000_000, stringLookupNs / 1_000_000);
+        assertTrue(compactMap.size() == numKeys && stringMap.size() == numKeys);
+    }
+
+    private static String getRandomTxId(Random random) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < 64; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sb.toString();
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state.period;
+
+import bisq.core.dao.state.BsqStateService;
+import bisq.core.dao.state.blockchain.TxOutputType;
+import bisq.core.dao.state.blockchain.TxType;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.dao.state.BsqStateServiceMaker.GENESIS_HEIGHT;
+import static bisq.core.dao.state.BsqStateServiceMaker.getTx;
+import static bisq.core.dao.state.BsqStateServiceMaker.newBsqStateService;
+import static bisq.core.dao.state.BsqStateServiceMaker.parseBlock;
+import static org.junit.Assert.assertEquals;
+
+public class PeriodServiceTest {
+    private BsqStateService bsqStateService;
+    private PeriodService periodService;
+    private final Random random = new Random(42);
+
+    @Before
+    public void setup() {
+        bsqStateService = newBsqStateService();
+        periodService = new PeriodService(bsqStateService);
+    }
+
+    @Test
+    public void testSameResultsAsStreamImplementation() {
+        // Cycles get added while the chain grows, phase durations change as if a param change got accepted
+        bsqStateService.getCycles().add(newCycle(GENESIS_HEIGHT));
+        int height = GENESIS_HEIGHT;
+        for (int i = 0; i < 20; i++) {
+            Cycle lastCycle = bsqStateService.getCycles().getLast();
+            for (; height <= lastCycle.getHeightOfLastBlock(); height++) {
+                String txId = "tx" + height;
+                parseBlock(bsqStateService, height, Collections.singletonList(getTx(txId, height, TxType.TRANSFER_BSQ,
+                        "funding" + txId, TxOutputType.BSQ_OUTPUT)));
+            }
+            assertSameResults(height);
+            bsqStateService.getCycles().add(newCycle(height));
+        }
+    }
+
+    @Test
+    public void testCyclesGetRemovedAndReplaced() {
+        bsqStateService.getCycles().add(newCycle(GENESIS_HEIGHT));
+        for (int i = 0; i < 5; i++) {
+            bsqStateService.getCycles().add(newCycle(bsqStateService.getCycles().getLast().getHeightOfLastBlock() + 1));
+        }
+        assertSameResults(GENESIS_HEIGHT);
+
+        // A reorg removes the last cycle and a new one with other durations gets added
+        Cycle removed = bsqStateService.getCycles().removeLast();
+        assertSameResults(GENESIS_HEIGHT);
+        bsqStateService.getCycles().add(newCycle(removed.getHeightOfFirstBlock()));
+        assertSameResults(GENESIS_HEIGHT);
+
+        // A snapshot replaces all cycles
+        List<Cycle> cycles = new ArrayList<>(bsqStateService.getCycles());
+        bsqStateService.getCycles().clear();
+        cycles.forEach(cycle -> bsqStateService.getCycles().add(newCycle(cycle.getHeightOfFirstBlock())));
+        assertSameResults(GENESIS_HEIGHT);
+    }
+
+    @Test
+    public void testCyclesWithGap() {
+        bsqStateService.getCycles().add(newCycle(GENESIS_HEIGHT));
+        bsqStateService.getCycles().add(newCycle(bsqStateService.getCycles().getLast().getHeightOfLastBlock() + 10));
+        bsqStateService.getCycles().add(newCycle(bsqStateService.getCycles().getLast().getHeightOfLastBlock() + 1));
+        assertSameResults(GENESIS_HEIGHT);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void assertSameResults(int chainHeight) {
+        List<Cycle> cycles = bsqStateService.getCycles();
+        int lastHeight = cycles.get(cycles.size() - 1).getHeightOfLastBlock();
+        for (int height = GENESIS_HEIGHT - 5; height <= lastHeight + 5; height++) {
+            assertEquals(isFirstBlockInCycle(height), periodService.isFirstBlockInCycle(height));
+            assertEquals(isLastBlockInCycle(height), periodService.isLastBlockInCycle(height));
+            assertEquals(getPhaseForHeight(height), periodService.getPhaseForHeight(height));
+            assertEquals(isTxInCorrectCycle(height, chainHeight), periodService.isTxInCorrectCycle(height, chainHeight));
+            assertEquals(isTxInCorrectCycle(height, lastHeight), periodService.isTxInCorrectCycle(height, lastHeight));
+            for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+                assertEquals(isInPhase(height, phase), periodService.isInPhase(height, phase));
+                assertEquals(getDurationForPhase(phase, height), periodService.getDurationForPhase(phase, height));
+                assertEquals(getFirstBlockOfPhase(height, phase), periodService.getFirstBlockOfPhase(height, phase));
+                assertEquals(getLastBlockOfPhase(height, phase), periodService.getLastBlockOfPhase(height, phase));
+            }
+        }
+
+        bsqStateService.getTxStream().forEach(tx -> {
+            for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+                assertEquals(isInPhase(tx.getBlockHeight(), phase), periodService.isTxInPhase(tx.getId(), phase));
+                assertEquals(isInPhase(tx.getBlockHeight(), phase) && isTxInCorrectCycle(tx.getBlockHeight(), chainHeight),
+                        periodService.isTxInPhaseAndCycle(tx.getId(), phase, chainHeight));
+            }
+            assertEquals(isTxInPastCycle(tx.getBlockHeight(), chainHeight),
+                    periodService.isTxInPastCycle(tx.getId(), chainHeight));
+        });
+        assertEquals(false, periodService.isTxInPhase("unknown", DaoPhase.Phase.PROPOSAL));
+    }
+
+    private Cycle newCycle(int heightOfFirstBlock) {
+        List<DaoPhase> daoPhases = new ArrayList<>();
+        for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+            if (phase != DaoPhase.Phase.UNDEFINED)
+                daoPhases.add(new DaoPhase(phase, 1 + random.nextInt(5)));
+        }
+        return new Cycle(heightOfFirstBlock, ImmutableList.copyOf(daoPhases));
+    }
+
+    // The former implementation streaming over all cycles
+
+    private Optional<Cycle> getCycle(int height) {
+        return bsqStateService.getCycles().stream()
+                .filter(cycle -> cycle.getHeightOfFirstBlock() <= height)
+                .filter(cycle -> cycle.getHeightOfLastBlock() >= height)
+                .findAny();
+    }
+
+    private boolean isFirstBlockInCycle(int height) {
+        return getCycle(height).filter(cycle -> cycle.getHeightOfFirstBlock() == height).isPresent();
+    }
+
+    private boolean isLastBlockInCycle(int height) {
+        return getCycle(height).filter(cycle -> cycle.getHeightOfLastBlock() == height).isPresent();
+    }
+
+    private boolean isInPhase(int height, DaoPhase.Phase phase) {
+        return getCycle(height).filter(cycle -> cycle.isInPhase(height, phase)).isPresent();
+    }
+
+    private DaoPhase.Phase getPhaseForHeight(int height) {
+        return getCycle(height).flatMap(cycle -> cycle.getPhaseForHeight(height)).orElse(DaoPhase.Phase.UNDEFINED);
+    }
+
+    private boolean isTxInCorrectCycle(int txHeight, int currentChainHeadHeight) {
+        return getCycle(txHeight)
+                .filter(cycle -> currentChainHeadHeight >= cycle.getHeightOfFirstBlock())
+                .filter(cycle -> currentChainHeadHeight <= cycle.getHeightOfLastBlock())
+                .isPresent();
+    }
+
+    private boolean isTxInPastCycle(int txHeight, int currentChainHeadHeight) {
+        return getCycle(txHeight).filter(cycle -> currentChainHeadHeight > cycle.getHeightOfLastBlock()).isPresent();
+    }
+
+    private int getDurationForPhase(DaoPhase.Phase phase, int height) {
+        return getCycle(height).map(cycle -> cycle.getDurationOfPhase(phase)).orElse(0);
+    }
+
+    private int getFirstBlockOfPhase(int height, DaoPhase.Phase phase) {
+        return getCycle(height).map(cycle -> cycle.getFirstBlockOfPhase(phase)).orElse(0);
+    }
+
+    private int getLastBlockOfPhase(int height, DaoPhase.Phase phase) {
+        return getCycle(height).map(cycle -> cycle.getLastBlockOfPhase(phase)).orElse(0);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static bisq.core.filter.FilterMatcherTest.getInteracPayload;
+import static bisq.core.filter.FilterMatcherTest.getPerfectMoneyPayload;
+import static bisq.core.filter.FilterMatcherTest.isBannedLegacy;
+
+// Compares the time for checking offers against large filter lists with the former implementation (iterating the
+// lists and looking up the getter per filter entry). The durations depend on the machine, so the results are only
+// logged and the benchmark is not part of the unit tests. Remove @Ignore to run it.
+@Ignore
+@Slf4j
+public class FilterMatcherBenchmark {
+    @Test
+    public void benchmark() {
+        int numEntries = 5_000;
+        int numOffers = 10_000;
+        List<String> bannedOfferIds = new ArrayList<>();
+        List<String> bannedNodeAddresses = new ArrayList<>();
+        List<PaymentAccountFilter> bannedPaymentAccounts = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            bannedOfferIds.add(UUID.randomUUID().toString());
+            bannedNodeAddresses.add(i + "abcdefghijklmn.onion:9999");
+            bannedPaymentAccounts.add(new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getAccountNr", "U" + i));
+            bannedPaymentAccounts.add(new PaymentAccountFilter(PaymentMethod.INTERAC_E_TRANSFER_ID, "getEmail", i + "@b.c"));
+        }
+        Filter filter = new Filter(bannedOfferIds, bannedNodeAddresses, bannedPaymentAccounts,
+                null, null, null, null, null, false, null);
+
+        // Each 100th offer ID and each 5th payment account is banned
+        List<String> offerIds = new ArrayList<>();
+        List<PaymentAccountPayload> payloads = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            offerIds.add(i % 100 == 0 ? bannedOfferIds.get(i % numEntries) : UUID.randomUUID().toString());
+            int index = i % 10 < 2 ? i % numEntries : numEntries + i;
+            payloads.add(i % 2 == 0 ?
+                    getPerfectMoneyPayload("U" + index) :
+                    getInteracPayload(index + "@b.c", "Joe"));
+        }
+
+        long ts = System.currentTimeMillis();
+        int numBannedLegacy = 0;
+        for (int i = 0; i < numOffers; i++) {
+            String offerId = offerIds.get(i);
+            if (filter.getBannedOfferIds().stream().anyMatch(e -> e.equals(offerId)) ||
+                    isBannedLegacy(filter, payloads.get(i)))
+                numBannedLegacy++;
+        }
+        long legacyDuration = System.currentTimeMillis() - ts;
+
+        ts = System.currentTimeMillis();
+        FilterMatcher filterMatcher = new FilterMatcher(filter);
+        long buildDuration = System.currentTimeMillis() - ts;
+        int numBanned = 0;
+        for (int i = 0; i < numOffers; i++) {
+            if (filterMatcher.isOfferIdBanned(offerIds.get(i)) ||
+                    filterMatcher.getMatchingPaymentAccountFilter(payloads.get(i)) != null)
+                numBanned++;
+        }
+        long duration = System.currentTimeMillis() - ts - buildDuration;
+
+        log.info("Checking {} offers against {} banned entries per list took {} ms with the former implementation " +
+                        "({} banned), {} ms with the filter matcher ({} banned, created in {} ms)",
+                numOffers, numEntries, legacyDuration, numBannedLegacy, duration, numBanned, buildDuration);
+    }
+}
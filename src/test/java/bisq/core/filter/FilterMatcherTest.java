@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.InteracETransferAccountPayload;
+import bisq.core.payment.payload.PaymentAccountPayload;
+import bisq.core.payment.payload.PaymentMethod;
+import bisq.core.payment.payload.PerfectMoneyAccountPayload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FilterMatcherTest {
+    @Test
+    public void testEmptyFilter() {
+        FilterMatcher filterMatcher = new FilterMatcher(new Filter(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                null, null, null, null, null, false, null));
+        assertFalse(filterMatcher.isOfferIdBanned("offerId"));
+        assertFalse(filterMatcher.isCurrencyBanned("EUR"));
+        assertFalse(filterMatcher.isPaymentMethodBanned(PaymentMethod.PERFECT_MONEY_ID));
+        assertNull(filterMatcher.getMatchingPaymentAccountFilter(getPerfectMoneyPayload("1")));
+        assertFalse(FilterMatcher.EMPTY.isNodeAddressBanned("localhost:9999"));
+    }
+
+    @Test
+    public void testMatch() {
+        PaymentAccountFilter accountNrFilter = new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getAccountNr", "123");
+        PaymentAccountFilter emailFilter = new PaymentAccountFilter(PaymentMethod.INTERAC_E_TRANSFER_ID, "getEmail", "a@b.c");
+        PaymentAccountFilter holderNameFilter = new PaymentAccountFilter(PaymentMethod.INTERAC_E_TRANSFER_ID, "getHolderName", "Joe");
+        PaymentAccountFilter unknownMethodFilter = new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getUnknown", "123");
+        Filter filter = new Filter(Arrays.asList("offer1", "offer2"),
+                Collections.singletonList("abc.onion:9999"),
+                Arrays.asList(unknownMethodFilter, accountNrFilter, emailFilter, holderNameFilter),
+                Collections.singletonList("XMR"),
+                Collections.singletonList(PaymentMethod.OK_PAY_ID),
+                null, null, null, false, null);
+        FilterMatcher filterMatcher = new FilterMatcher(filter);
+
+        assertTrue(filterMatcher.isOfferIdBanned("offer2"));
+        assertFalse(filterMatcher.isOfferIdBanned("offer3"));
+        assertTrue(filterMatcher.isNodeAddressBanned("abc.onion:9999"));
+        assertTrue(filterMatcher.isCurrencyBanned("XMR"));
+        assertFalse(filterMatcher.isCurrencyBanned("EUR"));
+        assertTrue(filterMatcher.isPaymentMethodBanned(PaymentMethod.OK_PAY_ID));
+
+        assertEquals(accountNrFilter, filterMatcher.getMatchingPaymentAccountFilter(getPerfectMoneyPayload("123")));
+        assertNull(filterMatcher.getMatchingPaymentAccountFilter(getPerfectMoneyPayload("1234")));
+
+        InteracETransferAccountPayload payload = getInteracPayload("x@y.z", "Joe");
+        assertEquals(holderNameFilter, filterMatcher.getMatchingPaymentAccountFilter(payload));
+        payload.setEmail("a@b.c");
+        assertEquals(emailFilter, filterMatcher.getMatchingPaymentAccountFilter(payload));
+        assertNull(filterMatcher.getMatchingPaymentAccountFilter(getInteracPayload("x@y.z", "Jane")));
+    }
+
+    // Compares the checks done for each offer and trade with the former implementation (iterating the lists and
+    // looking up the getter per filter entry)
+    @Test
+    public void testMatchesFormerImplementation() {
+        int numEntries = 100;
+        int numOffers = 1000;
+        List<String> bannedOfferIds = new ArrayList<>();
+        List<String> bannedNodeAddresses = new ArrayList<>();
+        List<PaymentAccountFilter> bannedPaymentAccounts = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            bannedOfferIds.add(UUID.randomUUID().toString());
+            bannedNodeAddresses.add(i + "abcdefghijklmn.onion:9999");
+            bannedPaymentAccounts.add(new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getAccountNr", "U" + i));
+            bannedPaymentAccounts.add(new PaymentAccountFilter(PaymentMethod.INTERAC_E_TRANSFER_ID, "getEmail", i + "@b.c"));
+        }
+        Filter filter = new Filter(bannedOfferIds, bannedNodeAddresses, bannedPaymentAccounts,
+                null, null, null, null, null, false, null);
+        FilterMatcher filterMatcher = new FilterMatcher(filter);
+
+        // Each 100th offer ID and each 5th payment account is banned
+        int numBanned = 0;
+        for (int i = 0; i < numOffers; i++) {
+            String offerId = i % 100 == 0 ? bannedOfferIds.get(i % numEntries) : UUID.randomUUID().toString();
+            int index = i % 10 < 2 ? i % numEntries : numEntries + i;
+            PaymentAccountPayload payload = i % 2 == 0 ?
+                    getPerfectMoneyPayload("U" + index) :
+                    getInteracPayload(index + "@b.c", "Joe");
+
+            boolean bannedLegacy = filter.getBannedOfferIds().stream().anyMatch(e -> e.equals(offerId)) ||
+                    isBannedLegacy(filter, payload);
+            boolean banned = filterMatcher.isOfferIdBanned(offerId) ||
+                    filterMatcher.getMatchingPaymentAccountFilter(payload) != null;
+            assertEquals(bannedLegacy, banned);
+            if (banned)
+                numBanned++;
+        }
+        assertEquals(numOffers / 5, numBanned);
+    }
+
+    // Used by FilterMatcherBenchmark as well
+    static boolean isBannedLegacy(Filter filter, PaymentAccountPayload payload) {
+        return filter.getBannedPaymentAccounts().stream()
+                .anyMatch(paymentAccountFilter -> {
+                    if (!paymentAccountFilter.getPaymentMethodId().equals(payload.getPaymentMethodId()))
+                        return false;
+                    try {
+                        Method method = payload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
+                        return method.invoke(payload).equals(paymentAccountFilter.getValue());
+                    } catch (Throwable t) {
+                        return false;
+                    }
+                });
+    }
+
+    static PerfectMoneyAccountPayload getPerfectMoneyPayload(String accountNr) {
+        PerfectMoneyAccountPayload payload = new PerfectMoneyAccountPayload(PaymentMethod.PERFECT_MONEY_ID,
+                UUID.randomUUID().toString());
+        payload.setAccountNr(accountNr);
+        return payload;
+    }
+
+    static InteracETransferAccountPayload getInteracPayload(String email, String holderName) {
+        InteracETransferAccountPayload payload = new InteracETransferAccountPayload(PaymentMethod.INTERAC_E_TRANSFER_ID,
+                UUID.randomUUID().toString());
+        payload.setEmail(email);
+        payload.setHolderName(holderName);
+        return payload;
+    }
+}
@@ -17,15 +17,24 @@
 
 package bisq.core.locale;
 
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+@Slf4j
 public class CurrencyUtilTest {
 
     @Before
@@ -44,4 +53,83 @@ public class CurrencyUtilTest {
         assertTrue(naira.isPresent());
         assertFalse("Fake currency shouldn't exist", fake.isPresent());
     }
+
+    @Test
+    public void testIsFiatAndCryptoCurrency() {
+        assertTrue(CurrencyUtil.isFiatCurrency("EUR"));
+        assertFalse(CurrencyUtil.isCryptoCurrency("EUR"));
+        assertTrue(CurrencyUtil.isCryptoCurrency("XMR"));
+        assertFalse(CurrencyUtil.isFiatCurrency("XMR"));
+        // Valid ISO code which is not in our list of fiat currencies
+        assertTrue(CurrencyUtil.isFiatCurrency("XAU"));
+        assertFalse(CurrencyUtil.getFiatCurrency("XAU").isPresent());
+        assertFalse(CurrencyUtil.isFiatCurrency("FAK"));
+        assertFalse(CurrencyUtil.isFiatCurrency(""));
+        assertFalse(CurrencyUtil.isFiatCurrency(null));
+        assertEquals(4, CurrencyUtil.getSmallestUnitExponent("EUR"));
+        assertEquals(8, CurrencyUtil.getSmallestUnitExponent("XMR"));
+    }
+
+    @Test
+    public void testCurrencyId() {
+        int numIds = CurrencyUtil.getNumCurrencyIds();
+        assertEquals(CurrencyUtil.getAllSortedFiatCurrencies().size() + CurrencyUtil.getAllSortedCryptoCurrencies().size(),
+                numIds);
+
+        Set<Integer> ids = new HashSet<>();
+        CurrencyUtil.getAllSortedFiatCurrencies().forEach(e -> ids.add(CurrencyUtil.getCurrencyId(e.getCode())));
+        CurrencyUtil.getAllSortedCryptoCurrencies().forEach(e -> ids.add(CurrencyUtil.getCurrencyId(e.getCode())));
+        assertEquals(numIds, ids.size());
+        ids.forEach(id -> assertTrue(id >= 0 && id < numIds));
+
+        int eurId = CurrencyUtil.getCurrencyId("EUR");
+        assertEquals("EUR", CurrencyUtil.getTradeCurrencyById(eurId).get().getCode());
+        assertEquals(-1, CurrencyUtil.getCurrencyId("FAK"));
+        assertFalse(CurrencyUtil.getTradeCurrencyById(-1).isPresent());
+    }
+
+    // Compares the lookups with the former implementation which iterated the sorted lists.
+    // Results are logged, we only assert that both give the same results.
+    @Test
+    public void testBenchmark() {
+        List<String> codes = new ArrayList<>();
+        CurrencyUtil.getAllSortedFiatCurrencies().forEach(e -> codes.add(e.getCode()));
+        CurrencyUtil.getAllSortedCryptoCurrencies().forEach(e -> codes.add(e.getCode()));
+        int numRounds = 20;
+
+        long ts = System.nanoTime();
+        int numFiatLinear = 0;
+        for (int i = 0; i < numRounds; i++) {
+            for (String code : codes) {
+                if (isFiatCurrencyByListScan(code))
+                    numFiatLinear++;
+            }
+        }
+        long linearNs = System.nanoTime() - ts;
+
+        ts = System.nanoTime();
+        int numFiat = 0;
+        for (int i = 0; i < numRounds; i++) {
+            for (String code : codes) {
+                if (CurrencyUtil.isFiatCurrency(code))
+                    numFiat++;
+            }
+        }
+        long registryNs = System.nanoTime() - ts;
+
+        log.info("{} isFiatCurrency calls: list scan took {} ms, registry took {} ms",
+                numRounds * codes.size(), linearNs / 1_000_000, registryNs / 1_000_000);
+        assertEquals(numFiatLinear, numFiat);
+    }
+
+    private static boolean isFiatCurrencyByListScan(String currencyCode) {
+        try {
+            return currencyCode != null
+                    && !currencyCode.isEmpty()
+                    && CurrencyUtil.getAllSortedCryptoCurrencies().stream().noneMatch(e -> e.getCode().equals(currencyCode))
+                    && Currency.getInstance(currencyCode) != null;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications;
+
+import java.io.IOException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MobileNotificationDispatcherTest {
+
+    @Test
+    public void testDispatchDoesNotBlockCaller() throws InterruptedException {
+        int numMessages = 20;
+        long latencyMs = 100;
+        // Stub relay with a fixed latency per request
+        MobileNotificationDispatcher dispatcher = new MobileNotificationDispatcher((message, useSound) -> {
+            Thread.sleep(latencyMs);
+            return true;
+        }, 2, 10, Runnable::run);
+
+        CountDownLatch latch = new CountDownLatch(numMessages);
+        AtomicInteger numSuccess = new AtomicInteger();
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < numMessages; i++) {
+            dispatcher.dispatch(getMessage("msg " + i, MobileMessageType.MARKET), false, success -> {
+                if (success)
+                    numSuccess.incrementAndGet();
+                latch.countDown();
+            });
+        }
+        long dispatchDuration = System.currentTimeMillis() - ts;
+        assertTrue("dispatch took " + dispatchDuration + " ms", dispatchDuration < numMessages * latencyMs / 4);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(numMessages, numSuccess.get());
+        assertEquals(numMessages, dispatcher.getNumRequests());
+        assertEquals(0, dispatcher.getNumPendingMessages());
+        dispatcher.shutDown();
+    }
+
+    @Test
+    public void testIdenticalPendingMessagesAreCoalesced() throws InterruptedException {
+        CountDownLatch blockingLatch = new CountDownLatch(1);
+        MobileNotificationDispatcher dispatcher = new MobileNotificationDispatcher((message, useSound) -> {
+            blockingLatch.await();
+            return true;
+        }, 1, 10, Runnable::run);
+
+        CountDownLatch resultLatch = new CountDownLatch(6);
+        // Occupies the only worker thread
+        dispatcher.dispatch(getMessage("first", MobileMessageType.TRADE), false, success -> resultLatch.countDown());
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(getMessage("burst", MobileMessageType.MARKET), false, success -> resultLatch.countDown());
+        }
+        assertEquals(4, dispatcher.getNumCoalesced());
+
+        blockingLatch.countDown();
+        assertTrue(resultLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(2, dispatcher.getNumRequests());
+        dispatcher.shutDown();
+    }
+
+    @Test
+    public void testRetryWithBackoff() throws InterruptedException {
+        AtomicInteger numCalls = new AtomicInteger();
+        MobileNotificationDispatcher dispatcher = new MobileNotificationDispatcher((message, useSound) -> {
+            if (numCalls.incrementAndGet() < 3)
+                throw new IOException("Relay not reachable");
+            return true;
+        }, 1, 10, Runnable::run);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger numSuccess = new AtomicInteger();
+        dispatcher.dispatch(getMessage("retry", MobileMessageType.TRADE), false, success -> {
+            if (success)
+                numSuccess.incrementAndGet();
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, numSuccess.get());
+        assertEquals(3, dispatcher.getNumRequests());
+        dispatcher.shutDown();
+    }
+
+    @Test
+    public void testGiveUpAfterMaxAttempts() throws InterruptedException {
+        MobileNotificationDispatcher dispatcher = new MobileNotificationDispatcher((message, useSound) -> {
+            throw new IOException("Relay not reachable");
+        }, 1, 1, Runnable::run);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger numFailures = new AtomicInteger();
+        dispatcher.dispatch(getMessage("fail", MobileMessageType.TRADE), false, success -> {
+            if (!success)
+                numFailures.incrementAndGet();
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, numFailures.get());
+        assertEquals(MobileNotificationDispatcher.MAX_ATTEMPTS, dispatcher.getNumRequests());
+        dispatcher.shutDown();
+    }
+
+    @Test
+    public void testQueuedTradeMessagesAreSentAtShutDown() throws InterruptedException {
+        CountDownLatch blockingLatch = new CountDownLatch(1);
+        List<MobileMessageType> sentTypes = new CopyOnWriteArrayList<>();
+        MobileNotificationDispatcher dispatcher = new MobileNotificationDispatcher((message, useSound) -> {
+            blockingLatch.await();
+            sentTypes.add(message.getMobileMessageType());
+            return true;
+        }, 1, 10, Runnable::run);
+
+        AtomicInteger numSuccess = new AtomicInteger();
+        AtomicInteger numFailures = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            MobileNotificationDispatcher.ResultHandler resultHandler = success -> {
+                if (success)
+                    numSuccess.incrementAndGet();
+                else
+                    numFailures.incrementAndGet();
+            };
+            dispatcher.dispatch(getMessage("trade " + i, MobileMessageType.TRADE), false, resultHandler);
+            dispatcher.dispatch(getMessage("market " + i, MobileMessageType.MARKET), false, resultHandler);
+        }
+
+        // We release the sender after the shutdown has started
+        Thread shutDownThread = new Thread(dispatcher::shutDown);
+        shutDownThread.start();
+        while (!dispatcher.isShutDown()) {
+            Thread.sleep(1);
+        }
+        blockingLatch.countDown();
+        shutDownThread.join();
+
+        assertEquals(3, numSuccess.get());
+        assertEquals(3, numFailures.get());
+        assertEquals(3, sentTypes.size());
+        assertTrue(sentTypes.stream().allMatch(type -> type == MobileMessageType.TRADE));
+        assertEquals(3, dispatcher.getNumDropped());
+        assertEquals(0, dispatcher.getNumPendingMessages());
+
+        // Messages dispatched after shutdown are not sent
+        dispatcher.dispatch(getMessage("late", MobileMessageType.TRADE), false, success -> {
+            if (!success)
+                numFailures.incrementAndGet();
+        });
+        assertEquals(4, numFailures.get());
+        assertEquals(3, sentTypes.size());
+    }
+
+    private static MobileMessage getMessage(String text, MobileMessageType type) {
+        return new MobileMessage("title", text, type);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications.alerts.market;
+
+import bisq.core.payment.PaymentAccount;
+import bisq.core.payment.payload.PaymentMethod;
+
+import org.bitcoinj.core.Coin;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MarketAlertIndexTest {
+    private static final int NUM_PAYMENT_METHODS = 20;
+
+    // The index must trigger exactly the filters the former linear scan in MarketAlerts.onOfferAdded triggered
+    @Test
+    public void testTriggeredFiltersMatchFormerMatching() {
+        Random random = new Random(1);
+        List<MarketAlertFilter> filters = createFilters(200, random);
+        MarketAlertIndex index = new MarketAlertIndex();
+        index.rebuild(filters);
+        assertEquals(filters.size(), index.getNumFilters());
+
+        for (int i = 0; i < 500; i++) {
+            String paymentMethodId = "METHOD_" + random.nextInt(NUM_PAYMENT_METHODS);
+            boolean isSellOffer = random.nextBoolean();
+            boolean isFiatCurrency = random.nextBoolean();
+            double marketPrice = 6000;
+            double offerPrice = marketPrice * (0.9 + random.nextDouble() * 0.2);
+
+            Set<MarketAlertFilter> expected = filters.stream()
+                    .filter(filter -> isTriggeredByFormerMatching(filter, paymentMethodId, isSellOffer,
+                            offerPrice, marketPrice, isFiatCurrency))
+                    .collect(Collectors.toSet());
+            double ratio = MarketAlerts.getRatio(offerPrice, marketPrice, isFiatCurrency, isSellOffer);
+            Set<MarketAlertFilter> result = new HashSet<>(index.getTriggeredFilters(paymentMethodId, !isSellOffer, ratio));
+            assertEquals(expected, result);
+        }
+    }
+
+    @Test
+    public void testHasFilters() {
+        MarketAlertIndex index = new MarketAlertIndex();
+        List<MarketAlertFilter> filters = new ArrayList<>();
+        filters.add(new MarketAlertFilter(createPaymentAccount("METHOD_0"), 100, true));
+        index.rebuild(filters);
+        assertTrue(index.hasFilters("METHOD_0", true));
+        assertFalse(index.hasFilters("METHOD_0", false));
+        assertFalse(index.hasFilters("METHOD_1", true));
+
+        assertEquals(1, index.getTriggeredFilters("METHOD_0", true, 100).size());
+        assertEquals(0, index.getTriggeredFilters("METHOD_0", true, 100.01).size());
+    }
+
+    @Test
+    public void testAlertIds() {
+        MarketAlertFilter filter = new MarketAlertFilter(createPaymentAccount("METHOD_0"), 100, true);
+        assertTrue(filter.notContainsAlertId("id|1"));
+        filter.addAlertId("id|1");
+        filter.addAlertId("id|1");
+        assertFalse(filter.notContainsAlertId("id|1"));
+        assertEquals(1, filter.getAlertIds().size());
+    }
+
+    // Matching as done by MarketAlerts.onOfferAdded before the index got introduced
+    private static boolean isTriggeredByFormerMatching(MarketAlertFilter marketAlertFilter,
+                                                       String paymentMethodId,
+                                                       boolean isSellOffer,
+                                                       double offerPriceValue,
+                                                       double marketPriceAsDouble,
+                                                       boolean isFiatCurrency) {
+        if (!paymentMethodId.equals(marketAlertFilter.getPaymentAccount().getPaymentMethod().getId()))
+            return false;
+
+        int triggerValue = marketAlertFilter.getTriggerValue();
+        boolean isTriggerForBuyOffer = marketAlertFilter.isBuyOffer();
+        double ratio = offerPriceValue / marketPriceAsDouble;
+        ratio = 1 - ratio;
+        if (isFiatCurrency && isSellOffer)
+            ratio *= -1;
+        else if (!isFiatCurrency && !isSellOffer)
+            ratio *= -1;
+
+        ratio = ratio * 10000;
+        boolean triggered = ratio <= triggerValue;
+        if (!triggered)
+            return false;
+
+        boolean isTriggerForBuyOfferAndTriggered = !isSellOffer && isTriggerForBuyOffer;
+        boolean isTriggerForSellOfferAndTriggered = isSellOffer && !isTriggerForBuyOffer;
+        return isTriggerForBuyOfferAndTriggered || isTriggerForSellOfferAndTriggered;
+    }
+
+    private static List<MarketAlertFilter> createFilters(int numFilters, Random random) {
+        List<PaymentAccount> paymentAccounts = new ArrayList<>();
+        for (int i = 0; i < NUM_PAYMENT_METHODS; i++) {
+            paymentAccounts.add(createPaymentAccount("METHOD_" + i));
+        }
+        List<MarketAlertFilter> filters = new ArrayList<>();
+        for (int i = 0; i < numFilters; i++) {
+            filters.add(new MarketAlertFilter(paymentAccounts.get(random.nextInt(NUM_PAYMENT_METHODS)),
+                    random.nextInt(1000) - 500,
+                    random.nextBoolean()));
+        }
+        return filters;
+    }
+
+    private static PaymentAccount createPaymentAccount(String paymentMethodId) {
+        PaymentAccount paymentAccount = mock(PaymentAccount.class);
+        when(paymentAccount.getPaymentMethod()).thenReturn(new PaymentMethod(paymentMethodId, 0, Coin.ZERO));
+        return paymentAccount;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.notifications.alerts.market;
+
+import bisq.core.locale.Res;
+import bisq.core.notifications.MobileMessage;
+import bisq.core.notifications.MobileNotificationDispatcher;
+import bisq.core.notifications.MobileNotificationService;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
+import bisq.core.payment.PaymentAccount;
+import bisq.core.payment.payload.PaymentMethod;
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+import bisq.core.user.User;
+import bisq.core.util.BSFormatter;
+
+import bisq.common.crypto.KeyRing;
+
+import org.bitcoinj.core.Coin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mockito.ArgumentCaptor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.id;
+import static bisq.core.offer.OfferMaker.price;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MarketAlertsTest {
+    private static final double MARKET_PRICE = 6000;
+
+    private List<MarketAlertFilter> filters;
+    private List<MobileNotificationDispatcher.ResultHandler> resultHandlers;
+    private User user;
+    private OfferBookService.OfferBookChangedListener offerBookChangedListener;
+
+    @Before
+    public void setup() {
+        Res.setBaseCurrencyCode("BTC");
+        Res.setBaseCurrencyName("Bitcoin");
+
+        filters = new ArrayList<>();
+        user = mock(User.class);
+        when(user.getMarketAlertFilters()).thenReturn(filters);
+
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(new MarketPrice("USD", MARKET_PRICE, 0, true));
+
+        resultHandlers = new ArrayList<>();
+        MobileNotificationService mobileNotificationService = mock(MobileNotificationService.class);
+        doAnswer(invocation -> {
+            resultHandlers.add(invocation.getArgument(1));
+            return null;
+        }).when(mobileNotificationService).sendMessageAsync(any(MobileMessage.class), any());
+
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        MarketAlerts marketAlerts = new MarketAlerts(offerBookService, mobileNotificationService, user,
+                priceFeedService, mock(KeyRing.class), mock(BSFormatter.class));
+        marketAlerts.onAllServicesInitialized();
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(captor.capture());
+        offerBookChangedListener = captor.getValue();
+    }
+
+    @Test
+    public void testOfferSeenAgainWhileSendingIsNotSentTwice() {
+        MarketAlertFilter filter = new MarketAlertFilter(createPaymentAccount("SEPA"), 100, false);
+        filters.add(filter);
+        Offer offer = createOffer("offer1", OfferPayload.Direction.SELL, 5700);
+
+        offerBookChangedListener.onAdded(offer);
+        offerBookChangedListener.onAdded(offer);
+        assertEquals(1, resultHandlers.size());
+
+        resultHandlers.get(0).handleResult(true);
+        assertEquals(1, filter.getAlertIds().size());
+
+        offerBookChangedListener.onAdded(offer);
+        assertEquals(1, resultHandlers.size());
+    }
+
+    @Test
+    public void testAlertIsSentAgainAfterFailure() {
+        MarketAlertFilter filter = new MarketAlertFilter(createPaymentAccount("SEPA"), 100, false);
+        filters.add(filter);
+        Offer offer = createOffer("offer1", OfferPayload.Direction.SELL, 5700);
+
+        offerBookChangedListener.onAdded(offer);
+        resultHandlers.get(0).handleResult(false);
+        assertTrue(filter.getAlertIds().isEmpty());
+
+        offerBookChangedListener.onAdded(offer);
+        assertEquals(2, resultHandlers.size());
+        resultHandlers.get(1).handleResult(true);
+        assertFalse(filter.notContainsAlertId(filter.getAlertIds().get(0)));
+    }
+
+    @Test
+    public void testOnlyMatchingFiltersGetTriggered() {
+        // Sell offer 5% below market price
+        Offer offer = createOffer("offer1", OfferPayload.Direction.SELL, 5700);
+        MarketAlertFilter triggered = new MarketAlertFilter(createPaymentAccount("SEPA"), 100, false);
+        filters.add(triggered);
+        filters.add(new MarketAlertFilter(createPaymentAccount("SEPA"), -600, false));
+        filters.add(new MarketAlertFilter(createPaymentAccount("SEPA"), 100, true));
+        filters.add(new MarketAlertFilter(createPaymentAccount("ZELLE"), 100, false));
+
+        offerBookChangedListener.onAdded(offer);
+        assertEquals(1, resultHandlers.size());
+        resultHandlers.get(0).handleResult(true);
+        assertEquals(1, triggered.getAlertIds().size());
+        filters.stream()
+                .filter(filter -> filter != triggered)
+                .forEach(filter -> assertTrue(filter.getAlertIds().isEmpty()));
+        verify(user).persist();
+    }
+
+    // Fixed price BTC/USD offer with SEPA as payment method
+    private static Offer createOffer(String offerId, OfferPayload.Direction offerDirection, double offerPrice) {
+        Offer offer = spy(make(btcUsdOffer.but(with(id, offerId),
+                with(direction, offerDirection),
+                with(price, (long) (offerPrice * 10000)))));
+        doReturn(false).when(offer).isMyOffer(any());
+        return offer;
+    }
+
+    private static PaymentAccount createPaymentAccount(String paymentMethodId) {
+        PaymentAccount paymentAccount = mock(PaymentAccount.class);
+        when(paymentAccount.getPaymentMethod()).thenReturn(new PaymentMethod(paymentMethodId, 0, Coin.ZERO));
+        return paymentAccount;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.common.handlers.ErrorMessageHandler;
+import bisq.common.handlers.ResultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.id;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OfferRepublishSchedulerTest {
+    private OfferBookService offerBookService;
+    private OfferRepublishScheduler scheduler;
+    private List<String> refreshedOfferIds;
+    private boolean rejectRefresh;
+
+    @Before
+    public void setup() {
+        offerBookService = mock(OfferBookService.class);
+        refreshedOfferIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            OfferPayload offerPayload = invocation.getArgument(0);
+            if (rejectRefresh) {
+                ((ErrorMessageHandler) invocation.getArgument(2)).handleErrorMessage("Refresh TTL failed.");
+            } else {
+                refreshedOfferIds.add(offerPayload.getId());
+                ((ResultHandler) invocation.getArgument(1)).handleResult();
+            }
+            return null;
+        }).when(offerBookService).refreshTTL(any(OfferPayload.class), any(ResultHandler.class), any(ErrorMessageHandler.class));
+        doAnswer(invocation -> {
+            ((ResultHandler) invocation.getArgument(1)).handleResult();
+            return null;
+        }).when(offerBookService).addOffer(any(Offer.class), any(ResultHandler.class), any(ErrorMessageHandler.class));
+
+        scheduler = new OfferRepublishScheduler(offerBookService, openOffer -> true,
+                new OfferRepublishScheduler.Listener() {
+                    @Override
+                    public void onRepublished(OpenOffer openOffer) {
+                    }
+
+                    @Override
+                    public void onRepublishFailed(OpenOffer openOffer, String errorMessage) {
+                    }
+                }) {
+            @Override
+            void startBatchTimer() {
+                // We call processBatch directly
+            }
+        };
+    }
+
+    @Test
+    public void testRepublishReplacesPendingRefresh() {
+        OpenOffer openOffer = createOpenOffer("1");
+        scheduler.schedule(openOffer, OfferRepublishScheduler.Task.REFRESH);
+        scheduler.schedule(openOffer, OfferRepublishScheduler.Task.REPUBLISH);
+        assertEquals(1, scheduler.getNumPendingOffers());
+
+        scheduler.processBatch();
+
+        verify(offerBookService, times(1)).addOffer(any(Offer.class), any(ResultHandler.class), any(ErrorMessageHandler.class));
+        assertEquals(0, refreshedOfferIds.size());
+        assertEquals(0, scheduler.getNumPendingOffers());
+    }
+
+    @Test
+    public void testBatchesAreLimitedAndOldestBroadcastFirst() {
+        List<OpenOffer> openOffers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            openOffers.add(createOpenOffer(String.valueOf(i)));
+        }
+        scheduler.scheduleAll(openOffers.subList(0, 10), OfferRepublishScheduler.Task.REFRESH);
+        while (scheduler.getNumPendingOffers() > 0) {
+            scheduler.processBatch();
+        }
+        assertEquals(10, refreshedOfferIds.size());
+
+        // Offers which have never been broadcasted are closest to expiry
+        refreshedOfferIds.clear();
+        int batchSize = scheduler.getBatchSize();
+        scheduler.scheduleAll(openOffers, OfferRepublishScheduler.Task.REFRESH);
+        assertEquals(batchSize, scheduler.processBatch());
+        for (String offerId : refreshedOfferIds) {
+            assertEquals(true, Integer.parseInt(offerId) >= 10);
+        }
+    }
+
+    @Test
+    public void testRefreshRateIsCappedAtFormerPacing() {
+        // Before the scheduler was used offers got refreshed at 1 offer per 300 ms
+        assertEquals(1000d / 300, OfferRepublishScheduler.MAX_REFRESHES_PER_SEC, 0.001);
+        double broadcastsPerSec = getBroadcastsPerSecForAll(OfferRepublishScheduler.Task.REFRESH);
+        assertTrue(broadcastsPerSec <= OfferRepublishScheduler.MAX_REFRESHES_PER_SEC);
+        assertEquals(100, refreshedOfferIds.size());
+        // At the max. batch size we are limited by the min. batch interval
+        assertEquals(OfferRepublishScheduler.MAX_BATCH_SIZE * 1000d / OfferRepublishScheduler.MIN_BATCH_INTERVAL_MS,
+                scheduler.getBroadcastsPerSec(), 0.001);
+    }
+
+    @Test
+    public void testRepublishRateIsCappedAtFormerPacing() {
+        // Before the scheduler was used offers got republished at 1 offer per 700 ms
+        assertEquals(1000d / 700, OfferRepublishScheduler.MAX_REPUBLISHES_PER_SEC, 0.001);
+        double broadcastsPerSec = getBroadcastsPerSecForAll(OfferRepublishScheduler.Task.REPUBLISH);
+        assertTrue(broadcastsPerSec <= OfferRepublishScheduler.MAX_REPUBLISHES_PER_SEC);
+        verify(offerBookService, times(100)).addOffer(any(Offer.class), any(ResultHandler.class), any(ErrorMessageHandler.class));
+        // At the max. batch size we are limited by the spacing of the republished offers
+        assertEquals(OfferRepublishScheduler.MAX_REPUBLISHES_PER_SEC, scheduler.getBroadcastsPerSec(), 0.001);
+    }
+
+    @Test
+    public void testBackOffAtRejectedBroadcast() {
+        for (int i = 0; i < 50; i++) {
+            scheduler.schedule(createOpenOffer(String.valueOf(i)), OfferRepublishScheduler.Task.REFRESH);
+        }
+        scheduler.processBatch();
+        scheduler.processBatch();
+        double broadcastsPerSec = scheduler.getBroadcastsPerSec();
+
+        rejectRefresh = true;
+        int numSent = scheduler.processBatch();
+        assertEquals(numSent, scheduler.getNumFaults());
+        // Batch size gets halved and interval doubled
+        assertTrue(scheduler.getBroadcastsPerSec() <= broadcastsPerSec / 4);
+
+        while (scheduler.getBatchIntervalMs() < OfferRepublishScheduler.MAX_BATCH_INTERVAL_MS) {
+            scheduler.processBatch();
+        }
+        assertEquals(1000d / OfferRepublishScheduler.MAX_BATCH_INTERVAL_MS, scheduler.getBroadcastsPerSec(), 0.001);
+
+        rejectRefresh = false;
+        while (scheduler.getNumPendingOffers() > 0) {
+            scheduler.processBatch();
+            assertTrue(scheduler.getBroadcastsPerSec() <= OfferRepublishScheduler.MAX_REFRESHES_PER_SEC);
+        }
+    }
+
+    // Processes 100 offers with the given task and returns the rate. Each batch is processed when the timer fires after
+    // the delay set by the batch before.
+    private double getBroadcastsPerSecForAll(OfferRepublishScheduler.Task task) {
+        for (int i = 0; i < 100; i++) {
+            scheduler.schedule(createOpenOffer(String.valueOf(i)), task);
+        }
+        long elapsedMs = 0;
+        int numSent = 0;
+        while (scheduler.getNumPendingOffers() > 0) {
+            numSent += scheduler.processBatch();
+            elapsedMs += scheduler.getNextBatchDelayMs();
+        }
+        return numSent * 1000d / elapsedMs;
+    }
+
+    private OpenOffer createOpenOffer(String offerId) {
+        return new OpenOffer(make(btcUsdOffer.but(with(id, offerId))), null);
+    }
+}
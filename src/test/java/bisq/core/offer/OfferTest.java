@@ -17,17 +17,39 @@
 
 package bisq.core.offer;
 
+import bisq.core.monetary.Price;
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+
+import java.time.Instant;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.marketPriceMargin;
+import static bisq.core.offer.OfferMaker.useMarketBasedPrice;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+@Slf4j
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(OfferPayload.class)
 public class OfferTest {
@@ -51,4 +73,81 @@ public class OfferTest {
         Offer offer = new Offer(payload);
         assertTrue(offer.isRange());
     }
+
+    @Test
+    public void testMarketBasedPriceIsCachedPerMarketPrice() {
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        MarketPrice marketPrice = new MarketPrice("USD", 10000, Instant.now().getEpochSecond(), true);
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(marketPrice);
+
+        Offer offer = make(btcUsdOffer.but(with(useMarketBasedPrice, true),
+                with(marketPriceMargin, 0.01),
+                with(direction, OfferPayload.Direction.BUY)));
+        offer.setPriceFeedService(priceFeedService);
+
+        Price price = offer.getPrice();
+        assertEquals(99000000L, price.getValue());
+        assertSame(price, offer.getPrice());
+
+        // A new market price from the price feed triggers a new calculation
+        when(priceFeedService.getMarketPrice("USD"))
+                .thenReturn(new MarketPrice("USD", 20000, Instant.now().getEpochSecond(), true));
+        assertEquals(198000000L, offer.getPrice().getValue());
+
+        // Outdated market price
+        when(priceFeedService.getMarketPrice("USD"))
+                .thenReturn(new MarketPrice("USD", 20000, Instant.now().getEpochSecond() - 3600, true));
+        assertNull(offer.getPrice());
+    }
+
+    // Sorts and filters offer lists by price, once with a stable market price (price calculated once per offer)
+    // and once with a new market price object at each call, which corresponds to the former behaviour of
+    // calculating the price at each call. Results are logged, we only assert that the order is the same.
+    @Test
+    public void testSortByMarketBasedPriceBenchmark() {
+        int numOffers = 20_000;
+        long timestampSec = Instant.now().getEpochSecond();
+        MarketPrice marketPrice = new MarketPrice("USD", 10000, timestampSec, true);
+        PriceFeedService cachedPriceFeedService = mock(PriceFeedService.class);
+        when(cachedPriceFeedService.getMarketPrice("USD")).thenReturn(marketPrice);
+        PriceFeedService uncachedPriceFeedService = mock(PriceFeedService.class);
+        when(uncachedPriceFeedService.getMarketPrice("USD"))
+                .thenAnswer(invocation -> new MarketPrice("USD", 10000, timestampSec, true));
+
+        List<Offer> cachedOffers = new ArrayList<>();
+        List<Offer> uncachedOffers = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            double margin = (i % 200 - 100) / 1000d;
+            OfferPayload.Direction offerDirection = i % 2 == 0 ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL;
+            Offer cachedOffer = make(btcUsdOffer.but(with(useMarketBasedPrice, true),
+                    with(marketPriceMargin, margin),
+                    with(direction, offerDirection)));
+            cachedOffer.setPriceFeedService(cachedPriceFeedService);
+            cachedOffers.add(cachedOffer);
+            Offer uncachedOffer = make(btcUsdOffer.but(with(useMarketBasedPrice, true),
+                    with(marketPriceMargin, margin),
+                    with(direction, offerDirection)));
+            uncachedOffer.setPriceFeedService(uncachedPriceFeedService);
+            uncachedOffers.add(uncachedOffer);
+        }
+        Comparator<Offer> comparator = Comparator.comparing(Offer::getPrice);
+        Price limit = Price.valueOf("USD", 100000000L);
+
+        long ts = System.nanoTime();
+        uncachedOffers.sort(comparator);
+        long numUncachedBelowLimit = uncachedOffers.stream().filter(e -> e.getPrice().compareTo(limit) < 0).count();
+        long uncachedNs = System.nanoTime() - ts;
+
+        ts = System.nanoTime();
+        cachedOffers.sort(comparator);
+        long numCachedBelowLimit = cachedOffers.stream().filter(e -> e.getPrice().compareTo(limit) < 0).count();
+        long cachedNs = System.nanoTime() - ts;
+
+        log.info("Sorting and filtering {} market based offers: without cache {} ms, with cache {} ms",
+                numOffers, uncachedNs / 1_000_000, cachedNs / 1_000_000);
+        assertEquals(numUncachedBelowLimit, numCachedBelowLimit);
+        for (int i = 0; i < numOffers; i++) {
+            assertEquals(uncachedOffers.get(i).getPrice(), cachedOffers.get(i).getPrice());
+        }
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment;
+
+import bisq.common.crypto.PubKeyRing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class AccountAgeWitnessCacheTest {
+
+    @Test
+    public void testWitnessAddedToStoreUpdatesEntry() {
+        AccountAgeWitnessCache cache = new AccountAgeWitnessCache();
+        PubKeyRing pubKeyRing = mock(PubKeyRing.class);
+        byte[] hash = new byte[20];
+        hash[0] = 1;
+
+        assertNull(cache.get("accountId", pubKeyRing));
+        AccountAgeWitnessCache.Entry entry = cache.put("accountId", pubKeyRing, hash, null);
+        assertSame(entry, cache.get("accountId", pubKeyRing));
+        assertNull(entry.getWitness());
+
+        // Witness with other hash must not match
+        cache.onWitnessAdded(new AccountAgeWitness(new byte[20], 1));
+        assertNull(entry.getWitness());
+
+        AccountAgeWitness witness = new AccountAgeWitness(hash.clone(), 2);
+        cache.onWitnessAdded(witness);
+        assertSame(witness, cache.get("accountId", pubKeyRing).getWitness());
+
+        // First stored witness wins
+        cache.onWitnessAdded(new AccountAgeWitness(hash.clone(), 3));
+        assertEquals(2, cache.get("accountId", pubKeyRing).getWitness().getDate());
+    }
+
+    @Test
+    public void testRemove() {
+        AccountAgeWitnessCache cache = new AccountAgeWitnessCache();
+        PubKeyRing pubKeyRing = mock(PubKeyRing.class);
+        byte[] hash = new byte[20];
+        cache.put("accountId", pubKeyRing, hash, null);
+        assertNotNull(cache.get("accountId", pubKeyRing));
+        assertNull(cache.get("accountId", mock(PubKeyRing.class)));
+
+        cache.remove("accountId", pubKeyRing);
+        assertNull(cache.get("accountId", pubKeyRing));
+        assertEquals(0, cache.size());
+
+        // Removed entries are not updated anymore
+        cache.onWitnessAdded(new AccountAgeWitness(hash, 1));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment.payload;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PaymentMethodTest {
+
+    @Test
+    public void testGetPaymentMethodByIdAndIndex() {
+        List<PaymentMethod> allValues = PaymentMethod.getAllValues();
+        for (int i = 0; i < allValues.size(); i++) {
+            PaymentMethod paymentMethod = allValues.get(i);
+            assertSame(paymentMethod, PaymentMethod.getPaymentMethodById(paymentMethod.getId()));
+            assertEquals(i, PaymentMethod.getPaymentMethodIndex(paymentMethod.getId()));
+        }
+        assertEquals(-1, PaymentMethod.getPaymentMethodIndex("UNKNOWN"));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.fee;
+
+import bisq.common.util.Tuple2;
+
+import java.io.IOException;
+
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class FeeRateHistoryTest {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Replays a fee series with one rate per minute in the format of the fee provider
+    private static class ReplayFeeProvider {
+        private final long[] ratePerMinute;
+        private int numRequests;
+
+        private ReplayFeeProvider(long[] ratePerMinute) {
+            this.ratePerMinute = ratePerMinute;
+        }
+
+        private Tuple2<Map<String, Long>, Map<String, Long>> getFees(int minute) throws IOException {
+            numRequests++;
+            return FeeProvider.parse("{\"bitcoinFeesTs\":" + minute * 60 + "," +
+                    "\"dataMap\":{\"btcTxFee\":" + ratePerMinute[minute] + ".0}}");
+        }
+    }
+
+    private static class ReplayResult {
+        private int numRequests;
+        // Minutes in which we would have paid less than 80% of the actual rate
+        private int minutesUnderpaid;
+    }
+
+    private FeeRateHistory history;
+
+    @Before
+    public void setUp() {
+        history = new FeeRateHistory();
+    }
+
+    @Test
+    public void testRates() {
+        assertEquals(0, history.getFeeRate());
+
+        history.add(0, 100);
+        assertEquals(100, history.getLatestRate());
+        assertEquals(100, history.getSmoothedRate());
+
+        // A rise is followed immediately
+        history.add(60, 200);
+        assertEquals(130, history.getSmoothedRate());
+        assertEquals(200, history.getFeeRate());
+
+        // A drop is followed gradually
+        history.add(120, 50);
+        assertEquals(50, history.getLatestRate());
+        assertEquals(106, history.getSmoothedRate());
+        assertEquals(106, history.getFeeRate());
+    }
+
+    @Test
+    public void testPercentile() {
+        for (int i = 1; i <= 10; i++) {
+            history.add(i, i * 10);
+        }
+        assertEquals(50, history.getPercentileRate(50));
+        assertEquals(90, history.getPercentileRate(90));
+        assertEquals(10, history.getPercentileRate(0));
+        assertEquals(100, history.getPercentileRate(100));
+    }
+
+    @Test
+    public void testHistoryIsBounded() {
+        for (int i = 0; i < FeeRateHistory.MAX_OBSERVATIONS + 10; i++) {
+            history.add(i, i < 10 ? 1000 : 10);
+        }
+        assertEquals(FeeRateHistory.MAX_OBSERVATIONS, history.size());
+        // The old high rates are not in the history anymore
+        assertEquals(10, history.getPercentileRate(100));
+    }
+
+    @Test
+    public void testPollInterval() {
+        assertEquals(FeeRateHistory.DEFAULT_POLL_INTERVAL_SEC, history.getPollIntervalSec());
+        history.add(0, 100);
+        assertEquals(FeeRateHistory.DEFAULT_POLL_INTERVAL_SEC, history.getPollIntervalSec());
+
+        // Stable rates extend the interval up to the max.
+        for (int i = 1; i < 10; i++) {
+            history.add(i, 101);
+        }
+        assertEquals(FeeRateHistory.MAX_POLL_INTERVAL_SEC, history.getPollIntervalSec());
+
+        // A moderate change resets to the default interval
+        history.add(10, 110);
+        assertEquals(FeeRateHistory.DEFAULT_POLL_INTERVAL_SEC, history.getPollIntervalSec());
+
+        // A sharp change leads to the min. interval
+        history.add(11, 200);
+        assertEquals(FeeRateHistory.MIN_POLL_INTERVAL_SEC, history.getPollIntervalSec());
+
+        history.onRequestFailed();
+        assertEquals(FeeRateHistory.MIN_POLL_INTERVAL_SEC, history.getPollIntervalSec());
+        for (int i = 12; i < 20; i++) {
+            history.add(i, 200);
+        }
+        history.onRequestFailed();
+        assertEquals(FeeRateHistory.DEFAULT_POLL_INTERVAL_SEC, history.getPollIntervalSec());
+    }
+
+    @Test
+    public void testReplayOfFeeSeries() throws IOException {
+        // A day with stable rates, a fee spike in the morning and a slow decline in the afternoon
+        long[] series = new long[MINUTES_PER_DAY];
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            if (minute < 6 * 60)
+                series[minute] = 40 + minute % 3;
+            else if (minute < 6 * 60 + 20)
+                series[minute] = 40 + (minute - 6 * 60) * 15;
+            else if (minute < 8 * 60)
+                series[minute] = 340;
+            else if (minute < 14 * 60)
+                series[minute] = Math.max(40, 340 - (minute - 8 * 60) / 2);
+            else
+                series[minute] = 40 + minute % 2;
+        }
+
+        ReplayResult fixed = replay(series, false);
+        ReplayResult adaptive = replay(series, true);
+        log.info("Fixed polling: requests={}, minutes underpaid={}", fixed.numRequests, fixed.minutesUnderpaid);
+        log.info("Adaptive polling: requests={}, minutes underpaid={}", adaptive.numRequests, adaptive.minutesUnderpaid);
+
+        assertEquals(MINUTES_PER_DAY / 5, fixed.numRequests);
+        // Far less provider traffic at stable rates...
+        assertTrue(adaptive.numRequests < fixed.numRequests / 2);
+        // ...and as we poll sooner while the rates move we are not exposed to the spike longer
+        assertTrue(adaptive.minutesUnderpaid <= fixed.minutesUnderpaid);
+    }
+
+    // Polls the replayed series either every 5 min. serving the latest rate (as before) or with the adaptive
+    // interval serving the rate of the history
+    private ReplayResult replay(long[] series, boolean adaptive) throws IOException {
+        ReplayFeeProvider feeProvider = new ReplayFeeProvider(series);
+        FeeRateHistory history = new FeeRateHistory();
+        ReplayResult result = new ReplayResult();
+        int nextPoll = 0;
+        for (int minute = 0; minute < series.length; minute++) {
+            if (minute == nextPoll) {
+                Tuple2<Map<String, Long>, Map<String, Long>> fees = feeProvider.getFees(minute);
+                history.add(fees.first.get("bitcoinFeesTs"), fees.second.get("BTC"));
+                nextPoll += adaptive ? (int) (history.getPollIntervalSec() / 60) : 5;
+            }
+            long servedRate = adaptive ? history.getFeeRate() : history.getLatestRate();
+            if (servedRate < series[minute] * 0.8)
+                result.minutesUnderpaid++;
+        }
+        result.numRequests = feeProvider.numRequests;
+        return result;
+    }
+}
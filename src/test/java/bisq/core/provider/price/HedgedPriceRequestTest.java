@@ -0,0 +1,173 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.price;
+
+import bisq.core.provider.ProviderLatencyTracker;
+
+import bisq.common.util.Tuple2;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class HedgedPriceRequestTest {
+    private static final String PRIMARY = "http://primary.onion/";
+    private static final String HEDGE = "http://hedge.onion/";
+    private static final long MIN_HEDGE_DELAY_MS = 100;
+
+    private ScheduledExecutorService executor;
+    private ProviderLatencyTracker latencyTracker;
+    private Map<String, Long> delayByBaseUrl;
+    private Map<String, Boolean> failByBaseUrl;
+
+    @Before
+    public void setup() {
+        executor = Executors.newScheduledThreadPool(2);
+        latencyTracker = new ProviderLatencyTracker();
+        delayByBaseUrl = new HashMap<>();
+        failByBaseUrl = new HashMap<>();
+        // Usual latency of primary provider is 200 ms
+        for (int i = 0; i < 10; i++) {
+            latencyTracker.addLatency(PRIMARY, 200);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testHedgeDelay() {
+        assertEquals(200, getHedgedPriceRequest(HEDGE).getHedgeDelayMs());
+        assertEquals(HedgedPriceRequest.DEFAULT_HEDGE_DELAY_MS,
+                new HedgedPriceRequest(this::request, new ProviderLatencyTracker(), PRIMARY, HEDGE).getHedgeDelayMs());
+        for (int i = 0; i < 20; i++) {
+            latencyTracker.addLatency(PRIMARY, 60_000);
+        }
+        assertEquals(HedgedPriceRequest.MAX_HEDGE_DELAY_MS, getHedgedPriceRequest(HEDGE).getHedgeDelayMs());
+    }
+
+    @Test
+    public void testFastPrimaryDoesNotHedge() throws InterruptedException {
+        delayByBaseUrl.put(PRIMARY, 50L);
+        delayByBaseUrl.put(HEDGE, 50L);
+        HedgedPriceRequest request = getHedgedPriceRequest(HEDGE);
+        assertEquals(PRIMARY, awaitResult(request));
+        assertFalse(request.isHedgeStarted());
+    }
+
+    @Test
+    public void testPrimaryFailureStartsHedgeAtOnce() throws InterruptedException {
+        delayByBaseUrl.put(PRIMARY, 10L);
+        failByBaseUrl.put(PRIMARY, true);
+        delayByBaseUrl.put(HEDGE, 10L);
+        HedgedPriceRequest request = getHedgedPriceRequest(HEDGE);
+        assertEquals(HEDGE, awaitResult(request));
+        assertTrue(request.isHedgeStarted());
+    }
+
+    @Test
+    public void testAllFailed() throws InterruptedException {
+        delayByBaseUrl.put(PRIMARY, 10L);
+        failByBaseUrl.put(PRIMARY, true);
+        delayByBaseUrl.put(HEDGE, 10L);
+        failByBaseUrl.put(HEDGE, true);
+        HedgedPriceRequest request = getHedgedPriceRequest(HEDGE);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> fault = new AtomicReference<>();
+        request.start((baseUrl, result) -> latch.countDown(),
+                (errorMessage, throwable) -> {
+                    fault.set(throwable);
+                    latch.countDown();
+                });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(PRIMARY, ((PriceRequestException) fault.get()).priceProviderBaseUrl);
+    }
+
+    // Measures the time until we get a fresh price if the primary provider is slow, with and without hedging
+    @Test
+    public void testTimeToFreshPrice() throws InterruptedException {
+        delayByBaseUrl.put(PRIMARY, 1500L);
+        delayByBaseUrl.put(HEDGE, 100L);
+
+        long ts = System.currentTimeMillis();
+        assertEquals(PRIMARY, awaitResult(getHedgedPriceRequest(null)));
+        long withoutHedgeMs = System.currentTimeMillis() - ts;
+
+        ts = System.currentTimeMillis();
+        HedgedPriceRequest request = getHedgedPriceRequest(HEDGE);
+        assertEquals(HEDGE, awaitResult(request));
+        long withHedgeMs = System.currentTimeMillis() - ts;
+
+        log.info("Time to fresh price with slow primary provider: without hedging {} ms, with hedging {} ms",
+                withoutHedgeMs, withHedgeMs);
+        assertTrue(request.isHedgeStarted());
+        assertTrue(withHedgeMs < withoutHedgeMs);
+    }
+
+    private HedgedPriceRequest getHedgedPriceRequest(String hedgeBaseUrl) {
+        return new HedgedPriceRequest(this::request, latencyTracker, PRIMARY, hedgeBaseUrl, MIN_HEDGE_DELAY_MS);
+    }
+
+    private String awaitResult(HedgedPriceRequest request) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> respondingBaseUrl = new AtomicReference<>();
+        request.start((baseUrl, result) -> {
+                    respondingBaseUrl.set(baseUrl);
+                    latch.countDown();
+                },
+                (errorMessage, throwable) -> latch.countDown());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        return respondingBaseUrl.get();
+    }
+
+    // Stub for a price provider which responds after the configured delay
+    private SettableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> request(String baseUrl) {
+        SettableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> future = SettableFuture.create();
+        executor.schedule(() -> {
+            if (failByBaseUrl.getOrDefault(baseUrl, false)) {
+                future.setException(new PriceRequestException(new IOException("Connection failed"), baseUrl));
+            } else {
+                Map<String, MarketPrice> priceMap = new HashMap<>();
+                priceMap.put("USD", new MarketPrice("USD", 10000, System.currentTimeMillis() / 1000, true));
+                future.set(new Tuple2<>(new HashMap<>(), priceMap));
+            }
+        }, delayByBaseUrl.getOrDefault(baseUrl, 0L), TimeUnit.MILLISECONDS);
+        return future;
+    }
+}
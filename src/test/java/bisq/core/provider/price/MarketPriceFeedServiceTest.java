@@ -31,7 +31,7 @@ public class MarketPriceFeedServiceTest {
 
     @Test
     public void testGetPrice() throws InterruptedException {
-        PriceFeedService priceFeedService = new PriceFeedService(null, null, null);
+        PriceFeedService priceFeedService = new PriceFeedService(null, null, null, null, false);
         priceFeedService.setCurrencyCode("EUR");
         priceFeedService.requestPriceFeed(tradeCurrency -> {
                     log.debug(tradeCurrency.toString());
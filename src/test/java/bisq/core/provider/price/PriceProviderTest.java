@@ -0,0 +1,228 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.price;
+
+import bisq.core.provider.PriceNodeHttpClient;
+
+import bisq.common.util.Tuple2;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PriceProviderTest {
+    // Stub of a price node which supports the source timestamps as query parameters. Each market belongs to one
+    // source and the timestamp of a source changes at each update of one of its markets.
+    private static class StubPriceNode {
+        private final HttpServer server;
+        private final Map<String, MarketPrice> marketPrices = new LinkedHashMap<>();
+        private final Map<String, String> sourceByCurrencyCode = new HashMap<>();
+        private final Map<String, Long> sourceTsMap = new LinkedHashMap<>();
+        private final List<String> queries = new ArrayList<>();
+        private final List<Integer> responseSizes = new ArrayList<>();
+
+        private StubPriceNode() throws IOException {
+            for (String source : PriceProvider.SOURCE_TS_KEYS) {
+                sourceTsMap.put(source, 1530000000000L);
+            }
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/getAllMarketPrices", this::handle);
+            server.start();
+        }
+
+        private String getBaseUrl() {
+            return "http://localhost:" + server.getAddress().getPort() + "/";
+        }
+
+        private synchronized void setPrice(String currencyCode, double price, long timestampSec, String source) {
+            marketPrices.put(currencyCode, new MarketPrice(currencyCode, price, timestampSec, true));
+            sourceByCurrencyCode.put(currencyCode, source);
+            sourceTsMap.put(source, sourceTsMap.get(source) + 1000);
+        }
+
+        private synchronized void handle(HttpExchange exchange) throws IOException {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            Map<String, Long> requestedSourceTsMap = new HashMap<>();
+            if (query != null) {
+                for (String param : query.split("&")) {
+                    String[] keyValue = param.split("=");
+                    requestedSourceTsMap.put(keyValue[0], Long.parseLong(keyValue[1]));
+                }
+            }
+            String data = marketPrices.values().stream()
+                    .filter(e -> {
+                        String source = sourceByCurrencyCode.get(e.getCurrencyCode());
+                        Long requestedTs = requestedSourceTsMap.get(source);
+                        return requestedTs == null || sourceTsMap.get(source) > requestedTs;
+                    })
+                    .map(e -> "{\"currencyCode\":\"" + e.getCurrencyCode() + "\",\"price\":" + e.getPrice() +
+                            ",\"timestampSec\":" + e.getTimestampSec() + ",\"provider\":\"stub\"}")
+                    .collect(Collectors.joining(","));
+            String sourceTs = sourceTsMap.entrySet().stream()
+                    .map(e -> "\"" + e.getKey() + "\":" + e.getValue())
+                    .collect(Collectors.joining(","));
+            byte[] response = ("{\"data\":[" + data + "]," + sourceTs + "}").getBytes(StandardCharsets.UTF_8);
+            responseSizes.add(response.length);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+    }
+
+    private StubPriceNode priceNode;
+
+    @Before
+    public void setup() throws IOException {
+        priceNode = new StubPriceNode();
+        for (int i = 0; i < 100; i++) {
+            priceNode.setPrice("C" + i, 100 + i, 1530000000 + i, PriceProvider.SOURCE_TS_KEYS[i % 3]);
+        }
+        priceNode.setPrice("USD", 6500.12, 1530000100, "btcAverageTs");
+    }
+
+    @After
+    public void tearDown() {
+        priceNode.stop();
+    }
+
+    @Test
+    public void testParse() throws IOException {
+        String json = "{\"data\":[{\"currencyCode\":\"USD\",\"price\":6500.12,\"timestampSec\":1530000100," +
+                "\"provider\":\"BTCA\"},{\"currencyCode\":\"ETH\",\"price\":0.0712,\"timestampSec\":1.5300001E9}," +
+                "{\"currencyCode\":\"XMR\",\"price\":null,\"timestampSec\":1530000100}]," +
+                "\"btcAverageTs\":1530000000000,\"poloniexTs\":1530000001000,\"coinmarketcapTs\":1530000002000}";
+        Map<String, Long> tsMap = new HashMap<>();
+        Map<String, MarketPrice> marketPriceMap = PriceProvider.parse(json, tsMap, new HashMap<>(), false);
+
+        assertEquals(1530000000000L, (long) tsMap.get("btcAverageTs"));
+        assertEquals(1530000002000L, (long) tsMap.get("coinmarketcapTs"));
+        assertEquals(3, marketPriceMap.size());
+        assertEquals(new MarketPrice("USD", 6500.12, 1530000100, true), marketPriceMap.get("USD"));
+        assertEquals(1530000100, marketPriceMap.get("ETH").getTimestampSec());
+        assertEquals(0, marketPriceMap.get("XMR").getPrice(), 0);
+
+        // Unchanged market prices are not created again
+        Map<String, MarketPrice> secondMarketPriceMap = PriceProvider.parse(json, tsMap, marketPriceMap, false);
+        assertSame(marketPriceMap, secondMarketPriceMap);
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseInvalidData() throws IOException {
+        PriceProvider.parse("{\"data\":{}}", new HashMap<>(), new HashMap<>(), false);
+    }
+
+    @Test
+    public void testFullRequests() throws IOException {
+        PriceProvider priceProvider = new PriceProvider(new PriceNodeHttpClient(null), priceNode.getBaseUrl(), false);
+        Map<String, MarketPrice> first = priceProvider.getAll().second;
+        assertEquals(101, first.size());
+
+        priceNode.setPrice("USD", 6600, 1530000200, "btcAverageTs");
+        Map<String, MarketPrice> second = priceProvider.getAll().second;
+        assertEquals(101, second.size());
+        assertSame(first.get("C1"), second.get("C1"));
+        assertNotSame(first.get("USD"), second.get("USD"));
+        assertEquals(6600, second.get("USD").getPrice(), 0);
+        assertTrue(priceNode.queries.stream().allMatch(query -> query == null));
+    }
+
+    @Test
+    public void testGetSourceTsQuery() {
+        Map<String, Long> sourceTsMap = new HashMap<>();
+        sourceTsMap.put("coinmarketcapTs", 3L);
+        sourceTsMap.put("btcAverageTs", 1L);
+        assertEquals("btcAverageTs=1&coinmarketcapTs=3", PriceProvider.getSourceTsQuery(sourceTsMap));
+    }
+
+    @Test
+    public void testDeltaRequests() throws IOException {
+        PriceProvider priceProvider = new PriceProvider(new PriceNodeHttpClient(null), priceNode.getBaseUrl(), true);
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> first = priceProvider.getAll();
+        assertEquals(101, first.second.size());
+        assertEquals(0, priceProvider.getNumDeltaRequests());
+
+        // Nothing has changed
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> second = priceProvider.getAll();
+        assertEquals(1, priceProvider.getNumDeltaRequests());
+        assertEquals(PriceProvider.getSourceTsQuery(first.first), priceNode.queries.get(1));
+        assertSame(first.second, second.second);
+        assertEquals(first.first, second.first);
+        assertTrue(priceNode.responseSizes.get(1) < priceNode.responseSizes.get(0) / 10);
+
+        // One market has changed, we get only the markets of its source
+        priceNode.setPrice("USD", 6600, 1530000200, "btcAverageTs");
+        Map<String, MarketPrice> third = priceProvider.getAll().second;
+        assertEquals(101, third.size());
+        assertEquals(6600, third.get("USD").getPrice(), 0);
+        for (int i = 0; i < 100; i++) {
+            assertSame(first.second.get("C" + i), third.get("C" + i));
+        }
+        assertTrue(priceNode.responseSizes.get(2) < priceNode.responseSizes.get(0) / 2);
+
+        // We request all markets periodically
+        for (int i = 3; i <= PriceProvider.FULL_REQUEST_INTERVAL; i++) {
+            priceProvider.getAll();
+        }
+        assertEquals(PriceProvider.FULL_REQUEST_INTERVAL + 1, priceNode.queries.size());
+        assertNull(priceNode.queries.get(PriceProvider.FULL_REQUEST_INTERVAL));
+        assertEquals(PriceProvider.FULL_REQUEST_INTERVAL - 1, priceProvider.getNumDeltaRequests());
+    }
+
+    // The market prices of a source might be older than the most recent market price of another source. They must
+    // not get lost at a delta request.
+    @Test
+    public void testDeltaRequestsWithOlderMarketPriceOfOtherSource() throws IOException {
+        PriceProvider priceProvider = new PriceProvider(new PriceNodeHttpClient(null), priceNode.getBaseUrl(), true);
+        priceProvider.getAll();
+
+        // C1 is from poloniex and its new price is older than the USD price from btcAverage
+        priceNode.setPrice("C1", 200, 1530000050, "poloniexTs");
+        Map<String, MarketPrice> second = priceProvider.getAll().second;
+        assertEquals(1, priceProvider.getNumDeltaRequests());
+        assertEquals(200, second.get("C1").getPrice(), 0);
+    }
+}
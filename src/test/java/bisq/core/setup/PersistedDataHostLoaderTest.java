@@ -0,0 +1,146 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.setup;
+
+import bisq.common.proto.persistable.PersistedDataHost;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PersistedDataHostLoaderTest {
+    private static final long READ_DURATION_MS = 200;
+
+    private static class TestHost implements ConcurrentPersistedDataHost {
+        private final String name;
+        private final List<String> appliedHosts;
+        private final boolean fail;
+        // Hosts which have been applied when the store got read
+        private List<String> appliedHostsAtRead;
+        private Thread applyThread;
+
+        private TestHost(String name, List<String> appliedHosts, boolean fail) {
+            this.name = name;
+            this.appliedHosts = appliedHosts;
+            this.fail = fail;
+        }
+
+        @Override
+        public Runnable readStore() {
+            appliedHostsAtRead = new ArrayList<>(appliedHosts);
+            try {
+                Thread.sleep(READ_DURATION_MS);
+            } catch (InterruptedException ignore) {
+            }
+            if (fail)
+                throw new RuntimeException("Corrupted file");
+            return () -> {
+                applyThread = Thread.currentThread();
+                appliedHosts.add(name);
+            };
+        }
+    }
+
+    @Test
+    public void testIndependentHostsReadConcurrently() {
+        List<String> appliedHosts = Collections.synchronizedList(new ArrayList<>());
+        PersistedDataHostLoader loader = new PersistedDataHostLoader(4);
+        List<TestHost> hosts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            hosts.add(new TestHost("host" + i, appliedHosts, false));
+            loader.add(hosts.get(i));
+        }
+        loader.load();
+
+        assertEquals(Arrays.asList("host0", "host1", "host2", "host3"), appliedHosts);
+        // Data gets applied on the calling thread
+        hosts.forEach(host -> assertSame(Thread.currentThread(), host.applyThread));
+        // Sequential reading would take 4 * READ_DURATION_MS
+        assertTrue("Loading took " + loader.getDuration() + " ms", loader.getDuration() < 3 * READ_DURATION_MS);
+    }
+
+    @Test
+    public void testDependencyAppliedBeforeRead() {
+        List<String> appliedHosts = Collections.synchronizedList(new ArrayList<>());
+        TestHost preferences = new TestHost("preferences", appliedHosts, false);
+        TestHost user = new TestHost("user", appliedHosts, false);
+        TestHost trades = new TestHost("trades", appliedHosts, false);
+        TestHost bondedRoles = new TestHost("bondedRoles", appliedHosts, false);
+        new PersistedDataHostLoader(4)
+                .add(preferences)
+                .add(user, preferences)
+                .add(trades, preferences)
+                .add(bondedRoles, trades)
+                .load();
+
+        assertEquals(Arrays.asList("preferences", "user", "trades", "bondedRoles"), appliedHosts);
+        assertTrue(user.appliedHostsAtRead.contains("preferences"));
+        assertTrue(trades.appliedHostsAtRead.contains("preferences"));
+        assertTrue(bondedRoles.appliedHostsAtRead.contains("trades"));
+    }
+
+    @Test
+    public void testOtherHostsReadOnCallingThread() {
+        List<String> appliedHosts = Collections.synchronizedList(new ArrayList<>());
+        Thread[] readThread = new Thread[1];
+        PersistedDataHost preferences = () -> {
+            readThread[0] = Thread.currentThread();
+            appliedHosts.add("preferences");
+        };
+        TestHost user = new TestHost("user", appliedHosts, false);
+        new PersistedDataHostLoader(2)
+                .add(preferences)
+                .add(user, preferences)
+                .load();
+
+        assertSame(Thread.currentThread(), readThread[0]);
+        assertEquals(Arrays.asList("preferences", "user"), appliedHosts);
+    }
+
+    @Test
+    public void testFailingHostDoesNotStopLoading() {
+        List<String> appliedHosts = Collections.synchronizedList(new ArrayList<>());
+        TestHost failing = new TestHost("failing", appliedHosts, true);
+        TestHost dependent = new TestHost("dependent", appliedHosts, false);
+        PersistedDataHostLoader loader = new PersistedDataHostLoader(2)
+                .add(failing)
+                .add(dependent, failing)
+                .add(new TestHost("other", appliedHosts, false));
+        loader.load();
+
+        assertEquals(Arrays.asList("dependent", "other"), appliedHosts);
+        // Hosts are reported by class name
+        Map<String, Long> durations = loader.getDurations();
+        assertEquals(1, durations.size());
+        assertTrue(durations.get("TestHost") >= READ_DURATION_MS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDependencyNotAdded() {
+        new PersistedDataHostLoader(2).add(new TestHost("a", new ArrayList<>(), false),
+                new TestHost("b", new ArrayList<>(), false));
+    }
+}
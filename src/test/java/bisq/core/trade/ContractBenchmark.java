@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.core.offer.OfferPayload;
+
+import bisq.common.util.Utilities;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.trade.ContractTest.createContract;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+
+// The contract JSON is used at creating, verifying and signing the contract and at printDiff. We compare the
+// reflection based serialization at each use with the cached JSON. The durations depend on the machine, so the
+// results are only logged and the benchmark is not part of the unit tests. Remove @Ignore to run it.
+@Ignore
+@Slf4j
+public class ContractBenchmark {
+    @Test
+    public void benchmark() {
+        int numIterations = 200;
+        int usesPerTrade = 3;
+        OfferPayload offerPayload = make(btcUsdOffer).getOfferPayload();
+        Contract contract = createContract(offerPayload);
+
+        long ts = System.nanoTime();
+        for (int i = 0; i < numIterations; i++) {
+            for (int j = 0; j < usesPerTrade; j++) {
+                Utilities.objectToJson(contract);
+            }
+        }
+        long uncachedDuration = System.nanoTime() - ts;
+
+        ts = System.nanoTime();
+        for (int i = 0; i < numIterations; i++) {
+            Contract newContract = createContract(offerPayload);
+            for (int j = 0; j < usesPerTrade; j++) {
+                newContract.getJson();
+            }
+        }
+        long cachedDuration = System.nanoTime() - ts;
+
+        log.info("Contract JSON for {} trades: uncached {} ms, cached {} ms", numIterations,
+                uncachedDuration / 1_000_000, cachedDuration / 1_000_000);
+    }
+}
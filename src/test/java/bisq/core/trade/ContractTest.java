@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.core.offer.OfferPayload;
+import bisq.core.payment.payload.AliPayAccountPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.util.Utilities;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ContractTest {
+    private OfferPayload offerPayload;
+
+    @Before
+    public void setUp() {
+        offerPayload = make(btcUsdOffer).getOfferPayload();
+    }
+
+    @Test
+    public void testJsonIsCompatibleAndCached() {
+        Contract contract = createContract(offerPayload);
+        String json = contract.getJson();
+
+        assertEquals(Utilities.objectToJson(createContract(offerPayload)), json);
+        assertSame(json, contract.getJson());
+        // The cached json must not become part of the json or of equals
+        assertEquals(json, Utilities.objectToJson(contract));
+        assertEquals(createContract(offerPayload), contract);
+        assertEquals(createContract(offerPayload).hashCode(), contract.hashCode());
+    }
+
+    // Used by ContractBenchmark as well
+    static Contract createContract(OfferPayload offerPayload) {
+        return new Contract(offerPayload,
+                100000L,
+                100000L,
+                "takerFeeTxId",
+                new NodeAddress("buyer.onion:9999"),
+                new NodeAddress("seller.onion:9999"),
+                new NodeAddress("arbitrator.onion:9999"),
+                new NodeAddress("mediator.onion:9999"),
+                true,
+                "makerAccountId",
+                "takerAccountId",
+                new AliPayAccountPayload(PaymentMethod.ALI_PAY_ID, "makerPaymentAccountId"),
+                new AliPayAccountPayload(PaymentMethod.ALI_PAY_ID, "takerPaymentAccountId"),
+                null,
+                null,
+                "makerPayoutAddress",
+                "takerPayoutAddress",
+                new byte[]{1, 2, 3},
+                new byte[]{4, 5, 6});
+    }
+}
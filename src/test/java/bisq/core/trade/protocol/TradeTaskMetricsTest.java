@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.protocol;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TradeTaskMetricsTest {
+    private TradeTaskMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new TradeTaskMetrics();
+    }
+
+    @Test
+    public void testRecordsPerTrade() {
+        metrics.add("trade1", record("TakerVerifyAndSignContract", 0, 40, TradeTaskMetrics.Outcome.COMPLETED));
+        metrics.add("trade1", record("BuyerAsTakerSignAndPublishDepositTx", 40, 1500, TradeTaskMetrics.Outcome.FAILED));
+        metrics.add("trade2", record("TakerVerifyAndSignContract", 0, 60, TradeTaskMetrics.Outcome.COMPLETED));
+
+        List<TradeTaskMetrics.TaskRecord> records = metrics.getRecords("trade1");
+        assertEquals(2, records.size());
+        assertEquals("TakerVerifyAndSignContract", records.get(0).getTaskName());
+        assertEquals(1460, records.get(1).getDuration());
+        assertEquals(TradeTaskMetrics.Outcome.FAILED, records.get(1).getOutcome());
+        assertTrue(metrics.getRecords("unknown").isEmpty());
+    }
+
+    @Test
+    public void testOnlyLastTradesAreKept() {
+        for (int i = 0; i <= TradeTaskMetrics.MAX_TRADES; i++) {
+            metrics.add("trade" + i, record("Task", 0, 1, TradeTaskMetrics.Outcome.COMPLETED));
+        }
+        assertTrue(metrics.getRecords("trade0").isEmpty());
+        assertEquals(1, metrics.getRecords("trade1").size());
+        // Histograms are not affected
+        assertEquals(TradeTaskMetrics.MAX_TRADES + 1, metrics.getHistogram("Task").getCount());
+    }
+
+    @Test
+    public void testRunningTasks() {
+        TradeTaskMetrics.RunningTask verifyContract = new TradeTaskMetrics.RunningTask("TakerVerifyAndSignContract",
+                1000, "UserThread");
+        TradeTaskMetrics.RunningTask publishDepositTx = new TradeTaskMetrics.RunningTask("BuyerAsTakerSignAndPublishDepositTx",
+                1000, "UserThread");
+        metrics.onTaskStarted("trade", verifyContract);
+        metrics.onTaskStarted("trade", publishDepositTx);
+        assertEquals(2, metrics.getRunningTasks("trade").size());
+
+        metrics.onTaskEnded("trade", verifyContract, TradeTaskMetrics.Outcome.COMPLETED);
+        assertEquals(1, metrics.getRecords("trade").size());
+        assertEquals("TakerVerifyAndSignContract", metrics.getRecords("trade").get(0).getTaskName());
+        assertEquals(1000, metrics.getRecords("trade").get(0).getStartTime());
+        assertEquals(1, metrics.getHistogram("TakerVerifyAndSignContract").getCount());
+
+        // The blocking task is shown with the time elapsed since its start
+        assertEquals("\n    BuyerAsTakerSignAndPublishDepositTx: running for 60000 ms, thread UserThread",
+                metrics.getRunningTasksAsString("trade", 61000));
+
+        metrics.onTaskEnded("trade", publishDepositTx, TradeTaskMetrics.Outcome.FAILED);
+        assertTrue(metrics.getRunningTasks("trade").isEmpty());
+        assertEquals("", metrics.getRunningTasksAsString("trade"));
+    }
+
+    @Test
+    public void testRunningTasksOfOnlyLastTradesAreKept() {
+        for (int i = 0; i <= TradeTaskMetrics.MAX_TRADES; i++) {
+            metrics.onTaskStarted("trade" + i, new TradeTaskMetrics.RunningTask("Task", 0, "UserThread"));
+        }
+        assertTrue(metrics.getRunningTasks("trade0").isEmpty());
+        assertEquals(1, metrics.getRunningTasks("trade1").size());
+    }
+
+    @Test
+    public void testHistogram() {
+        long[] durations = {5, 10, 11, 30, 30, 80, 300, 2000, 7000, 200000};
+        for (long duration : durations) {
+            metrics.add("trade", record("Task", 0, duration, TradeTaskMetrics.Outcome.COMPLETED));
+        }
+        metrics.add("trade", record("Task", 0, 20, TradeTaskMetrics.Outcome.FAILED));
+
+        TradeTaskMetrics.Histogram histogram = metrics.getHistogram("Task");
+        assertEquals(11, histogram.getCount());
+        assertEquals(1, histogram.getNumFailed());
+        assertEquals(200000, histogram.getMax());
+        assertArrayEquals(new long[]{2, 2, 2, 1, 0, 1, 0, 1, 0, 1, 0, 0, 0, 1}, histogram.getCounts());
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(10000, histogram.getPercentile(90));
+        assertEquals(200000, histogram.getPercentile(99));
+        assertNull(metrics.getHistogram("Unknown"));
+    }
+
+    @Test
+    public void testCsvExport() {
+        metrics.add("trade", record("TakerVerifyAndSignContract", 0, 40, TradeTaskMetrics.Outcome.COMPLETED));
+        metrics.add("trade", record("MakerProcessPayDepositRequest", 0, 4, TradeTaskMetrics.Outcome.COMPLETED));
+
+        String[] lines = metrics.getHistogramsAsCsv().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("task,count,failed,mean_ms,p50_ms,p90_ms,p99_ms,max_ms,le_10,"));
+        assertTrue(lines[0].endsWith(",le_120000,le_inf"));
+        assertEquals("MakerProcessPayDepositRequest,1,0,4,4,4,4,4,1,0,0,0,0,0,0,0,0,0,0,0,0,0", lines[1]);
+        assertTrue(lines[2].startsWith("TakerVerifyAndSignContract,1,0,40,40,40,40,40,0,0,1,"));
+    }
+
+    private static TradeTaskMetrics.TaskRecord record(String taskName, long startTime, long endTime,
+                                                      TradeTaskMetrics.Outcome outcome) {
+        return new TradeTaskMetrics.TaskRecord(taskName, startTime, endTime, "UserThread", "UserThread", outcome);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.user;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DebouncedPersisterTest {
+    private static class ScheduledTask {
+        private final Runnable task;
+        private final long delayMs;
+        private boolean cancelled;
+
+        private ScheduledTask(Runnable task, long delayMs) {
+            this.task = task;
+            this.delayMs = delayMs;
+        }
+    }
+
+    private final List<ScheduledTask> scheduledTasks = new ArrayList<>();
+    private final List<String> payload = new ArrayList<>();
+    private long bytesWritten;
+    private DebouncedPersister persister;
+
+    @Before
+    public void setUp() {
+        scheduledTasks.clear();
+        payload.clear();
+        bytesWritten = 0;
+        persister = createPersister(DebouncedPersister.QUIET_PERIOD_MS, DebouncedPersister.MAX_DELAY_MS);
+    }
+
+    @Test
+    public void testRequestsGetCoalesced() {
+        for (int i = 0; i < 50; i++) {
+            payload.add("arbitrator" + i);
+            persister.requestPersistence();
+        }
+        assertEquals(0, persister.getNumWrites());
+        assertEquals(1, getNumPendingTasks());
+
+        runPendingTasks();
+
+        assertEquals(50, persister.getNumRequests());
+        assertEquals(1, persister.getNumWrites());
+        assertFalse(persister.isDirty());
+        // Persisting at each request would have serialized the growing payload 50 times
+        long bytesOfFinalPayload = serialize().length;
+        assertEquals(bytesOfFinalPayload, bytesWritten);
+    }
+
+    @Test
+    public void testNoWriteScheduledInsideBatch() {
+        persister.batch(() -> {
+            payload.add("account");
+            persister.requestPersistence();
+            persister.batch(() -> {
+                payload.add("currentAccount");
+                persister.requestPersistence();
+            });
+            assertEquals(0, getNumPendingTasks());
+        });
+        assertEquals(1, getNumPendingTasks());
+
+        runPendingTasks();
+        assertEquals(2, persister.getNumRequests());
+        assertEquals(1, persister.getNumWrites());
+    }
+
+    @Test
+    public void testBatchWithoutChanges() {
+        persister.batch(() -> {
+        });
+        assertEquals(0, getNumPendingTasks());
+        assertEquals(0, persister.getNumWrites());
+    }
+
+    @Test
+    public void testFlush() {
+        persister.flush();
+        assertEquals(0, persister.getNumWrites());
+
+        persister.requestPersistence();
+        persister.flush();
+        assertEquals(1, persister.getNumWrites());
+        assertEquals(0, getNumPendingTasks());
+
+        // Nothing pending anymore
+        runPendingTasks();
+        assertEquals(1, persister.getNumWrites());
+    }
+
+    @Test
+    public void testMaxDelay() {
+        persister = createPersister(DebouncedPersister.QUIET_PERIOD_MS, 0);
+        persister.requestPersistence();
+        assertEquals(0, scheduledTasks.get(scheduledTasks.size() - 1).delayMs);
+    }
+
+    @Test
+    public void testChangesAfterWriteGetPersistedAgain() {
+        persister.requestPersistence();
+        runPendingTasks();
+        persister.requestPersistence();
+        assertTrue(persister.isDirty());
+        runPendingTasks();
+        assertEquals(2, persister.getNumWrites());
+    }
+
+    private DebouncedPersister createPersister(long quietPeriodMs, long maxDelayMs) {
+        return new DebouncedPersister("Test",
+                () -> bytesWritten += serialize().length,
+                quietPeriodMs,
+                maxDelayMs,
+                (task, delayMs) -> {
+                    ScheduledTask scheduledTask = new ScheduledTask(task, delayMs);
+                    scheduledTasks.add(scheduledTask);
+                    return () -> scheduledTask.cancelled = true;
+                });
+    }
+
+    private byte[] serialize() {
+        return String.join(",", payload).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long getNumPendingTasks() {
+        return scheduledTasks.stream().filter(scheduledTask -> !scheduledTask.cancelled).count();
+    }
+
+    private void runPendingTasks() {
+        new ArrayList<>(scheduledTasks).stream()
+                .filter(scheduledTask -> !scheduledTask.cancelled)
+                .forEach(scheduledTask -> {
+                    scheduledTask.cancelled = true;
+                    scheduledTask.task.run();
+                });
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.util;
+
+import bisq.core.locale.GlobalSettings;
+import bisq.core.locale.Res;
+import bisq.core.monetary.Altcoin;
+import bisq.core.monetary.Price;
+import bisq.core.monetary.Volume;
+
+import bisq.common.util.MathUtils;
+
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.utils.Fiat;
+import org.bitcoinj.utils.MonetaryFormat;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+// Verifies that the formatter produces the same output as the MonetaryFormat and DecimalFormat based implementation
+public class BSFormatterTest {
+    private static final int NUM_VALUES = 2_000;
+
+    private BSFormatter formatter;
+    private Random random;
+
+    @Before
+    public void setup() {
+        Locale.setDefault(Locale.US);
+        GlobalSettings.setLocale(Locale.US);
+        Res.setBaseCurrencyCode("BTC");
+        Res.setBaseCurrencyName("Bitcoin");
+        formatter = new BSFormatter();
+        random = new Random(1);
+    }
+
+    @Test
+    public void testFixedPointFormat() {
+        assertFixedPointFormat(new FixedPointFormat(Coin.SMALLEST_UNIT_EXPONENT, 0, 2, 2, 3), MonetaryFormat.BTC.noCode());
+        assertFixedPointFormat(new FixedPointFormat(Coin.SMALLEST_UNIT_EXPONENT, 3, 2, 1, 3),
+                new MonetaryFormat().shift(3).minDecimals(2).repeatOptionalDecimals(1, 3).noCode());
+        assertFixedPointFormat(new FixedPointFormat(Coin.SMALLEST_UNIT_EXPONENT, 6, 2),
+                new MonetaryFormat().shift(6).minDecimals(2).noCode());
+        assertFixedPointFormat(new FixedPointFormat(Coin.SMALLEST_UNIT_EXPONENT, 0, 0, 1, 4),
+                MonetaryFormat.BTC.noCode().minDecimals(0).repeatOptionalDecimals(1, 4));
+        assertFixedPointFormat(new FixedPointFormat(Coin.SMALLEST_UNIT_EXPONENT, 0, 8),
+                new MonetaryFormat().shift(0).minDecimals(8).repeatOptionalDecimals(0, 0).noCode());
+        assertFixedPointFormat(new FixedPointFormat(Fiat.SMALLEST_UNIT_EXPONENT, 0, 4),
+                new MonetaryFormat().shift(0).minDecimals(4).repeatOptionalDecimals(0, 0).noCode());
+        assertFixedPointFormat(new FixedPointFormat(Fiat.SMALLEST_UNIT_EXPONENT, 0, 2),
+                new MonetaryFormat().shift(0).minDecimals(2).repeatOptionalDecimals(0, 0).noCode());
+    }
+
+    @Test
+    public void testFormatPriceAndVolume() {
+        MonetaryFormat fiatPriceFormat = new MonetaryFormat().shift(0).minDecimals(4).repeatOptionalDecimals(0, 0).noCode();
+        MonetaryFormat fiatVolumeFormat = new MonetaryFormat().shift(0).minDecimals(2).repeatOptionalDecimals(0, 0).noCode();
+        MonetaryFormat altcoinFormat = new MonetaryFormat().shift(0).minDecimals(8).repeatOptionalDecimals(0, 0).noCode();
+        MonetaryFormat bsqVolumeFormat = altcoinFormat.minDecimals(3);
+        for (int i = 0; i < NUM_VALUES; i++) {
+            long value = getRandomValue();
+            Fiat fiat = Fiat.valueOf("EUR", value);
+            Altcoin altcoin = Altcoin.valueOf("XMR", value);
+            Altcoin bsq = Altcoin.valueOf("BSQ", value);
+
+            assertEquals(fiatPriceFormat.format(fiat).toString(), formatter.formatPrice(Price.valueOf("EUR", value)));
+            assertEquals(fiatPriceFormat.format(fiat) + " EUR", formatter.formatFiat(fiat, formatter.fiatPriceFormat, true));
+            assertEquals(fiatVolumeFormat.format(fiat).toString(), formatter.formatVolume(new Volume(fiat)));
+            assertEquals(altcoinFormat.format(altcoin).toString(), formatter.formatPrice(Price.valueOf("XMR", value)));
+            assertEquals(altcoinFormat.format(altcoin) + " XMR", formatter.formatAltcoinWithCode(altcoin));
+            assertEquals(bsqVolumeFormat.format(bsq) + " BSQ", formatter.formatVolumeWithCode(new Volume(bsq)));
+        }
+    }
+
+    @Test
+    public void testFormatCoin() {
+        MonetaryFormat coinFormat = MonetaryFormat.BTC;
+        for (int i = 0; i < NUM_VALUES; i++) {
+            Coin coin = Coin.valueOf(getRandomValue());
+            int decimalPlaces = i % 6 - 1;
+            String expected = decimalPlaces < 0 || decimalPlaces > 4 ?
+                    coinFormat.noCode().format(coin).toString() :
+                    coinFormat.noCode().minDecimals(decimalPlaces).repeatOptionalDecimals(1, decimalPlaces).format(coin).toString();
+            assertEquals(expected, formatter.formatCoin(coin, decimalPlaces));
+            assertEquals(coinFormat.postfixCode().format(coin).toString(), formatter.formatCoinWithCode(coin));
+        }
+    }
+
+    @Test
+    public void testFormatRoundedDoubleWithPrecision() {
+        DecimalFormat decimalFormat = new DecimalFormat("#.#");
+        for (int i = 0; i < NUM_VALUES; i++) {
+            double value = (random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(7));
+            int precision = i % 9;
+            decimalFormat.setMinimumFractionDigits(precision);
+            decimalFormat.setMaximumFractionDigits(precision);
+            String expected = decimalFormat.format(MathUtils.roundDouble(value, precision)).replace(",", ".");
+            assertEquals(expected, formatter.formatRoundedDoubleWithPrecision(value, precision));
+        }
+        assertEquals("12.35%", formatter.formatToPercentWithSymbol(0.123456));
+        assertEquals("0.00", formatter.formatToPercent(0));
+    }
+
+    @Test
+    public void testFormatRoundedDoubleWithPrecisionOfNegativeValues() {
+        DecimalFormat decimalFormat = new DecimalFormat("#.#");
+        decimalFormat.setMinimumFractionDigits(2);
+        decimalFormat.setMaximumFractionDigits(2);
+        // Values which are rounded to zero must keep the sign if the former DecimalFormat kept it
+        double[] values = {-0.001, -0.004, -0.005, -0.0049, -0.0051, -0.0, -1e-9, -0.01, -12.345};
+        for (double value : values) {
+            String expected = decimalFormat.format(MathUtils.roundDouble(value, 2)).replace(",", ".");
+            assertEquals(expected, formatter.formatRoundedDoubleWithPrecision(value, 2));
+            expected = decimalFormat.format(MathUtils.roundDouble(value * 100.0, 2)).replace(",", ".");
+            assertEquals(expected, formatter.formatToPercent(value));
+        }
+        assertEquals("-12.35%", formatter.formatToPercentWithSymbol(-0.123456));
+    }
+
+    @Test
+    public void testFormatDateTime() {
+        Date date = new Date(1530000000000L);
+        String expected = DateFormat.getDateInstance(DateFormat.DEFAULT, Locale.US).format(date) + " " +
+                DateFormat.getTimeInstance(DateFormat.DEFAULT, Locale.US).format(date);
+        assertEquals(expected, formatter.formatDateTime(date));
+
+        GlobalSettings.setLocale(Locale.GERMANY);
+        assertEquals(DateFormat.getDateInstance(DateFormat.DEFAULT, Locale.GERMANY).format(date), formatter.formatDate(date));
+    }
+
+    @Test
+    public void testGetCurrencyPair() {
+        assertEquals("BTC/EUR", formatter.getCurrencyPair("EUR"));
+        assertEquals("XMR/BTC", formatter.getCurrencyPair("XMR"));
+        assertEquals("BTC/EUR", formatter.getCurrencyPair("EUR"));
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        List<Long> values = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < NUM_VALUES; i++) {
+            long value = getRandomValue();
+            values.add(value);
+            expected.add(format(value));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    List<String> result = new ArrayList<>();
+                    values.forEach(value -> result.add(format(value)));
+                    return result;
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String format(long value) {
+        return formatter.formatPrice(Price.valueOf("EUR", value)) + "|" +
+                formatter.formatAltcoin(Altcoin.valueOf("XMR", value)) + "|" +
+                formatter.formatCoin(Coin.valueOf(value), 2) + "|" +
+                formatter.formatRoundedDoubleWithPrecision(value / 1000d, 3) + "|" +
+                formatter.formatDateTime(new Date(Math.abs(value)));
+    }
+
+    private void assertFixedPointFormat(FixedPointFormat fixedPointFormat, MonetaryFormat monetaryFormat) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NUM_VALUES; i++) {
+            long value = getRandomValue();
+            String expected = fixedPointFormat.getSmallestUnitExponent() == Fiat.SMALLEST_UNIT_EXPONENT ?
+                    monetaryFormat.format(Fiat.valueOf("EUR", value)).toString() :
+                    monetaryFormat.format(Coin.valueOf(value)).toString();
+            assertEquals(expected, fixedPointFormat.format(value));
+
+            sb.setLength(0);
+            assertEquals(expected, fixedPointFormat.appendTo(sb, value).toString());
+        }
+    }
+
+    // Mix of small values, values with trailing zeros, values at rounding boundaries and large values
+    private long getRandomValue() {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(200_000) - 50_000;
+            case 1:
+                return (random.nextInt(2000) - 500) * (long) Math.pow(10, random.nextInt(9));
+            case 2:
+                return random.nextInt(10) * 5 * (long) Math.pow(10, random.nextInt(9));
+            default:
+                return random.nextLong() / 1000;
+        }
+    }
+}